@@ -0,0 +1,3 @@
+module rodeo.password.cli {
+    requires rodeo.password.pgencheck;
+}
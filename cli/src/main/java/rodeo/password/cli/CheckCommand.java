@@ -0,0 +1,119 @@
+package rodeo.password.cli;
+
+import rodeo.password.pgencheck.PasswordCheckStatus;
+import rodeo.password.pgencheck.PasswordChecker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Checks passwords read from an input stream, one per line, and writes the status of each of them followed by a tab
+ * and the password (only rejected passwords with <code>--invalid-only</code>).
+ * <p>
+ * The input is read in blocks of <code>--chunk</code> KiB, cut after their last line feed; decoding, splitting and
+ * checking happen on the worker threads, so the reading thread only moves bytes around.
+ */
+final class CheckCommand {
+
+    /**
+     * Counts of checked and rejected passwords.
+     */
+    static final class Counts {
+        long checked;
+        long rejected;
+    }
+
+    private static final class Chunk {
+        final byte[] output;
+        final int checked;
+        final int rejected;
+
+        Chunk(byte[] output, int checked, int rejected) {
+            this.output = output;
+            this.checked = checked;
+            this.rejected = rejected;
+        }
+    }
+
+    // the largest array size supported by common JVMs
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+    private CheckCommand() {
+        throw new UnsupportedOperationException();
+    }
+
+    static Counts run(PasswordChecker checker, Options options, InputStream in, OutputStream out)
+            throws IOException, InterruptedException
+    {
+        var counts = new Counts();
+        boolean invalidOnly = options.invalidOnly;
+        try (var pipeline = new OrderedPipeline<Chunk>(options.threads, chunk -> {
+            out.write(chunk.output);
+            counts.checked += chunk.checked;
+            counts.rejected += chunk.rejected;
+        })) {
+            var buffer = new byte[options.chunk * 1024];
+            int filled = 0;
+            int read;
+            while ((read = in.read(buffer, filled, buffer.length - filled)) >= 0) {
+                filled += read;
+                if (filled < buffer.length)
+                    continue;
+
+                int end = lastLineFeed(buffer, filled);
+                if (end < 0) {  // a single line longer than the buffer
+                    if (buffer.length == MAX_BUFFER_SIZE)
+                        throw new IOException("line longer than " + MAX_BUFFER_SIZE + " bytes");
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(2L * buffer.length, MAX_BUFFER_SIZE));
+                    continue;
+                }
+                var block = Arrays.copyOf(buffer, end + 1);
+                pipeline.submit(() -> check(checker, block, invalidOnly));
+                System.arraycopy(buffer, end + 1, buffer, 0, filled - end - 1);
+                filled -= end + 1;
+            }
+            if (filled > 0) {
+                var block = Arrays.copyOf(buffer, filled);
+                pipeline.submit(() -> check(checker, block, invalidOnly));
+            }
+            pipeline.finish();
+        }
+        out.flush();
+        return counts;
+    }
+
+    private static int lastLineFeed(byte[] buffer, int length) {
+        for (int i = length - 1; i >= 0; --i)
+            if (buffer[i] == '\n')
+                return i;
+        return -1;
+    }
+
+    private static Chunk check(PasswordChecker checker, byte[] block, boolean invalidOnly) {
+        var text = new String(block, StandardCharsets.UTF_8);
+        var output = new StringBuilder(invalidOnly ? 0 : text.length() + text.length() / 2);
+        int checked = 0;
+        int rejected = 0;
+        for (int start = 0; start < text.length(); ) {
+            int lineFeed = text.indexOf('\n', start);
+            int next = lineFeed < 0 ? text.length() : lineFeed + 1;
+            int end = lineFeed < 0 ? text.length() : lineFeed;
+            if (end > start && text.charAt(end - 1) == '\r')
+                --end;
+
+            String password = text.substring(start, end);
+            var status = checker.check(password);
+            ++checked;
+            if (status != PasswordCheckStatus.OK)
+                ++rejected;
+            if (!invalidOnly || status != PasswordCheckStatus.OK)
+                output.append(status.name()).append('\t').append(password).append('\n');
+            start = next;
+        }
+        return new Chunk(output.toString().getBytes(StandardCharsets.UTF_8), checked, rejected);
+    }
+
+}
@@ -0,0 +1,56 @@
+package rodeo.password.cli;
+
+import rodeo.password.pgencheck.PasswordMaker;
+import rodeo.password.pgencheck.ReproducibleUIntGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generates passwords in work units of <code>--chunk</code> passwords, one line per password.
+ * <p>
+ * With <code>--seed</code>, password <i>k</i> is generated from its own
+ * {@link ReproducibleUIntGenerator#forPassword(long, long) ReproducibleUIntGenerator.forPassword(seed, k)}, so the
+ * output only depends on the seed and the policy, not on the number of threads or the chunk size.
+ */
+final class GenerateCommand {
+
+    // larger work units grow their buffer as needed instead of reserving it upfront
+    private static final int MAX_INITIAL_CAPACITY = 1 << 24;
+
+    private GenerateCommand() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write <code>options.count</code> passwords to <code>out</code> and return the number of passwords written.
+     */
+    static long run(PasswordMaker maker, Options options, OutputStream out)
+            throws IOException, InterruptedException
+    {
+        try (var pipeline = new OrderedPipeline<byte[]>(options.threads, out::write)) {
+            for (long start = 0; start < options.count; start += options.chunk) {
+                long first = start;
+                long end = Math.min(options.count, start + options.chunk);
+                pipeline.submit(() -> generate(maker, options.seed, first, end));
+            }
+            pipeline.finish();
+        }
+        out.flush();
+        return options.count;
+    }
+
+    private static byte[] generate(PasswordMaker maker, Long seed, long first, long end) {
+        long capacity = (end - first) * (maker.getLength() + 1L);
+        var passwords = new StringBuilder((int) Math.min(capacity, MAX_INITIAL_CAPACITY));
+        for (long index = first; index < end; ++index) {
+            passwords.append(seed == null
+                    ? maker.create()
+                    : maker.create(ReproducibleUIntGenerator.forPassword(seed, index)));
+            passwords.append('\n');
+        }
+        return passwords.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,84 @@
+package rodeo.password.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Command-line entry point: <code>password-rodeo generate</code> writes passwords to the standard output and
+ * <code>password-rodeo check</code> validates passwords read from the standard input. Run with <code>--help</code>
+ * for the list of options.
+ * <p>
+ * Exit status: 0 on success, 1 if <code>check</code> rejected at least one password, 2 on invalid arguments or
+ * policy, 3 on I/O errors.
+ */
+public final class Main {
+
+    static final int OK = 0;
+    static final int REJECTED = 1;
+    static final int BAD_ARGUMENTS = 2;
+    static final int IO_ERROR = 3;
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private Main() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    static int run(String[] args, InputStream in, OutputStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("password-rodeo: " + e.getMessage());
+            err.println(Options.USAGE);
+            return BAD_ARGUMENTS;
+        }
+        if (options.help) {
+            err.println(Options.USAGE);
+            return OK;
+        }
+
+        try {
+            var policy = options.policy();
+            var buffered = new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE);
+            long start = System.nanoTime();
+            if (options.command.equals("generate")) {
+                long count = GenerateCommand.run(policy.getMaker(), options, buffered);
+                report(options, err, "generated", count, start, "");
+                return OK;
+            }
+
+            var counts = CheckCommand.run(policy.getChecker(), options, in, buffered);
+            report(options, err, "checked", counts.checked, start, ", " + counts.rejected + " rejected");
+            return counts.rejected == 0 ? OK : REJECTED;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            err.println("password-rodeo: invalid policy: " + e.getMessage());
+            return BAD_ARGUMENTS;
+        } catch (IOException e) {
+            err.println("password-rodeo: " + e.getMessage());
+            return IO_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("password-rodeo: interrupted");
+            return IO_ERROR;
+        }
+    }
+
+    private static void report(Options options, PrintStream err, String verb, long count, long start, String extra) {
+        if (options.quiet)
+            return;
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        err.println(String.format(Locale.ROOT, "password-rodeo: %s %d passwords in %.3f s (%.0f/s, %d threads)%s",
+                verb, count, seconds, count / seconds, options.threads, extra));
+    }
+
+}
@@ -0,0 +1,246 @@
+package rodeo.password.cli;
+
+import rodeo.password.pgencheck.PasswordPolicy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Command-line options. Policy options are turned into the properties read by
+ * {@link PasswordPolicy#fromProperties(Properties) PasswordPolicy.fromProperties}, on top of those of the policy file
+ * if there is one.
+ */
+final class Options {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "usage: password-rodeo generate [options] [count]",
+            "       password-rodeo check [options] < passwords",
+            "",
+            "Policy options:",
+            "  --policy FILE          read the policy from a properties file",
+            "  --min-length N         minimum length accepted by check",
+            "  --max-length N         maximum length accepted by check",
+            "  --length N             length of generated passwords",
+            "  --group SPEC           character group: a CharacterGroups name (LOWER_CASE, DIGITS, etc.) or the",
+            "                         characters of the group, optionally followed by :min or :min:max;",
+            "                         replaces the groups of the policy file, can be repeated",
+            "  --max-repeated N       maximum number of identical consecutive characters",
+            "  --max-sequence N       maximum length of character sequences",
+            "  --sequence CHARS       character sequence, such as a keyboard row; can be repeated",
+            "",
+            "Other options:",
+            "  --threads N            number of worker threads (default: number of processors)",
+            "  --chunk N              passwords per work unit with generate, KiB of input with check;",
+            "                         at most 1048576 for both",
+            "  --seed N               generate reproducible passwords from a seed",
+            "  --invalid-only         with check, only output rejected passwords",
+            "  --quiet                do not report throughput on the standard error",
+            "  --help                 print this message",
+            "",
+            "Without a policy file or --group, passwords must contain lower-case letters, upper-case letters and",
+            "digits, at least one of each.",
+            "check writes the status of each password, a tab and the password, and exits with status 1 if any",
+            "password was rejected.");
+
+    private static final int DEFAULT_GENERATE_CHUNK = 8192;
+    private static final int DEFAULT_CHECK_CHUNK_KIB = 1024;
+    // keeps the buffers sized from --chunk within array limits: 1 GiB of input, or 1 Mi passwords per work unit
+    private static final int MAX_CHUNK = 1 << 20;
+
+    String command;
+    long count = 1;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int chunk = 0;
+    Long seed = null;
+    boolean invalidOnly = false;
+    boolean quiet = false;
+    boolean help = false;
+
+    private Path policyFile = null;
+    private final Properties policyProperties = new Properties();
+    private final List<String> groups = new ArrayList<>();
+    private final List<String> sequences = new ArrayList<>();
+
+    private Options() { }
+
+    /**
+     * Parse the command-line arguments.
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    static Options parse(String... args) {
+        var options = new Options();
+        boolean countSet = false;
+        for (int i = 0; i < args.length; ++i) {
+            String arg = args[i];
+            switch (arg) {
+                case "--help":
+                case "-h":
+                    options.help = true;
+                    break;
+                case "--policy":
+                    options.policyFile = Path.of(value(args, ++i, arg));
+                    break;
+                case "--min-length":
+                    options.policyProperties.setProperty("minLength", value(args, ++i, arg));
+                    break;
+                case "--max-length":
+                    options.policyProperties.setProperty("maxLength", value(args, ++i, arg));
+                    break;
+                case "--length":
+                    options.policyProperties.setProperty("length", value(args, ++i, arg));
+                    break;
+                case "--group":
+                    options.groups.add(value(args, ++i, arg));
+                    break;
+                case "--max-repeated":
+                    options.policyProperties.setProperty("maxRepeatedCharacters", value(args, ++i, arg));
+                    break;
+                case "--max-sequence":
+                    options.policyProperties.setProperty("maxSequenceLength", value(args, ++i, arg));
+                    break;
+                case "--sequence":
+                    options.sequences.add(value(args, ++i, arg));
+                    break;
+                case "--threads":
+                    options.threads = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--chunk":
+                    options.chunk = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--seed":
+                    options.seed = parseLong(value(args, ++i, arg), arg);
+                    break;
+                case "--invalid-only":
+                    options.invalidOnly = true;
+                    break;
+                case "--quiet":
+                case "-q":
+                    options.quiet = true;
+                    break;
+                default:
+                    if (arg.startsWith("-"))
+                        throw new IllegalArgumentException("unknown option: " + arg);
+                    if (options.command == null)
+                        options.command = arg;
+                    else if (options.command.equals("generate") && !countSet) {
+                        options.count = parseLong(arg, "count");
+                        if (options.count < 0)
+                            throw new IllegalArgumentException("count cannot be negative: " + arg);
+                        countSet = true;
+                    } else
+                        throw new IllegalArgumentException("unexpected argument: " + arg);
+            }
+        }
+
+        if (options.help)
+            return options;
+        if (options.command == null)
+            throw new IllegalArgumentException("missing command");
+        if (!options.command.equals("generate") && !options.command.equals("check"))
+            throw new IllegalArgumentException("unknown command: " + options.command);
+        if (options.chunk == 0)
+            options.chunk = options.command.equals("generate") ? DEFAULT_GENERATE_CHUNK : DEFAULT_CHECK_CHUNK_KIB;
+        if (options.chunk > MAX_CHUNK)
+            throw new IllegalArgumentException(
+                    "invalid value for --chunk: " + options.chunk + " (at most " + MAX_CHUNK + ")");
+
+        return options;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length)
+            throw new IllegalArgumentException("missing value for " + option);
+        return args[index];
+    }
+
+    private static long parseLong(String value, String option) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid value for " + option + ": " + value);
+        }
+    }
+
+    private static int positiveInt(String value, String option) {
+        long result = parseLong(value, option);
+        if (result < 1 || result > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("invalid value for " + option + ": " + value);
+        return (int) result;
+    }
+
+    /**
+     * Returns the policy defined by the policy file, if any, and the policy options.
+     * @throws IOException if the policy file cannot be read
+     * @throws IllegalArgumentException if the policy is invalid
+     * @throws IllegalStateException if the policy is invalid
+     */
+    PasswordPolicy policy() throws IOException {
+        var properties = new Properties();
+        if (policyFile != null)
+            try (Reader reader = Files.newBufferedReader(policyFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        properties.putAll(policyProperties);
+
+        // a length outside of the default checker bounds widens them rather than being rejected
+        String lengthValue = policyProperties.getProperty("length", "").trim();
+        if (isNumber(lengthValue) && !properties.containsKey("minLength") && !properties.containsKey("maxLength")) {
+            int length = Integer.parseInt(lengthValue);
+            properties.setProperty("minLength", Integer.toString(Math.min(16, length)));
+            properties.setProperty("maxLength", Integer.toString(Math.max(64, length)));
+        }
+
+        if (!groups.isEmpty()) {
+            properties.stringPropertyNames().stream()
+                    .filter(key -> key.startsWith("group."))
+                    .forEach(properties::remove);
+            for (int i = 0; i < groups.size(); ++i)
+                putGroup(properties, i + 1, groups.get(i));
+        } else if (!properties.containsKey("group.1")) {
+            putGroup(properties, 1, "LOWER_CASE:1");
+            putGroup(properties, 2, "UPPER_CASE:1");
+            putGroup(properties, 3, "DIGITS:1");
+        }
+
+        if (!sequences.isEmpty()) {
+            properties.stringPropertyNames().stream()
+                    .filter(key -> key.startsWith("sequence."))
+                    .forEach(properties::remove);
+            for (int i = 0; i < sequences.size(); ++i)
+                properties.setProperty("sequence." + (i + 1), sequences.get(i));
+        }
+
+        return PasswordPolicy.fromProperties(properties);
+    }
+
+    // group specifications end with up to two numeric :min and :max suffixes
+    private static void putGroup(Properties properties, int n, String spec) {
+        String key = "group." + n;
+        var counts = new ArrayList<String>();
+        String chars = spec;
+        while (counts.size() < 2) {
+            int colon = chars.lastIndexOf(':');
+            if (colon <= 0 || !isNumber(chars.substring(colon + 1)))
+                break;
+            counts.add(0, chars.substring(colon + 1));
+            chars = chars.substring(0, colon);
+        }
+
+        properties.setProperty(key, chars);
+        if (counts.size() > 0)
+            properties.setProperty(key + ".min", counts.get(0));
+        if (counts.size() > 1)
+            properties.setProperty(key + ".max", counts.get(1));
+    }
+
+    private static boolean isNumber(String value) {
+        return !value.isEmpty() && value.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+
+}
@@ -0,0 +1,80 @@
+package rodeo.password.cli;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs work units on a pool of worker threads and hands their results over, in submission order, to the thread
+ * submitting them.
+ * <p>
+ * At most two units per worker are in flight: when that limit is reached, {@link #submit(Callable) submit} first
+ * waits for the oldest unit and passes its result to the sink. Memory use is therefore bounded whatever the amount of
+ * input, and the submitting thread, which reads the input and writes the output, never sits idle while the workers
+ * have something to do.
+ */
+final class OrderedPipeline<T> implements AutoCloseable {
+
+    /**
+     * Receives the results of the work units, in order, on the submitting thread.
+     */
+    @FunctionalInterface
+    interface Sink<T> {
+        void accept(T result) throws IOException;
+    }
+
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final ArrayDeque<Future<T>> inFlight;
+    private final Sink<T> sink;
+
+    OrderedPipeline(int threads, Sink<T> sink) {
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "password-rodeo-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maxInFlight = 2 * threads;
+        inFlight = new ArrayDeque<>(maxInFlight);
+        this.sink = sink;
+    }
+
+    void submit(Callable<T> unit) throws IOException, InterruptedException {
+        if (inFlight.size() >= maxInFlight)
+            drainOne();
+        inFlight.add(executor.submit(unit));
+    }
+
+    /**
+     * Wait for all submitted units and pass their results to the sink.
+     */
+    void finish() throws IOException, InterruptedException {
+        while (!inFlight.isEmpty())
+            drainOne();
+    }
+
+    private void drainOne() throws IOException, InterruptedException {
+        T result;
+        try {
+            result = inFlight.remove().get();
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+        sink.accept(result);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,172 @@
+package rodeo.password.cli;
+
+import org.junit.jupiter.api.Test;
+
+import rodeo.password.pgencheck.PasswordCheckStatus;
+import rodeo.password.pgencheck.PasswordChecker;
+import rodeo.password.pgencheck.PasswordPolicy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+
+public class TestCli {
+
+    private static final class Result {
+        final int status;
+        final String out;
+        final String err;
+
+        Result(int status, String out, String err) {
+            this.status = status;
+            this.out = out;
+            this.err = err;
+        }
+
+        List<String> lines() {
+            return out.isEmpty() ? List.of() : List.of(out.split("\n"));
+        }
+    }
+
+    private static Result run(String input, String... args) {
+        var out = new ByteArrayOutputStream();
+        var err = new ByteArrayOutputStream();
+        int status = Main.run(args, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out,
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+        return new Result(status, out.toString(StandardCharsets.UTF_8), err.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void generate() {
+        var result = run("", "generate", "--length", "12", "--group", "LOWER_CASE:2", "--group", "DIGITS:1:3",
+                "--threads", "4", "--chunk", "100", "10000");
+        assertEquals(Main.OK, result.status);
+        assertTrue(result.err.contains("generated 10000 passwords"), result.err);
+
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(12, 12)
+                .addCharGroup(LOWER_CASE, 2)
+                .addCharGroup(DIGITS, 1, 3)
+                .create();
+        var lines = result.lines();
+        assertEquals(10000, lines.size());
+        for (String password: lines)
+            assertEquals(PasswordCheckStatus.OK, checker.check(password), password);
+        assertEquals(10000, new HashSet<>(lines).size());
+    }
+
+    @Test
+    public void seededOutputIsIndependentOfThreadsAndChunks() {
+        var reference = run("", "generate", "--seed", "42", "--threads", "1", "--chunk", "5000", "--quiet", "1000");
+        var parallel = run("", "generate", "--seed", "42", "--threads", "8", "--chunk", "7", "--quiet", "1000");
+        assertEquals("", reference.err);
+        assertEquals(1000, reference.lines().size());
+        assertEquals(reference.out, parallel.out);
+        assertNotEquals(reference.out, run("", "generate", "--seed", "43", "--quiet", "1000").out);
+    }
+
+    @Test
+    public void checkPreservesOrder() {
+        var input = new StringBuilder();
+        var expected = new StringBuilder();
+        for (int i = 0; i < 50_000; ++i) {
+            String password = i % 3 == 0 ? "Sh" + i : "Password" + i + "x";
+            input.append(password).append(i % 2 == 0 ? "\n" : "\r\n");
+            expected.append(i % 3 == 0 ? "TOO_SHORT" : "OK").append('\t').append(password).append('\n');
+        }
+
+        var result = run(input.toString(), "check", "--min-length", "10", "--max-length", "20",
+                "--threads", "4", "--chunk", "1");
+        assertEquals(Main.REJECTED, result.status);
+        assertEquals(expected.toString(), result.out);
+        assertTrue(result.err.contains("checked 50000 passwords"), result.err);
+        assertTrue(result.err.contains("16667 rejected"), result.err);
+    }
+
+    @Test
+    public void checkInvalidOnly() {
+        var result = run("abcdefghij1\nabcdefghij\nABCDEFGHIJ1", "check", "--group", "LOWER_CASE", "--group",
+                "UPPER_CASE", "--group", "DIGITS:1", "--min-length", "8", "--invalid-only", "--quiet");
+        assertEquals(Main.REJECTED, result.status);
+        assertEquals("NOT_ENOUGH_OF_CHARACTER_GROUP\tabcdefghij\n", result.out);
+
+        result = run("abcdefghij1\n", "check", "--min-length", "8", "--group", "LOWER_CASE", "--group", "DIGITS",
+                "--invalid-only", "--quiet");
+        assertEquals(Main.OK, result.status);
+        assertEquals("", result.out);
+    }
+
+    @Test
+    public void longLines() {
+        String password = "a".repeat(5000) + "\n";
+        var result = run(password + password, "check", "--group", "LOWER_CASE", "--min-length", "1",
+                "--max-length", "10000", "--chunk", "1", "--quiet");
+        assertEquals(Main.OK, result.status);
+        assertEquals(2, result.lines().size());
+    }
+
+    @Test
+    public void policyFile() throws IOException {
+        Path file = Files.createTempFile("policy", ".properties");
+        try {
+            Files.writeString(file, String.join("\n",
+                    "length = 20",
+                    "minLength = 20",
+                    "maxLength = 20",
+                    "group.1 = LOWER_CASE",
+                    "group.2 = 0123456789",
+                    "group.2.min = 5"));
+            var properties = new Properties();
+            try (var reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+            var policy = PasswordPolicy.fromProperties(properties);
+
+            var result = run("", "generate", "--policy", file.toString(), "--quiet", "100");
+            assertEquals(Main.OK, result.status);
+            for (String password: result.lines())
+                assertEquals(PasswordCheckStatus.OK, policy.getChecker().check(password), password);
+
+            result = run("", "generate", "--policy", file.toString(), "--group", "UPPER_CASE", "--quiet", "10");
+            for (String password: result.lines())
+                assertTrue(password.chars().allMatch(Character::isUpperCase), password);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void badArguments() {
+        assertEquals(Main.BAD_ARGUMENTS, run("").status);
+        assertEquals(Main.BAD_ARGUMENTS, run("", "frobnicate").status);
+        assertEquals(Main.BAD_ARGUMENTS, run("", "generate", "--threads", "0").status);
+        assertEquals(Main.BAD_ARGUMENTS, run("", "generate", "--chunk", "1048577").status);
+        assertEquals(Main.BAD_ARGUMENTS, run("", "check", "--chunk", "2097152").status);
+        assertEquals(Main.BAD_ARGUMENTS, run("", "--chunk", "2147483647", "check").status);
+        assertEquals(Main.BAD_ARGUMENTS, run("", "check", "--chunk", "2147483648").status);
+        assertEquals(Main.BAD_ARGUMENTS, run("", "generate", "--bogus").status);
+        assertEquals(Main.BAD_ARGUMENTS, run("", "generate", "--length").status);
+
+        var result = run("", "generate", "--group", "abc", "--group", "cde");
+        assertEquals(Main.BAD_ARGUMENTS, result.status);
+        assertTrue(result.err.contains("invalid policy"), result.err);
+
+        assertEquals(Main.IO_ERROR, run("", "generate", "--policy", "/does/not/exist.properties").status);
+        assertEquals(Main.OK, run("", "--help").status);
+    }
+
+}
@@ -0,0 +1,5 @@
+module rodeo.password.http {
+    requires transitive rodeo.password.pgencheck;
+    requires jdk.httpserver;
+    exports rodeo.password.http;
+}
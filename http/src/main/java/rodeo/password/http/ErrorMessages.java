@@ -0,0 +1,27 @@
+package rodeo.password.http;
+
+final class ErrorMessages {
+
+    static final String BIND_ADDRESS_NULL = "Bind address cannot be null";
+
+    static final String EXECUTOR_NULL = "Executor cannot be null";
+
+    static final String MAX_GENERATE_COUNT_TOO_SMALL = "Maximum generate count must be at least 1. Value received: ";
+
+    static final String MAX_REQUEST_SIZE_TOO_SMALL = "Maximum request size must be at least 64. Value received: ";
+
+    static final String NO_POLICY_PROVIDED = "A policy must be specified before a PasswordServer can be created";
+
+    static final String POLICY_NULL = "Policy cannot be null";
+
+    static final String PORT_OUT_OF_RANGE = "Port must be between 0 and 65535. Value received: ";
+
+    static final String SERVER_ALREADY_STARTED = "Server already started";
+
+    static final String SERVER_NOT_STARTED = "Server not started";
+
+    private ErrorMessages() {
+        throw new UnsupportedOperationException();
+    }
+
+}
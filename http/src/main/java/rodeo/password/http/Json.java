@@ -0,0 +1,188 @@
+package rodeo.password.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal JSON support, written out by hand rather than through reflection: string escaping for the responses, and a
+ * parser for the flat objects of string members the endpoints accept as requests.
+ */
+final class Json {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Json() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Append <code>value</code> to <code>json</code> as a quoted JSON string.
+     */
+    static StringBuilder appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029)
+                        json.append("\\u").append(HEX[c >> 12]).append(HEX[c >> 8 & 0xF])
+                                .append(HEX[c >> 4 & 0xF]).append(HEX[c & 0xF]);
+                    else
+                        json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    /**
+     * Parse a JSON object whose members are all strings or <code>null</code>; <code>null</code> members are left
+     * out of the returned map.
+     * @throws IllegalArgumentException if <code>text</code> is not such an object, or if a member is repeated
+     */
+    static Map<String, String> parseObject(String text) {
+        return new Parser(text).object();
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private int position = 0;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> object() {
+            var members = new LinkedHashMap<String, String>();
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String name = string();
+                    expect(':');
+                    String value = consumeLiteral("null") ? null : string();
+                    if (members.containsKey(name))
+                        throw error("duplicate member \"" + name + "\"");
+                    members.put(name, value);
+                } while (consume(','));
+                expect('}');
+            }
+            skipWhiteSpace();
+            if (position != text.length())
+                throw error("unexpected content after object");
+
+            members.values().removeIf(value -> value == null);
+            return members;
+        }
+
+        private String string() {
+            expect('"');
+            var value = new StringBuilder();
+            while (true) {
+                if (position >= text.length())
+                    throw error("unterminated string");
+                char c = text.charAt(position++);
+                if (c == '"')
+                    return value.toString();
+                if (c < 0x20)
+                    throw error("control character in string");
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+
+                if (position >= text.length())
+                    throw error("unterminated string");
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        value.append(escaped);
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length())
+                            throw error("truncated unicode escape");
+                        int code = 0;
+                        for (int i = 0; i < 4; ++i) {
+                            int digit = Character.digit(text.charAt(position++), 16);
+                            if (digit < 0)
+                                throw error("invalid unicode escape");
+                            code = code << 4 | digit;
+                        }
+                        value.append((char) code);
+                        break;
+                    default:
+                        throw error("invalid escape \\" + escaped);
+                }
+            }
+        }
+
+        private void skipWhiteSpace() {
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+                    return;
+                ++position;
+            }
+        }
+
+        private boolean consume(char c) {
+            skipWhiteSpace();
+            if (position < text.length() && text.charAt(position) == c) {
+                ++position;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean consumeLiteral(String literal) {
+            skipWhiteSpace();
+            if (text.startsWith(literal, position)) {
+                position += literal.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c))
+                throw error("expected '" + c + "'");
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at offset " + position + ": " + message);
+        }
+
+    }
+
+}
@@ -0,0 +1,456 @@
+package rodeo.password.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import rodeo.password.pgencheck.PasswordContext;
+import rodeo.password.pgencheck.PasswordPolicy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static rodeo.password.http.ErrorMessages.BIND_ADDRESS_NULL;
+import static rodeo.password.http.ErrorMessages.EXECUTOR_NULL;
+import static rodeo.password.http.ErrorMessages.MAX_GENERATE_COUNT_TOO_SMALL;
+import static rodeo.password.http.ErrorMessages.MAX_REQUEST_SIZE_TOO_SMALL;
+import static rodeo.password.http.ErrorMessages.NO_POLICY_PROVIDED;
+import static rodeo.password.http.ErrorMessages.POLICY_NULL;
+import static rodeo.password.http.ErrorMessages.PORT_OUT_OF_RANGE;
+import static rodeo.password.http.ErrorMessages.SERVER_ALREADY_STARTED;
+import static rodeo.password.http.ErrorMessages.SERVER_NOT_STARTED;
+
+/**
+ * An embedded HTTP server exposing a <code>PasswordPolicy</code> as a JSON API, built on the JDK's
+ * <code>com.sun.net.httpserver</code>.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li><code>POST /check</code>: the body is a JSON object with a <code>password</code> member and optionally
+ *     <code>userName</code>, <code>email</code>, <code>displayName</code> and <code>previousPassword</code> members
+ *     forming a <code>PasswordContext</code>; the response is <code>{"status":"OK"}</code> or the status of the first
+ *     error found, as returned by <code>PasswordChecker.check</code>;</li>
+ *     <li><code>POST /fullCheck</code>: same request, the response also lists all the errors found by
+ *     <code>PasswordChecker.fullCheck</code>, with their details, under <code>errors</code>;</li>
+ *     <li><code>GET /generate?count=<i>n</i></code>: the response lists <i>n</i> (1 by default) new passwords under
+ *     <code>passwords</code>.</li>
+ * </ul>
+ * Malformed requests get a <code>400</code> response, request bodies larger than the configured limit a
+ * <code>413</code> one, with an <code>error</code> member describing the problem.
+ * <p>
+ * Every response has a fixed length, so HTTP/1.1 clients can keep their connections alive across requests. Requests
+ * are handled by a virtual thread each when the JVM supports them (Java 21 and later), by a fixed pool of platform
+ * threads otherwise, unless an executor is given to the factory.
+ * <p>
+ * The JDK server sends response headers and bodies in separate writes, which Nagle's algorithm, combined with delayed
+ * acknowledgements, stalls for tens of milliseconds on kept-alive connections. Applications sensitive to latency
+ * should disable Nagle's algorithm by starting the JVM with <code>-Dsun.net.httpserver.nodelay=true</code>. This
+ * setting applies to every <code>HttpServer</code> of the JVM and is read once, when the first one is created, so
+ * this class leaves it to the application.
+ */
+public final class PasswordServer implements AutoCloseable {
+
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final PasswordPolicy policy;
+    private final InetSocketAddress address;
+    private final int backlog;
+    private final int maxRequestSize;
+    private final int maxGenerateCount;
+    private final Executor executor;
+
+    private HttpServer server;
+    private ExecutorService ownedExecutor;
+
+    private PasswordServer(Factory factory) {
+        policy = factory.policy;
+        address = new InetSocketAddress(factory.bindAddress, factory.port);
+        backlog = factory.backlog;
+        maxRequestSize = factory.maxRequestSize;
+        maxGenerateCount = factory.maxGenerateCount;
+        executor = factory.executor;
+    }
+
+    /**
+     * Create a factory to specify the server parameters and create a <code>PasswordServer</code> object.
+     * @return an internal <code>PasswordServer</code> factory
+     * @see PasswordServer.Factory
+     */
+    public static Factory factory() {
+        return new Factory();
+    }
+
+    /**
+     * Bind the server to its address and start handling requests.
+     * @throws IOException if the server cannot be bound
+     * @throws IllegalStateException if the server has already been started
+     */
+    public synchronized void start() throws IOException {
+        if (server != null)
+            throw new IllegalStateException(SERVER_ALREADY_STARTED);
+
+        server = HttpServer.create(address, backlog);
+        server.createContext("/", this::handle);
+        if (executor != null)
+            server.setExecutor(executor);
+        else {
+            ownedExecutor = newRequestExecutor();
+            server.setExecutor(ownedExecutor);
+        }
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens to, which is only known after start when the factory port is
+     * <code>0</code> (zero).
+     * @return the server port
+     * @throws IllegalStateException if the server has not been started
+     */
+    public synchronized int getPort() {
+        if (server == null)
+            throw new IllegalStateException(SERVER_NOT_STARTED);
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stop the server, waiting up to <code>delaySeconds</code> for requests in progress to complete.
+     * @param delaySeconds maximum time to wait, in seconds
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null)
+            return;
+
+        server.stop(delaySeconds);
+        server = null;
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            ownedExecutor = null;
+        }
+    }
+
+    /**
+     * Stop the server immediately.
+     */
+    @Override
+    public void close() {
+        stop(0);
+    }
+
+    // one virtual thread per request on Java 21+, looked up reflectively since this module targets Java 11
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()),
+                    runnable -> {
+                        var thread = new Thread(runnable, "password-rodeo-http");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            switch (path) {
+                case "/check":
+                case "/fullCheck":
+                    if (!method.equals("POST"))
+                        methodNotAllowed(exchange, "POST");
+                    else
+                        check(exchange, path.equals("/fullCheck"));
+                    break;
+                case "/generate":
+                    if (!method.equals("GET"))
+                        methodNotAllowed(exchange, "GET");
+                    else
+                        generate(exchange);
+                    break;
+                default:
+                    send(exchange, 404, Responses.error("Unknown endpoint: " + path));
+            }
+        } catch (BadRequestException e) {
+            send(exchange, e.status, Responses.error(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void check(HttpExchange exchange, boolean full) throws IOException {
+        Map<String, String> request;
+        try {
+            request = Json.parseObject(readBody(exchange));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(400, e.getMessage());
+        }
+
+        String password = request.remove("password");
+        if (password == null)
+            throw new BadRequestException(400, "Missing member: password");
+
+        PasswordContext context = null;
+        if (!request.isEmpty()) {
+            var contextFactory = PasswordContext.factory();
+            for (var member: request.entrySet()) {
+                switch (member.getKey()) {
+                    case "userName":
+                        contextFactory.setUserName(member.getValue());
+                        break;
+                    case "email":
+                        contextFactory.setEmail(member.getValue());
+                        break;
+                    case "displayName":
+                        contextFactory.setDisplayName(member.getValue());
+                        break;
+                    case "previousPassword":
+                        contextFactory.setPreviousPassword(member.getValue());
+                        break;
+                    default:
+                        throw new BadRequestException(400, "Unknown member: " + member.getKey());
+                }
+            }
+            context = contextFactory.create();
+        }
+
+        var checker = policy.getChecker();
+        if (full)
+            send(exchange, 200, Responses.errors(context == null
+                    ? checker.fullCheck(password)
+                    : checker.fullCheck(password, context)));
+        else
+            send(exchange, 200, Responses.status(context == null
+                    ? checker.check(password)
+                    : checker.check(password, context)));
+    }
+
+    private void generate(HttpExchange exchange) throws IOException {
+        readBody(exchange);
+        int count = generateCount(exchange.getRequestURI());
+
+        var maker = policy.getMaker();
+        var passwords = new ArrayList<String>(count);
+        for (int i = 0; i < count; ++i)
+            passwords.add(maker.create());
+        send(exchange, 200, Responses.passwords(passwords));
+    }
+
+    private int generateCount(URI uri) {
+        String query = uri.getRawQuery();
+        if (query == null || query.isEmpty())
+            return 1;
+
+        int count = 1;
+        for (String parameter: query.split("&")) {
+            if (!parameter.startsWith("count="))
+                throw new BadRequestException(400, "Unknown parameter: " + parameter);
+            try {
+                count = Integer.parseInt(parameter.substring("count=".length()));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException(400, "Invalid count: " + parameter.substring("count=".length()));
+            }
+        }
+        if (count < 1 || count > maxGenerateCount)
+            throw new BadRequestException(400, "Count must be between 1 and " + maxGenerateCount + ": " + count);
+        return count;
+    }
+
+    // reads the whole body, rejecting it as soon as it exceeds the limit
+    private String readBody(HttpExchange exchange) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > maxRequestSize)
+                    throw tooLarge();
+            } catch (NumberFormatException e) {
+                throw new BadRequestException(400, "Invalid Content-Length: " + contentLength);
+            }
+        }
+
+        var body = new ByteArrayOutputStream(Math.min(maxRequestSize, 1024));
+        var buffer = new byte[Math.min(maxRequestSize + 1, 8192)];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                body.write(buffer, 0, read);
+                if (body.size() > maxRequestSize)
+                    throw tooLarge();
+            }
+        }
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private BadRequestException tooLarge() {
+        return new BadRequestException(413, "Request body larger than " + maxRequestSize + " bytes");
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        send(exchange, 405, Responses.error("Method not allowed: " + exchange.getRequestMethod()));
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static final class BadRequestException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        BadRequestException(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+
+    }
+
+    /**
+     * Internal factory to create <code>PasswordServer</code> objects.
+     * <p>
+     * This factory class allows you to configure a <code>PasswordServer</code> using a fluent interface. You create a
+     * <code>Factory</code> by calling {@link PasswordServer#factory() PasswordServer.factory()}.
+     * Once all the parameters have been specified, you call the {@link #create() create} function
+     * to create a <code>PasswordServer</code> object.
+     */
+    public static final class Factory {
+
+        private PasswordPolicy policy;
+        private InetAddress bindAddress = InetAddress.getLoopbackAddress();
+        private int port = 8080;
+        private int backlog = 0;
+        private int maxRequestSize = 4096;
+        private int maxGenerateCount = 100;
+        private Executor executor = null;
+
+        private Factory() { }
+
+        /**
+         * Sets the policy used to check and generate passwords. This is mandatory.
+         * @param policy the password policy
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>policy</code> is <code>null</code>
+         */
+        public Factory setPolicy(PasswordPolicy policy) {
+            if (policy == null)
+                throw new NullPointerException(POLICY_NULL);
+
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * Sets the address the server binds to. The default is the loopback address.
+         * @param bindAddress the bind address
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>bindAddress</code> is <code>null</code>
+         */
+        public Factory setBindAddress(InetAddress bindAddress) {
+            if (bindAddress == null)
+                throw new NullPointerException(BIND_ADDRESS_NULL);
+
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        /**
+         * Sets the port the server listens to. The default is 8080; <code>0</code> (zero) picks a free port, returned
+         * by {@link PasswordServer#getPort() getPort()} once the server is started.
+         * @param port the server port
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>port</code> is not between 0 and 65535
+         */
+        public Factory setPort(int port) {
+            if (port < 0 || port > 65535)
+                throw new IllegalArgumentException(PORT_OUT_OF_RANGE + port);
+
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of pending connections. The default, <code>0</code> (zero), uses the system
+         * default.
+         * @param backlog the connection backlog
+         * @return <code>this</code> factory
+         */
+        public Factory setBacklog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of request bodies, in bytes. Larger requests get a <code>413</code> response. The
+         * default is 4096.
+         * @param maxRequestSize the maximum request body size
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>maxRequestSize &lt; 64</code>
+         */
+        public Factory setMaxRequestSize(int maxRequestSize) {
+            if (maxRequestSize < 64)
+                throw new IllegalArgumentException(MAX_REQUEST_SIZE_TOO_SMALL + maxRequestSize);
+
+            this.maxRequestSize = maxRequestSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of passwords a single <code>/generate</code> request can ask for. The default is
+         * 100.
+         * @param maxGenerateCount the maximum password count
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>maxGenerateCount &lt; 1</code>
+         */
+        public Factory setMaxGenerateCount(int maxGenerateCount) {
+            if (maxGenerateCount < 1)
+                throw new IllegalArgumentException(MAX_GENERATE_COUNT_TOO_SMALL + maxGenerateCount);
+
+            this.maxGenerateCount = maxGenerateCount;
+            return this;
+        }
+
+        /**
+         * Sets the executor handling requests, instead of the default one: a virtual thread per request on Java 21
+         * and later, a fixed pool of platform threads otherwise. The server does not shut down an executor set here.
+         * @param executor the request executor
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>executor</code> is <code>null</code>
+         */
+        public Factory setExecutor(Executor executor) {
+            if (executor == null)
+                throw new NullPointerException(EXECUTOR_NULL);
+
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Create a <code>PasswordServer</code> with the specified parameters. The server must then be started with
+         * {@link PasswordServer#start() start()}.
+         * @return a new <code>PasswordServer</code>
+         * @throws IllegalStateException if no policy has been specified
+         */
+        public PasswordServer create() {
+            if (policy == null)
+                throw new IllegalStateException(NO_POLICY_PROVIDED);
+
+            return new PasswordServer(this);
+        }
+
+    }
+
+}
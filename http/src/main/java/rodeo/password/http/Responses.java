@@ -0,0 +1,92 @@
+package rodeo.password.http;
+
+import rodeo.password.pgencheck.BadCountForCharacterTypeError;
+import rodeo.password.pgencheck.CharacterSequenceError;
+import rodeo.password.pgencheck.ForbiddenSubstringError;
+import rodeo.password.pgencheck.IllegalCharacterError;
+import rodeo.password.pgencheck.PasswordCheckError;
+import rodeo.password.pgencheck.PasswordCheckStatus;
+import rodeo.password.pgencheck.RepeatedCharactersError;
+import rodeo.password.pgencheck.TooSimilarError;
+
+import java.util.List;
+
+/**
+ * JSON bodies of the server responses.
+ */
+final class Responses {
+
+    private Responses() {
+        throw new UnsupportedOperationException();
+    }
+
+    static String status(PasswordCheckStatus status) {
+        return "{\"status\":\"" + status.name() + "\"}";
+    }
+
+    static String errors(List<PasswordCheckError> errors) {
+        var json = new StringBuilder(64 + 96 * errors.size());
+        json.append("{\"status\":\"")
+                .append(errors.isEmpty() ? PasswordCheckStatus.OK.name() : errors.get(0).getErrorType().name())
+                .append("\",\"errors\":[");
+        for (int i = 0; i < errors.size(); ++i) {
+            if (i > 0)
+                json.append(',');
+            appendError(json, errors.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void appendError(StringBuilder json, PasswordCheckError error) {
+        json.append("{\"status\":\"").append(error.getErrorType().name()).append('"');
+
+        if (error instanceof IllegalCharacterError) {
+            json.append(",\"character\":");
+            Json.appendString(json, ((IllegalCharacterError) error).getIllegalCharacter());
+        } else if (error instanceof BadCountForCharacterTypeError) {
+            var badCount = (BadCountForCharacterTypeError) error;
+            json.append(",\"group\":").append(badCount.getCharacterGroupIndex())
+                    .append(",\"expected\":").append(badCount.getExpectedCount())
+                    .append(",\"actual\":").append(badCount.getActualCount());
+        } else if (error instanceof RepeatedCharactersError) {
+            var repeated = (RepeatedCharactersError) error;
+            json.append(",\"character\":");
+            Json.appendString(json, repeated.getRepeatedCharacter());
+            json.append(",\"length\":").append(repeated.getLength())
+                    .append(",\"maxLength\":").append(repeated.getMaxLength());
+        } else if (error instanceof CharacterSequenceError) {
+            var sequence = (CharacterSequenceError) error;
+            json.append(",\"sequence\":");
+            Json.appendString(json, sequence.getSequence());
+            json.append(",\"length\":").append(sequence.getLength())
+                    .append(",\"maxLength\":").append(sequence.getMaxLength());
+        } else if (error instanceof ForbiddenSubstringError) {
+            var forbidden = (ForbiddenSubstringError) error;
+            json.append(",\"substring\":");
+            Json.appendString(json, forbidden.getForbiddenSubstring());
+            json.append(",\"index\":").append(forbidden.getIndex());
+        } else if (error instanceof TooSimilarError) {
+            var tooSimilar = (TooSimilarError) error;
+            json.append(",\"distance\":").append(tooSimilar.getDistance())
+                    .append(",\"minDistance\":").append(tooSimilar.getMinDistance());
+        }
+
+        json.append('}');
+    }
+
+    static String passwords(List<String> passwords) {
+        var json = new StringBuilder(16 + passwords.size() * (passwords.isEmpty() ? 0 : passwords.get(0).length() + 3));
+        json.append("{\"passwords\":[");
+        for (int i = 0; i < passwords.size(); ++i) {
+            if (i > 0)
+                json.append(',');
+            Json.appendString(json, passwords.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    static String error(String message) {
+        return Json.appendString(new StringBuilder("{\"error\":"), message).append('}').toString();
+    }
+
+}
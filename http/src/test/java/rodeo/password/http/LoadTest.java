@@ -0,0 +1,98 @@
+package rodeo.password.http;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test against a <code>PasswordServer</code> on localhost, reporting throughput and latency percentiles. Not run
+ * by the test suite; run it with:
+ * <pre>
+ * java -Dsun.net.httpserver.nodelay=true -cp ... rodeo.password.http.LoadTest [clients [seconds [endpoint]]]
+ * </pre>
+ * where <code>endpoint</code> is <code>check</code> (default), <code>fullCheck</code> or <code>generate</code>.
+ * Each client thread sends requests back to back over a kept-alive connection.
+ */
+public final class LoadTest {
+
+    private static final String[] PASSWORDS = {
+            "abcDEF123", "abc", "Password1", "ABCDEFGHIJ", "x1Y2z3W4v5U6", "tooLongPassword123456789012345678"
+    };
+
+    private LoadTest() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String endpoint = args.length > 2 ? args[2] : "check";
+
+        try (var server = PasswordServer.factory().setPolicy(TestPasswordServer.POLICY).setPort(0).create()) {
+            server.start();
+            int port = server.getPort();
+
+            // warm-up, then measured run
+            run(port, clients, Math.max(1, seconds / 5), endpoint);
+            long[] latencies = run(port, clients, seconds, endpoint);
+
+            System.out.printf(Locale.ROOT, "%s: %d clients, %d requests in %d s, %.0f requests/s%n",
+                    endpoint, clients, latencies.length, seconds, latencies.length / (double) seconds);
+            System.out.printf(Locale.ROOT, "latency (µs): p50 %d, p90 %d, p99 %d, p99.9 %d, max %d%n",
+                    percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                    percentile(latencies, 99.9), latencies.length == 0 ? 0 : latencies[latencies.length - 1]);
+        }
+    }
+
+    // returns the sorted latencies of all requests, in microseconds
+    private static long[] run(int port, int clients, int seconds, String endpoint) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        var executor = Executors.newFixedThreadPool(clients);
+        var tasks = new ArrayList<Callable<long[]>>();
+        for (int client = 0; client < clients; ++client) {
+            int offset = client;
+            tasks.add(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    send(port, endpoint, PASSWORDS[(offset + count) % PASSWORDS.length]);
+                    if (count == latencies.length)
+                        latencies = Arrays.copyOf(latencies, 2 * count);
+                    latencies[count++] = (System.nanoTime() - start) / 1000;
+                }
+                return Arrays.copyOf(latencies, count);
+            });
+        }
+
+        List<long[]> results = new ArrayList<>();
+        for (var future: executor.invokeAll(tasks))
+            results.add(future.get());
+        executor.shutdown();
+
+        long[] all = results.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static void send(int port, String endpoint, String password) throws IOException {
+        var response = endpoint.equals("generate")
+                ? TestPasswordServer.request(port, "GET", "/generate", null)
+                : TestPasswordServer.request(port, "POST", "/" + endpoint, "{\"password\":\"" + password + "\"}");
+        if (response.status != 200)
+            throw new IOException("Unexpected status " + response.status + ": " + response.body);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0)
+            return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+}
@@ -0,0 +1,47 @@
+package rodeo.password.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestJson {
+
+    private static String quote(String value) {
+        return Json.appendString(new StringBuilder(), value).toString();
+    }
+
+    @Test
+    public void appendString() {
+        assertEquals("\"abc\"", quote("abc"));
+        assertEquals("\"a\\\"b\\\\c\"", quote("a\"b\\c"));
+        assertEquals("\"\\n\\r\\t\\u0001\\u001f\\u2028\"", quote("\n\r\t\u0001\u001f\u2028"));
+        assertEquals("\"é😀/\"", quote("é😀/"));
+    }
+
+    @Test
+    public void parseObject() {
+        assertEquals(Map.of(), Json.parseObject("{}"));
+        assertEquals(Map.of(), Json.parseObject(" { } "));
+        assertEquals(Map.of("password", "abc", "email", "x@y.z"),
+                Json.parseObject("{\"password\": \"abc\", \"email\" : \"x@y.z\"}"));
+        assertEquals(Map.of("a", "\"\\/\b\f\n\r\té😀"),
+                Json.parseObject("{\"a\":\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u00e9\\ud83d\\ude00\"}"));
+        assertEquals(Map.of("b", "x"), Json.parseObject("{\"a\":null,\"b\":\"x\"}"));
+
+        String roundTrip = "a\"\\\n\u0000\u2029z";
+        assertEquals(Map.of("k", roundTrip), Json.parseObject("{\"k\":" + quote(roundTrip) + "}"));
+    }
+
+    @Test
+    public void invalidJson() {
+        for (String json: new String[] {
+                "", "[]", "{", "{\"a\"}", "{\"a\":1}", "{\"a\":\"b\",}", "{\"a\":\"b\"} x", "{a:\"b\"}",
+                "{\"a\":\"\\x\"}", "{\"a\":\"\\u12\"}", "{\"a\":\"b\n\"}", "{\"a\":\"b\",\"a\":\"c\"}", "{\"a\":\"b"
+        })
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject(json), json);
+    }
+
+}
@@ -0,0 +1,205 @@
+package rodeo.password.http;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import rodeo.password.pgencheck.CharacterGroups;
+import rodeo.password.pgencheck.PasswordCheckStatus;
+import rodeo.password.pgencheck.PasswordPolicy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.http.ErrorMessages.MAX_GENERATE_COUNT_TOO_SMALL;
+import static rodeo.password.http.ErrorMessages.MAX_REQUEST_SIZE_TOO_SMALL;
+import static rodeo.password.http.ErrorMessages.NO_POLICY_PROVIDED;
+import static rodeo.password.http.ErrorMessages.POLICY_NULL;
+import static rodeo.password.http.ErrorMessages.PORT_OUT_OF_RANGE;
+import static rodeo.password.http.ErrorMessages.SERVER_ALREADY_STARTED;
+import static rodeo.password.http.ErrorMessages.SERVER_NOT_STARTED;
+
+public class TestPasswordServer {
+
+    static final PasswordPolicy POLICY = PasswordPolicy.factory()
+            .setMinMaxLength(8, 32)
+            .setLength(12)
+            .addCharGroup(CharacterGroups.LOWER_CASE, 1)
+            .addCharGroup(CharacterGroups.UPPER_CASE, 1)
+            .addCharGroup(CharacterGroups.DIGITS, 1)
+            .create();
+
+    private static PasswordServer server;
+
+    static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        server = PasswordServer.factory()
+                .setPolicy(POLICY)
+                .setPort(0)
+                .setMaxRequestSize(256)
+                .setMaxGenerateCount(50)
+                .create();
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.close();
+    }
+
+    static Response request(int port, String method, String path, String body) throws IOException {
+        var connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (var out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            var bytes = new ByteArrayOutputStream();
+            in.transferTo(bytes);
+            return new Response(status, bytes.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Response request(String method, String path, String body) throws IOException {
+        return request(server.getPort(), method, path, body);
+    }
+
+    @Test
+    public void check() throws IOException {
+        var response = request("POST", "/check", "{\"password\":\"abcDEF123\"}");
+        assertEquals(200, response.status);
+        assertEquals("{\"status\":\"OK\"}", response.body);
+
+        response = request("POST", "/check", "{\"password\":\"abc\"}");
+        assertEquals("{\"status\":\"TOO_SHORT\"}", response.body);
+
+        response = request("POST", "/check", "{\"password\":\"Jsmith2024x\",\"userName\":\"jsmith\"}");
+        assertEquals("{\"status\":\"FORBIDDEN_SUBSTRING\"}", response.body);
+
+        response = request("POST", "/check",
+                "{\"password\":\"Summer2024a\",\"previousPassword\":\"Summer2024b\"}");
+        assertEquals("{\"status\":\"TOO_SIMILAR\"}", response.body);
+    }
+
+    @Test
+    public void fullCheck() throws IOException {
+        var response = request("POST", "/fullCheck", "{\"password\":\"abcDEF123\"}");
+        assertEquals(200, response.status);
+        assertEquals("{\"status\":\"OK\",\"errors\":[]}", response.body);
+
+        response = request("POST", "/fullCheck", "{\"password\":\"ab\\\"é\"}");
+        assertEquals("{\"status\":\"TOO_SHORT\",\"errors\":["
+                + "{\"status\":\"TOO_SHORT\"},"
+                + "{\"status\":\"ILLEGAL_CHARACTER\",\"character\":\"\\\"\"},"
+                + "{\"status\":\"ILLEGAL_CHARACTER\",\"character\":\"é\"},"
+                + "{\"status\":\"NOT_ENOUGH_OF_CHARACTER_GROUP\",\"group\":1,\"expected\":1,\"actual\":0},"
+                + "{\"status\":\"NOT_ENOUGH_OF_CHARACTER_GROUP\",\"group\":2,\"expected\":1,\"actual\":0}]}",
+                response.body);
+    }
+
+    @Test
+    public void generate() throws IOException {
+        var response = request("GET", "/generate", null);
+        assertEquals(200, response.status);
+        assertTrue(response.body.matches("\\{\"passwords\":\\[\"[a-zA-Z0-9]{12}\"]}"), response.body);
+
+        response = request("GET", "/generate?count=50", null);
+        assertEquals(200, response.status);
+        var matcher = Pattern.compile("\"([^\"]*)\"").matcher(response.body);
+        assertTrue(matcher.find());
+        assertEquals("passwords", matcher.group(1));
+        int count = 0;
+        for (; matcher.find(); ++count)
+            assertEquals(PasswordCheckStatus.OK, POLICY.getChecker().check(matcher.group(1)), matcher.group(1));
+        assertEquals(50, count);
+
+        assertEquals(400, request("GET", "/generate?count=51", null).status);
+        assertEquals(400, request("GET", "/generate?count=0", null).status);
+        assertEquals(400, request("GET", "/generate?count=ten", null).status);
+        assertEquals(400, request("GET", "/generate?size=10", null).status);
+    }
+
+    @Test
+    public void badRequests() throws IOException {
+        assertEquals(404, request("GET", "/nowhere", null).status);
+        assertEquals(405, request("GET", "/check", null).status);
+        assertEquals(405, request("POST", "/generate", "{}").status);
+
+        var response = request("POST", "/check", "{\"pwd\":\"abc\"}");
+        assertEquals(400, response.status);
+        assertEquals("{\"error\":\"Missing member: password\"}", response.body);
+
+        response = request("POST", "/check", "{\"password\":\"abc\",\"mail\":\"x\"}");
+        assertEquals(400, response.status);
+        assertEquals("{\"error\":\"Unknown member: mail\"}", response.body);
+
+        assertEquals(400, request("POST", "/check", "{\"password\":").status);
+
+        response = request("POST", "/check", "{\"password\":\"" + "a".repeat(300) + "\"}");
+        assertEquals(413, response.status);
+        assertEquals("{\"error\":\"Request body larger than 256 bytes\"}", response.body);
+    }
+
+    @Test
+    public void customExecutor() throws IOException {
+        var executor = Executors.newSingleThreadExecutor();
+        try (var other = PasswordServer.factory().setPolicy(POLICY).setPort(0).setExecutor(executor).create()) {
+            other.start();
+            assertEquals("{\"status\":\"OK\"}",
+                    request(other.getPort(), "POST", "/check", "{\"password\":\"abcDEF123\"}").body);
+        }
+        assertFalse(executor.isShutdown());
+        executor.shutdown();
+    }
+
+    @Test
+    public void badParameters() throws IOException {
+        var npe = assertThrows(NullPointerException.class, () -> PasswordServer.factory().setPolicy(null));
+        assertEquals(POLICY_NULL, npe.getMessage());
+
+        var iae = assertThrows(IllegalArgumentException.class, () -> PasswordServer.factory().setPort(65536));
+        assertEquals(PORT_OUT_OF_RANGE + 65536, iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> PasswordServer.factory().setMaxRequestSize(63));
+        assertEquals(MAX_REQUEST_SIZE_TOO_SMALL + 63, iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> PasswordServer.factory().setMaxGenerateCount(0));
+        assertEquals(MAX_GENERATE_COUNT_TOO_SMALL + 0, iae.getMessage());
+
+        var ise = assertThrows(IllegalStateException.class, () -> PasswordServer.factory().create());
+        assertEquals(NO_POLICY_PROVIDED, ise.getMessage());
+
+        var notStarted = PasswordServer.factory().setPolicy(POLICY).setPort(0).create();
+        ise = assertThrows(IllegalStateException.class, notStarted::getPort);
+        assertEquals(SERVER_NOT_STARTED, ise.getMessage());
+
+        ise = assertThrows(IllegalStateException.class, () -> server.start());
+        assertEquals(SERVER_ALREADY_STARTED, ise.getMessage());
+    }
+
+}
@@ -1,25 +1,35 @@
 package rodeo.password.pgencheck;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 
 import static rodeo.password.pgencheck.ErrorMessages.CHAR_GROUP_EMPTY;
 import static rodeo.password.pgencheck.ErrorMessages.CHAR_GROUP_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.CHAR_SEQUENCE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.CHAR_SEQUENCE_TOO_SHORT;
 import static rodeo.password.pgencheck.ErrorMessages.DUPLICATE_CHARS_FOUND_IN_GROUP;
 import static rodeo.password.pgencheck.ErrorMessages.DUPLICATE_CHARS_FOUND_IN_OTHER_GROUP;
+import static rodeo.password.pgencheck.ErrorMessages.DUPLICATE_CHARS_FOUND_IN_SEQUENCE;
 import static rodeo.password.pgencheck.ErrorMessages.MAX_BIGGER_THAN_MIN;
 import static rodeo.password.pgencheck.ErrorMessages.MAX_CHAR_COUNT_NEG;
+import static rodeo.password.pgencheck.ErrorMessages.MAX_REPEATED_CHARS_NEG;
+import static rodeo.password.pgencheck.ErrorMessages.MAX_SEQUENCE_LENGTH_INVALID;
 import static rodeo.password.pgencheck.ErrorMessages.MIN_CHAR_COUNT_NEG;
+import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_CHAR_SEQUENCES;
 
 abstract class AbstractFactory<F extends AbstractFactory<F>> {
 
     private final List<String> charGroups = new ArrayList<>();
     private final List<Integer> groupMinCounts = new ArrayList<>();
     private final List<Integer> groupMaxCounts = new ArrayList<>();
+    private final List<CompiledCharGroup> compiledCharGroups = new ArrayList<>();
 
     private boolean disallowDuplicateCharacters = true;
 
+    private int maxRepeatedCharacters = 0;
+    private int maxSequenceLength = 0;
+    private final List<String> characterSequences = new ArrayList<>();
+
     List<String> charGroups() {
         return charGroups;
     }
@@ -32,10 +42,6 @@ abstract class AbstractFactory<F extends AbstractFactory<F>> {
         return groupMaxCounts;
     }
 
-    List<String> charGroupsCopy() {
-        return new ArrayList<>(charGroups);
-    }
-
     List<Integer> groupMinCountsCopy() {
         return new ArrayList<>(groupMinCounts);
     }
@@ -44,6 +50,10 @@ abstract class AbstractFactory<F extends AbstractFactory<F>> {
         return new ArrayList<>(groupMaxCounts);
     }
 
+    CompiledCharGroup[] compiledCharGroups() {
+        return compiledCharGroups.toArray(new CompiledCharGroup[0]);
+    }
+
     F addCharGroup(String charGroup) {
         return addCharGroup(charGroup, 0);
     }
@@ -53,9 +63,21 @@ abstract class AbstractFactory<F extends AbstractFactory<F>> {
     }
 
     F addCharGroup(String charGroup, int minCount, int maxCount) {
+        return addCharGroup(CompiledCharGroup.of(charGroup), minCount, maxCount);
+    }
+
+    F addCharGroup(CompiledCharGroup charGroup) {
+        return addCharGroup(charGroup, 0);
+    }
+
+    F addCharGroup(CompiledCharGroup charGroup, int minCount) {
+        return addCharGroup(charGroup, minCount, 0);
+    }
+
+    F addCharGroup(CompiledCharGroup charGroup, int minCount, int maxCount) {
         if (charGroup == null)
             throw new NullPointerException(CHAR_GROUP_NULL);
-        if (charGroup.isEmpty())
+        if (charGroup.size() == 0)
             throw new IllegalArgumentException(CHAR_GROUP_EMPTY);
         if (minCount < 0)
             throw new IllegalArgumentException(MIN_CHAR_COUNT_NEG + minCount);
@@ -65,49 +87,72 @@ abstract class AbstractFactory<F extends AbstractFactory<F>> {
             throw new IllegalArgumentException(MAX_BIGGER_THAN_MIN + maxCount + " < " + minCount);
 
         if (disallowDuplicateCharacters) {
-            var duplicates = getGroupDuplicates(charGroup);
-            if (!duplicates.isEmpty())
-                throw new IllegalArgumentException(DUPLICATE_CHARS_FOUND_IN_GROUP + duplicates);
-            duplicates = getInterGroupDuplicates(charGroup);
+            if (!charGroup.duplicates().isEmpty())
+                throw new IllegalArgumentException(DUPLICATE_CHARS_FOUND_IN_GROUP + charGroup.duplicates());
+            var duplicates = getInterGroupDuplicates(charGroup);
             if (!duplicates.isEmpty())
                 throw new IllegalArgumentException(DUPLICATE_CHARS_FOUND_IN_OTHER_GROUP + duplicates);
         }
 
-        charGroups.add(charGroup);
+        compiledCharGroups.add(charGroup);
+        charGroups.add(charGroup.getChars());
         groupMinCounts.add(minCount);
         groupMaxCounts.add(maxCount);
 
         return getThis();
     }
 
-    private String getGroupDuplicates(String charGroup) {
-        var counts = new  LinkedHashMap<Integer, Integer>();
-        for (int codePoint: charGroup.codePoints().toArray())
-            counts.merge(codePoint, 1, Integer::sum);
-
+    private String getInterGroupDuplicates(CompiledCharGroup charGroup) {
         var duplicates = new StringBuilder();
-        for (var codePointCount: counts.entrySet())
-            if (codePointCount.getValue() > 1)
-                duplicates.appendCodePoint(codePointCount.getKey());
+        for (var group: compiledCharGroups)
+            duplicates.append(charGroup.commonCharacters(group));
 
         return duplicates.toString();
     }
 
-    private String getInterGroupDuplicates(String charGroup) {
-        var duplicates = new StringBuilder();
-        for (String group: charGroups)
-            for (int codePoint: charGroup.codePoints().toArray())
-                if (group.indexOf(codePoint) != -1)
-                    duplicates.appendCodePoint(codePoint);
+    F disallowDuplicateCharacters(boolean disallowDuplicateCharacters) {
+        this.disallowDuplicateCharacters = disallowDuplicateCharacters;
+        return getThis();
+    }
 
-        return duplicates.toString();
+    F setMaxRepeatedCharacters(int maxRepeatedCharacters) {
+        if (maxRepeatedCharacters < 0)
+            throw new IllegalArgumentException(MAX_REPEATED_CHARS_NEG + maxRepeatedCharacters);
+
+        this.maxRepeatedCharacters = maxRepeatedCharacters;
+        return getThis();
     }
 
-    F disallowDuplicateCharacters(boolean disallowDuplicateCharacters) {
-        this.disallowDuplicateCharacters = disallowDuplicateCharacters;
+    F setMaxSequenceLength(int maxSequenceLength) {
+        if (maxSequenceLength < 0 || maxSequenceLength == 1)
+            throw new IllegalArgumentException(MAX_SEQUENCE_LENGTH_INVALID + maxSequenceLength);
+
+        this.maxSequenceLength = maxSequenceLength;
+        return getThis();
+    }
+
+    F addCharacterSequence(String sequence) {
+        if (sequence == null)
+            throw new NullPointerException(CHAR_SEQUENCE_NULL);
+        if (sequence.codePointCount(0, sequence.length()) < 2)
+            throw new IllegalArgumentException(CHAR_SEQUENCE_TOO_SHORT + sequence);
+        var duplicates = CompiledCharGroup.of(sequence).duplicates();
+        if (!duplicates.isEmpty())
+            throw new IllegalArgumentException(DUPLICATE_CHARS_FOUND_IN_SEQUENCE + duplicates);
+        if (characterSequences.size() >= SequenceRules.MAX_CHARACTER_SEQUENCES)
+            throw new IllegalArgumentException(TOO_MANY_CHAR_SEQUENCES + SequenceRules.MAX_CHARACTER_SEQUENCES);
+
+        characterSequences.add(sequence);
         return getThis();
     }
 
+    SequenceRules sequenceRules() {
+        if (maxRepeatedCharacters == 0 && maxSequenceLength == 0)
+            return SequenceRules.NONE;
+
+        return new SequenceRules(maxRepeatedCharacters, maxSequenceLength, new ArrayList<>(characterSequences));
+    }
+
     abstract F getThis();
 
 }
@@ -0,0 +1,38 @@
+package rodeo.password.pgencheck;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Derive bounded random integers from a source of uniformly distributed 32-bit values.
+ * <p>
+ * Uses Lemire's multiply-shift method: the 32-bit random value is multiplied by the bound and the high half of the
+ * 64-bit product is the result. Values falling in the small biased zone of the low half are rejected, so results are
+ * exactly uniform. A division is only computed when a value lands close to that zone, which is rare for the small
+ * bounds used in password generation.
+ */
+final class BoundedUInts {
+
+    private BoundedUInts() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Generate a random integer between 0 and <code>max</code> (not included).
+     * @param random32 a supplier of uniformly distributed 32-bit values
+     * @param max the upper-bound (not included), must be positive
+     * @return a random integer between 0 and <code>max</code> (not included)
+     */
+    static int nextUInt(IntSupplier random32, int max) {
+        long product = (random32.getAsInt() & 0xFFFFFFFFL) * max;
+        long low = product & 0xFFFFFFFFL;
+        if (low < max) {
+            long threshold = (0x1_0000_0000L - max) % max;  // 2^32 mod max
+            while (low < threshold) {
+                product = (random32.getAsInt() & 0xFFFFFFFFL) * max;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+}
@@ -0,0 +1,378 @@
+package rodeo.password.pgencheck;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASH_ALGORITHM_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASH_FILE_INVALID;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASH_LINE_INVALID;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASH_PREFIX_BITS_OUT_OF_RANGE;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASHES_NOT_SORTED;
+
+/**
+ * An exact blocklist of breached passwords, stored as hashes in a memory-mapped file.
+ * <p>
+ * Breached password corpora, such as the SHA-1 or NTLM hash lists of <em>Have I Been Pwned</em>, hold around a billion
+ * hashes: far too many for the heap. The blocklist file holds the hashes sorted, at a fixed width, preceded by an
+ * index of buckets sharing the same first bits, as in the k-anonymity range layout of these corpora. The file is
+ * mapped in memory, not read: a lookup hashes the password, reads the bounds of its bucket in the index, and
+ * binary-searches the bucket, which with the default 20-bit prefixes holds about a thousand hashes of a billion-hash
+ * corpus and spans a few pages. The heap footprint does not depend on the size of the file, and the pages of the index
+ * and of the most searched buckets stay in the operating system page cache, shared by all the processes using the
+ * file.
+ * <p>
+ * Blocklist files are created from text files with one hexadecimal hash per line, sorted in ascending order, as
+ * distributed for these corpora, with {@link #write(BufferedReader, Path, Algorithm) write}. A blocklist is then
+ * opened with {@link #open(Path) open} and passed to
+ * {@link PasswordChecker.Factory#setBreachedHashes(BreachedHashes) PasswordChecker.Factory.setBreachedHashes}.
+ * <p>
+ * The file layout, all numbers big-endian, is:
+ * <ul>
+ *     <li>a 16-byte header: the magic number <code>PRBH</code>, the format version (1), the algorithm (0 for SHA-1,
+ *     1 for NTLM), the number of prefix bits <code>p</code>, a zero byte and the number of hashes on 8 bytes;</li>
+ *     <li>the index: 2<sup>p</sup> + 1 longs, the n<sup>th</sup> being the position of the first hash whose first
+ *     <code>p</code> bits are at least <code>n</code>, the last one being the number of hashes;</li>
+ *     <li>the hashes, sorted as unsigned byte strings, without separators.</li>
+ * </ul>
+ * <p>
+ * Instances of this class are immutable and can be shared by any number of threads. The file must not be modified
+ * while it is in use; the mapping is released when the object is garbage collected.
+ */
+public final class BreachedHashes {
+
+    /**
+     * Hash algorithms of breached password corpora.
+     */
+    public enum Algorithm {
+        /**
+         * SHA-1 of the UTF-8 encoded password, 20 bytes
+         */
+        SHA1(20),
+        /**
+         * NTLM, the MD4 digest of the UTF-16LE encoded password, 16 bytes
+         */
+        NTLM(Md4.DIGEST_LENGTH);
+
+        private final int hashLength;
+
+        Algorithm(int hashLength) {
+            this.hashLength = hashLength;
+        }
+
+        /**
+         * Returns the length of the hashes, in bytes.
+         * @return the length of the hashes
+         */
+        public int getHashLength() {
+            return hashLength;
+        }
+
+        byte[] hash(CharSequence password) {
+            if (this == NTLM) {
+                var bytes = new byte[2 * password.length()];
+                for (int i = 0; i < password.length(); ++i) {
+                    char c = password.charAt(i);
+                    bytes[2 * i] = (byte) c;
+                    bytes[2 * i + 1] = (byte) (c >>> 8);
+                }
+                return Md4.digest(bytes);
+            }
+
+            try {
+                // MessageDigest objects are not thread-safe, and cheap to create compared to a lookup
+                var digest = MessageDigest.getInstance("SHA-1");
+                digest.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(password)));
+                return digest.digest();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);  // every Java platform must support SHA-1
+            }
+        }
+    }
+
+    /**
+     * Default number of prefix bits of the bucket index: 2<sup>20</sup> buckets, an 8 MB index.
+     */
+    public static final int DEFAULT_PREFIX_BITS = 20;
+
+    /**
+     * Maximum number of prefix bits of the bucket index: 2<sup>24</sup> buckets, a 128 MB index.
+     */
+    public static final int MAX_PREFIX_BITS = 24;
+
+    private static final int MAGIC = 'P' << 24 | 'R' << 16 | 'B' << 8 | 'H';
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 16;
+
+    private final Algorithm algorithm;
+    private final int prefixBits;
+    private final long size;
+    private final ByteBuffer index;
+    // each chunk maps a whole number of hashes, as a single mapping cannot exceed 2 GB
+    private final ByteBuffer[] chunks;
+    private final int hashesPerChunk;
+
+    private BreachedHashes(Algorithm algorithm, int prefixBits, long size, ByteBuffer index, ByteBuffer[] chunks,
+                           int hashesPerChunk)
+    {
+        this.algorithm = algorithm;
+        this.prefixBits = prefixBits;
+        this.size = size;
+        this.index = index;
+        this.chunks = chunks;
+        this.hashesPerChunk = hashesPerChunk;
+    }
+
+    /**
+     * Open and map a blocklist file created by {@link #write(BufferedReader, Path, Algorithm, int) write}.
+     * @param file the blocklist file
+     * @return a new <code>BreachedHashes</code>
+     * @throws IOException if the file cannot be read or mapped
+     * @throws IllegalArgumentException if the file is not a valid blocklist file
+     */
+    public static BreachedHashes open(Path file) throws IOException {
+        return open(file, Integer.MAX_VALUE);
+    }
+
+    // maxChunkBytes is only lowered by tests, to find hashes across chunk boundaries
+    static BreachedHashes open(Path file, int maxChunkBytes) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining())
+                if (channel.read(header) < 0)
+                    break;
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.get(4) != VERSION)
+                throw new IllegalArgumentException(BREACHED_HASH_FILE_INVALID + file);
+
+            int algorithmOrdinal = header.get(5);
+            int prefixBits = header.get(6);
+            long size = header.getLong(8);
+            if (algorithmOrdinal < 0 || algorithmOrdinal >= Algorithm.values().length
+                    || prefixBits < 1 || prefixBits > MAX_PREFIX_BITS || size < 0)
+                throw new IllegalArgumentException(BREACHED_HASH_FILE_INVALID + file);
+
+            var algorithm = Algorithm.values()[algorithmOrdinal];
+            int hashLength = algorithm.getHashLength();
+            long indexLength = 8L * ((1 << prefixBits) + 1);
+            if (size > (Long.MAX_VALUE - HEADER_LENGTH - indexLength) / hashLength
+                    || channel.size() != HEADER_LENGTH + indexLength + size * hashLength)
+                throw new IllegalArgumentException(BREACHED_HASH_FILE_INVALID + file);
+
+            var index = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH, indexLength);
+            // a corrupted index could send lookups out of the file
+            long previous = 0;
+            for (int bucket = 0; bucket <= 1 << prefixBits; ++bucket) {
+                long position = index.getLong(8 * bucket);
+                if (position < previous || position > size)
+                    throw new IllegalArgumentException(BREACHED_HASH_FILE_INVALID + file);
+                previous = position;
+            }
+            if (previous != size)
+                throw new IllegalArgumentException(BREACHED_HASH_FILE_INVALID + file);
+
+            int hashesPerChunk = Math.max(1, maxChunkBytes / hashLength);
+            var chunks = new ByteBuffer[(int) ((size + hashesPerChunk - 1) / hashesPerChunk)];
+            long start = HEADER_LENGTH + indexLength;
+            for (int i = 0; i < chunks.length; ++i) {
+                long count = Math.min(hashesPerChunk, size - (long) i * hashesPerChunk);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, count * hashLength);
+                start += count * hashLength;
+            }
+
+            // the mappings remain valid once the channel is closed
+            return new BreachedHashes(algorithm, prefixBits, size, index, chunks, hashesPerChunk);
+        }
+    }
+
+    /**
+     * Create a blocklist file with the default number of prefix bits.
+     * @param hashes the source of the hashes, read to its end but not closed
+     * @param file the blocklist file to create or overwrite
+     * @param algorithm the algorithm of the hashes
+     * @return the number of distinct hashes written
+     * @throws IOException if the hashes cannot be read or the file cannot be written
+     * @throws IllegalArgumentException if a line is not a valid hash or if the hashes are not sorted
+     * @see #write(BufferedReader, Path, Algorithm, int)
+     */
+    public static long write(BufferedReader hashes, Path file, Algorithm algorithm) throws IOException {
+        return write(hashes, file, algorithm, DEFAULT_PREFIX_BITS);
+    }
+
+    /**
+     * Create a blocklist file from text with one hexadecimal hash per line, in upper or lower case, sorted in
+     * ascending order. Anything following the hash after a colon, such as the number of occurrences in the
+     * <code>HASH:COUNT</code> lines of <em>Have I Been Pwned</em>, is ignored, as are empty lines and duplicate hashes.
+     * The hashes are streamed to the file: only the index is kept in memory.
+     * <p>
+     * Each bucket of the index holds the hashes sharing their first <code>prefixBits</code> bits. More bits make the
+     * buckets smaller but the index larger; about a thousand hashes per bucket is a good balance.
+     * @param hashes the source of the hashes, read to its end but not closed
+     * @param file the blocklist file to create or overwrite
+     * @param algorithm the algorithm of the hashes
+     * @param prefixBits the number of prefix bits of the bucket index, between 1 and {@link #MAX_PREFIX_BITS}
+     * @return the number of distinct hashes written
+     * @throws NullPointerException if <code>algorithm</code> is <code>null</code>
+     * @throws IOException if the hashes cannot be read or the file cannot be written
+     * @throws IllegalArgumentException if a line is not a valid hash or if the hashes are not sorted, or if
+     * <code>prefixBits</code> is out of range
+     */
+    public static long write(BufferedReader hashes, Path file, Algorithm algorithm, int prefixBits)
+            throws IOException
+    {
+        if (algorithm == null)
+            throw new NullPointerException(BREACHED_HASH_ALGORITHM_NULL);
+        if (prefixBits < 1 || prefixBits > MAX_PREFIX_BITS)
+            throw new IllegalArgumentException(BREACHED_HASH_PREFIX_BITS_OUT_OF_RANGE + prefixBits);
+
+        int hashLength = algorithm.getHashLength();
+        var index = new long[(1 << prefixBits) + 1];
+        long size = 0;
+        int nextBucket = 0;  // buckets below have their position in index
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.write(new byte[HEADER_LENGTH + 8 * index.length]);
+
+            var hash = new byte[hashLength];
+            var previous = new byte[hashLength];
+            long lineNumber = 0;
+            String line;
+            while ((line = hashes.readLine()) != null) {
+                ++lineNumber;
+                int end = line.indexOf(':');
+                var text = (end < 0 ? line : line.substring(0, end)).trim();
+                if (text.isEmpty() && end < 0)
+                    continue;
+                if (!parseHex(text, hash))
+                    throw new IllegalArgumentException(BREACHED_HASH_LINE_INVALID + lineNumber);
+
+                if (size > 0) {
+                    int comparison = Arrays.compareUnsigned(hash, previous);
+                    if (comparison < 0)
+                        throw new IllegalArgumentException(BREACHED_HASHES_NOT_SORTED + lineNumber);
+                    if (comparison == 0)
+                        continue;
+                }
+
+                int bucket = prefix(hash, prefixBits);
+                while (nextBucket <= bucket)
+                    index[nextBucket++] = size;
+                out.write(hash);
+                System.arraycopy(hash, 0, previous, 0, hashLength);
+                ++size;
+            }
+        }
+        while (nextBucket < index.length)
+            index[nextBucket++] = size;
+
+        var header = ByteBuffer.allocate(HEADER_LENGTH + 8 * index.length);
+        header.putInt(MAGIC)
+                .put((byte) VERSION)
+                .put((byte) algorithm.ordinal())
+                .put((byte) prefixBits)
+                .put((byte) 0)
+                .putLong(size);
+        for (long position: index)
+            header.putLong(position);
+        header.flip();
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining())
+                channel.write(header, header.position());
+        }
+
+        return size;
+    }
+
+    private static boolean parseHex(String text, byte[] hash) {
+        if (text.length() != 2 * hash.length)
+            return false;
+        for (int i = 0; i < hash.length; ++i) {
+            int high = Character.digit(text.charAt(2 * i), 16);
+            int low = Character.digit(text.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0)
+                return false;
+            hash[i] = (byte) (high << 4 | low);
+        }
+        return true;
+    }
+
+    private static int prefix(byte[] hash, int prefixBits) {
+        int firstBytes = (hash[0] & 0xFF) << 24 | (hash[1] & 0xFF) << 16 | (hash[2] & 0xFF) << 8 | (hash[3] & 0xFF);
+        return firstBytes >>> (Integer.SIZE - prefixBits);
+    }
+
+    /**
+     * Returns the algorithm of the hashes.
+     * @return the hash algorithm
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the number of prefix bits of the bucket index.
+     * @return the number of prefix bits
+     */
+    public int getPrefixBits() {
+        return prefixBits;
+    }
+
+    /**
+     * Returns the number of hashes in the blocklist.
+     * @return the number of hashes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns <code>true</code> if the hash of the password is in the blocklist. Passwords are hashed exactly as
+     * given, without any normalization.
+     * @param password the password to look up
+     * @return <code>true</code> if the password is a breached password
+     */
+    public boolean contains(CharSequence password) {
+        return containsHash(algorithm.hash(password));
+    }
+
+    boolean containsHash(byte[] hash) {
+        int bucket = prefix(hash, prefixBits);
+        long low = index.getLong(8 * bucket);
+        long high = index.getLong(8 * bucket + 8) - 1;
+
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            int comparison = compare(middle, hash);
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    // compares the hash at position with the given hash, as unsigned byte strings
+    private int compare(long position, byte[] hash) {
+        var chunk = chunks[(int) (position / hashesPerChunk)];
+        int offset = (int) (position % hashesPerChunk) * hash.length;
+        for (int i = 0; i < hash.length; ++i) {
+            int comparison = Integer.compare(chunk.get(offset + i) & 0xFF, hash[i] & 0xFF);
+            if (comparison != 0)
+                return comparison;
+        }
+        return 0;
+    }
+
+}
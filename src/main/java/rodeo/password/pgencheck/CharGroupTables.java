@@ -0,0 +1,282 @@
+package rodeo.password.pgencheck;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable lookup and sampling tables derived from a set of character groups.
+ * <p>
+ * All tables are primitive arrays held in final fields, filled in the constructor and never modified afterwards, so
+ * an instance is safely published to any thread that obtains a reference to it, without synchronization, and can be
+ * read concurrently by any number of threads. Arrays are never handed out to code outside this package.
+ * <p>
+ * Characters are sampled from the arrays of the {@link CompiledCharGroup CompiledCharGroup}s themselves, which are
+ * referenced, not copied, so the arrays of the groups defined in <code>CharacterGroups</code> are shared by all
+ * tables. Only the lookup index merging the groups is built per table, except for a table made of a single group,
+ * which looks characters up in that group's sorted array. Characters below 128 are looked up through a direct index
+ * instead of a binary search.
+ * <p>
+ * A <code>PasswordChecker</code> and a <code>PasswordMaker</code> created by the same <code>PasswordPolicy</code>
+ * reference the same instance.
+ */
+final class CharGroupTables {
+
+    private static final int ASCII_SIZE = 128;
+
+    private final List<String> charGroups;
+    private final int[] groupMinCounts;
+    private final int[] groupMaxCounts;
+    private final String allChars;
+    private final SequenceRules sequenceRules;
+
+    // sampling: every character of every group, in group order; the characters of group g are at indices
+    // [groupOffsets[g], groupOffsets[g + 1]) of the sample and the group of an index is recovered from these offsets
+    private final CompiledCharGroup[] groups;
+    private final int sampleSize;
+    private final int[] groupOffsets;
+
+    // lookup: sorted distinct code points and, for the code point at index i, its indices in sampleCodePoints in
+    // increasing order, stored in sampleIndices[sampleIndexOffsets[i]] to sampleIndices[sampleIndexOffsets[i + 1] - 1]
+    private final int[] codePoints;
+    private final int[] asciiIndices;  // index in codePoints of each code point below 128, -1 if absent
+    private final int[] codePointGroups;  // group of each code point listed once, -1 if listed several times
+    private final int[] sampleIndexOffsets;
+    private final int[] sampleIndices;
+
+    CharGroupTables(List<String> charGroups, List<Integer> groupMinCounts, List<Integer> groupMaxCounts) {
+        this(charGroups, groupMinCounts, groupMaxCounts, SequenceRules.NONE);
+    }
+
+    CharGroupTables(
+            List<String> charGroups,
+            List<Integer> groupMinCounts,
+            List<Integer> groupMaxCounts,
+            SequenceRules sequenceRules)
+    {
+        this(charGroups.stream().map(CompiledCharGroup::of).toArray(CompiledCharGroup[]::new),
+                groupMinCounts, groupMaxCounts, sequenceRules);
+    }
+
+    CharGroupTables(
+            CompiledCharGroup[] groups,
+            List<Integer> groupMinCounts,
+            List<Integer> groupMaxCounts,
+            SequenceRules sequenceRules)
+    {
+        this.sequenceRules = sequenceRules;
+        this.groups = groups.clone();
+        var chars = new String[groups.length];
+        for (int groupIndex = 0; groupIndex < groups.length; ++groupIndex)
+            chars[groupIndex] = groups[groupIndex].getChars();
+        this.charGroups = List.of(chars);
+        this.groupMinCounts = groupMinCounts.stream().mapToInt(Integer::intValue).toArray();
+        this.groupMaxCounts = groupMaxCounts.stream().mapToInt(Integer::intValue).toArray();
+        allChars = groups.length == 1 ? groups[0].getChars() : String.join("", chars);
+
+        groupOffsets = new int[groups.length + 1];
+        for (int groupIndex = 0; groupIndex < groups.length; ++groupIndex)
+            groupOffsets[groupIndex + 1] = groupOffsets[groupIndex] + groups[groupIndex].size();
+        sampleSize = groupOffsets[groups.length];
+
+        codePoints = groups.length == 1 ? groups[0].sortedCodePoints() : mergeSortedCodePoints(groups);
+
+        asciiIndices = new int[ASCII_SIZE];
+        Arrays.fill(asciiIndices, -1);
+        for (int i = 0; i < codePoints.length && codePoints[i] < ASCII_SIZE; ++i)
+            if (codePoints[i] >= 0)
+                asciiIndices[codePoints[i]] = i;
+
+        // counting sort of the sample indices by code point
+        sampleIndexOffsets = new int[codePoints.length + 1];
+        var lookupIndices = new int[sampleSize];
+        int sampleIndex = 0;
+        for (var group: groups)
+            for (int codePoint: group.codePoints()) {
+                lookupIndices[sampleIndex] = indexOf(codePoint);
+                ++sampleIndexOffsets[lookupIndices[sampleIndex++] + 1];
+            }
+        for (int i = 0; i < codePoints.length; ++i)
+            sampleIndexOffsets[i + 1] += sampleIndexOffsets[i];
+        sampleIndices = new int[sampleSize];
+        var next = Arrays.copyOf(sampleIndexOffsets, codePoints.length);
+        for (int i = 0; i < sampleSize; ++i)
+            sampleIndices[next[lookupIndices[i]]++] = i;
+
+        codePointGroups = new int[codePoints.length];
+        for (int i = 0; i < codePoints.length; ++i)
+            codePointGroups[i] = sampleIndexOffsets[i + 1] - sampleIndexOffsets[i] == 1
+                    ? sampleGroup(sampleIndices[sampleIndexOffsets[i]])
+                    : -1;
+    }
+
+    // sorted distinct code points of all the groups
+    private static int[] mergeSortedCodePoints(CompiledCharGroup[] groups) {
+        int size = 0;
+        for (var group: groups)
+            size += group.sortedCodePoints().length;
+
+        var merged = new int[size];
+        int offset = 0;
+        for (var group: groups) {
+            System.arraycopy(group.sortedCodePoints(), 0, merged, offset, group.sortedCodePoints().length);
+            offset += group.sortedCodePoints().length;
+        }
+        Arrays.sort(merged);
+
+        int distinct = 0;
+        for (int i = 0; i < merged.length; ++i)
+            if (i == 0 || merged[i] != merged[i - 1])
+                merged[distinct++] = merged[i];
+        return Arrays.copyOf(merged, distinct);
+    }
+
+    private int indexOf(int codePoint) {
+        return codePoint >= 0 && codePoint < ASCII_SIZE
+                ? asciiIndices[codePoint]
+                : Arrays.binarySearch(codePoints, codePoint);
+    }
+
+    List<String> charGroups() {
+        return charGroups;
+    }
+
+    int groupCount() {
+        return groupMinCounts.length;
+    }
+
+    int groupMinCount(int groupIndex) {
+        return groupMinCounts[groupIndex];
+    }
+
+    int groupMaxCount(int groupIndex) {
+        return groupMaxCounts[groupIndex];
+    }
+
+    String allChars() {
+        return allChars;
+    }
+
+    CompiledCharGroup group(int groupIndex) {
+        return groups[groupIndex];
+    }
+
+    SequenceRules sequenceRules() {
+        return sequenceRules;
+    }
+
+    /**
+     * Returns the number of characters of all groups, counting a character once per group it belongs to.
+     */
+    int sampleSize() {
+        return sampleSize;
+    }
+
+    int sampleCodePoint(int index) {
+        int groupIndex = sampleGroup(index);
+        return groupCodePoint(groupIndex, index - groupOffsets[groupIndex]);
+    }
+
+    /**
+     * Returns the group of the character at <code>index</code> in the sample, that is the last group whose offset is
+     * not greater than <code>index</code>.
+     */
+    int sampleGroup(int index) {
+        int low = 0;
+        int high = groupOffsets.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (groupOffsets[middle] <= index)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index in the sample of the first character of a group.
+     */
+    int groupOffset(int groupIndex) {
+        return groupOffsets[groupIndex];
+    }
+
+    int groupSize(int groupIndex) {
+        return groupOffsets[groupIndex + 1] - groupOffsets[groupIndex];
+    }
+
+    int groupCodePoint(int groupIndex, int position) {
+        return groups[groupIndex].codePoints()[position];
+    }
+
+    int maxGroupSize() {
+        int max = 0;
+        for (int groupIndex = 0; groupIndex < groupCount(); ++groupIndex)
+            max = Math.max(max, groupSize(groupIndex));
+        return max;
+    }
+
+    /**
+     * Returns whether a character belongs to several groups or appears several times in a group.
+     */
+    boolean hasSharedCodePoints() {
+        return codePoints.length != sampleSize;
+    }
+
+    boolean contains(int codePoint) {
+        return indexOf(codePoint) >= 0;
+    }
+
+    /**
+     * Count the characters of each group in a password. A character belonging to several groups is counted in each of
+     * them; characters belonging to no group are ignored.
+     */
+    int[] groupCounts(String password) {
+        var counts = new int[charGroups.size()];
+        scan(password, counts, null);
+        return counts;
+    }
+
+    /**
+     * Classify the characters of a password in a single pass: count the characters of each group into
+     * <code>counts</code>, feed every character to <code>run</code> unless it is <code>null</code>, and return the
+     * number of characters belonging to no group.
+     */
+    int scan(CharSequence password, int[] counts, SequenceRules.Run run) {
+        int illegalCount = 0;
+        for (int i = 0; i < password.length(); ) {
+            int codePoint = Character.codePointAt(password, i);
+            int index = indexOf(codePoint);
+            if (index >= 0 && codePointGroups[index] >= 0)
+                ++counts[codePointGroups[index]];
+            else if (index >= 0) {
+                // indices are increasing, so the indices of a group are adjacent
+                int previousGroup = -1;
+                for (int j = sampleIndexOffsets[index]; j < sampleIndexOffsets[index + 1]; ++j) {
+                    int groupIndex = sampleGroup(sampleIndices[j]);
+                    if (groupIndex != previousGroup)
+                        ++counts[groupIndex];
+                    previousGroup = groupIndex;
+                }
+            } else
+                ++illegalCount;
+            if (run != null)
+                run.push(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return illegalCount;
+    }
+
+    /**
+     * Add the positions of <code>codePoint</code> in the character list of a group to <code>positions</code>, starting
+     * at <code>count</code>, and return the new count.
+     */
+    int positionsInGroup(int codePoint, int groupIndex, int[] positions, int count) {
+        int index = indexOf(codePoint);
+        if (index >= 0)
+            for (int i = sampleIndexOffsets[index]; i < sampleIndexOffsets[index + 1]; ++i)
+                if (sampleIndices[i] >= groupOffsets[groupIndex] && sampleIndices[i] < groupOffsets[groupIndex + 1])
+                    positions[count++] = sampleIndices[i] - groupOffsets[groupIndex];
+        return count;
+    }
+
+}
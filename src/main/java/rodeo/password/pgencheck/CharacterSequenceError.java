@@ -0,0 +1,46 @@
+package rodeo.password.pgencheck;
+
+/**
+ * Records a character sequence longer than allowed in password validation.
+ * <p>
+ * Sequences are runs of consecutive Unicode code points, ascending (<code>abc</code>) or descending
+ * (<code>321</code>), or runs of adjacent characters of a sequence added with
+ * {@link PasswordChecker.Factory#addCharacterSequence(String) PasswordChecker.Factory.addCharacterSequence}, such as a
+ * keyboard row. If a password contains several such sequences, the first of the longest ones is reported.
+ */
+public class CharacterSequenceError extends PasswordCheckError {
+
+    private final String sequence;
+    private final int maxLength;
+
+    CharacterSequenceError(String sequence, int maxLength) {
+        super(PasswordCheckStatus.CHARACTER_SEQUENCE);
+        this.sequence = sequence;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the character sequence found in the password.
+     * @return the character sequence
+     */
+    public String getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the length of the character sequence, in code points.
+     * @return the length of the character sequence
+     */
+    public int getLength() {
+        return sequence.codePointCount(0, sequence.length());
+    }
+
+    /**
+     * Returns the maximum length of character sequences allowed.
+     * @return the maximum length of character sequences
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+}
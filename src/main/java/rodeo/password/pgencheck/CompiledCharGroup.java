@@ -0,0 +1,193 @@
+package rodeo.password.pgencheck;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static rodeo.password.pgencheck.ErrorMessages.CHAR_GROUP_NULL;
+
+/**
+ * A character group compiled into the membership bitmasks and code point arrays used by password checkers and
+ * makers.
+ * <p>
+ * The groups defined in {@link CharacterGroups CharacterGroups} are compiled once, when this class is loaded, into the
+ * interned instances below, and {@link #of(String) of} returns them when given one of the <code>CharacterGroups</code>
+ * strings. Factories accept compiled groups as well as strings; the tables of checkers and makers reference the
+ * arrays of their groups instead of copying them, so all the checkers and makers built from the same groups share one
+ * copy. Custom groups compiled once with <code>of</code> and passed to many factories are shared the same way.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ */
+public final class CompiledCharGroup {
+
+    /**
+     * Compiled {@link CharacterGroups#LOWER_CASE CharacterGroups.LOWER_CASE}.
+     */
+    public static final CompiledCharGroup LOWER_CASE = new CompiledCharGroup(CharacterGroups.LOWER_CASE);
+    /**
+     * Compiled {@link CharacterGroups#UPPER_CASE CharacterGroups.UPPER_CASE}.
+     */
+    public static final CompiledCharGroup UPPER_CASE = new CompiledCharGroup(CharacterGroups.UPPER_CASE);
+    /**
+     * Compiled {@link CharacterGroups#DIGITS CharacterGroups.DIGITS}.
+     */
+    public static final CompiledCharGroup DIGITS = new CompiledCharGroup(CharacterGroups.DIGITS);
+    /**
+     * Compiled {@link CharacterGroups#SYMBOLS CharacterGroups.SYMBOLS}.
+     */
+    public static final CompiledCharGroup SYMBOLS = new CompiledCharGroup(CharacterGroups.SYMBOLS);
+    /**
+     * Compiled {@link CharacterGroups#UNAMBIGUOUS_LOWER_CASE CharacterGroups.UNAMBIGUOUS_LOWER_CASE}.
+     */
+    public static final CompiledCharGroup UNAMBIGUOUS_LOWER_CASE =
+            new CompiledCharGroup(CharacterGroups.UNAMBIGUOUS_LOWER_CASE);
+    /**
+     * Compiled {@link CharacterGroups#UNAMBIGUOUS_UPPER_CASE CharacterGroups.UNAMBIGUOUS_UPPER_CASE}.
+     */
+    public static final CompiledCharGroup UNAMBIGUOUS_UPPER_CASE =
+            new CompiledCharGroup(CharacterGroups.UNAMBIGUOUS_UPPER_CASE);
+    /**
+     * Compiled {@link CharacterGroups#UNAMBIGUOUS_DIGITS CharacterGroups.UNAMBIGUOUS_DIGITS}.
+     */
+    public static final CompiledCharGroup UNAMBIGUOUS_DIGITS =
+            new CompiledCharGroup(CharacterGroups.UNAMBIGUOUS_DIGITS);
+    /**
+     * Compiled {@link CharacterGroups#UNAMBIGUOUS_SYMBOLS CharacterGroups.UNAMBIGUOUS_SYMBOLS}.
+     */
+    public static final CompiledCharGroup UNAMBIGUOUS_SYMBOLS =
+            new CompiledCharGroup(CharacterGroups.UNAMBIGUOUS_SYMBOLS);
+
+    private static final Map<String, CompiledCharGroup> BUILT_IN = Map.of(
+            CharacterGroups.LOWER_CASE, LOWER_CASE,
+            CharacterGroups.UPPER_CASE, UPPER_CASE,
+            CharacterGroups.DIGITS, DIGITS,
+            CharacterGroups.SYMBOLS, SYMBOLS,
+            CharacterGroups.UNAMBIGUOUS_LOWER_CASE, UNAMBIGUOUS_LOWER_CASE,
+            CharacterGroups.UNAMBIGUOUS_UPPER_CASE, UNAMBIGUOUS_UPPER_CASE,
+            CharacterGroups.UNAMBIGUOUS_DIGITS, UNAMBIGUOUS_DIGITS,
+            CharacterGroups.UNAMBIGUOUS_SYMBOLS, UNAMBIGUOUS_SYMBOLS);
+
+    private final String chars;
+    private final int[] codePoints;        // in group order, used for sampling
+    private final int[] sortedCodePoints;  // sorted and distinct, used for lookups
+    private final long asciiLow;           // membership bits of code points 0 to 63
+    private final long asciiHigh;          // membership bits of code points 64 to 127
+    private final boolean asciiOnly;
+    private final String duplicates;
+
+    private CompiledCharGroup(String chars) {
+        this.chars = chars;
+        codePoints = chars.codePoints().toArray();
+        sortedCodePoints = Arrays.stream(codePoints).distinct().sorted().toArray();
+
+        long low = 0;
+        long high = 0;
+        boolean ascii = true;
+        for (int codePoint: codePoints) {
+            if (codePoint < 64)
+                low |= 1L << codePoint;
+            else if (codePoint < 128)
+                high |= 1L << codePoint;
+            else
+                ascii = false;
+        }
+        asciiLow = low;
+        asciiHigh = high;
+        asciiOnly = ascii;
+        duplicates = sortedCodePoints.length == codePoints.length ? "" : findDuplicates(codePoints);
+    }
+
+    // each duplicated character is reported once, in order of first occurrence
+    private static String findDuplicates(int[] codePoints) {
+        var counts = new LinkedHashMap<Integer, Integer>();
+        for (int codePoint: codePoints)
+            counts.merge(codePoint, 1, Integer::sum);
+
+        var duplicates = new StringBuilder();
+        for (var codePointCount: counts.entrySet())
+            if (codePointCount.getValue() > 1)
+                duplicates.appendCodePoint(codePointCount.getKey());
+        return duplicates.toString();
+    }
+
+    /**
+     * Returns the compiled form of a character group: one of the interned instances of this class for the groups of
+     * <code>CharacterGroups</code>, a new one otherwise.
+     * @param chars a <code>String</code> containing all the characters of the group
+     * @return the compiled character group
+     * @throws NullPointerException if <code>chars</code> is <code>null</code>
+     */
+    public static CompiledCharGroup of(String chars) {
+        if (chars == null)
+            throw new NullPointerException(CHAR_GROUP_NULL);
+
+        var group = BUILT_IN.get(chars);
+        return group != null ? group : new CompiledCharGroup(chars);
+    }
+
+    /**
+     * Returns the characters of this group, in the order they were given.
+     * @return the characters of the group
+     */
+    public String getChars() {
+        return chars;
+    }
+
+    /**
+     * Returns the number of characters of this group, counting characters outside of the Basic Multilingual Plane
+     * once and duplicated characters as many times as they appear.
+     * @return the number of code points of the group
+     */
+    public int size() {
+        return codePoints.length;
+    }
+
+    // the arrays are never handed out to code outside this package
+
+    int[] codePoints() {
+        return codePoints;
+    }
+
+    int[] sortedCodePoints() {
+        return sortedCodePoints;
+    }
+
+    boolean isAsciiOnly() {
+        return asciiOnly;
+    }
+
+    /**
+     * Returns <code>true</code> if a character belongs to this group.
+     * @param codePoint the code point of the character
+     * @return <code>true</code> if the character belongs to the group, <code>false</code> otherwise
+     */
+    public boolean contains(int codePoint) {
+        if (codePoint < 64)
+            return (asciiLow & (1L << codePoint)) != 0;
+        if (codePoint < 128)
+            return (asciiHigh & (1L << codePoint)) != 0;
+        return !asciiOnly && Arrays.binarySearch(sortedCodePoints, codePoint) >= 0;
+    }
+
+    /**
+     * Returns the characters present more than once in this group, in order of first occurrence.
+     */
+    String duplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Returns the characters of this group that also belong to <code>other</code>, in group order.
+     */
+    String commonCharacters(CompiledCharGroup other) {
+        if (asciiOnly && other.asciiOnly && (asciiLow & other.asciiLow) == 0 && (asciiHigh & other.asciiHigh) == 0)
+            return "";
+
+        var common = new StringBuilder();
+        for (int codePoint: codePoints)
+            if (other.contains(codePoint))
+                common.appendCodePoint(codePoint);
+        return common.toString();
+    }
+
+}
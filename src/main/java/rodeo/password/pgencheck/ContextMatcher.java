@@ -0,0 +1,167 @@
+package rodeo.password.pgencheck;
+
+/**
+ * Finds, in a password, the runs of <code>k</code> or more characters taken from the tokens of a
+ * <code>PasswordContext</code>.
+ * <p>
+ * Every window of <code>k</code> consecutive characters of every token is hashed once with a polynomial rolling hash
+ * into a small open-addressing table; the windows of the password are then rolled through the same hash and looked
+ * up. A hit is confirmed by comparing the <code>k</code> characters, so hash collisions never cause false positives.
+ * A check costs <code>O(password + context)</code> and never compiles a regular expression. Instances are built for a
+ * single check and are not thread-safe.
+ */
+final class ContextMatcher {
+
+    /**
+     * Receives the parts of a password found in a context.
+     */
+    interface SpanListener {
+        /**
+         * @param token the context token the first window of the span was found in, case-folded
+         * @param start index, in code points, of the first character of the span in the password
+         * @param end index, in code points, just past the last character of the span
+         */
+        void span(int[] token, int start, int end);
+    }
+
+    private static final long BASE = 0x100000001B3L;
+
+    private final int k;
+    private final int[][] tokens;
+    private final long highPower;  // BASE^(k - 1)
+
+    // open-addressing table of windows: slot -> window index + 1, 0 when empty
+    private final int[] slots;
+    private final int mask;
+    private final long[] windowHashes;
+    private final int[] windowTokens;
+    private final int[] windowOffsets;
+
+    ContextMatcher(PasswordContext context, int k) {
+        this.k = k;
+        tokens = context.tokens();
+
+        long power = 1;
+        for (int i = 1; i < k; ++i)
+            power *= BASE;
+        highPower = power;
+
+        int windowCount = 0;
+        for (int[] token: tokens)
+            windowCount += Math.max(0, token.length - k + 1);
+
+        int tableSize = Integer.highestOneBit(Math.max(1, windowCount) * 2 - 1) << 1;
+        slots = new int[tableSize];
+        mask = tableSize - 1;
+        windowHashes = new long[windowCount];
+        windowTokens = new int[windowCount];
+        windowOffsets = new int[windowCount];
+
+        int size = 0;
+        for (int t = 0; t < tokens.length; ++t) {
+            int[] token = tokens[t];
+            if (token.length < k)
+                continue;
+
+            long hash = 0;
+            for (int i = 0; i < token.length; ++i) {
+                hash = i < k ? hash * BASE + token[i] : (hash - token[i - k] * highPower) * BASE + token[i];
+                if (i >= k - 1) {
+                    windowHashes[size] = hash;
+                    windowTokens[size] = t;
+                    windowOffsets[size] = i - k + 1;
+                    int slot = spread(hash) & mask;
+                    while (slots[slot] != 0)
+                        slot = (slot + 1) & mask;
+                    slots[slot] = ++size;
+                }
+            }
+        }
+    }
+
+    private static int spread(long hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    boolean isEmpty() {
+        return windowHashes.length == 0;
+    }
+
+    /**
+     * Returns <code>true</code> if the password contains at least <code>k</code> consecutive characters of a token.
+     */
+    boolean matches(String password) {
+        if (isEmpty())
+            return false;
+
+        int[] codePoints = PasswordContext.fold(password);
+        long hash = 0;
+        for (int i = 0; i < codePoints.length; ++i) {
+            hash = roll(hash, codePoints, i);
+            if (i >= k - 1 && find(hash, codePoints, i - k + 1) >= 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Report the maximal spans of the password covered by windows found in the context, in order.
+     */
+    void findAll(String password, SpanListener listener) {
+        if (isEmpty())
+            return;
+
+        int[] codePoints = PasswordContext.fold(password);
+        long hash = 0;
+        int spanStart = -1;
+        int spanEnd = -1;
+        int[] spanToken = null;
+        for (int i = 0; i < codePoints.length; ++i) {
+            hash = roll(hash, codePoints, i);
+            if (i < k - 1)
+                continue;
+
+            int start = i - k + 1;
+            int window = find(hash, codePoints, start);
+            if (window < 0)
+                continue;
+
+            if (spanToken != null && start <= spanEnd)
+                spanEnd = i + 1;
+            else {
+                if (spanToken != null)
+                    listener.span(spanToken, spanStart, spanEnd);
+                spanToken = tokens[windowTokens[window]];
+                spanStart = start;
+                spanEnd = i + 1;
+            }
+        }
+        if (spanToken != null)
+            listener.span(spanToken, spanStart, spanEnd);
+    }
+
+    private long roll(long hash, int[] codePoints, int i) {
+        return i < k ? hash * BASE + codePoints[i] : (hash - codePoints[i - k] * highPower) * BASE + codePoints[i];
+    }
+
+    // index of a window equal to codePoints[start, start + k), or -1
+    private int find(long hash, int[] codePoints, int start) {
+        for (int slot = spread(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int window = slots[slot] - 1;
+            if (windowHashes[window] == hash && equalWindows(window, codePoints, start))
+                return window;
+        }
+        return -1;
+    }
+
+    private boolean equalWindows(int window, int[] codePoints, int start) {
+        int[] token = tokens[windowTokens[window]];
+        int offset = windowOffsets[window];
+        for (int i = 0; i < k; ++i)
+            if (token[offset + i] != codePoints[start + i])
+                return false;
+        return true;
+    }
+
+}
@@ -1,5 +1,6 @@
 package rodeo.password.pgencheck;
 
+import java.util.Objects;
 import java.util.Random;
 
 import java.util.concurrent.ThreadLocalRandom;
@@ -38,6 +39,49 @@ public final class DefaultUIntGenerator implements RandomUIntGenerator {
         return ThreadLocalRandom.current().nextInt(max);
     }
 
+    /**
+     * Generate a random <code>long</code>.
+     * @return a random <code>long</code>
+     */
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random <code>long</code>s.
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     */
+    @Override
+    public void fillLongs(long[] out, int count) {
+        Objects.checkFromIndexSize(0, count, out.length);
+        var random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; ++i)
+            out[i] = random.nextLong();
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random integers between 0 and <code>max</code>
+     * (not included).
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @param max the upper-bound (not included) of generated integers
+     * @throws IllegalArgumentException if <code> max &lt; 2</code>
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     */
+    @Override
+    public void fillUInts(int[] out, int count, int max) {
+        if (max < 2)
+            throw new IllegalArgumentException("max must be >= 2");
+        Objects.checkFromIndexSize(0, count, out.length);
+
+        var random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; ++i)
+            out[i] = random.nextInt(max);
+    }
+
     /**
      * Returns a <code>java.util.Random</code> object.
      * @return a <code>java.util.Random</code> object
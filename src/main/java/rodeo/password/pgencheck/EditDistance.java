@@ -0,0 +1,83 @@
+package rodeo.password.pgencheck;
+
+import java.util.Arrays;
+
+/**
+ * Bounded Levenshtein distance between two code point arrays, computed with the bit-parallel algorithm of Myers, in
+ * the block-based formulation of Hyyr&ouml;.
+ * <p>
+ * The shorter array is the pattern: its positions are mapped to the bits of <code>ceil(m / 64)</code> words, and
+ * each character of the longer array updates the vertical deltas of a whole column in <code>O(m / 64)</code>
+ * operations. The computation stops as soon as the distance is known to exceed the bound.
+ */
+final class EditDistance {
+
+    private EditDistance() { }
+
+    /**
+     * Returns the edit distance between <code>a</code> and <code>b</code> if it is at most <code>max</code>, or
+     * <code>max + 1</code> otherwise.
+     */
+    static int bounded(int[] a, int[] b, int max) {
+        int[] pattern = a.length <= b.length ? a : b;
+        int[] text = a.length <= b.length ? b : a;
+        int m = pattern.length;
+        int n = text.length;
+
+        if (n - m > max)
+            return max + 1;
+        if (m == 0)
+            return n;
+
+        // match vectors: for each distinct code point of the pattern, the bits of the positions where it occurs
+        int words = (m + 63) >>> 6;
+        int[] alphabet = Arrays.stream(pattern).distinct().sorted().toArray();
+        var peq = new long[alphabet.length * words];
+        for (int i = 0; i < m; ++i)
+            peq[Arrays.binarySearch(alphabet, pattern[i]) * words + (i >>> 6)] |= 1L << i;
+
+        var vp = new long[words];
+        var vn = new long[words];
+        Arrays.fill(vp, -1L);
+        long last = 1L << ((m - 1) & 63);
+        int distance = m;
+
+        for (int j = 0; j < n; ++j) {
+            int symbol = Arrays.binarySearch(alphabet, text[j]);
+            int row = symbol * words;
+            long hpCarry = 1;
+            long hnCarry = 0;
+
+            for (int w = 0; w < words; ++w) {
+                long pm = symbol >= 0 ? peq[row + w] : 0;
+                long x = pm | hnCarry;
+                long d0 = (((x & vp[w]) + vp[w]) ^ vp[w]) | x | vn[w];
+                long hp = vn[w] | ~(d0 | vp[w]);
+                long hn = d0 & vp[w];
+
+                long hpIn = hpCarry;
+                long hnIn = hnCarry;
+                if (w < words - 1) {
+                    hpCarry = hp >>> 63;
+                    hnCarry = hn >>> 63;
+                } else {
+                    hpCarry = (hp & last) != 0 ? 1 : 0;
+                    hnCarry = (hn & last) != 0 ? 1 : 0;
+                }
+                hp = (hp << 1) | hpIn;
+                hn = (hn << 1) | hnIn;
+                vp[w] = hn | ~(d0 | hp);
+                vn[w] = hp & d0;
+            }
+
+            distance += (int) (hpCarry - hnCarry);
+
+            // the distance decreases by at most one per remaining character of the text
+            if (distance - (n - j - 1) > max)
+                return max + 1;
+        }
+
+        return distance <= max ? distance : max + 1;
+    }
+
+}
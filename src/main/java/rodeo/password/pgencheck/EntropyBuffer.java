@@ -0,0 +1,51 @@
+package rodeo.password.pgencheck;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+/**
+ * Buffer of random bytes pulled in blocks from a <code>SecureRandom</code> and consumed as 32-bit values.
+ * <p>
+ * This class is not thread-safe: a buffer is either private to a thread or guarded by a lock.
+ */
+final class EntropyBuffer implements IntSupplier {
+
+    private final SecureRandom source;
+    private final byte[] bytes;
+    private int position;
+
+    EntropyBuffer(SecureRandom source, int size) {
+        this.source = source;
+        bytes = new byte[size];
+        position = size;
+    }
+
+    SecureRandom source() {
+        return source;
+    }
+
+    @Override
+    public int getAsInt() {
+        if (position == bytes.length) {
+            source.nextBytes(bytes);
+            position = 0;
+        }
+
+        int value = (bytes[position] & 0xFF) << 24
+                | (bytes[position + 1] & 0xFF) << 16
+                | (bytes[position + 2] & 0xFF) << 8
+                | (bytes[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    /**
+     * Wipe the bytes not consumed yet, so the next value is drawn from a fresh block.
+     */
+    void discard() {
+        Arrays.fill(bytes, (byte) 0);
+        position = bytes.length;
+    }
+
+}
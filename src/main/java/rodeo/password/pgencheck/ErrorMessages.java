@@ -4,31 +4,166 @@ final class ErrorMessages {
 
     static final String AT_LEAST_ONE_CHAR = "Minimum character count must be at least 1. Value received: ";
 
+    static final String AT_LEAST_ONE_PASSWORD = "Password count must be at least 1. Value received: ";
+
+    static final String AT_LEAST_ONE_WORD = "Word count must be at least 1. Value received: ";
+
+    static final String BAD_WORD_IN_LIST = "Words cannot be empty, start with # or contain white space: ";
+
+    static final String BATCH_SIZE_NOT_POSITIVE = "Batch size must be at least 1. Value received: ";
+
+    static final String BREACHED_HASHES_NOT_SORTED = "Breached hashes must be sorted in ascending order. Line: ";
+
+    static final String BREACHED_HASHES_NULL = "Breached hashes cannot be null";
+
+    static final String BREACHED_HASH_ALGORITHM_NULL = "Breached hash algorithm cannot be null";
+
+    static final String BREACHED_HASH_FILE_INVALID = "Not a valid breached hash file: ";
+
+    static final String BREACHED_HASH_LINE_INVALID =
+            "Breached hash lines must start with a hexadecimal hash of the expected length. Line: ";
+
+    static final String BREACHED_HASH_PREFIX_BITS_OUT_OF_RANGE =
+            "Breached hash prefix bits must be between 1 and 24. Value received: ";
+
+    static final String BUFFER_SIZE_TOO_SMALL =
+            "Buffer size must be at least 8 and a multiple of 4. Value received: ";
+
     static final String CHAR_GROUP_NULL = "Character group cannot be null";
 
     static final String CHAR_GROUP_EMPTY = "Character group cannot be empty and must contain at least one character";
 
+    static final String CHAR_SEQUENCE_NULL = "Character sequence cannot be null";
+
+    static final String CHAR_SEQUENCE_TOO_SHORT = "Character sequence must contain at least 2 characters: ";
+
+    static final String CONTEXT_ATTRIBUTE_NULL = "Password context attribute cannot be null";
+
+    static final String CONTEXT_NULL = "Password context cannot be null";
+
+    static final String CONTEXT_TOKEN_LENGTH_TOO_SMALL =
+            "Context token length must be at least 2. Value received: ";
+
     static final String DUPLICATE_CHARS_FOUND_IN_GROUP =
             "Character group contains duplicates. This is not allowed. Duplicates: ";
 
     static final String DUPLICATE_CHARS_FOUND_IN_OTHER_GROUP =
             "Character group duplicates some characters from an other group. This is not allowed. Duplicates: ";
 
+    static final String DUPLICATE_CHARS_FOUND_IN_SEQUENCE =
+            "Character sequence contains duplicates. This is not allowed. Duplicates: ";
+
+    static final String EXECUTOR_NULL = "Executor cannot be null";
+
+    static final String FINGERPRINT_CAPACITY_TOO_LARGE =
+            "Password count too large for a unique batch, maximum is " + FingerprintSet.MAX_CAPACITY + ". Value received: ";
+
+    static final String FORBIDDEN_SUBSTRING_EMPTY = "Forbidden substring cannot be empty";
+
+    static final String FORBIDDEN_SUBSTRING_NULL = "Forbidden substring cannot be null";
+
     static final String MAX_BIGGER_THAN_MIN = "Maximum character count cannot be smaller than minimum count: ";
 
     static final String MAX_CHAR_COUNT_NEG = "Maximum character count cannot be negative. Value received: ";
 
+    static final String MAX_REPEATED_CHARS_NEG =
+            "Maximum number of repeated characters cannot be negative. Value received: ";
+
+    static final String MAX_SEQUENCE_LENGTH_INVALID =
+            "Maximum sequence length must be 0 (unlimited) or at least 2. Value received: ";
+
+    static final String MIN_EDIT_DISTANCE_NEG = "Minimum edit distance cannot be negative. Value received: ";
+
     static final String MIN_CHAR_COUNT_NEG = "Minimum character count cannot be negative. Value received: ";
 
+    static final String NEGATIVE_DIGIT_COUNT = "Digit count cannot be negative. Value received: ";
+
+    static final String NON_POSITIVE_REQUEST = "Requested item count must be positive. Value received: ";
+
     static final String NO_CHECKER_CHAR_SET_PROVIDED =
             "At least one charset must be specified before a PasswordChecker can be created";
 
     static final String NO_MAKER_CHAR_SET_PROVIDED =
             "At least one charset must be specified before a PasswordMaker can be created";
 
+    static final String NO_POLICY_CHAR_SET_PROVIDED =
+            "At least one charset must be specified before a PasswordPolicy can be created";
+
+    static final String NO_WORD_LIST_PROVIDED =
+            "A word list must be specified before a PassphraseMaker can be created";
+
     static final String NOT_ENOUGH_CHARACTERS = "Conditions can never be fulfilled. "
             + "Not enough characters in password to satisfy all conditions, assuming character groups are disjoint";
 
+    static final String NOT_ENOUGH_WORDS = "Word list must contain at least 2 words. Words found: ";
+
+    static final String PARALLELISM_NOT_POSITIVE = "Parallelism must be at least 1. Value received: ";
+
+    static final String PASSWORD_CHECKER_NULL = "PasswordChecker cannot be null";
+
+    static final String PASSWORD_MAKER_NULL = "PasswordMaker cannot be null";
+
+    static final String POLICY_FILE_NULL = "Policy file cannot be null";
+
+    static final String POLICY_LENGTH_OUT_OF_BOUNDS =
+            "Length of generated passwords must be between minimum and maximum checker lengths: ";
+
+    static final String POLICY_LENGTH_TOO_LONG_IN_CHARS =
+            "Generated passwords can exceed the maximum checker length when characters outside of the Basic "
+            + "Multilingual Plane are counted as two: ";
+
+    static final String POOL_CAPACITY_OUT_OF_RANGE =
+            "Pool capacity must be between 1 and 2^30. Value received: ";
+
+    static final String POLICY_PROPERTIES_NULL = "Policy properties cannot be null";
+
+    static final String POLICY_PROPERTY_INVALID = "Invalid policy property value: ";
+
+    static final String POLICY_PROPERTY_UNKNOWN = "Unknown policy property: ";
+
+    static final String PREVIOUS_PASSWORD_NULL = "Previous password cannot be null";
+
+    static final String PROCESSOR_ALREADY_SUBSCRIBED = "Processor accepts a single subscriber";
+
+    static final String PROCESSOR_ERROR_NULL = "Error signalled to processor cannot be null";
+
+    static final String PROCESSOR_ITEM_NULL = "Item sent to processor cannot be null";
+
+    static final String RANDOM_SOURCE_NULL = "Random source cannot be null";
+
+    static final String RESEED_INTERVAL_NOT_POSITIVE = "Reseed interval must be positive. Value received: ";
+
+    static final String SEPARATOR_NULL = "Separator cannot be null";
+
+    static final String SEQUENCE_RULES_TOO_STRICT_FOR_GROUP =
+            "Character group too small to always satisfy repetition and sequence rules. Group: ";
+
+    static final String SEQUENCE_RULES_WITH_TEMPLATE =
+            "Repetition and sequence rules cannot be combined with a template";
+
+    static final String STRIPE_COUNT_NOT_POSITIVE = "Stripe count must be at least 1. Value received: ";
+
+    static final String SUBSCRIBER_NULL = "Subscriber cannot be null";
+
+    static final String SUBSCRIPTION_NULL = "Subscription cannot be null";
+
+    static final String TEMPLATE_EMPTY = "Template cannot be empty and must contain at least one character";
+
+    static final String TEMPLATE_NULL = "Template cannot be null";
+
+    static final String TEMPLATE_SYMBOL_UNKNOWN_GROUP =
+            "Template symbol refers to a character group that does not exist: ";
+
+    static final String TEMPLATE_TOO_FEW_FOR_GROUP =
+            "Template cannot guarantee the minimum character count of character group ";
+
+    static final String TEMPLATE_TOO_MANY_FOR_GROUP =
+            "Template allows more characters than the maximum character count of character group ";
+
+    static final String THREAD_FACTORY_NULL = "Thread factory cannot be null";
+
+    static final String TOO_MANY_CHAR_SEQUENCES = "Too many character sequences. Maximum: ";
+
     static final String TOO_MANY_CHAR_BY_TYPE_FOR_LENGTH =
             "Sum of required characters by type is greater than password length";
 
@@ -37,6 +172,19 @@ final class ErrorMessages {
 
     static final String TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH2 = " from being generated";
 
+    static final String UNIFORM_SEQUENCE_RULES_TOO_STRICT = "Repetition and sequence rules reject too many passwords "
+            + "for uniform generation, more than 1 in " + PasswordMaker.MAX_UNIFORM_DRAWS;
+
+    static final String UNIFORM_WITH_SHARED_CHARACTERS =
+            "Uniform generation requires each character to appear in a single character group, and only once";
+
+    static final String UNIQUE_BATCH_EXHAUSTED =
+            "Could not generate a new unique password; the policy does not allow enough distinct passwords. Generated: ";
+
+    static final String UNIQUE_BATCH_FULL = "Unique batch is full. Capacity: ";
+
+    static final String WORD_LIST_NOT_UTF8 = "Word list is not valid UTF-8";
+
     private ErrorMessages() {
         throw new UnsupportedOperationException();
     }
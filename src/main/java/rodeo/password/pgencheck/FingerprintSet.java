@@ -0,0 +1,102 @@
+package rodeo.password.pgencheck;
+
+import static rodeo.password.pgencheck.ErrorMessages.AT_LEAST_ONE_PASSWORD;
+import static rodeo.password.pgencheck.ErrorMessages.FINGERPRINT_CAPACITY_TOO_LARGE;
+import static rodeo.password.pgencheck.ErrorMessages.UNIQUE_BATCH_FULL;
+
+/**
+ * Open-addressing set of 64-bit fingerprints stored in a single <code>long[]</code>.
+ * <p>
+ * The table is sized once, for a fixed number of entries, and never grows. Slot value <code>0</code> marks an empty
+ * slot, so the fingerprint <code>0</code> is tracked separately. This class is not thread-safe.
+ */
+final class FingerprintSet {
+
+    static final int MAX_CAPACITY = 3 << 28;  // 3/4 of the largest power of two usable as a long[] length
+
+    private final long[] table;
+    private final int mask;
+    private final int capacity;
+
+    private int size = 0;
+    private boolean containsZero = false;
+
+    FingerprintSet(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException(AT_LEAST_ONE_PASSWORD + capacity);
+        if (capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException(FINGERPRINT_CAPACITY_TOO_LARGE + capacity);
+
+        // load factor is kept at or below 0.75
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity + capacity / 3));
+        if (tableSize < capacity + capacity / 3)
+            tableSize <<= 1;
+
+        table = new long[tableSize];
+        mask = tableSize - 1;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Add a fingerprint to the set.
+     * @param fingerprint the fingerprint to add
+     * @return <code>true</code> if the fingerprint was not already present, <code>false</code> otherwise
+     * @throws IllegalStateException if the set already contains <code>capacity</code> fingerprints
+     */
+    boolean add(long fingerprint) {
+        if (fingerprint == 0) {
+            if (containsZero)
+                return false;
+            checkNotFull();
+            containsZero = true;
+            ++size;
+            return true;
+        }
+
+        int index = spread(fingerprint) & mask;
+        while (table[index] != 0) {
+            if (table[index] == fingerprint)
+                return false;
+            index = (index + 1) & mask;
+        }
+
+        checkNotFull();
+        table[index] = fingerprint;
+        ++size;
+        return true;
+    }
+
+    boolean contains(long fingerprint) {
+        if (fingerprint == 0)
+            return containsZero;
+
+        int index = spread(fingerprint) & mask;
+        while (table[index] != 0) {
+            if (table[index] == fingerprint)
+                return true;
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    private void checkNotFull() {
+        if (size >= capacity)
+            throw new IllegalStateException(UNIQUE_BATCH_FULL + capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private static int spread(long fingerprint) {
+        // exact fingerprints are not randomly distributed, so the bits are mixed before being used as an index
+        long h = fingerprint * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
@@ -0,0 +1,46 @@
+package rodeo.password.pgencheck;
+
+/**
+ * Records a forbidden substring found in a password during validation.
+ * <p>
+ * One error is reported for each occurrence of each forbidden substring, including overlapping ones.
+ */
+public class ForbiddenSubstringError extends PasswordCheckError {
+
+    private final String forbiddenSubstring;
+    private final String foundSubstring;
+    private final int index;
+
+    ForbiddenSubstringError(String forbiddenSubstring, String foundSubstring, int index) {
+        super(PasswordCheckStatus.FORBIDDEN_SUBSTRING);
+        this.forbiddenSubstring = forbiddenSubstring;
+        this.foundSubstring = foundSubstring;
+        this.index = index;
+    }
+
+    /**
+     * Returns the forbidden substring, as specified to the factory.
+     * @return the forbidden substring
+     */
+    public String getForbiddenSubstring() {
+        return forbiddenSubstring;
+    }
+
+    /**
+     * Returns the part of the password matching the forbidden substring. It differs from the forbidden substring
+     * only by case, if matching is case-insensitive.
+     * @return the matching part of the password
+     */
+    public String getFoundSubstring() {
+        return foundSubstring;
+    }
+
+    /**
+     * Returns the index of the matching part in the password, as a <code>char</code> index.
+     * @return the index of the forbidden substring in the password
+     */
+    public int getIndex() {
+        return index;
+    }
+
+}
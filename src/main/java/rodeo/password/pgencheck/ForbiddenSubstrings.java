@@ -0,0 +1,166 @@
+package rodeo.password.pgencheck;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aho&ndash;Corasick automaton finding forbidden substrings in a password in a single pass.
+ * <p>
+ * The code points used by the forbidden substrings form a dense alphabet; any other code point sends the automaton
+ * back to its initial state. Failure links are resolved at construction time, so the automaton is a complete DFA
+ * stored in a single <code>int[]</code> of <code>stateCount * alphabetSize</code> transitions, and following a password
+ * costs one binary search and one array read per character, whatever the number of substrings.
+ * <p>
+ * When case-insensitive, substrings and passwords are folded with
+ * <code>Character.toLowerCase(Character.toUpperCase(codePoint))</code>, as
+ * <code>String.equalsIgnoreCase</code> does. A substring given more than once (after folding) is reported under its
+ * first index. Instances of this class are immutable.
+ */
+final class ForbiddenSubstrings {
+
+    /**
+     * Receives the matches found by {@link #findAll(String, MatchListener) findAll}.
+     */
+    interface MatchListener {
+        /**
+         * @param substringIndex index of the forbidden substring found
+         * @param end index, in code points, just past the end of the match in the password
+         */
+        void match(int substringIndex, int end);
+    }
+
+    private final List<String> substrings;
+    private final int[] lengths;  // in code points
+    private final boolean caseInsensitive;
+
+    private final int[] alphabet;
+    private final int[] transitions;
+    private final int[] output;      // substring ending at each state, -1 if none
+    private final int[] outputLink;  // nearest state on the failure chain with an output, -1 if none
+
+    ForbiddenSubstrings(List<String> substrings, boolean caseInsensitive) {
+        this.substrings = Collections.unmodifiableList(substrings);
+        this.caseInsensitive = caseInsensitive;
+
+        var folded = new int[substrings.size()][];
+        lengths = new int[substrings.size()];
+        int totalLength = 0;
+        for (int i = 0; i < folded.length; ++i) {
+            folded[i] = substrings.get(i).codePoints().map(this::fold).toArray();
+            lengths[i] = folded[i].length;
+            totalLength += lengths[i];
+        }
+
+        alphabet = Arrays.stream(folded).flatMapToInt(Arrays::stream).distinct().sorted().toArray();
+        int alphabetSize = alphabet.length;
+
+        // trie
+        int[] trie = new int[(totalLength + 1) * alphabetSize];
+        Arrays.fill(trie, -1);
+        int[] out = new int[totalLength + 1];
+        Arrays.fill(out, -1);
+        int stateCount = 1;
+        for (int i = 0; i < folded.length; ++i) {
+            int state = 0;
+            for (int codePoint: folded[i]) {
+                int slot = state * alphabetSize + Arrays.binarySearch(alphabet, codePoint);
+                if (trie[slot] < 0)
+                    trie[slot] = stateCount++;
+                state = trie[slot];
+            }
+            if (out[state] < 0)
+                out[state] = i;
+        }
+
+        // breadth-first resolution of failure links into a complete transition table
+        transitions = Arrays.copyOf(trie, stateCount * alphabetSize);
+        output = Arrays.copyOf(out, stateCount);
+        outputLink = new int[stateCount];
+        outputLink[0] = -1;
+        var failure = new int[stateCount];
+        var queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+
+        for (int symbol = 0; symbol < alphabetSize; ++symbol) {
+            int child = transitions[symbol];
+            if (child < 0)
+                transitions[symbol] = 0;
+            else {
+                failure[child] = 0;
+                outputLink[child] = -1;
+                queue[tail++] = child;
+            }
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            int row = state * alphabetSize;
+            for (int symbol = 0; symbol < alphabetSize; ++symbol) {
+                int child = transitions[row + symbol];
+                int next = transitions[failure[state] * alphabetSize + symbol];
+                if (child < 0)
+                    transitions[row + symbol] = next;
+                else {
+                    failure[child] = next;
+                    outputLink[child] = output[next] >= 0 ? next : outputLink[next];
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    private int fold(int codePoint) {
+        return caseInsensitive ? Character.toLowerCase(Character.toUpperCase(codePoint)) : codePoint;
+    }
+
+    private int next(int state, int codePoint) {
+        int symbol = Arrays.binarySearch(alphabet, fold(codePoint));
+        return symbol < 0 ? 0 : transitions[state * alphabet.length + symbol];
+    }
+
+    List<String> substrings() {
+        return substrings;
+    }
+
+    boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    int length(int substringIndex) {
+        return lengths[substringIndex];
+    }
+
+    /**
+     * Returns <code>true</code> if the password contains at least one of the forbidden substrings.
+     */
+    boolean matches(CharSequence password) {
+        int state = 0;
+        for (int i = 0; i < password.length(); ) {
+            int codePoint = Character.codePointAt(password, i);
+            state = next(state, codePoint);
+            if (output[state] >= 0 || outputLink[state] >= 0)
+                return true;
+            i += Character.charCount(codePoint);
+        }
+        return false;
+    }
+
+    /**
+     * Report every occurrence of every forbidden substring in the password, in order of their end position.
+     */
+    void findAll(String password, MatchListener listener) {
+        int state = 0;
+        int position = 0;
+        for (int i = 0; i < password.length(); ) {
+            int codePoint = password.codePointAt(i);
+            state = next(state, codePoint);
+            ++position;
+            for (int s = output[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s])
+                listener.match(output[s], position);
+            i += Character.charCount(codePoint);
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package rodeo.password.pgencheck;
+
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * A <code>java.util.Random</code> view over a source of uniformly distributed 32-bit values.
+ * <p>
+ * Seeding has no effect on the values returned. The view is as thread-safe as the underlying source.
+ */
+final class IntSupplierRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient IntSupplier random32;
+
+    IntSupplierRandom(IntSupplier random32) {
+        super(0);
+        this.random32 = random32;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return random32.getAsInt() >>> (32 - bits);
+    }
+
+}
@@ -0,0 +1,87 @@
+package rodeo.password.pgencheck;
+
+/**
+ * The MD4 message digest (RFC 1320), only used to compute NTLM password hashes, which are the MD4 digests of the
+ * UTF-16LE encoded passwords. MD4 is not provided by the standard Java security providers.
+ * <p>
+ * MD4 is broken as a cryptographic hash and must not be used for anything else.
+ */
+final class Md4 {
+
+    static final int DIGEST_LENGTH = 16;
+
+    private static final int[] ROUND1_SHIFTS = { 3, 7, 11, 19 };
+    private static final int[] ROUND2_SHIFTS = { 3, 5, 9, 13 };
+    private static final int[] ROUND3_SHIFTS = { 3, 9, 11, 15 };
+    private static final int[] ROUND3_ORDER = { 0, 8, 4, 12, 2, 10, 6, 14, 1, 9, 5, 13, 3, 11, 7, 15 };
+
+    private Md4() {
+        throw new UnsupportedOperationException();
+    }
+
+    static byte[] digest(byte[] message) {
+        // padding: a 1 bit, zeros up to 56 bytes modulo 64, then the bit length on 8 bytes, little-endian
+        int paddedLength = (message.length + 8) / 64 * 64 + 64;
+        var padded = new byte[paddedLength];
+        System.arraycopy(message, 0, padded, 0, message.length);
+        padded[message.length] = (byte) 0x80;
+        long bitLength = (long) message.length * 8;
+        for (int i = 0; i < 8; ++i)
+            padded[paddedLength - 8 + i] = (byte) (bitLength >>> (8 * i));
+
+        int a = 0x67452301;
+        int b = 0xefcdab89;
+        int c = 0x98badcfe;
+        int d = 0x10325476;
+        var x = new int[16];
+        for (int block = 0; block < paddedLength; block += 64) {
+            for (int i = 0; i < 16; ++i)
+                x[i] = (padded[block + 4 * i] & 0xFF)
+                        | (padded[block + 4 * i + 1] & 0xFF) << 8
+                        | (padded[block + 4 * i + 2] & 0xFF) << 16
+                        | (padded[block + 4 * i + 3] & 0xFF) << 24;
+
+            int aa = a;
+            int bb = b;
+            int cc = c;
+            int dd = d;
+
+            for (int i = 0; i < 16; ++i) {
+                int t = Integer.rotateLeft(a + ((b & c) | (~b & d)) + x[i], ROUND1_SHIFTS[i & 3]);
+                a = d;
+                d = c;
+                c = b;
+                b = t;
+            }
+            for (int i = 0; i < 16; ++i) {
+                int k = (i & 3) * 4 + (i >>> 2);
+                int t = Integer.rotateLeft(a + ((b & c) | (b & d) | (c & d)) + x[k] + 0x5a827999,
+                        ROUND2_SHIFTS[i & 3]);
+                a = d;
+                d = c;
+                c = b;
+                b = t;
+            }
+            for (int i = 0; i < 16; ++i) {
+                int t = Integer.rotateLeft(a + (b ^ c ^ d) + x[ROUND3_ORDER[i]] + 0x6ed9eba1, ROUND3_SHIFTS[i & 3]);
+                a = d;
+                d = c;
+                c = b;
+                b = t;
+            }
+
+            a += aa;
+            b += bb;
+            c += cc;
+            d += dd;
+        }
+
+        var digest = new byte[DIGEST_LENGTH];
+        int[] state = { a, b, c, d };
+        for (int i = 0; i < 4; ++i)
+            for (int j = 0; j < 4; ++j)
+                digest[4 * i + j] = (byte) (state[i] >>> (8 * j));
+        return digest;
+    }
+
+}
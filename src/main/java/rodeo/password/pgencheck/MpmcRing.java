@@ -0,0 +1,84 @@
+package rodeo.password.pgencheck;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue (Dmitry Vyukov's array-based design).
+ * <p>
+ * Each slot carries a sequence number telling producers and consumers whether it is ready for them, so a single CAS on
+ * the enqueue or dequeue position is needed per operation and producers never contend with consumers.
+ */
+final class MpmcRing<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    // capacity must be a power of two
+    MpmcRing(int capacity) {
+        buffer = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; ++i)
+            sequences.set(i, i);
+        mask = capacity - 1;
+    }
+
+    boolean offer(E element) {
+        long position = enqueuePosition.get();
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1))
+                    break;
+                position = enqueuePosition.get();
+            } else if (difference < 0)
+                return false;
+            else
+                position = enqueuePosition.get();
+        }
+
+        buffer.set(index, element);
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    E poll() {
+        long position = dequeuePosition.get();
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1))
+                    break;
+                position = dequeuePosition.get();
+            } else if (difference < 0)
+                return null;
+            else
+                position = dequeuePosition.get();
+        }
+
+        E element = buffer.get(index);
+        buffer.set(index, null);
+        sequences.set(index, position + mask + 1);
+        return element;
+    }
+
+    // approximate while producers or consumers are active
+    int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+}
@@ -0,0 +1,359 @@
+package rodeo.password.pgencheck;
+
+import java.util.BitSet;
+
+import static rodeo.password.pgencheck.ErrorMessages.AT_LEAST_ONE_WORD;
+import static rodeo.password.pgencheck.ErrorMessages.NEGATIVE_DIGIT_COUNT;
+import static rodeo.password.pgencheck.ErrorMessages.NO_WORD_LIST_PROVIDED;
+import static rodeo.password.pgencheck.ErrorMessages.RANDOM_SOURCE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.SEPARATOR_NULL;
+
+/**
+ * Create passphrases ("correct-horse-battery-staple") by picking random words from a {@link WordList WordList}.
+ * <p>
+ * The following criteria are available:
+ * <ul>
+ *     <li>number of words;</li>
+ *     <li>separator inserted between words;</li>
+ *     <li>capitalization of the first letter of each word;</li>
+ *     <li>number of random digits appended, as a block, to one randomly chosen word;</li>
+ *     <li>
+ *         the way random numbers are used in passphrase generation can be configured by implementing a
+ *         {@link RandomUIntGenerator RandomUIntGenerator}.
+ *     </li>
+ * </ul>
+ * <p>
+ * Generated passphrases can be validated by the <code>PasswordChecker</code> returned by
+ * {@link #checkerFactory() checkerFactory()}<code>.create()</code>.
+ * <p>
+ * Instances of this class are immutable and thread-safe, provided the <code>RandomUIntGenerator</code> is.
+ */
+public final class PassphraseMaker {
+
+    private static final String DIGITS = CharacterGroups.DIGITS;
+
+    private final WordList wordList;
+    private final int wordCount;
+    private final String separator;
+    private final boolean capitalize;
+    private final int digitCount;
+    private final RandomUIntGenerator randomUIntGenerator;
+
+    private final int minWordLength;
+    private final int maxWordLength;
+
+    private PassphraseMaker(
+            WordList wordList,
+            int wordCount,
+            String separator,
+            boolean capitalize,
+            int digitCount,
+            RandomUIntGenerator randomUIntGenerator)
+    {
+        this.wordList = wordList;
+        this.wordCount = wordCount;
+        this.separator = separator;
+        this.capitalize = capitalize;
+        this.digitCount = digitCount;
+        this.randomUIntGenerator = randomUIntGenerator;
+
+        if (capitalize) {
+            int min = Integer.MAX_VALUE;
+            int max = 0;
+            for (int i = 0; i < wordList.size(); ++i) {
+                int first = wordList.firstCodePoint(i);
+                int length = wordList.wordLength(i)
+                        - Character.charCount(first) + Character.charCount(Character.toUpperCase(first));
+                min = Math.min(min, length);
+                max = Math.max(max, length);
+            }
+            minWordLength = min;
+            maxWordLength = max;
+        } else {
+            minWordLength = wordList.getMinWordLength();
+            maxWordLength = wordList.getMaxWordLength();
+        }
+    }
+
+    /**
+     * Create a factory to specify passphrase generation criteria and create a <code>PassphraseMaker</code> object.
+     * @return an internal <code>PassphraseMaker</code> factory
+     * @see PassphraseMaker.Factory
+     */
+    public static Factory factory() {
+        return new Factory();
+    }
+
+    /**
+     * Returns the word list passphrases are composed from.
+     * @return the word list
+     */
+    public WordList getWordList() {
+        return wordList;
+    }
+
+    /**
+     * Returns the number of words in generated passphrases.
+     * @return the number of words
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Returns the separator inserted between words.
+     * @return the separator
+     */
+    public String getSeparator() {
+        return separator;
+    }
+
+    /**
+     * Returns <code>true</code> if the first letter of each word is capitalized.
+     * @return <code>true</code> if words are capitalized, <code>false</code> otherwise
+     */
+    public boolean isCapitalized() {
+        return capitalize;
+    }
+
+    /**
+     * Returns the number of random digits appended to one of the words.
+     * @return the number of digits
+     */
+    public int getDigitCount() {
+        return digitCount;
+    }
+
+    /**
+     * Returns the implementation of the random number generator used to create passphrases.
+     * @return the implementation of the random number generator used to create passphrases
+     * @see RandomUIntGenerator
+     * @see DefaultUIntGenerator
+     */
+    public RandomUIntGenerator getRandomUIntGenerator() {
+        return randomUIntGenerator;
+    }
+
+    /**
+     * Returns the strength of generated passphrases in bits, assuming the words of the list are distinct and the
+     * attacker knows the list and the generation criteria.
+     * @return the entropy of generated passphrases, in bits
+     */
+    public double getEntropy() {
+        double entropy = wordCount * Math.log(wordList.size());
+        if (digitCount > 0)
+            entropy += digitCount * Math.log(DIGITS.length()) + Math.log(wordCount);
+        return entropy / Math.log(2);
+    }
+
+    /**
+     * Generate a new passphrase.
+     * @return the generated passphrase
+     */
+    public String create() {
+        return create(randomUIntGenerator);
+    }
+
+    /**
+     * Generate a new passphrase, using the specified random number generator instead of the one configured in the
+     * factory.
+     * @param randomUIntGenerator the random number generator to draw words and digits from
+     * @return the generated passphrase
+     * @throws NullPointerException if <code>randomUIntGenerator</code> is <code>null</code>
+     */
+    public String create(RandomUIntGenerator randomUIntGenerator) {
+        if (randomUIntGenerator == null)
+            throw new NullPointerException(RANDOM_SOURCE_NULL);
+
+        var words = new int[wordCount];
+        randomUIntGenerator.fillUInts(words, wordCount, wordList.size());
+
+        var digits = new int[digitCount];
+        int digitsPosition = 0;
+        if (digitCount > 0) {
+            randomUIntGenerator.fillUInts(digits, digitCount, DIGITS.length());
+            if (wordCount > 1)
+                digitsPosition = randomUIntGenerator.getNextUInt(wordCount);
+        }
+
+        // UTF-8 byte length is an upper bound of UTF-16 length, so the builder never has to grow
+        int capacity = (wordCount - 1) * separator.length() + digitCount + wordCount;
+        for (int word: words)
+            capacity += wordList.byteLength(word);
+
+        var passphrase = new StringBuilder(capacity);
+        for (int i = 0; i < wordCount; ++i) {
+            if (i > 0)
+                passphrase.append(separator);
+            wordList.appendWord(passphrase, words[i], capitalize);
+            if (digitCount > 0 && i == digitsPosition)
+                for (int digit: digits)
+                    passphrase.append(DIGITS.charAt(digit));
+        }
+
+        return passphrase.toString();
+    }
+
+    /**
+     * Create a <code>PasswordChecker.Factory</code> preconfigured to accept the passphrases generated by this
+     * <code>PassphraseMaker</code>.
+     * <p>
+     * The factory is configured with the minimum and maximum length of generated passphrases and up to three
+     * character groups: the characters found in words (including their capitalized form if words are capitalized),
+     * the digits that do not appear in words, whose exact count is the digit count plus the digits of the separators,
+     * and the separator characters that appear neither in words nor in digits. More criteria can be added before calling
+     * <code>create()</code>.
+     * @return a new, preconfigured, <code>PasswordChecker.Factory</code>
+     */
+    public PasswordChecker.Factory checkerFactory() {
+        var wordChars = new BitSet();
+        wordList.forEachCodePoint(wordChars::set);
+        if (capitalize)
+            for (int i = 0; i < wordList.size(); ++i)
+                wordChars.set(Character.toUpperCase(wordList.firstCodePoint(i)));
+
+        var digitChars = new BitSet();
+        if (digitCount > 0)
+            DIGITS.codePoints().filter(codePoint -> !wordChars.get(codePoint)).forEach(digitChars::set);
+
+        var separatorChars = new BitSet();
+        separator.codePoints()
+                .filter(codePoint -> !wordChars.get(codePoint) && !digitChars.get(codePoint))
+                .forEach(separatorChars::set);
+
+        int separatorsLength = (wordCount - 1) * separator.length();
+        var factory = PasswordChecker.factory()
+                .setMinMaxLength(
+                        wordCount * minWordLength + separatorsLength + digitCount,
+                        wordCount * maxWordLength + separatorsLength + digitCount)
+                .addCharGroup(toString(wordChars));
+
+        // digits are only counted if they can't be confused with word characters; separators may contain digits too
+        if (digitChars.cardinality() == DIGITS.length()) {
+            long digitsPerSeparator = separator.codePoints().filter(digitChars::get).count();
+            int totalDigits = digitCount + (wordCount - 1) * (int) digitsPerSeparator;
+            factory.addCharGroup(toString(digitChars), totalDigits, totalDigits);
+        } else if (!digitChars.isEmpty())
+            factory.addCharGroup(toString(digitChars));
+
+        if (!separatorChars.isEmpty())
+            factory.addCharGroup(toString(separatorChars));
+
+        return factory;
+    }
+
+    private static String toString(BitSet codePoints) {
+        var chars = new StringBuilder();
+        codePoints.stream().forEach(chars::appendCodePoint);
+        return chars.toString();
+    }
+
+    /**
+     * Internal factory to create <code>PassphraseMaker</code>s.
+     * <p>
+     * This factory class allows you to build a <code>PassphraseMaker</code> using a fluent interface. You create a
+     * <code>Factory</code> by calling {@link PassphraseMaker#factory() PassphraseMaker.factory()}.
+     * Once all the criteria have been specified, you call the {@link #create() create} function
+     * to create a <code>PassphraseMaker</code> object.
+     */
+    public static final class Factory {
+
+        private WordList wordList;
+        private int wordCount = 6;
+        private String separator = "-";
+        private boolean capitalize = false;
+        private int digitCount = 0;
+        private RandomUIntGenerator randomUIntGenerator = DefaultUIntGenerator.GENERATOR;
+
+        private Factory() { }
+
+        /**
+         * Sets the word list passphrases are composed from. A word list must be specified.
+         * @param wordList the word list
+         * @return <code>this</code> factory
+         */
+        public Factory setWordList(WordList wordList) {
+            this.wordList = wordList;
+            return this;
+        }
+
+        /**
+         * Sets the number of words in generated passphrases. The default is 6.
+         * @param wordCount the number of words
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>wordCount &lt; 1</code>
+         */
+        public Factory setWordCount(int wordCount) {
+            if (wordCount < 1)
+                throw new IllegalArgumentException(AT_LEAST_ONE_WORD + wordCount);
+
+            this.wordCount = wordCount;
+            return this;
+        }
+
+        /**
+         * Sets the separator inserted between words. The default is <code>"-"</code>. An empty separator is allowed.
+         * @param separator the separator
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>separator</code> is <code>null</code>
+         */
+        public Factory setSeparator(String separator) {
+            if (separator == null)
+                throw new NullPointerException(SEPARATOR_NULL);
+
+            this.separator = separator;
+            return this;
+        }
+
+        /**
+         * Specify if the first letter of each word should be capitalized. The default is <code>false</code>.
+         * @param capitalize <code>true</code> to capitalize words, <code>false</code> otherwise
+         * @return <code>this</code> factory
+         */
+        public Factory capitalize(boolean capitalize) {
+            this.capitalize = capitalize;
+            return this;
+        }
+
+        /**
+         * Sets the number of random digits appended, as a block, to one randomly chosen word. The default is 0.
+         * @param digitCount the number of digits
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>digitCount &lt; 0</code>
+         */
+        public Factory setDigitCount(int digitCount) {
+            if (digitCount < 0)
+                throw new IllegalArgumentException(NEGATIVE_DIGIT_COUNT + digitCount);
+
+            this.digitCount = digitCount;
+            return this;
+        }
+
+        /**
+         * Specify the method used to generate random numbers used for passphrase generation.
+         * @param randomUIntGenerator an implementation of the {@link RandomUIntGenerator RandomUIntGenerator}
+         *                            interface
+         * @return <code>this</code> factory
+         * @see RandomUIntGenerator
+         * @see DefaultUIntGenerator
+         */
+        public Factory setRandomUIntGenerator(RandomUIntGenerator randomUIntGenerator) {
+            this.randomUIntGenerator = randomUIntGenerator;
+            return this;
+        }
+
+        /**
+         * Create a <code>PassphraseMaker</code> according to the specified criteria.
+         * @return a new <code>PassphraseMaker</code> matching the specified criteria
+         * @throws IllegalStateException if no word list has been specified
+         */
+        public PassphraseMaker create() {
+            if (wordList == null)
+                throw new IllegalStateException(NO_WORD_LIST_PROVIDED);
+
+            return new PassphraseMaker(wordList, wordCount, separator, capitalize, digitCount, randomUIntGenerator);
+        }
+
+    }
+
+}
@@ -51,6 +51,26 @@ public class PasswordCheckError {
                 actualCount);
     }
 
+    static PasswordCheckError repeatedCharacters(int codePoint, int length, int maxLength) {
+        return new RepeatedCharactersError(codePoint, length, maxLength);
+    }
+
+    static PasswordCheckError characterSequence(String sequence, int maxLength) {
+        return new CharacterSequenceError(sequence, maxLength);
+    }
+
+    static PasswordCheckError forbiddenSubstring(String forbiddenSubstring, String foundSubstring, int index) {
+        return new ForbiddenSubstringError(forbiddenSubstring, foundSubstring, index);
+    }
+
+    static PasswordCheckError tooSimilar(int distance, int minDistance) {
+        return new TooSimilarError(distance, minDistance);
+    }
+
+    static PasswordCheckError breachedPassword() {
+        return new PasswordCheckError(PasswordCheckStatus.BREACHED_PASSWORD);
+    }
+
     /**
      * Returns the recorded error types.
      * @return the error type
@@ -0,0 +1,430 @@
+package rodeo.password.pgencheck;
+
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import static rodeo.password.pgencheck.ErrorMessages.BATCH_SIZE_NOT_POSITIVE;
+import static rodeo.password.pgencheck.ErrorMessages.EXECUTOR_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.NON_POSITIVE_REQUEST;
+import static rodeo.password.pgencheck.ErrorMessages.PARALLELISM_NOT_POSITIVE;
+import static rodeo.password.pgencheck.ErrorMessages.PASSWORD_CHECKER_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.PROCESSOR_ALREADY_SUBSCRIBED;
+import static rodeo.password.pgencheck.ErrorMessages.PROCESSOR_ERROR_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.PROCESSOR_ITEM_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.SUBSCRIBER_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.SUBSCRIPTION_NULL;
+
+/**
+ * A <code>java.util.concurrent.Flow.Processor</code> validating a stream of passwords with a
+ * <code>PasswordChecker</code>, for use in reactive pipelines. It only depends on <code>java.util.concurrent.Flow</code>,
+ * so it can be connected to any Reactive Streams library through its <code>Flow</code> adapters.
+ * <p>
+ * Each password received from upstream is checked with {@link PasswordChecker#check(String) check} and emitted
+ * downstream as a {@link Result Result}, in the order the passwords were received. Passwords are grouped in batches
+ * checked on an <code>Executor</code>, with at most <code>parallelism</code> batches in progress at a time. A batch is
+ * handed to the executor as soon as it is full or a worker is idle, so batches only grow while all workers are busy:
+ * under load, the per-item scheduling overhead is amortised over whole batches, while a slow stream is checked item
+ * by item without waiting for a batch to fill.
+ * <p>
+ * The processor respects downstream demand: it requests from upstream only as many passwords as it can hold, at most
+ * <code>2 × parallelism × batchSize</code> passwords being received but not yet emitted, and emits results only when
+ * they have been requested. Passwords still held when upstream completes or fails are checked and emitted before
+ * <code>onComplete</code> or <code>onError</code> is forwarded. A processor accepts a single subscriber and can only be
+ * subscribed to a single publisher.
+ * <p>
+ * Use {@link #ofStrings(PasswordChecker, int, int, Executor) ofStrings} for <code>String</code> passwords, or
+ * {@link #ofCharArrays(PasswordChecker, int, int, Executor) ofCharArrays} for passwords held in <code>char</code>
+ * arrays, which are checked in place, without being copied into a <code>String</code>.
+ * @param <T> the type of the passwords, <code>String</code> or <code>char[]</code>
+ * @see PasswordChecker#processor(int)
+ */
+public final class PasswordCheckProcessor<T> implements Flow.Processor<T, PasswordCheckProcessor.Result<T>> {
+
+    /**
+     * Default number of passwords per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * A password and the result of its validation.
+     * @param <T> the type of the password
+     */
+    public static final class Result<T> {
+
+        private final T password;
+        private final PasswordCheckStatus status;
+
+        Result(T password, PasswordCheckStatus status) {
+            this.password = password;
+            this.status = status;
+        }
+
+        /**
+         * Returns the password, as received from upstream.
+         * @return the password
+         */
+        public T getPassword() {
+            return password;
+        }
+
+        /**
+         * Returns the result of the validation.
+         * @return <code>PasswordCheckStatus.OK</code> if the password matches the criteria of the checker, otherwise
+         * the first error encountered
+         * @see PasswordChecker#check(String)
+         */
+        public PasswordCheckStatus getStatus() {
+            return status;
+        }
+
+    }
+
+    private final class Batch implements Runnable {
+
+        final List<T> passwords;
+        final PasswordCheckStatus[] statuses;
+        volatile boolean done = false;
+        volatile Throwable failure = null;
+        int emitted = 0;
+
+        Batch(List<T> passwords) {
+            this.passwords = passwords;
+            statuses = new PasswordCheckStatus[passwords.size()];
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < statuses.length; ++i)
+                    statuses[i] = check.apply(checker, passwords.get(i));
+            } catch (Throwable t) {
+                failure = t;
+            }
+            running.decrementAndGet();
+            done = true;
+            drain();
+        }
+
+    }
+
+    private final PasswordChecker checker;
+    private final BiFunction<PasswordChecker, T, PasswordCheckStatus> check;
+    private final int parallelism;
+    private final int batchSize;
+    private final int capacity;
+    private final Executor executor;
+
+    // written by the upstream, downstream and worker threads
+    private final ConcurrentLinkedQueue<T> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super Result<T>> downstream;
+    private volatile boolean upstreamDone = false;
+    private volatile Throwable upstreamError = null;
+    private volatile boolean cancelled = false;
+    private volatile Throwable downstreamError = null;
+
+    // only accessed by the thread running drain()
+    private List<T> pending;
+    private final ArrayDeque<Batch> batches = new ArrayDeque<>();  // in order, until fully emitted
+    private final ArrayDeque<Batch> ready = new ArrayDeque<>();    // waiting for a free worker
+    private long outstanding = 0;  // passwords requested from upstream and not received yet
+    private long held = 0;         // passwords received and not emitted yet
+    private boolean terminated = false;
+
+    private PasswordCheckProcessor(
+            PasswordChecker checker,
+            BiFunction<PasswordChecker, T, PasswordCheckStatus> check,
+            int parallelism,
+            int batchSize,
+            Executor executor)
+    {
+        if (checker == null)
+            throw new NullPointerException(PASSWORD_CHECKER_NULL);
+        if (parallelism < 1)
+            throw new IllegalArgumentException(PARALLELISM_NOT_POSITIVE + parallelism);
+        if (batchSize < 1)
+            throw new IllegalArgumentException(BATCH_SIZE_NOT_POSITIVE + batchSize);
+        if (executor == null)
+            throw new NullPointerException(EXECUTOR_NULL);
+
+        this.checker = checker;
+        this.check = check;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        capacity = 2 * parallelism * batchSize;
+        this.executor = executor;
+        pending = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Create a processor validating <code>String</code> passwords.
+     * @param checker the <code>PasswordChecker</code> used to validate passwords
+     * @param parallelism the maximum number of batches checked at the same time
+     * @param batchSize the maximum number of passwords per batch
+     * @param executor the <code>Executor</code> running the batches
+     * @return a new processor
+     * @throws NullPointerException if <code>checker</code> or <code>executor</code> is <code>null</code>
+     * @throws IllegalArgumentException if <code>parallelism &lt; 1</code> or <code>batchSize &lt; 1</code>
+     */
+    public static PasswordCheckProcessor<String> ofStrings(
+            PasswordChecker checker,
+            int parallelism,
+            int batchSize,
+            Executor executor)
+    {
+        return new PasswordCheckProcessor<>(checker, PasswordChecker::check, parallelism, batchSize, executor);
+    }
+
+    /**
+     * Create a processor validating passwords held in <code>char</code> arrays. Arrays are checked in place and
+     * emitted as received, so they can be wiped once their result has been handled.
+     * @param checker the <code>PasswordChecker</code> used to validate passwords
+     * @param parallelism the maximum number of batches checked at the same time
+     * @param batchSize the maximum number of passwords per batch
+     * @param executor the <code>Executor</code> running the batches
+     * @return a new processor
+     * @throws NullPointerException if <code>checker</code> or <code>executor</code> is <code>null</code>
+     * @throws IllegalArgumentException if <code>parallelism &lt; 1</code> or <code>batchSize &lt; 1</code>
+     */
+    public static PasswordCheckProcessor<char[]> ofCharArrays(
+            PasswordChecker checker,
+            int parallelism,
+            int batchSize,
+            Executor executor)
+    {
+        return new PasswordCheckProcessor<>(checker,
+                (passwordChecker, password) -> passwordChecker.checkSequence(CharBuffer.wrap(password)),
+                parallelism, batchSize, executor);
+    }
+
+    static PasswordCheckProcessor<String> ofStrings(PasswordChecker checker, int parallelism) {
+        return ofStrings(checker, parallelism, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the maximum number of batches checked at the same time.
+     * @return the parallelism level
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the maximum number of passwords per batch.
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Result<T>> subscriber) {
+        if (subscriber == null)
+            throw new NullPointerException(SUBSCRIBER_NULL);
+
+        synchronized (this) {
+            if (downstream != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) { }
+
+                    @Override
+                    public void cancel() { }
+                });
+                subscriber.onError(new IllegalStateException(PROCESSOR_ALREADY_SUBSCRIBED));
+                return;
+            }
+            downstream = subscriber;
+        }
+
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    downstreamError = new IllegalArgumentException(NON_POSITIVE_REQUEST + n);
+                    cancelUpstream();
+                } else
+                    requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                cancelUpstream();
+                drain();
+            }
+        });
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (subscription == null)
+            throw new NullPointerException(SUBSCRIPTION_NULL);
+
+        synchronized (this) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        if (cancelled)
+            subscription.cancel();
+        drain();
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (item == null)
+            throw new NullPointerException(PROCESSOR_ITEM_NULL);
+
+        incoming.offer(item);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (throwable == null)
+            throw new NullPointerException(PROCESSOR_ERROR_NULL);
+
+        upstreamError = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void cancelUpstream() {
+        var subscription = upstream;
+        if (subscription != null)
+            subscription.cancel();
+    }
+
+    // Serializes all state changes and downstream signals: whichever thread gets here first runs the loop, the others
+    // only make it run one more time.
+    private void drain() {
+        if (wip.getAndIncrement() != 0)
+            return;
+
+        int missed = 1;
+        do {
+            if (!terminated) {
+                if (cancelled)
+                    discard();
+                else
+                    process();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void process() {
+        T item;
+        while ((item = incoming.poll()) != null) {
+            --outstanding;
+            ++held;
+            pending.add(item);
+            if (pending.size() == batchSize)
+                seal();
+        }
+        if (!pending.isEmpty() && ready.isEmpty() && (running.get() < parallelism || upstreamDone))
+            seal();
+        while (!ready.isEmpty() && running.get() < parallelism)
+            dispatch(ready.poll());
+
+        var subscriber = downstream;
+        if (subscriber == null)
+            return;
+        if (downstreamError != null) {
+            terminate(subscriber, downstreamError);
+            return;
+        }
+
+        long demand = requested.get();
+        long emitted = 0;
+        while (emitted != demand && !cancelled) {
+            var batch = batches.peek();
+            if (batch == null || !batch.done)
+                break;
+            if (batch.failure != null) {
+                cancelUpstream();
+                terminate(subscriber, batch.failure);
+                return;
+            }
+
+            int index = batch.emitted++;
+            if (batch.emitted == batch.statuses.length)
+                batches.poll();
+            --held;
+            ++emitted;
+            subscriber.onNext(new Result<>(batch.passwords.get(index), batch.statuses[index]));
+        }
+        if (emitted != 0 && demand != Long.MAX_VALUE)
+            requested.addAndGet(-emitted);
+
+        if (upstreamDone && incoming.isEmpty() && batches.isEmpty()) {
+            terminate(subscriber, upstreamError);
+            return;
+        }
+
+        var subscription = upstream;
+        long room = capacity - held - outstanding;
+        if (subscription != null && !upstreamDone && room >= Math.max(1, batchSize / 2)) {
+            outstanding += room;
+            subscription.request(room);
+        }
+    }
+
+    private void seal() {
+        var batch = new Batch(pending);
+        pending = new ArrayList<>(batchSize);
+        batches.add(batch);
+        ready.add(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        running.incrementAndGet();
+        try {
+            executor.execute(batch);
+        } catch (RuntimeException e) {
+            running.decrementAndGet();
+            batch.failure = e;
+            batch.done = true;
+        }
+    }
+
+    private void terminate(Flow.Subscriber<? super Result<T>> subscriber, Throwable error) {
+        terminated = true;
+        discard();
+        if (error == null)
+            subscriber.onComplete();
+        else
+            subscriber.onError(error);
+    }
+
+    private void discard() {
+        incoming.clear();
+        pending.clear();
+        batches.clear();
+        ready.clear();
+    }
+
+}
@@ -36,6 +36,26 @@ public enum PasswordCheckStatus {
     /**
      * password contains too many representatives from a character group
      */
-    TOO_MANY_OF_CHARACTER_GROUP
+    TOO_MANY_OF_CHARACTER_GROUP,
+    /**
+     * password contains a run of identical characters longer than allowed
+     */
+    REPEATED_CHARACTERS,
+    /**
+     * password contains a character sequence, such as <code>abc</code> or <code>qwe</code>, longer than allowed
+     */
+    CHARACTER_SEQUENCE,
+    /**
+     * password contains a forbidden substring
+     */
+    FORBIDDEN_SUBSTRING,
+    /**
+     * password is too similar to the previous password
+     */
+    TOO_SIMILAR,
+    /**
+     * password appears in a list of breached passwords
+     */
+    BREACHED_PASSWORD
 
 }
@@ -1,14 +1,20 @@
 package rodeo.password.pgencheck;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import static rodeo.password.pgencheck.ErrorMessages.AT_LEAST_ONE_CHAR;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASHES_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.CONTEXT_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.CONTEXT_TOKEN_LENGTH_TOO_SMALL;
+import static rodeo.password.pgencheck.ErrorMessages.FORBIDDEN_SUBSTRING_EMPTY;
+import static rodeo.password.pgencheck.ErrorMessages.FORBIDDEN_SUBSTRING_NULL;
 import static rodeo.password.pgencheck.ErrorMessages.NOT_ENOUGH_CHARACTERS;
 import static rodeo.password.pgencheck.ErrorMessages.NO_CHECKER_CHAR_SET_PROVIDED;
 import static rodeo.password.pgencheck.ErrorMessages.MAX_BIGGER_THAN_MIN;
+import static rodeo.password.pgencheck.ErrorMessages.MIN_EDIT_DISTANCE_NEG;
 
 /**
  * Validate passwords according to predefined criteria.
@@ -24,23 +30,70 @@ import static rodeo.password.pgencheck.ErrorMessages.MAX_BIGGER_THAN_MIN;
  *             <li>minimum and maximum number of characters per group can be specified.</li>
  *         </ul>
  *     </li>
+ *     <li>maximum length of runs of identical characters;</li>
+ *     <li>
+ *         maximum length of character sequences, ascending or descending (<code>abc</code>, <code>321</code>) or
+ *         following configurable sequences such as keyboard rows (<code>qwe</code>);
+ *     </li>
+ *     <li>forbidden substrings, such as company names or common words, optionally case-insensitive;</li>
+ *     <li>
+ *         exact match against a corpus of breached passwords, stored as hashes in a memory-mapped
+ *         {@link BreachedHashes BreachedHashes} file;
+ *     </li>
+ *     <li>
+ *         user information, such as user name or email address, passed with each check in a
+ *         {@link PasswordContext PasswordContext};
+ *     </li>
+ *     <li>minimum edit distance from the previous password, also passed in the context.</li>
  * </ul>
+ * <p>
+ * All character criteria are evaluated in a single pass over the password. Forbidden substrings are found in one
+ * more pass, whose cost does not depend on the number of forbidden substrings.
+ * <p>
+ * Instances of this class are immutable: all their tables are primitive arrays filled when the checker is created.
+ * A single checker can be shared by any number of threads without synchronization.
  */
 public final class PasswordChecker extends PasswordData {
 
     private final int minLength;
     private final int maxLength;
+    private final ForbiddenSubstrings forbiddenSubstrings;  // null if there are none
+    private final BreachedHashes breachedHashes;  // null if there are none
+    private final int contextTokenLength;
+    private final int minEditDistance;
+
+    static final int DEFAULT_CONTEXT_TOKEN_LENGTH = 4;
+    static final int DEFAULT_MIN_EDIT_DISTANCE = 3;
 
     private PasswordChecker(
             int minLength,
             int maxLength,
-            List<String> charGroups,
+            CompiledCharGroup[] charGroups,
             List<Integer> groupMinCounts,
-            List<Integer> groupMaxCounts)
+            List<Integer> groupMaxCounts,
+            SequenceRules sequenceRules,
+            ForbiddenSubstrings forbiddenSubstrings,
+            BreachedHashes breachedHashes,
+            int contextTokenLength,
+            int minEditDistance)
     {
-        super(charGroups, groupMinCounts, groupMaxCounts);
+        super(new CharGroupTables(charGroups, groupMinCounts, groupMaxCounts, sequenceRules));
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.forbiddenSubstrings = forbiddenSubstrings;
+        this.breachedHashes = breachedHashes;
+        this.contextTokenLength = contextTokenLength;
+        this.minEditDistance = minEditDistance;
+    }
+
+    PasswordChecker(int minLength, int maxLength, CharGroupTables tables) {
+        super(tables);
         this.minLength = minLength;
         this.maxLength = maxLength;
+        forbiddenSubstrings = null;
+        breachedHashes = null;
+        contextTokenLength = DEFAULT_CONTEXT_TOKEN_LENGTH;
+        minEditDistance = DEFAULT_MIN_EDIT_DISTANCE;
     }
 
     /**
@@ -68,6 +121,50 @@ public final class PasswordChecker extends PasswordData {
         return maxLength;
     }
 
+    /**
+     * Returns the substrings that passwords must not contain.
+     * @return the forbidden substrings, an empty list if there are none
+     */
+    public List<String> getForbiddenSubstrings() {
+        return forbiddenSubstrings == null ? Collections.emptyList() : forbiddenSubstrings.substrings();
+    }
+
+    /**
+     * Returns <code>true</code> if forbidden substrings are matched regardless of case.
+     * @return <code>true</code> if forbidden substrings are case-insensitive
+     */
+    public boolean areForbiddenSubstringsCaseInsensitive() {
+        return forbiddenSubstrings != null && forbiddenSubstrings.isCaseInsensitive();
+    }
+
+    /**
+     * Returns the blocklist of breached passwords.
+     * @return the breached password hashes, <code>null</code> if there are none
+     * @see Factory#setBreachedHashes(BreachedHashes)
+     */
+    public BreachedHashes getBreachedHashes() {
+        return breachedHashes;
+    }
+
+    /**
+     * Returns the number of consecutive characters of a context token that a password must not contain.
+     * @return the minimum length of context information rejected in passwords
+     * @see #check(String, PasswordContext)
+     */
+    public int getContextTokenLength() {
+        return contextTokenLength;
+    }
+
+    /**
+     * Returns the minimum edit distance required between a password and the previous password of the user, when
+     * the previous password is given in the context.
+     * @return the minimum edit distance from the previous password, <code>0</code> if there is no such criterion
+     * @see PasswordContext.Factory#setPreviousPassword(String)
+     */
+    public int getMinEditDistance() {
+        return minEditDistance;
+    }
+
     /**
      * Check if a password can be validated against the specified criteria and return <code>true</code>
      * if that's the case.
@@ -75,39 +172,70 @@ public final class PasswordChecker extends PasswordData {
      * @return <code>true</code> if <code>password</code> matches the criteria, false otherwise
      */
     public boolean quickCheck(String password) {
+        return quickCheckRules(password) && !isBreached(password);
+    }
+
+    // quickCheck(String) without the breached password lookup
+    private boolean quickCheckRules(String password) {
         if (password.length() < minLength)
             return false;
 
         if (password.length() > maxLength)
             return false;
 
-        for (int codePoint: password.codePoints().toArray())
-            if (getAllChars().indexOf(codePoint) == -1)
-                return false;
+        var charCounts = new int[charGroups().size()];
+        var run = newRun();
+        if (tables().scan(password, charCounts, run) > 0)
+            return false;
 
-        var charCounts = getCharacterTypeCounts(password);
-        for (int i = 0; i < groupMinCounts().size(); ++i) {
-            int count = charCounts.get(i);
-            if (count < groupMinCounts().get(i)
-                    || (groupMaxCounts().get(i) != 0 && count > groupMaxCounts().get(i)))
+        for (int i = 0; i < charCounts.length; ++i) {
+            int count = charCounts[i];
+            int max = tables().groupMaxCount(i);
+            if (count < tables().groupMinCount(i) || (max != 0 && count > max))
                 return false;
         }
 
-        return true;
+        if (run != null && (run.tooManyRepeatedCharacters() || run.sequenceTooLong()))
+            return false;
+
+        return forbiddenSubstrings == null || !forbiddenSubstrings.matches(password);
     }
 
-    private Map<Integer, Integer> getCharacterTypeCounts(String password) {
-        var counts = new HashMap<Integer, Integer>();
-        for (int i = 0; i < charGroups().size(); ++i)
-            counts.put(i, 0);
+    // the lookup may read from disk, so every check calls it last, once all the in-memory criteria are met
+    private boolean isBreached(CharSequence password) {
+        return breachedHashes != null && breachedHashes.contains(password);
+    }
 
-        password.codePoints().forEach(codePoint -> {
-            for (int i = 0; i < charGroups().size(); ++i)
-                if (charGroups().get(i).indexOf(codePoint) != - 1)
-                    counts.put(i, counts.get(i) + 1);
-        });
+    // null when there are no repetition or sequence rules, so the scan does not follow runs for nothing
+    private SequenceRules.Run newRun() {
+        var rules = tables().sequenceRules();
+        return rules.isEmpty() ? null : rules.newRun();
+    }
+
+    /**
+     * Check if a password can be validated against the specified criteria and does not contain information about the
+     * user, and return <code>true</code> if that's the case.
+     * @param password to be validated
+     * @param context information about the user
+     * @return <code>true</code> if <code>password</code> matches the criteria, false otherwise
+     * @see #check(String, PasswordContext)
+     */
+    public boolean quickCheck(String password, PasswordContext context) {
+        if (context == null)
+            throw new NullPointerException(CONTEXT_NULL);
+
+        return quickCheckRules(password)
+                && !new ContextMatcher(context, contextTokenLength).matches(password)
+                && editDistance(password, context) >= minEditDistance
+                && !isBreached(password);
+    }
+
+    // exact distance from the previous password when below minEditDistance, minEditDistance otherwise
+    private int editDistance(String password, PasswordContext context) {
+        if (minEditDistance == 0 || !context.hasPreviousPassword())
+            return minEditDistance;
 
-        return counts;
+        return EditDistance.bounded(PasswordContext.fold(password), context.previousPassword(), minEditDistance - 1);
     }
 
     /**
@@ -120,33 +248,110 @@ public final class PasswordChecker extends PasswordData {
      *     <li>maximum length of password;</li>
      *     <li>illegal characters;</li>
      *     <li>not enough characters from a certain group;</li>
-     *     <li>too many characters form a certain group.</li>
+     *     <li>too many characters form a certain group;</li>
+     *     <li>run of identical characters too long;</li>
+     *     <li>character sequence too long;</li>
+     *     <li>forbidden substring;</li>
+     *     <li>breached password.</li>
      * </ul>
+     * <p>
+     * The breached password lookup, the only one that may read from disk, is done last, and only for passwords
+     * meeting all the other criteria.
      * @param password to be validated
      * @return <code>PasswordCheckStatus.OK</code> if <code>password</code> matches the criteria, otherwise a code
      * for the first error encountered
      * @see PasswordCheckStatus
      */
     public PasswordCheckStatus check(String password) {
+        return checkSequence(password);
+    }
+
+    // check(String) for any character sequence, such as a CharBuffer wrapping a char array, without copying it
+    PasswordCheckStatus checkSequence(CharSequence password) {
+        var status = checkRules(password);
+        if (status == PasswordCheckStatus.OK && isBreached(password))
+            return PasswordCheckStatus.BREACHED_PASSWORD;
+
+        return status;
+    }
+
+    // checkSequence(CharSequence) without the breached password lookup
+    private PasswordCheckStatus checkRules(CharSequence password) {
         if (password.length() < minLength)
             return PasswordCheckStatus.TOO_SHORT;
 
         if (password.length() > maxLength)
             return PasswordCheckStatus.TOO_LONG;
 
-        for (int codePoint: password.codePoints().toArray())
-            if (getAllChars().indexOf(codePoint) == -1)
-                return PasswordCheckStatus.ILLEGAL_CHARACTER;
+        var charCounts = new int[charGroups().size()];
+        var run = newRun();
+        if (tables().scan(password, charCounts, run) > 0)
+            return PasswordCheckStatus.ILLEGAL_CHARACTER;
 
-        var charCounts = getCharacterTypeCounts(password);
-        for (int i = 0; i < groupMinCounts().size(); ++i) {
-            int count = charCounts.get(i);
-            if (count < groupMinCounts().get(i))
+        for (int i = 0; i < charCounts.length; ++i) {
+            int count = charCounts[i];
+            if (count < tables().groupMinCount(i))
                 return PasswordCheckStatus.NOT_ENOUGH_OF_CHARACTER_GROUP;
-            if (groupMaxCounts().get(i) > 0 && count > groupMaxCounts().get(i))
+            int max = tables().groupMaxCount(i);
+            if (max > 0 && count > max)
                 return PasswordCheckStatus.TOO_MANY_OF_CHARACTER_GROUP;
         }
 
+        if (run != null) {
+            if (run.tooManyRepeatedCharacters())
+                return PasswordCheckStatus.REPEATED_CHARACTERS;
+            if (run.sequenceTooLong())
+                return PasswordCheckStatus.CHARACTER_SEQUENCE;
+        }
+
+        if (forbiddenSubstrings != null && forbiddenSubstrings.matches(password))
+            return PasswordCheckStatus.FORBIDDEN_SUBSTRING;
+
+        return PasswordCheckStatus.OK;
+    }
+
+    /**
+     * Check if a password can be validated against the specified criteria and does not contain information about the
+     * user, and return the first error encountered if any or <code>PasswordCheckStatus.OK</code> otherwise.
+     * <p>
+     * The attributes of the context are split into tokens of letters and digits. A password containing
+     * {@link #getContextTokenLength() getContextTokenLength()} or more consecutive characters of a token, regardless
+     * of case, is rejected with
+     * {@link PasswordCheckStatus#FORBIDDEN_SUBSTRING PasswordCheckStatus.FORBIDDEN_SUBSTRING}. For example, with the
+     * default length of 4 and a user name of <code>jsmith</code>, <code>Smit#2024</code> is rejected. This criterion
+     * is checked after all the others listed for {@link #check(String) check(String)} but the breached password
+     * lookup; its cost is linear in the length of the password and of the context.
+     * <p>
+     * If the context carries the previous password of the user, a password whose edit distance to it, regardless of
+     * case, is smaller than {@link #getMinEditDistance() getMinEditDistance()} is then rejected with
+     * {@link PasswordCheckStatus#TOO_SIMILAR PasswordCheckStatus.TOO_SIMILAR}. The distance is computed with a
+     * bit-parallel algorithm that stops as soon as the passwords are known to be different enough.
+     * <p>
+     * The breached password lookup is still done last, after the context and edit distance criteria.
+     * @param password to be validated
+     * @param context information about the user
+     * @return <code>PasswordCheckStatus.OK</code> if <code>password</code> matches the criteria, otherwise a code
+     * for the first error encountered
+     * @throws NullPointerException if <code>context</code> is <code>null</code>
+     * @see PasswordContext
+     */
+    public PasswordCheckStatus check(String password, PasswordContext context) {
+        if (context == null)
+            throw new NullPointerException(CONTEXT_NULL);
+
+        var status = checkRules(password);
+        if (status != PasswordCheckStatus.OK)
+            return status;
+
+        if (new ContextMatcher(context, contextTokenLength).matches(password))
+            return PasswordCheckStatus.FORBIDDEN_SUBSTRING;
+
+        if (editDistance(password, context) < minEditDistance)
+            return PasswordCheckStatus.TOO_SIMILAR;
+
+        if (isBreached(password))
+            return PasswordCheckStatus.BREACHED_PASSWORD;
+
         return PasswordCheckStatus.OK;
     }
 
@@ -159,6 +364,15 @@ public final class PasswordChecker extends PasswordData {
      * @see PasswordCheckError
      */
     public List<PasswordCheckError> fullCheck(String password) {
+        var errors = fullCheckRules(password);
+        if (isBreached(password))
+            errors.add(PasswordCheckError.breachedPassword());
+
+        return errors;
+    }
+
+    // fullCheck(String) without the breached password lookup
+    private List<PasswordCheckError> fullCheckRules(String password) {
         var errors = new ArrayList<PasswordCheckError>();
 
         if (password.length() < minLength)
@@ -167,23 +381,101 @@ public final class PasswordChecker extends PasswordData {
         if (password.length() > maxLength)
             errors.add(PasswordCheckError.tooLong());
 
-        password.codePoints().forEach(codePoint -> {
-            if (getAllChars().indexOf(codePoint) == -1)
-                errors.add(PasswordCheckError.illegalCharacter(codePoint));
-        });
+        var charCounts = new int[charGroups().size()];
+        var run = newRun();
+        if (tables().scan(password, charCounts, run) > 0)
+            password.codePoints().forEach(codePoint -> {
+                if (!tables().contains(codePoint))
+                    errors.add(PasswordCheckError.illegalCharacter(codePoint));
+            });
+
+        for (int i = 0; i < charCounts.length; ++i) {
+            int count = charCounts[i];
+            int min = tables().groupMinCount(i);
+            int max = tables().groupMaxCount(i);
+            if (count < min)
+                errors.add(PasswordCheckError.notEnoughOfCharacterType(i, charGroups().get(i), min, count));
+            if (max > 0 && count > max)
+                errors.add(PasswordCheckError.tooManyOfCharacterType(i, charGroups().get(i), max, count));
+        }
 
-        var charCounts = getCharacterTypeCounts(password);
-        for (int i = 0; i < groupMinCounts().size(); ++i) {
-            int count = charCounts.get(i);
-            if (count < groupMinCounts().get(i))
-                errors.add(PasswordCheckError.notEnoughOfCharacterType(i, charGroups().get(i), groupMinCounts().get(i), charCounts.get(i)));
-            if (groupMaxCounts().get(i) > 0 && count > groupMaxCounts().get(i))
-                errors.add(PasswordCheckError.tooManyOfCharacterType(i, charGroups().get(i), groupMaxCounts().get(i), charCounts.get(i)));
+        if (run != null) {
+            if (run.tooManyRepeatedCharacters()) {
+                int end = password.offsetByCodePoints(0, run.longestRepeatEnd());
+                errors.add(PasswordCheckError.repeatedCharacters(
+                        password.codePointBefore(end), run.longestRepeat(), getMaxRepeatedCharacters()));
+            }
+            if (run.sequenceTooLong()) {
+                int end = password.offsetByCodePoints(0, run.longestSequenceEnd());
+                int start = password.offsetByCodePoints(end, -run.longestSequence());
+                errors.add(PasswordCheckError.characterSequence(
+                        password.substring(start, end), getMaxSequenceLength()));
+            }
         }
 
+        if (forbiddenSubstrings != null)
+            forbiddenSubstrings.findAll(password, (substringIndex, end) -> {
+                int endIndex = password.offsetByCodePoints(0, end);
+                int startIndex = password.offsetByCodePoints(endIndex, -forbiddenSubstrings.length(substringIndex));
+                errors.add(PasswordCheckError.forbiddenSubstring(
+                        forbiddenSubstrings.substrings().get(substringIndex),
+                        password.substring(startIndex, endIndex),
+                        startIndex));
+            });
+
+        return errors;
+    }
+
+    /**
+     * Check if a password can be validated against the specified criteria and does not contain information about the
+     * user, and return a list of all the problems encountered. This list is empty if there is no error.
+     * <p>
+     * Each part of the password found in the context is reported as a
+     * {@link ForbiddenSubstringError ForbiddenSubstringError}, whose forbidden substring is the case-folded context
+     * token the part was found in. A password too similar to the previous password is reported as a
+     * {@link TooSimilarError TooSimilarError}.
+     * @param password to be validated
+     * @param context information about the user
+     * @return a list of all the errors encountered while validating the password or an empty list if the
+     * <code>password</code> matches all the criteria
+     * @throws NullPointerException if <code>context</code> is <code>null</code>
+     * @see #check(String, PasswordContext)
+     */
+    public List<PasswordCheckError> fullCheck(String password, PasswordContext context) {
+        if (context == null)
+            throw new NullPointerException(CONTEXT_NULL);
+
+        var errors = fullCheckRules(password);
+        new ContextMatcher(context, contextTokenLength).findAll(password, (token, start, end) -> {
+            int startIndex = password.offsetByCodePoints(0, start);
+            int endIndex = password.offsetByCodePoints(startIndex, end - start);
+            errors.add(PasswordCheckError.forbiddenSubstring(
+                    new String(token, 0, token.length), password.substring(startIndex, endIndex), startIndex));
+        });
+
+        int distance = editDistance(password, context);
+        if (distance < minEditDistance)
+            errors.add(PasswordCheckError.tooSimilar(distance, minEditDistance));
+
+        if (isBreached(password))
+            errors.add(PasswordCheckError.breachedPassword());
+
         return errors;
     }
 
+    /**
+     * Create a <code>Flow.Processor</code> validating a stream of <code>String</code> passwords with this checker, in
+     * batches of {@link PasswordCheckProcessor#DEFAULT_BATCH_SIZE PasswordCheckProcessor.DEFAULT_BATCH_SIZE}
+     * passwords checked on the common <code>ForkJoinPool</code>.
+     * @param parallelism the maximum number of batches checked at the same time
+     * @return a new <code>PasswordCheckProcessor</code> using this <code>PasswordChecker</code>
+     * @throws IllegalArgumentException if <code>parallelism &lt; 1</code>
+     * @see PasswordCheckProcessor
+     */
+    public PasswordCheckProcessor<String> processor(int parallelism) {
+        return PasswordCheckProcessor.ofStrings(this, parallelism);
+    }
+
     /**
      * Internal factory to create <code>PasswordChecker</code>s.
      * <p>
@@ -196,6 +488,11 @@ public final class PasswordChecker extends PasswordData {
 
         private int minLength = 16;
         private int maxLength = 64;
+        private final List<String> forbiddenSubstrings = new ArrayList<>();
+        private boolean forbiddenSubstringsCaseInsensitive = false;
+        private int contextTokenLength = DEFAULT_CONTEXT_TOKEN_LENGTH;
+        private int minEditDistance = DEFAULT_MIN_EDIT_DISTANCE;
+        private BreachedHashes breachedHashes = null;
 
         private Factory() { }
 
@@ -217,6 +514,109 @@ public final class PasswordChecker extends PasswordData {
             return this;
         }
 
+        /**
+         * Add a substring that passwords must not contain, such as a company or product name. Passwords containing
+         * it are rejected with {@link PasswordCheckStatus#FORBIDDEN_SUBSTRING PasswordCheckStatus.FORBIDDEN_SUBSTRING}.
+         * <p>
+         * All forbidden substrings are compiled into a single automaton when the checker is created, so they are all
+         * found in one pass over the password, however many there are.
+         * @param forbiddenSubstring the forbidden substring
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>forbiddenSubstring</code> is <code>null</code>
+         * @throws IllegalArgumentException if <code>forbiddenSubstring</code> is empty
+         * @see #setForbiddenSubstringsCaseInsensitive(boolean)
+         */
+        public Factory addForbiddenSubstring(String forbiddenSubstring) {
+            if (forbiddenSubstring == null)
+                throw new NullPointerException(FORBIDDEN_SUBSTRING_NULL);
+            if (forbiddenSubstring.isEmpty())
+                throw new IllegalArgumentException(FORBIDDEN_SUBSTRING_EMPTY);
+
+            forbiddenSubstrings.add(forbiddenSubstring);
+            return this;
+        }
+
+        /**
+         * Add substrings that passwords must not contain.
+         * @param forbiddenSubstrings the forbidden substrings
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>forbiddenSubstrings</code> or one of its elements is
+         * <code>null</code>
+         * @throws IllegalArgumentException if one of the substrings is empty
+         * @see #addForbiddenSubstring(String)
+         */
+        public Factory addForbiddenSubstrings(Collection<String> forbiddenSubstrings) {
+            if (forbiddenSubstrings == null)
+                throw new NullPointerException(FORBIDDEN_SUBSTRING_NULL);
+
+            for (String forbiddenSubstring: forbiddenSubstrings)
+                addForbiddenSubstring(forbiddenSubstring);
+            return this;
+        }
+
+        /**
+         * Specify whether forbidden substrings are matched regardless of case. The default is <code>false</code>.
+         * @param caseInsensitive <code>true</code> if forbidden substrings should be matched regardless of case
+         * @return <code>this</code> factory
+         */
+        public Factory setForbiddenSubstringsCaseInsensitive(boolean caseInsensitive) {
+            forbiddenSubstringsCaseInsensitive = caseInsensitive;
+            return this;
+        }
+
+        /**
+         * Sets the number of consecutive characters of a context token that passwords must not contain when checked
+         * with a {@link PasswordContext PasswordContext}. The default is 4.
+         * @param contextTokenLength the minimum length of context information rejected in passwords
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>contextTokenLength &lt; 2</code>
+         * @see PasswordChecker#check(String, PasswordContext)
+         */
+        public Factory setContextTokenLength(int contextTokenLength) {
+            if (contextTokenLength < 2)
+                throw new IllegalArgumentException(CONTEXT_TOKEN_LENGTH_TOO_SMALL + contextTokenLength);
+
+            this.contextTokenLength = contextTokenLength;
+            return this;
+        }
+
+        /**
+         * Sets the minimum edit distance required between a password and the previous password of the user, when the
+         * previous password is given in a {@link PasswordContext PasswordContext}. The edit distance is the minimum
+         * number of characters to insert, delete or replace to go from one password to the other, regardless of case:
+         * <code>Winter2025!</code> and <code>winter2026!</code> are at distance 1. The default is 3; <code>0</code>
+         * (zero) disables the criterion.
+         * @param minEditDistance the minimum edit distance from the previous password
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>minEditDistance &lt; 0</code>
+         * @see PasswordContext.Factory#setPreviousPassword(String)
+         */
+        public Factory setMinEditDistance(int minEditDistance) {
+            if (minEditDistance < 0)
+                throw new IllegalArgumentException(MIN_EDIT_DISTANCE_NEG + minEditDistance);
+
+            this.minEditDistance = minEditDistance;
+            return this;
+        }
+
+        /**
+         * Reject passwords found in a blocklist of breached password hashes with
+         * {@link PasswordCheckStatus#BREACHED_PASSWORD PasswordCheckStatus.BREACHED_PASSWORD}. Passwords are hashed as
+         * given, so the check is case-sensitive. The blocklist stays memory-mapped and can be shared by several
+         * checkers.
+         * @param breachedHashes the breached password hashes
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>breachedHashes</code> is <code>null</code>
+         * @see BreachedHashes#open(java.nio.file.Path)
+         */
+        public Factory setBreachedHashes(BreachedHashes breachedHashes) {
+            if (breachedHashes == null)
+                throw new NullPointerException(BREACHED_HASHES_NULL);
+
+            this.breachedHashes = breachedHashes;
+            return this;
+        }
+
         /**
          * Create a <code>PasswordChecker</code> according to the specified criteria.
          * @return a new <code>PasswordChecker</code> matching the specified criteria
@@ -233,9 +633,17 @@ public final class PasswordChecker extends PasswordData {
             return new PasswordChecker(
                     minLength,
                     maxLength,
-                    charGroupsCopy(),
+                    compiledCharGroups(),
                     groupMinCountsCopy(),
-                    groupMaxCountsCopy());
+                    groupMaxCountsCopy(),
+                    sequenceRules(),
+                    forbiddenSubstrings.isEmpty()
+                            ? null
+                            : new ForbiddenSubstrings(new ArrayList<>(forbiddenSubstrings),
+                                    forbiddenSubstringsCaseInsensitive),
+                    breachedHashes,
+                    contextTokenLength,
+                    minEditDistance);
         }
 
         private boolean isSetCountSumLargerThanMaxPasswordCount() {
@@ -250,7 +658,7 @@ public final class PasswordChecker extends PasswordData {
             return this;
         }
 
-        // !! The 4 methods below are only overloaded for documentation purpose !!
+        // !! The 10 methods below are only overloaded for documentation purpose !!
 
         /**
          * Add a group of allowed characters in the composition of the password.
@@ -304,6 +712,64 @@ public final class PasswordChecker extends PasswordData {
             return super.addCharGroup(charGroup, minCount, maxCount);
         }
 
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the <code>PasswordChecker</code> created.
+         * @param charGroup the compiled character group
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups, unless duplicates have been explicitly
+         * allowed by calling <code>disallowDuplicateCharacters(false)</code>
+         * @see #disallowDuplicateCharacters(boolean)
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup) {
+            return super.addCharGroup(charGroup);
+        }
+
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password and specifies a
+         * minimum character count.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the <code>PasswordChecker</code> created.
+         * @param charGroup the compiled character group
+         * @param minCount minimum number of characters from this group that must be present in the password
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups, unless duplicates have been explicitly
+         * allowed by calling <code>disallowDuplicateCharacters(false)</code>
+         * @throws IllegalArgumentException if <code>minCount &lt; 0</code>
+         * @see #disallowDuplicateCharacters(boolean)
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup, int minCount) {
+            return super.addCharGroup(charGroup, minCount, 0);
+        }
+
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password and specifies a
+         * minimum and maximum character count.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the <code>PasswordChecker</code> created.
+         * @param charGroup the compiled character group
+         * @param minCount minimum number of characters from this group that must be present in the password
+         * @param maxCount maximum number of characters from this group allowed in the password; a value of
+         *                 <code>0</code> (zero) means "unlimited" (same as calling
+         *                 {@link #addCharGroup(CompiledCharGroup, int) addCharGroup(CompiledCharGroup, int)})
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups, unless duplicates have been explicitly
+         * allowed by calling <code>disallowDuplicateCharacters(false)</code>
+         * @throws IllegalArgumentException if <code>minCount &lt; 0</code>, or <code>maxCount &lt; 0</code>, or
+         * <code>maxCount &lt; minCount</code> (unless <code>maxCount == 0</code>)
+         * @see #disallowDuplicateCharacters(boolean)
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup, int minCount, int maxCount) {
+            return super.addCharGroup(charGroup, minCount, maxCount);
+        }
+
         /**
          * Disallow or allow duplicates inside character groups and between character groups. Allowing duplicate is
          * usually unnecessary and error-prone.
@@ -316,6 +782,51 @@ public final class PasswordChecker extends PasswordData {
             return super.disallowDuplicateCharacters(disallowDuplicateCharacters);
         }
 
+        /**
+         * Sets the maximum number of identical consecutive characters allowed in passwords. For example, with a value
+         * of 2, <code>aab</code> is accepted but <code>aaab</code> is rejected with
+         * {@link PasswordCheckStatus#REPEATED_CHARACTERS PasswordCheckStatus.REPEATED_CHARACTERS}. The default is
+         * <code>0</code> (zero), meaning unlimited.
+         * @param maxRepeatedCharacters the maximum length of runs of identical characters, or <code>0</code>
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>maxRepeatedCharacters &lt; 0</code>
+         */
+        @Override
+        public Factory setMaxRepeatedCharacters(int maxRepeatedCharacters) {
+            return super.setMaxRepeatedCharacters(maxRepeatedCharacters);
+        }
+
+        /**
+         * Sets the maximum length of character sequences allowed in passwords. Sequences are runs of consecutive
+         * Unicode code points, ascending (<code>abc</code>, <code>123</code>) or descending (<code>cba</code>), and
+         * runs of adjacent characters of the sequences added with
+         * {@link #addCharacterSequence(String) addCharacterSequence}, read in either direction. For example, with a
+         * value of 2, <code>ab</code> is accepted but <code>abc</code> is rejected with
+         * {@link PasswordCheckStatus#CHARACTER_SEQUENCE PasswordCheckStatus.CHARACTER_SEQUENCE}. The default is
+         * <code>0</code> (zero), meaning unlimited.
+         * @param maxSequenceLength the maximum length of character sequences, or <code>0</code>
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>maxSequenceLength</code> is negative or equal to 1
+         */
+        @Override
+        public Factory setMaxSequenceLength(int maxSequenceLength) {
+            return super.setMaxSequenceLength(maxSequenceLength);
+        }
+
+        /**
+         * Add a sequence of characters, such as a keyboard row (<code>"qwertyuiop"</code>), whose adjacent characters
+         * form sequences limited by {@link #setMaxSequenceLength(int) setMaxSequenceLength}.
+         * @param sequence the characters of the sequence, in order
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>sequence</code> is <code>null</code>
+         * @throws IllegalArgumentException if <code>sequence</code> contains fewer than 2 characters or duplicate
+         * characters, or if too many sequences have been added
+         */
+        @Override
+        public Factory addCharacterSequence(String sequence) {
+            return super.addCharacterSequence(sequence);
+        }
+
     }
 
 }
@@ -0,0 +1,190 @@
+package rodeo.password.pgencheck;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static rodeo.password.pgencheck.ErrorMessages.CONTEXT_ATTRIBUTE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.PREVIOUS_PASSWORD_NULL;
+
+/**
+ * Information about the user choosing a password, such as their user name, email address or display name, that the
+ * password should not contain.
+ * <p>
+ * Attributes are split into tokens at every character that is neither a letter nor a digit, so
+ * <code>john.smith@example.com</code> yields the tokens <code>john</code>, <code>smith</code>, <code>example</code>
+ * and <code>com</code>. Tokens are case-folded once, when the context is created, and can be reused for any number of
+ * checks.
+ * <p>
+ * A context can also carry the previous password of the user, when a password is changed, so that new passwords too
+ * similar to it can be rejected. The previous password is not split into tokens.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ * @see PasswordChecker#check(String, PasswordContext)
+ */
+public final class PasswordContext {
+
+    private final List<String> attributes;
+    private final int[][] tokens;  // case-folded code points
+    private final int[] previousPassword;  // case-folded code points, null if none
+
+    private PasswordContext(List<String> attributes, String previousPassword) {
+        this.attributes = Collections.unmodifiableList(attributes);
+        this.previousPassword = previousPassword == null ? null : fold(previousPassword);
+
+        var tokenList = new ArrayList<int[]>();
+        for (String attribute: attributes) {
+            int[] codePoints = attribute.codePoints().toArray();
+            int start = 0;
+            for (int i = 0; i <= codePoints.length; ++i)
+                if (i == codePoints.length || !Character.isLetterOrDigit(codePoints[i])) {
+                    if (i > start) {
+                        int[] token = new int[i - start];
+                        for (int j = 0; j < token.length; ++j)
+                            token[j] = fold(codePoints[start + j]);
+                        tokenList.add(token);
+                    }
+                    start = i + 1;
+                }
+        }
+        tokens = tokenList.toArray(new int[0][]);
+    }
+
+    /**
+     * Create a context from a list of attributes.
+     * @param attributes user attributes, such as user name or email address
+     * @return a new <code>PasswordContext</code>
+     * @throws NullPointerException if one of the attributes is <code>null</code>
+     */
+    public static PasswordContext of(String... attributes) {
+        var factory = factory();
+        for (String attribute: attributes)
+            factory.addAttribute(attribute);
+        return factory.create();
+    }
+
+    /**
+     * Create a factory to specify the user attributes and create a <code>PasswordContext</code> object.
+     * @return an internal <code>PasswordContext</code> factory
+     * @see PasswordContext.Factory
+     */
+    public static Factory factory() {
+        return new Factory();
+    }
+
+    static int fold(int codePoint) {
+        return Character.toLowerCase(Character.toUpperCase(codePoint));
+    }
+
+    static int[] fold(String text) {
+        return text.codePoints().map(PasswordContext::fold).toArray();
+    }
+
+    /**
+     * Returns the user attributes of this context.
+     * @return the user attributes
+     */
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Returns <code>true</code> if this context carries the previous password of the user.
+     * @return <code>true</code> if a previous password has been specified
+     */
+    public boolean hasPreviousPassword() {
+        return previousPassword != null;
+    }
+
+    int[][] tokens() {
+        return tokens;
+    }
+
+    int[] previousPassword() {
+        return previousPassword;
+    }
+
+    /**
+     * Internal factory to create <code>PasswordContext</code> objects.
+     * <p>
+     * The named setters are conveniences: all attributes are treated alike.
+     */
+    public static final class Factory {
+
+        private final List<String> attributes = new ArrayList<>();
+        private String previousPassword = null;
+
+        private Factory() { }
+
+        /**
+         * Add the user name.
+         * @param userName the user name
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>userName</code> is <code>null</code>
+         */
+        public Factory setUserName(String userName) {
+            return addAttribute(userName);
+        }
+
+        /**
+         * Add the email address.
+         * @param email the email address
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>email</code> is <code>null</code>
+         */
+        public Factory setEmail(String email) {
+            return addAttribute(email);
+        }
+
+        /**
+         * Add the display name.
+         * @param displayName the display name
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>displayName</code> is <code>null</code>
+         */
+        public Factory setDisplayName(String displayName) {
+            return addAttribute(displayName);
+        }
+
+        /**
+         * Add any other user attribute the password should not contain, such as a service name or a birth year.
+         * @param attribute the attribute
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>attribute</code> is <code>null</code>
+         */
+        public Factory addAttribute(String attribute) {
+            if (attribute == null)
+                throw new NullPointerException(CONTEXT_ATTRIBUTE_NULL);
+
+            attributes.add(attribute);
+            return this;
+        }
+
+        /**
+         * Sets the previous password of the user, when the password is being changed. New passwords too similar to it
+         * are rejected with {@link PasswordCheckStatus#TOO_SIMILAR PasswordCheckStatus.TOO_SIMILAR}. The password is
+         * kept case-folded, as code points, for the lifetime of the context.
+         * @param previousPassword the previous password
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>previousPassword</code> is <code>null</code>
+         * @see PasswordChecker.Factory#setMinEditDistance(int)
+         */
+        public Factory setPreviousPassword(String previousPassword) {
+            if (previousPassword == null)
+                throw new NullPointerException(PREVIOUS_PASSWORD_NULL);
+
+            this.previousPassword = previousPassword;
+            return this;
+        }
+
+        /**
+         * Create a <code>PasswordContext</code> with the specified attributes.
+         * @return a new <code>PasswordContext</code>
+         */
+        public PasswordContext create() {
+            return new PasswordContext(new ArrayList<>(attributes), previousPassword);
+        }
+
+    }
+
+}
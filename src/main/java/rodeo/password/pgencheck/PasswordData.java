@@ -1,46 +1,40 @@
 package rodeo.password.pgencheck;
 
-import java.util.Collections;
 import java.util.List;
 
+/**
+ * Character groups and constraints shared by <code>PasswordChecker</code> and <code>PasswordMaker</code>.
+ * <p>
+ * The data is held in an immutable {@link CharGroupTables CharGroupTables} instance referenced by a final field:
+ * minimum and maximum counts are stored as <code>int</code> arrays and characters as packed code point tables, so
+ * subclasses are immutable, safely published and can be shared by any number of threads.
+ */
 abstract class PasswordData {
 
-    private final List<String> charGroups;
-
-    private final List<Integer> groupMinCounts;
-    private final List<Integer> groupMaxCounts;
-
-    private final String allChars;
+    private final CharGroupTables tables;
 
     PasswordData(List<String> charGroups, List<Integer> groupMinCounts, List<Integer> groupMaxCounts) {
-        this.charGroups = charGroups;
-        this.groupMinCounts = groupMinCounts;
-        this.groupMaxCounts = groupMaxCounts;
-
-        var chars = new StringBuilder();
-        for (var charSet: charGroups)
-            chars.append(charSet);
-        allChars = chars.toString();
+        this(new CharGroupTables(charGroups, groupMinCounts, groupMaxCounts));
     }
 
-    List<String> charGroups() {
-        return charGroups;
+    PasswordData(CharGroupTables tables) {
+        this.tables = tables;
     }
 
-    List<Integer> groupMinCounts() {
-        return groupMinCounts;
+    CharGroupTables tables() {
+        return tables;
     }
 
-    List<Integer> groupMaxCounts() {
-        return groupMaxCounts;
+    List<String> charGroups() {
+        return tables.charGroups();
     }
 
     /**
      * Returns a list of the character groups composing the generated passwords.
-     * @return the character groups
+     * @return the character groups, as an unmodifiable list
      */
     public List<String> getCharacterGroups() {
-        return Collections.unmodifiableList(charGroups);
+        return charGroups();
     }
 
     /**
@@ -48,7 +42,7 @@ abstract class PasswordData {
      * @return character group count
      */
     public int getCharacterGroupCount() {
-        return charGroups.size();
+        return charGroups().size();
     }
 
     /**
@@ -62,7 +56,7 @@ abstract class PasswordData {
         if (!indexOK(index))
             throw new IndexOutOfBoundsException(getBadIndexErrorMessage(index));
 
-        return charGroups.get(index);
+        return charGroups().get(index);
     }
 
     /**
@@ -78,7 +72,7 @@ abstract class PasswordData {
         if (!indexOK(index))
             throw new IndexOutOfBoundsException(getBadIndexErrorMessage(index));
 
-        return groupMinCounts.get(index);
+        return tables.groupMinCount(index);
     }
 
     /**
@@ -93,15 +87,42 @@ abstract class PasswordData {
         if (!indexOK(index))
             throw new IndexOutOfBoundsException(getBadIndexErrorMessage(index));
 
-        return groupMaxCounts.get(index);
+        return tables.groupMaxCount(index);
     }
 
     private boolean indexOK(int index) {
-        return index >= 0 && index < charGroups.size();
+        return index >= 0 && index < charGroups().size();
     }
 
     private String getBadIndexErrorMessage(int index) {
-        return "Index must be between 0 and " + (charGroups.size() - 1) + ". Value received: " + index;
+        return "Index must be between 0 and " + (charGroups().size() - 1) + ". Value received: " + index;
+    }
+
+    /**
+     * Returns the maximum number of identical consecutive characters allowed in passwords, or <code>0</code> (zero)
+     * if there is no limit.
+     * @return the maximum length of runs of identical characters
+     */
+    public int getMaxRepeatedCharacters() {
+        return tables.sequenceRules().getMaxRepeatedCharacters();
+    }
+
+    /**
+     * Returns the maximum length of character sequences allowed in passwords, or <code>0</code> (zero) if there is no
+     * limit.
+     * @return the maximum length of character sequences
+     */
+    public int getMaxSequenceLength() {
+        return tables.sequenceRules().getMaxSequenceLength();
+    }
+
+    /**
+     * Returns the character sequences, such as keyboard rows, taken into account in addition to consecutive Unicode
+     * code points when looking for character sequences in passwords.
+     * @return the additional character sequences
+     */
+    public List<String> getCharacterSequences() {
+        return tables.sequenceRules().getCharacterSequences();
     }
 
     /**
@@ -109,7 +130,7 @@ abstract class PasswordData {
      * @return characters used in generating password
      */
     public String getAllChars() {
-        return allChars;
+        return tables.allChars();
     }
 
 }
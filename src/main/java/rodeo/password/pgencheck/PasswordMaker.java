@@ -1,14 +1,24 @@
 package rodeo.password.pgencheck;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static rodeo.password.pgencheck.ErrorMessages.AT_LEAST_ONE_CHAR;
 import static rodeo.password.pgencheck.ErrorMessages.NO_MAKER_CHAR_SET_PROVIDED;
+import static rodeo.password.pgencheck.ErrorMessages.RANDOM_SOURCE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.SEQUENCE_RULES_TOO_STRICT_FOR_GROUP;
+import static rodeo.password.pgencheck.ErrorMessages.SEQUENCE_RULES_WITH_TEMPLATE;
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_EMPTY;
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_TOO_FEW_FOR_GROUP;
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_TOO_MANY_FOR_GROUP;
 import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_CHAR_BY_TYPE_FOR_LENGTH;
 import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH1;
 import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH2;
+import static rodeo.password.pgencheck.ErrorMessages.UNIFORM_SEQUENCE_RULES_TOO_STRICT;
+import static rodeo.password.pgencheck.ErrorMessages.UNIFORM_WITH_SHARED_CHARACTERS;
 
 /**
  * Create passwords according to predefined criteria.
@@ -24,38 +34,111 @@ import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_RESTRICTIONS_ON_CH
  *         </ul>
  *     </li>
  *     <li>
+ *         maximum length of runs of identical characters and of character sequences (<code>abc</code>,
+ *         <code>321</code>, <code>qwe</code>);
+ *     </li>
+ *     <li>
+ *         a template fixing which character groups can appear at each position (see
+ *         {@link Factory#setTemplate(String) Factory.setTemplate(String)});
+ *     </li>
+ *     <li>
+ *         exactly uniform generation among all the passwords satisfying the constraints on character groups (see
+ *         {@link Factory#setUniform(boolean) Factory.setUniform(boolean)});
+ *     </li>
+ *     <li>
  *         the way random numbers are used in password generation can be configured by implementing a
  *         {@link RandomUIntGenerator RandomUIntGenerator}.
  *     </li>
  * </ul>
+ * <p>
+ * Instances of this class are immutable: character groups are compiled into packed code point tables when the maker
+ * is created, and each password is generated in local arrays. A single maker can be shared by any number of threads,
+ * as long as its <code>RandomUIntGenerator</code> is thread-safe, which is the case of the default one.
  */
 public final class PasswordMaker extends PasswordData {
 
     private final int length;
     private final RandomUIntGenerator randomUIntGenerator;
+    private final PasswordTemplate template;
+    private final UniformCompositions compositions;  // null unless generation is uniform and there is no template
+    private final int wordsPerPassword;
 
-    private final List<PasswordChar> passwordChars = new ArrayList<>();
-    private final List<List<PasswordChar>> groupPasswordChars = new ArrayList<>();
+    // uniform generation is refused when more than 1 draw in MAX_UNIFORM_DRAWS breaks the sequence rules, as estimated
+    // from UNIFORM_TRIALS draws with a fixed seed, so that the outcome does not depend on chance
+    static final int MAX_UNIFORM_DRAWS = 16;
+    private static final int UNIFORM_TRIALS = 1024;
+    private static final long UNIFORM_TRIALS_SEED = 0x5EED;
 
     private PasswordMaker(
             int length,
-            List<String> charGroups,
+            CompiledCharGroup[] charGroups,
             List<Integer> groupMinCounts,
             List<Integer> groupMaxCounts,
+            SequenceRules sequenceRules,
+            PasswordTemplate template,
+            boolean uniform,
+            RandomUIntGenerator randomUIntGenerator)
+    {
+        this(length, new CharGroupTables(charGroups, groupMinCounts, groupMaxCounts, sequenceRules), template,
+                uniform, randomUIntGenerator);
+    }
+
+    PasswordMaker(
+            int length,
+            CharGroupTables tables,
+            PasswordTemplate template,
+            boolean uniform,
             RandomUIntGenerator randomUIntGenerator)
     {
-        super(charGroups, groupMinCounts, groupMaxCounts);
-        this.length = length;
+        super(tables);
+        this.length = template == null ? length : template.length();
+        this.template = template;
         this.randomUIntGenerator = randomUIntGenerator;
 
-        for (int groupIndex = 0; groupIndex < charGroups.size(); ++groupIndex) {
-            var pcs = new ArrayList<PasswordChar>();
-            for (int codePoint: charGroups.get(groupIndex).codePoints().toArray())
-                pcs.add(new PasswordChar(codePoint, groupIndex));
+        if (uniform && template == null) {
+            var groupSizes = new int[tables.groupCount()];
+            var minCounts = new int[tables.groupCount()];
+            var maxCounts = new int[tables.groupCount()];
+            for (int i = 0; i < groupSizes.length; ++i) {
+                groupSizes[i] = tables.groupSize(i);
+                minCounts[i] = tables.groupMinCount(i);
+                maxCounts[i] = tables.groupMaxCount(i);
+            }
+            compositions = new UniformCompositions(length, groupSizes, minCounts, maxCounts);
+        } else
+            compositions = null;
+
+        wordsPerPassword = (int) (randomBitsPerPassword() / 64) + 1;
+
+        if (compositions != null && !tables.sequenceRules().isEmpty() && !enoughUniformDrawsAccepted())
+            throw new IllegalStateException(UNIFORM_SEQUENCE_RULES_TOO_STRICT);
+    }
 
-            passwordChars.addAll(pcs);
-            groupPasswordChars.add(pcs);
+    private boolean enoughUniformDrawsAccepted() {
+        var indices = new RandomIndices(new ReproducibleUIntGenerator(UNIFORM_TRIALS_SEED));
+        var codePoints = new int[length];
+        var groups = new int[length];
+        int required = UNIFORM_TRIALS / MAX_UNIFORM_DRAWS;
+        int accepted = 0;
+        for (int i = 0; i < UNIFORM_TRIALS && accepted < required; ++i) {
+            drawUniform(indices, codePoints, groups);
+            if (!breaksSequenceRules(codePoints))
+                ++accepted;
         }
+        return accepted >= required;
+    }
+
+    // Random bits needed to draw every character and shuffle them. The word count derived from it is rounded down so
+    // that no entropy is wasted; the few passwords needing more fetch the extra words one at a time.
+    private double randomBitsPerPassword() {
+        if (template != null)
+            return template.entropyBits();
+
+        double bits = length * Math.log(tables().sampleSize());
+        for (int i = 2; i <= length; ++i)
+            bits += Math.log(i);
+        bits /= Math.log(2);
+        return compositions == null ? bits : bits + compositions.count().bitLength();
     }
 
     /**
@@ -75,6 +158,25 @@ public final class PasswordMaker extends PasswordData {
         return length;
     }
 
+    /**
+     * Returns the template used to generate passwords, or <code>null</code> if no template has been specified.
+     * @return the password template or <code>null</code>
+     * @see Factory#setTemplate(String)
+     */
+    public String getTemplate() {
+        return template == null ? null : template.getTemplate();
+    }
+
+    /**
+     * Returns whether passwords are generated exactly uniformly among all the passwords satisfying the constraints on
+     * character groups. This is always the case with a template.
+     * @return <code>true</code> if generation is uniform
+     * @see Factory#setUniform(boolean)
+     */
+    public boolean isUniform() {
+        return compositions != null || template != null;
+    }
+
     /**
      * Returns the implementation of the random number generator used to create passwords.
      * @return the implementation of the random number generator used to create passwords
@@ -87,93 +189,288 @@ public final class PasswordMaker extends PasswordData {
 
     /**
      * Generate a new password.
+     * <p>
+     * All random values are obtained through
+     * {@link RandomUIntGenerator#fillLongs(long[], int) RandomUIntGenerator.fillLongs}, called once with enough values
+     * for most passwords, and {@link RandomUIntGenerator#nextLong() RandomUIntGenerator.nextLong()} when more are
+     * needed. Character indices and the final reordering of the characters are extracted several at a time from each
+     * value, without introducing any bias.
+     * <p>
+     * When a template has been specified, each character is drawn from the table compiled for its position: there
+     * is no final reordering and no password is ever rejected.
      * @return the generated password
      */
     public String create() {
-        var charList = passwordChars;
-        var groupCounts = initGroupCounts();
-        var passwordChars = new ArrayList<Integer>();
-
-        for (int i = 0; i < groupCounts.size(); i++) {
-            for (int j = 0; j < groupCounts.get(i).min; j++) {
-                passwordChars.add(getRandomCharacter(groupPasswordChars.get(i)).getCodePoint());
-                groupCounts.get(i).count++;
+        return create(randomUIntGenerator);
+    }
+
+    /**
+     * Generate a new password, using the specified random number generator instead of the one configured in the
+     * factory.
+     * <p>
+     * This is mostly useful with a {@link ReproducibleUIntGenerator ReproducibleUIntGenerator}, to generate the same
+     * passwords again on demand:
+     * <pre>
+     * String password = maker.create(ReproducibleUIntGenerator.forPassword(seed, k));
+     * </pre>
+     * @param randomUIntGenerator the random number generator to draw characters from
+     * @return the generated password
+     * @throws NullPointerException if <code>randomUIntGenerator</code> is <code>null</code>
+     * @see #create()
+     */
+    public String create(RandomUIntGenerator randomUIntGenerator) {
+        return new String(createCodePoints(randomUIntGenerator), 0, length);
+    }
+
+    /**
+     * Generate a new password as an array of <code>char</code>s, and wipe the intermediate buffer. The caller owns
+     * the returned array and can wipe it in turn.
+     */
+    char[] createChars(RandomUIntGenerator randomUIntGenerator) {
+        var codePoints = createCodePoints(randomUIntGenerator);
+
+        int charCount = 0;
+        for (int codePoint: codePoints)
+            charCount += Character.charCount(codePoint);
+
+        var chars = new char[charCount];
+        int position = 0;
+        for (int codePoint: codePoints)
+            position += Character.toChars(codePoint, chars, position);
+
+        Arrays.fill(codePoints, 0);
+        return chars;
+    }
+
+    private int[] createCodePoints(RandomUIntGenerator randomUIntGenerator) {
+        if (randomUIntGenerator == null)
+            throw new NullPointerException(RANDOM_SOURCE_NULL);
+
+        var indices = new RandomIndices(randomUIntGenerator, wordsPerPassword);
+        if (template != null)
+            return createFromTemplate(indices);
+        if (compositions != null)
+            return createUniform(indices);
+
+        var tables = tables();
+        int groupCount = tables.groupCount();
+        var groupCounts = new int[groupCount];
+        var codePoints = new int[length];
+        var groups = new int[length];
+        int size = 0;
+
+        for (int i = 0; i < groupCount; i++) {
+            for (int j = 0; j < tables.groupMinCount(i); j++) {
+                groups[size] = i;
+                codePoints[size++] = tables.groupCodePoint(i, indices.next(tables.groupSize(i)));
+                groupCounts[i]++;
             }
         }
 
-        while (passwordChars.size() < length) {
-            var pc = getRandomCharacter(charList);
-            var groupCount = groupCounts.get(pc.getCharGroupIndex());
-            if (groupCount.canAddChar()) {
-                passwordChars.add(pc.getCodePoint());
-                groupCount.count++;
-            } else
-                charList = updateCharacterList(groupCounts);
+        // Characters are drawn from the groups that were still open when the list was last updated, in group order;
+        // drawing a character from a group that has since been filled updates the list and discards the draw.
+        boolean[] listed = null;  // null while every group is listed
+        int listSize = tables.sampleSize();
+        while (size < length) {
+            int index = indices.next(listSize);
+            int group;
+            int codePoint;
+            if (listed == null) {
+                group = tables.sampleGroup(index);
+                codePoint = tables.groupCodePoint(group, index - tables.groupOffset(group));
+            } else {
+                group = 0;
+                while (!listed[group] || index >= tables.groupSize(group)) {
+                    if (listed[group])
+                        index -= tables.groupSize(group);
+                    ++group;
+                }
+                codePoint = tables.groupCodePoint(group, index);
+            }
+
+            if (canAddChar(group, groupCounts)) {
+                groups[size] = group;
+                codePoints[size++] = codePoint;
+                groupCounts[group]++;
+            } else {
+                if (listed == null)
+                    listed = new boolean[groupCount];
+                listSize = 0;
+                for (int i = 0; i < groupCount; i++) {
+                    listed[i] = canAddChar(i, groupCounts);
+                    if (listed[i])
+                        listSize += tables.groupSize(i);
+                }
+            }
         }
 
-        Collections.shuffle(passwordChars, randomUIntGenerator.random());
+        shuffle(codePoints, groups, indices);
 
-        var password = new StringBuilder();
-        for (int cp: passwordChars)
-            password.appendCodePoint(cp);
+        if (!tables().sequenceRules().isEmpty())
+            applySequenceRules(codePoints, groups, indices);
 
-        return password.toString();
+        return codePoints;
     }
 
-    private List<GroupCount> initGroupCounts() {
-        var groupCounts = new ArrayList<GroupCount>();
-        for (int groupIndex = 0; groupIndex < charGroups().size(); ++groupIndex)
-            groupCounts.add(new GroupCount(groupMinCounts().get(groupIndex), groupMaxCounts().get(groupIndex)));
-        return groupCounts;
+    // Passwords breaking the repetition or sequence rules are drawn again: rejecting them keeps the distribution
+    // uniform over the passwords satisfying the rules. The constructor has checked that few draws are rejected, so a
+    // password takes at most MAX_UNIFORM_DRAWS draws on average.
+    private int[] createUniform(RandomIndices indices) {
+        var codePoints = new int[length];
+        var groups = new int[length];
+        do
+            drawUniform(indices, codePoints, groups);
+        while (breaksSequenceRules(codePoints));
+
+        return codePoints;
     }
 
-    private PasswordChar getRandomCharacter(List<PasswordChar> passwordChars) {
-        return passwordChars.get(randomUIntGenerator.getNextUInt(passwordChars.size()));
+    // Draw the number of characters of each group from the counting tables, then the characters themselves, and
+    // shuffle them.
+    private void drawUniform(RandomIndices indices, int[] codePoints, int[] groups) {
+        var tables = tables();
+        int[] counts = compositions.sample(indices);
+        int size = 0;
+        for (int i = 0; i < counts.length; i++) {
+            for (int j = 0; j < counts[i]; j++) {
+                groups[size] = i;
+                codePoints[size++] = tables.groupCodePoint(i, indices.next(tables.groupSize(i)));
+            }
+        }
+        shuffle(codePoints, groups, indices);
     }
 
-    private List<PasswordChar> updateCharacterList(List<GroupCount> groupCounts) {
-        var passwordChars = new ArrayList<PasswordChar>();
+    private boolean breaksSequenceRules(int[] codePoints) {
+        var rules = tables().sequenceRules();
+        if (rules.isEmpty())
+            return false;
+
+        var run = rules.newRun();
+        for (int codePoint: codePoints)
+            run.push(codePoint);
+        return run.tooManyRepeatedCharacters() || run.sequenceTooLong();
+    }
 
-        for (int i = 0; i < groupCounts.size(); i++)
-            if (groupCounts.get(i).canAddChar())
-                passwordChars.addAll(groupPasswordChars.get(i));
+    // Replace, from left to right, each character that would break the repetition or sequence rules by a character
+    // of the same group drawn among the allowed ones. A forbidden character is replaced with probability
+    // 1 / (groupSize - forbiddenCount), so every allowed character of the group remains equally likely.
+    private void applySequenceRules(int[] codePoints, int[] groups, RandomIndices indices) {
+        var rules = tables().sequenceRules();
+        var run = rules.newRun();
+        var forbidden = new int[rules.maxForbiddenCharacters()];
+        int[] positions = null;
+
+        for (int i = 0; i < codePoints.length; ++i) {
+            int forbiddenCount = run.forbiddenSuccessors(forbidden);
+            if (contains(forbidden, forbiddenCount, codePoints[i])) {
+                if (positions == null)
+                    positions = new int[tables().maxGroupSize()];
+
+                int positionCount = 0;
+                for (int j = 0; j < forbiddenCount; ++j)
+                    if (!contains(forbidden, j, forbidden[j]))
+                        positionCount = tables().positionsInGroup(forbidden[j], groups[i], positions, positionCount);
+                Arrays.sort(positions, 0, positionCount);
+
+                int index = indices.next(tables().groupSize(groups[i]) - positionCount);
+                for (int j = 0; j < positionCount; ++j)
+                    if (index >= positions[j])
+                        ++index;
+                codePoints[i] = tables().groupCodePoint(groups[i], index);
+            }
+            run.push(codePoints[i]);
+        }
+    }
 
-        return passwordChars;
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; ++i)
+            if (values[i] == value)
+                return true;
+        return false;
     }
 
-    private static final class PasswordChar {
+    /**
+     * Check that no character group is so small that all its characters could be forbidden at some position by the
+     * repetition and sequence rules.
+     */
+    static void checkSequenceRules(SequenceRules rules, List<String> charGroups) {
+        if (rules.isEmpty())
+            return;
 
-        private final int codePoint;
-        private final int charGroupIndex;
+        for (int groupIndex = 0; groupIndex < charGroups.size(); ++groupIndex)
+            if (charGroups.get(groupIndex).codePoints().distinct().count() <= rules.maxForbiddenCharacters())
+                throw new IllegalStateException(SEQUENCE_RULES_TOO_STRICT_FOR_GROUP + groupIndex);
+    }
 
-        PasswordChar(int codePoint, int charGroupIndex) {
-            this.codePoint = codePoint;
-            this.charGroupIndex = charGroupIndex;
+    private int[] createFromTemplate(RandomIndices indices) {
+        var codePoints = new int[length];
+        for (int i = 0; i < length; ++i) {
+            int[] position = template.position(i);
+            codePoints[i] = position[indices.next(position.length)];
         }
 
-        int getCodePoint() {
-            return codePoint;
-        }
+        return codePoints;
+    }
 
-        int getCharGroupIndex() {
-            return charGroupIndex;
+    /**
+     * Returns the code points that can appear at each position of generated passwords. The arrays returned for
+     * different positions are shared when they have the same content, and must not be modified.
+     */
+    int[][] positionAlphabets() {
+        var alphabets = new int[length][];
+        if (template != null) {
+            for (int i = 0; i < length; ++i)
+                alphabets[i] = template.position(i);
+        } else {
+            int[] alphabet = getAllChars().codePoints().toArray();
+            Arrays.fill(alphabets, alphabet);
         }
+        return alphabets;
+    }
 
+    // Fisher-Yates shuffle, keeping the group of each character along
+    private static void shuffle(int[] codePoints, int[] groups, RandomIndices indices) {
+        for (int i = codePoints.length - 1; i > 0; --i) {
+            int j = indices.next(i + 1);
+            int codePoint = codePoints[i];
+            codePoints[i] = codePoints[j];
+            codePoints[j] = codePoint;
+            int group = groups[i];
+            groups[i] = groups[j];
+            groups[j] = group;
+        }
     }
 
-    private static class GroupCount {
-        final int min;
-        final int max;
-        int count = 0;
+    /**
+     * Create a batch object that generates passwords guaranteed to be distinct from each other.
+     * <p>
+     * The memory needed to track the generated passwords is allocated once, when the batch is created, and depends
+     * only on <code>capacity</code>.
+     * @param capacity the maximum number of passwords the batch will generate
+     * @return a new <code>UniquePasswordBatch</code> generating passwords with this <code>PasswordMaker</code>
+     * @throws IllegalArgumentException if <code>capacity &lt; 1</code> or if <code>capacity</code> is too large to
+     * allocate the fingerprint table
+     * @see UniquePasswordBatch
+     */
+    public UniquePasswordBatch uniqueBatch(int capacity) {
+        return new UniquePasswordBatch(this, capacity);
+    }
 
-        GroupCount(int min, int max) {
-            this.min = min;
-            this.max = max;
-        }
+    /**
+     * Create a pool of pre-generated passwords, kept topped up by a background daemon thread.
+     * @param capacity the minimum number of passwords kept in the pool; the actual capacity is rounded up to a power
+     *                 of two
+     * @return a new, started, <code>PasswordPool</code> generating passwords with this <code>PasswordMaker</code>
+     * @throws IllegalArgumentException if <code>capacity &lt; 1</code> or <code>capacity &gt; 2<sup>30</sup></code>
+     * @see PasswordPool
+     */
+    public PasswordPool pool(int capacity) {
+        return new PasswordPool(this, capacity);
+    }
 
-        boolean canAddChar() {
-            return max == 0 || count < max;
-        }
+    private boolean canAddChar(int groupIndex, int[] groupCounts) {
+        int max = tables().groupMaxCount(groupIndex);
+        return max == 0 || groupCounts[groupIndex] < max;
     }
 
     /**
@@ -187,6 +484,9 @@ public final class PasswordMaker extends PasswordData {
     public static final class Factory extends AbstractFactory<Factory> {
 
         private int length = 16;
+        private String template = null;
+        private final Map<Integer, int[]> templateSymbols = new LinkedHashMap<>();
+        private boolean uniform = false;
         private RandomUIntGenerator randomUIntGenerator = DefaultUIntGenerator.GENERATOR;
 
         private Factory() { }
@@ -204,6 +504,109 @@ public final class PasswordMaker extends PasswordData {
             return this;
         }
 
+        /**
+         * Sets a template fixing the shape of generated passwords, for example <code>"LLLL-DDDD-UUUU"</code>.
+         * <p>
+         * Each character of the template is either a symbol declared with
+         * {@link #addTemplateSymbol(int, int...) addTemplateSymbol}, replaced by a random character from the character
+         * groups associated with the symbol, or a literal copied as is. Passwords have the length of the template; the
+         * value set with {@link #setLength(int) setLength} is ignored.
+         * <p>
+         * The template is compiled once, when the <code>PasswordMaker</code> is created, into a table of allowed
+         * characters per position. Passwords are then generated with one random draw per position, without
+         * reordering or retries. Minimum and maximum counts of character groups must therefore be guaranteed by the
+         * template itself: a group with a minimum count of <i>n</i> needs at least <i>n</i> positions where only that
+         * group can appear, and a group with a maximum count of <i>n</i> can appear at most at <i>n</i> positions.
+         * @param template the password template
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>template</code> is <code>null</code>
+         * @throws IllegalArgumentException if <code>template</code> is empty
+         */
+        public Factory setTemplate(String template) {
+            if (template == null)
+                throw new NullPointerException(TEMPLATE_NULL);
+            if (template.isEmpty())
+                throw new IllegalArgumentException(TEMPLATE_EMPTY);
+
+            this.template = template;
+            return this;
+        }
+
+        /**
+         * Declare a template symbol and the character groups it stands for. Character groups are referenced by
+         * their index, in the order they are added to the factory; the first index is <code>0</code> (zero). A symbol
+         * declared without any group index stands for all the character groups.
+         * <p>
+         * For example, with lower case letters, upper case letters and digits added in that order:
+         * <pre>
+         * factory.addTemplateSymbol('l', 0)
+         *        .addTemplateSymbol('U', 1)
+         *        .addTemplateSymbol('D', 2)
+         *        .addTemplateSymbol('L', 0, 1)
+         *        .addTemplateSymbol('*')
+         *        .setTemplate("L*******");  // starts with a letter
+         * </pre>
+         * Declaring the same symbol again replaces its previous definition.
+         * @param symbol the code point of the symbol, as used in the template
+         * @param groupIndices the indices of the character groups the symbol stands for
+         * @return <code>this</code> factory
+         * @see #setTemplate(String)
+         */
+        public Factory addTemplateSymbol(int symbol, int... groupIndices) {
+            templateSymbols.put(symbol, groupIndices.clone());
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of identical consecutive characters allowed in generated passwords. For example,
+         * with a value of 2, <code>aab</code> can be generated but <code>aaab</code> cannot. The default is
+         * <code>0</code> (zero), meaning unlimited.
+         * <p>
+         * Characters breaking the rule are never generated: each character is drawn among the characters of its group
+         * that the rule allows after the previous ones, so passwords are never regenerated and the minimum and
+         * maximum counts of character groups are still satisfied.
+         * @param maxRepeatedCharacters the maximum length of runs of identical characters, or <code>0</code>
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>maxRepeatedCharacters &lt; 0</code>
+         */
+        @Override
+        public Factory setMaxRepeatedCharacters(int maxRepeatedCharacters) {
+            return super.setMaxRepeatedCharacters(maxRepeatedCharacters);
+        }
+
+        /**
+         * Sets the maximum length of character sequences allowed in generated passwords. Sequences are runs of
+         * consecutive Unicode code points, ascending (<code>abc</code>, <code>123</code>) or descending
+         * (<code>cba</code>), and runs of adjacent characters of the sequences added with
+         * {@link #addCharacterSequence(String) addCharacterSequence}, read in either direction. For example, with a
+         * value of 2, <code>ab</code> can be generated but <code>abc</code> cannot. The default is <code>0</code>
+         * (zero), meaning unlimited.
+         * <p>
+         * As with {@link #setMaxRepeatedCharacters(int) setMaxRepeatedCharacters}, characters breaking the rule are
+         * never generated in the first place.
+         * @param maxSequenceLength the maximum length of character sequences, or <code>0</code>
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>maxSequenceLength</code> is negative or equal to 1
+         */
+        @Override
+        public Factory setMaxSequenceLength(int maxSequenceLength) {
+            return super.setMaxSequenceLength(maxSequenceLength);
+        }
+
+        /**
+         * Add a sequence of characters, such as a keyboard row (<code>"qwertyuiop"</code>), whose adjacent characters
+         * form sequences limited by {@link #setMaxSequenceLength(int) setMaxSequenceLength}.
+         * @param sequence the characters of the sequence, in order
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>sequence</code> is <code>null</code>
+         * @throws IllegalArgumentException if <code>sequence</code> contains fewer than 2 characters or duplicate
+         * characters, or if too many sequences have been added
+         */
+        @Override
+        public Factory addCharacterSequence(String sequence) {
+            return super.addCharacterSequence(sequence);
+        }
+
         /**
          * Specify the method used to generate random numbers used for password generation.
          * @param randomUIntGenerator an implementation of the {@link RandomUIntGenerator RandomUIntGenerator}
@@ -217,6 +620,31 @@ public final class PasswordMaker extends PasswordData {
             return this;
         }
 
+        /**
+         * Generate passwords exactly uniformly among all the passwords satisfying the minimum and maximum counts of
+         * the character groups. The default is <code>false</code>.
+         * <p>
+         * By default, the characters required by the minimum counts are drawn first and the other characters
+         * afterwards, which favors passwords containing more characters of the groups with a minimum count, and
+         * slightly lowers the entropy of generated passwords. In uniform mode, the number of valid passwords for each
+         * possible count of each group is computed once, when the <code>PasswordMaker</code> is created, and the
+         * counts of each password are drawn from these tables before its characters. Generating a password then
+         * takes about as long as by default; the tables grow with the square of the password length.
+         * <p>
+         * Characters breaking the repetition and sequence rules are not replaced in uniform mode: the whole password
+         * is drawn again. Rules rejecting more than 15 passwords out of 16 are refused by {@link #create() create},
+         * so that a password takes at most 16 draws on average; such rules can only be used by default, or with
+         * longer passwords drawn from larger groups. This setting has no effect with a
+         * template, since drawing each position independently is already uniform among the passwords matching the
+         * template.
+         * @param uniform <code>true</code> to generate passwords uniformly
+         * @return <code>this</code> factory
+         */
+        public Factory setUniform(boolean uniform) {
+            this.uniform = uniform;
+            return this;
+        }
+
         /**
          * Create a <code>PasswordMaker</code> according to the specified criteria.
          * @return a new <code>PasswordMaker</code> matching the specified criteria
@@ -226,11 +654,25 @@ public final class PasswordMaker extends PasswordData {
          * @throws IllegalStateException if password generation would be impossible because too many restrictions
          * are placed on the maximum character count of each character group so that the specified password length
          * could not be reached.
+         * @throws IllegalStateException if a template symbol refers to a character group that does not exist, or
+         * if the template cannot guarantee the minimum and maximum counts of a character group
+         * @throws IllegalStateException if repetition or sequence rules are combined with a template, or if a
+         * character group is too small for the rules to be always satisfied
+         * @throws IllegalStateException if uniform generation is requested and a character belongs to several
+         * character groups or appears several times in a group, or the repetition and sequence rules reject most
+         * passwords
          */
         public PasswordMaker create() {
             if (charGroups().isEmpty())
                 throw new IllegalStateException(NO_MAKER_CHAR_SET_PROVIDED);
 
+            var sequenceRules = sequenceRules();
+            if (template != null) {
+                if (!sequenceRules.isEmpty())
+                    throw new IllegalStateException(SEQUENCE_RULES_WITH_TEMPLATE);
+                return createFromTemplate();
+            }
+
             if (sumOfRequiredCharactersIsGreaterThanPasswordLength())
                 throw new IllegalStateException(TOO_MANY_CHAR_BY_TYPE_FOR_LENGTH);
 
@@ -238,7 +680,29 @@ public final class PasswordMaker extends PasswordData {
                 throw new IllegalStateException(TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH1
                         + length + TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH2);
 
-            return new PasswordMaker(length, charGroupsCopy(), groupMinCountsCopy(), groupMaxCountsCopy(), randomUIntGenerator);
+            checkSequenceRules(sequenceRules, charGroups());
+
+            var tables = new CharGroupTables(compiledCharGroups(), groupMinCountsCopy(), groupMaxCountsCopy(),
+                    sequenceRules);
+            if (uniform && tables.hasSharedCodePoints())
+                throw new IllegalStateException(UNIFORM_WITH_SHARED_CHARACTERS);
+
+            return new PasswordMaker(length, tables, null, uniform, randomUIntGenerator);
+        }
+
+        private PasswordMaker createFromTemplate() {
+            var compiled = new PasswordTemplate(template, templateSymbols, charGroups());
+
+            for (int groupIndex = 0; groupIndex < charGroups().size(); ++groupIndex) {
+                if (compiled.forcedCount(groupIndex) < groupMinCounts().get(groupIndex))
+                    throw new IllegalStateException(TEMPLATE_TOO_FEW_FOR_GROUP + groupIndex);
+                int maxCount = groupMaxCounts().get(groupIndex);
+                if (maxCount != 0 && compiled.possibleCount(groupIndex) > maxCount)
+                    throw new IllegalStateException(TEMPLATE_TOO_MANY_FOR_GROUP + groupIndex);
+            }
+
+            return new PasswordMaker(compiled.length(), compiledCharGroups(), groupMinCountsCopy(),
+                    groupMaxCountsCopy(), SequenceRules.NONE, compiled, uniform, randomUIntGenerator);
         }
 
         private boolean sumOfRequiredCharactersIsGreaterThanPasswordLength() {
@@ -262,7 +726,7 @@ public final class PasswordMaker extends PasswordData {
             return this;
         }
 
-        // !! The 4 methods below are only overloaded for documentation purpose !!
+        // !! The 7 methods below are only overloaded for documentation purpose !!
 
         /**
          * Add a group of allowed characters in the composition of the password.
@@ -315,6 +779,64 @@ public final class PasswordMaker extends PasswordData {
             return super.addCharGroup(charGroup, minCount, maxCount);
         }
 
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the <code>PasswordMaker</code> created.
+         * @param charGroup the compiled character group
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups, unless duplicates have been explicitly
+         * allowed by calling <code>disallowDuplicateCharacters(false)</code>
+         * @see #disallowDuplicateCharacters(boolean)
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup) {
+            return super.addCharGroup(charGroup);
+        }
+
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password and specifies a
+         * minimum character count.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the <code>PasswordMaker</code> created.
+         * @param charGroup the compiled character group
+         * @param minCount minimum number of characters from this group that must be present in the password
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups, unless duplicates have been explicitly
+         * allowed by calling <code>disallowDuplicateCharacters(false)</code>
+         * @throws IllegalArgumentException if <code>minCount &lt; 0</code>
+         * @see #disallowDuplicateCharacters(boolean)
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup, int minCount) {
+            return super.addCharGroup(charGroup, minCount, 0);
+        }
+
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password and specifies a
+         * minimum and a maximum character count.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the <code>PasswordMaker</code> created.
+         * @param charGroup the compiled character group
+         * @param minCount minimum number of characters from this group that must be present in the password
+         * @param maxCount maximum number of characters from this group allowed in the password; a value of
+         *                 <code>0</code> (zero) means "unlimited" (same as calling
+         *                 {@link #addCharGroup(CompiledCharGroup, int) addCharGroup(CompiledCharGroup, int)})
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups, unless duplicates have been explicitly
+         * allowed by calling <code>disallowDuplicateCharacters(false)</code>
+         * @throws IllegalArgumentException if <code>minCount &lt; 0</code>, or <code>maxCount &lt; 0</code>, or
+         * <code>maxCount &lt; minCount</code> (unless <code>maxCount == 0</code>)
+         * @see #disallowDuplicateCharacters(boolean)
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup, int minCount, int maxCount) {
+            return super.addCharGroup(charGroup, minCount, maxCount);
+        }
+
         /**
          * Disallow or allow duplicate character groups and between character groups. Allowing duplicate is
          * usually unnecessary and error-prone.
@@ -0,0 +1,458 @@
+package rodeo.password.pgencheck;
+
+import java.util.Properties;
+import java.util.TreeSet;
+
+import static rodeo.password.pgencheck.ErrorMessages.AT_LEAST_ONE_CHAR;
+import static rodeo.password.pgencheck.ErrorMessages.MAX_BIGGER_THAN_MIN;
+import static rodeo.password.pgencheck.ErrorMessages.NO_POLICY_CHAR_SET_PROVIDED;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_PROPERTIES_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_PROPERTY_INVALID;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_PROPERTY_UNKNOWN;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_LENGTH_OUT_OF_BOUNDS;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_LENGTH_TOO_LONG_IN_CHARS;
+import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_CHAR_BY_TYPE_FOR_LENGTH;
+import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH1;
+import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH2;
+
+/**
+ * A password policy defining both how passwords are validated and how they are generated.
+ * <p>
+ * Character groups and their minimum and maximum counts are specified once. The policy compiles them into a single
+ * set of immutable lookup and sampling tables, shared by the <code>PasswordChecker</code> returned by
+ * {@link #getChecker() getChecker()} and the <code>PasswordMaker</code> returned by {@link #getMaker() getMaker()}.
+ * The length of generated passwords must lie between the minimum and maximum lengths accepted by the checker, so
+ * generated passwords always pass the check. Generated lengths count characters (code points) while the checker
+ * counts <code>char</code>s, so when groups contain characters outside of the Basic Multilingual Plane, which take two
+ * <code>char</code>s, the longest password that can be generated must also fit the maximum length of the checker.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ * @see PasswordChecker
+ * @see PasswordMaker
+ */
+public final class PasswordPolicy {
+
+    private final PasswordChecker checker;
+    private final PasswordMaker maker;
+
+    private PasswordPolicy(PasswordChecker checker, PasswordMaker maker) {
+        this.checker = checker;
+        this.maker = maker;
+    }
+
+    /**
+     * Create a factory to specify the policy criteria and create a <code>PasswordPolicy</code> object.
+     * @return an internal <code>PasswordPolicy</code> factory
+     * @see PasswordPolicy.Factory
+     */
+    public static Factory factory() {
+        return new Factory();
+    }
+
+    /**
+     * Create a <code>PasswordPolicy</code> from properties, such as those read from a <code>.properties</code> file.
+     * All properties are optional, except for at least one character group:
+     * <ul>
+     *     <li><code>minLength</code>, <code>maxLength</code>: the lengths accepted by the checker (16 and 64 by
+     *     default);</li>
+     *     <li><code>length</code>: the length of generated passwords (16 by default);</li>
+     *     <li><code>uniform</code>: <code>true</code> to generate passwords exactly uniformly (<code>false</code> by
+     *     default, see {@link Factory#setUniform(boolean) Factory.setUniform});</li>
+     *     <li><code>group.1</code>, <code>group.2</code>, etc.: the character groups, numbered consecutively from 1;
+     *     the value is either the name of a {@link CharacterGroups CharacterGroups} constant, such as
+     *     <code>LOWER_CASE</code>, or the characters of the group;</li>
+     *     <li><code>group.<i>n</i>.min</code>, <code>group.<i>n</i>.max</code>: the minimum and maximum character
+     *     counts of group <i>n</i> (0 by default, meaning no constraint);</li>
+     *     <li><code>maxRepeatedCharacters</code>, <code>maxSequenceLength</code>: the repetition and sequence rules
+     *     (0 by default, meaning unlimited);</li>
+     *     <li><code>sequence.1</code>, <code>sequence.2</code>, etc.: the character sequences, numbered consecutively
+     *     from 1.</li>
+     * </ul>
+     * @param properties the policy properties
+     * @return a new <code>PasswordPolicy</code> matching the properties
+     * @throws NullPointerException if <code>properties</code> is <code>null</code>
+     * @throws IllegalArgumentException if a property is unknown or has an invalid value, or if the values are
+     * rejected by the corresponding {@link Factory Factory} function
+     * @throws IllegalStateException if the properties describe a policy {@link Factory#create() create()} rejects
+     */
+    public static PasswordPolicy fromProperties(Properties properties) {
+        if (properties == null)
+            throw new NullPointerException(POLICY_PROPERTIES_NULL);
+
+        var unused = new TreeSet<>(properties.stringPropertyNames());
+        var factory = factory();
+
+        if (unused.contains("minLength") || unused.contains("maxLength"))
+            factory.setMinMaxLength(
+                    intProperty(properties, "minLength", factory.minLength, unused),
+                    intProperty(properties, "maxLength", factory.maxLength, unused));
+        if (unused.contains("length"))
+            factory.setLength(intProperty(properties, "length", 0, unused));
+        if (unused.remove("uniform"))
+            factory.setUniform(booleanProperty(properties, "uniform"));
+
+        for (int n = 1; unused.contains("group." + n); ++n) {
+            String key = "group." + n;
+            unused.remove(key);
+            factory.addCharGroup(
+                    charGroupProperty(properties.getProperty(key)),
+                    intProperty(properties, key + ".min", 0, unused),
+                    intProperty(properties, key + ".max", 0, unused));
+        }
+
+        if (unused.contains("maxRepeatedCharacters"))
+            factory.setMaxRepeatedCharacters(intProperty(properties, "maxRepeatedCharacters", 0, unused));
+        if (unused.contains("maxSequenceLength"))
+            factory.setMaxSequenceLength(intProperty(properties, "maxSequenceLength", 0, unused));
+        for (int n = 1; unused.contains("sequence." + n); ++n) {
+            unused.remove("sequence." + n);
+            factory.addCharacterSequence(properties.getProperty("sequence." + n));
+        }
+
+        if (!unused.isEmpty())
+            throw new IllegalArgumentException(POLICY_PROPERTY_UNKNOWN + unused.first());
+
+        return factory.create();
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue, TreeSet<String> unused) {
+        if (!unused.remove(key))
+            return defaultValue;
+
+        String value = properties.getProperty(key).trim();
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(POLICY_PROPERTY_INVALID + key + "=" + value, e);
+        }
+    }
+
+    private static boolean booleanProperty(Properties properties, String key) {
+        String value = properties.getProperty(key).trim();
+        if (!value.equals("true") && !value.equals("false"))
+            throw new IllegalArgumentException(POLICY_PROPERTY_INVALID + key + "=" + value);
+        return value.equals("true");
+    }
+
+    private static String charGroupProperty(String value) {
+        switch (value) {
+            case "LOWER_CASE": return CharacterGroups.LOWER_CASE;
+            case "UPPER_CASE": return CharacterGroups.UPPER_CASE;
+            case "DIGITS": return CharacterGroups.DIGITS;
+            case "SYMBOLS": return CharacterGroups.SYMBOLS;
+            case "UNAMBIGUOUS_LOWER_CASE": return CharacterGroups.UNAMBIGUOUS_LOWER_CASE;
+            case "UNAMBIGUOUS_UPPER_CASE": return CharacterGroups.UNAMBIGUOUS_UPPER_CASE;
+            case "UNAMBIGUOUS_DIGITS": return CharacterGroups.UNAMBIGUOUS_DIGITS;
+            case "UNAMBIGUOUS_SYMBOLS": return CharacterGroups.UNAMBIGUOUS_SYMBOLS;
+            default: return value;
+        }
+    }
+
+    /**
+     * Returns the <code>PasswordChecker</code> validating passwords according to this policy.
+     * @return the policy checker
+     */
+    public PasswordChecker getChecker() {
+        return checker;
+    }
+
+    /**
+     * Returns the <code>PasswordMaker</code> generating passwords according to this policy.
+     * @return the policy maker
+     */
+    public PasswordMaker getMaker() {
+        return maker;
+    }
+
+    /**
+     * Internal factory to create <code>PasswordPolicy</code> objects.
+     * <p>
+     * This factory class allows you to build a <code>PasswordPolicy</code> using a fluent interface. You create a
+     * <code>Factory</code> by calling {@link PasswordPolicy#factory() PasswordPolicy.factory()}.
+     * Once all the criteria have been specified, you call the {@link #create() create} function
+     * to create a <code>PasswordPolicy</code> object.
+     * <p>
+     * Duplicate characters are never allowed in a policy, since a character belonging to two groups would be counted
+     * once by the maker and twice by the checker.
+     */
+    public static final class Factory extends AbstractFactory<Factory> {
+
+        private int minLength = 16;
+        private int maxLength = 64;
+        private int length = 16;
+        private boolean uniform = false;
+        private RandomUIntGenerator randomUIntGenerator = DefaultUIntGenerator.GENERATOR;
+
+        private Factory() { }
+
+        /**
+         * Sets the minimum and maximum password lengths accepted by the checker. The defaults are 16 and 64.
+         * @param minLength the password minimum length
+         * @param maxLength the password maximum length
+         * @return <code>this</code> factory
+         */
+        public Factory setMinMaxLength(int minLength, int maxLength) {
+            if (minLength < 1)
+                throw new IllegalArgumentException(AT_LEAST_ONE_CHAR + minLength);
+            if (maxLength < minLength)
+                throw new IllegalArgumentException(MAX_BIGGER_THAN_MIN + maxLength + " < " + minLength);
+
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * Sets the length of generated passwords. The default is 16.
+         * @param length the password length
+         * @return <code>this</code> factory
+         */
+        public Factory setLength(int length) {
+            if (length < 1)
+                throw new IllegalArgumentException(AT_LEAST_ONE_CHAR + length);
+
+            this.length = length;
+            return this;
+        }
+
+        /**
+         * Specify the method used to generate random numbers used for password generation.
+         * @param randomUIntGenerator an implementation of the {@link RandomUIntGenerator RandomUIntGenerator}
+         *                            interface
+         * @return <code>this</code> factory
+         * @see RandomUIntGenerator
+         * @see DefaultUIntGenerator
+         */
+        public Factory setRandomUIntGenerator(RandomUIntGenerator randomUIntGenerator) {
+            this.randomUIntGenerator = randomUIntGenerator;
+            return this;
+        }
+
+        /**
+         * Generate passwords exactly uniformly among all the passwords satisfying the minimum and maximum counts of
+         * the character groups, rather than drawing the characters required by the minimum counts first. The default
+         * is <code>false</code>.
+         * @param uniform <code>true</code> to generate passwords uniformly
+         * @return <code>this</code> factory
+         * @see PasswordMaker.Factory#setUniform(boolean)
+         */
+        public Factory setUniform(boolean uniform) {
+            this.uniform = uniform;
+            return this;
+        }
+
+        /**
+         * Create a <code>PasswordPolicy</code> according to the specified criteria.
+         * @return a new <code>PasswordPolicy</code> matching the specified criteria
+         * @throws IllegalStateException if no character group has been specified
+         * @throws IllegalStateException if the length of generated passwords is not between the minimum and maximum
+         * lengths accepted by the checker
+         * @throws IllegalStateException if generated passwords can be longer than the maximum length accepted by the
+         * checker once characters outside of the Basic Multilingual Plane are counted as two <code>char</code>s
+         * @throws IllegalStateException if the minimum counts of the character groups exceed the length of generated
+         * passwords
+         * @throws IllegalStateException if the maximum counts of the character groups prevent passwords of the
+         * specified length from being generated
+         * @throws IllegalStateException if a character group is too small for generated passwords to always satisfy
+         * the repetition and sequence rules
+         * @throws IllegalStateException if uniform generation is requested and the repetition and sequence rules
+         * reject most passwords
+         */
+        public PasswordPolicy create() {
+            if (charGroups().isEmpty())
+                throw new IllegalStateException(NO_POLICY_CHAR_SET_PROVIDED);
+
+            if (length < minLength || length > maxLength)
+                throw new IllegalStateException(POLICY_LENGTH_OUT_OF_BOUNDS
+                        + length + " not in [" + minLength + ", " + maxLength + "]");
+
+            if (groupMinCounts().stream().reduce(0, Integer::sum) > length)
+                throw new IllegalStateException(TOO_MANY_CHAR_BY_TYPE_FOR_LENGTH);
+
+            if (!groupMaxCounts().contains(0) && groupMaxCounts().stream().reduce(0, Integer::sum) < length)
+                throw new IllegalStateException(TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH1
+                        + length + TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH2);
+
+            int maxGeneratedChars = maxGeneratedChars();
+            if (maxGeneratedChars > maxLength)
+                throw new IllegalStateException(
+                        POLICY_LENGTH_TOO_LONG_IN_CHARS + maxGeneratedChars + " > " + maxLength);
+
+            var sequenceRules = sequenceRules();
+            PasswordMaker.checkSequenceRules(sequenceRules, charGroups());
+
+            var tables = new CharGroupTables(compiledCharGroups(), groupMinCountsCopy(), groupMaxCountsCopy(),
+                    sequenceRules);
+            return new PasswordPolicy(
+                    new PasswordChecker(minLength, maxLength, tables),
+                    new PasswordMaker(length, tables, null, uniform, randomUIntGenerator));
+        }
+
+        // Upper bound of the UTF-16 length of generated passwords: every supplementary character adds one char to the
+        // length, and there are at most as many of them as the supplementary groups allow and the other groups leave.
+        private int maxGeneratedChars() {
+            var groups = compiledCharGroups();
+            int bmpOnlyMinCount = 0;
+            long supplementaryMaxCount = 0;
+            for (int i = 0; i < groups.length; ++i) {
+                if (groups[i].getChars().length() == groups[i].size())
+                    bmpOnlyMinCount += groupMinCounts().get(i);
+                else {
+                    int maxCount = groupMaxCounts().get(i);
+                    supplementaryMaxCount += maxCount == 0 ? length : maxCount;
+                }
+            }
+            return length + (int) Math.min(supplementaryMaxCount, length - bmpOnlyMinCount);
+        }
+
+        @Override
+        Factory getThis() {
+            return this;
+        }
+
+        // !! The 9 methods below are only overloaded for documentation purpose !!
+
+        /**
+         * Add a group of allowed characters in the composition of the password.
+         * @param charGroup a <code>String</code> containing all characters allowed in this group
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups
+         */
+        @Override
+        public Factory addCharGroup(String charGroup) {
+            return super.addCharGroup(charGroup);
+        }
+
+        /**
+         * Add a group of allowed characters in the composition of the password and specifies a minimum character
+         * count.
+         * @param charGroup a <code>String</code> containing all characters allowed in this group
+         * @param minCount minimum number of characters from this group that must be present in the password
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups
+         * @throws IllegalArgumentException if <code>minCount &lt; 0</code>
+         */
+        @Override
+        public Factory addCharGroup(String charGroup, int minCount) {
+            return super.addCharGroup(charGroup, minCount, 0);
+        }
+
+        /**
+         * Add a group of allowed characters in the composition of the password and specifies a minimum and maximum
+         * character count.
+         * @param charGroup a <code>String</code> containing all characters allowed in this group
+         * @param minCount minimum number of characters from this group that must be present in the password
+         * @param maxCount maximum number of characters from this group allowed in the password; a value of
+         *                 <code>0</code> (zero) means "unlimited" (same as calling
+         *                 {@link #addCharGroup(String, int) addCharGroup(String, int)})
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups
+         * @throws IllegalArgumentException if <code>minCount &lt; 0</code>, or <code>maxCount &lt; 0</code>, or
+         * <code>maxCount &lt; minCount</code> (unless <code>maxCount == 0</code>)
+         */
+        @Override
+        public Factory addCharGroup(String charGroup, int minCount, int maxCount) {
+            return super.addCharGroup(charGroup, minCount, maxCount);
+        }
+
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the checker and maker of the
+         * <code>PasswordPolicy</code> created.
+         * @param charGroup the compiled character group
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup) {
+            return super.addCharGroup(charGroup);
+        }
+
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password and specifies a
+         * minimum character count.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the checker and maker of the
+         * <code>PasswordPolicy</code> created.
+         * @param charGroup the compiled character group
+         * @param minCount minimum number of characters from this group that must be present in the password
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups
+         * @throws IllegalArgumentException if <code>minCount &lt; 0</code>
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup, int minCount) {
+            return super.addCharGroup(charGroup, minCount, 0);
+        }
+
+        /**
+         * Add a precompiled group of allowed characters in the composition of the password and specifies a
+         * minimum and maximum character count.
+         * <p>
+         * The arrays of the group are referenced, not copied, by the checker and maker of the
+         * <code>PasswordPolicy</code> created.
+         * @param charGroup the compiled character group
+         * @param minCount minimum number of characters from this group that must be present in the password
+         * @param maxCount maximum number of characters from this group allowed in the password; a value of
+         *                 <code>0</code> (zero) means "unlimited" (same as calling
+         *                 {@link #addCharGroup(CompiledCharGroup, int) addCharGroup(CompiledCharGroup, int)})
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if the character group contains duplicates or if the character group
+         * contains characters already present in other character groups
+         * @throws IllegalArgumentException if <code>minCount &lt; 0</code>, or <code>maxCount &lt; 0</code>, or
+         * <code>maxCount &lt; minCount</code> (unless <code>maxCount == 0</code>)
+         */
+        @Override
+        public Factory addCharGroup(CompiledCharGroup charGroup, int minCount, int maxCount) {
+            return super.addCharGroup(charGroup, minCount, maxCount);
+        }
+
+        /**
+         * Sets the maximum number of identical consecutive characters allowed in passwords. The checker rejects
+         * longer runs and the maker never generates them. The default is <code>0</code> (zero), meaning unlimited.
+         * @param maxRepeatedCharacters the maximum length of runs of identical characters, or <code>0</code>
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>maxRepeatedCharacters &lt; 0</code>
+         */
+        @Override
+        public Factory setMaxRepeatedCharacters(int maxRepeatedCharacters) {
+            return super.setMaxRepeatedCharacters(maxRepeatedCharacters);
+        }
+
+        /**
+         * Sets the maximum length of character sequences allowed in passwords: runs of consecutive Unicode code
+         * points, ascending or descending, and runs of adjacent characters of the sequences added with
+         * {@link #addCharacterSequence(String) addCharacterSequence}. The checker rejects longer sequences and the
+         * maker never generates them. The default is <code>0</code> (zero), meaning unlimited.
+         * @param maxSequenceLength the maximum length of character sequences, or <code>0</code>
+         * @return <code>this</code> factory
+         * @throws IllegalArgumentException if <code>maxSequenceLength</code> is negative or equal to 1
+         */
+        @Override
+        public Factory setMaxSequenceLength(int maxSequenceLength) {
+            return super.setMaxSequenceLength(maxSequenceLength);
+        }
+
+        /**
+         * Add a sequence of characters, such as a keyboard row (<code>"qwertyuiop"</code>), whose adjacent characters
+         * form sequences limited by {@link #setMaxSequenceLength(int) setMaxSequenceLength}.
+         * @param sequence the characters of the sequence, in order
+         * @return <code>this</code> factory
+         * @throws NullPointerException if <code>sequence</code> is <code>null</code>
+         * @throws IllegalArgumentException if <code>sequence</code> contains fewer than 2 characters or duplicate
+         * characters, or if too many sequences have been added
+         */
+        @Override
+        public Factory addCharacterSequence(String sequence) {
+            return super.addCharacterSequence(sequence);
+        }
+
+    }
+
+}
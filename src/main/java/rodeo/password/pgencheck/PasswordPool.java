@@ -0,0 +1,258 @@
+package rodeo.password.pgencheck;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static rodeo.password.pgencheck.ErrorMessages.PASSWORD_MAKER_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.POOL_CAPACITY_OUT_OF_RANGE;
+import static rodeo.password.pgencheck.ErrorMessages.THREAD_FACTORY_NULL;
+
+/**
+ * A pool of pre-generated passwords, kept topped up in the background, for latency sensitive code paths.
+ * <p>
+ * Generating a password with a cryptographically strong <code>RandomUIntGenerator</code> occasionally stalls when the
+ * entropy source blocks or reseeds. A <code>PasswordPool</code> moves generation to a background thread that keeps a
+ * bounded lock-free ring of passwords filled, so that {@link #take() take} only has to remove one from the ring. When
+ * the ring is empty, <code>take</code> falls back to generating a password synchronously, so it never blocks waiting
+ * for the background thread.
+ * <p>
+ * The background thread is created by a <code>ThreadFactory</code>, by default a daemon platform thread. On Java 21
+ * and later, a virtual thread can be used instead:
+ * <pre>
+ * var pool = new PasswordPool(maker, 1024, Thread.ofVirtual().factory());
+ * </pre>
+ * <p>
+ * Pooled passwords are stored as <code>char</code> arrays, which are wiped as soon as a password is taken out of the
+ * pool and when the pool is closed. Call {@link #close() close} to stop the background thread when the pool is not
+ * needed anymore; after that, <code>take</code> always generates passwords synchronously.
+ * <p>
+ * If generation fails in the background thread, the thread survives: the failure is counted and kept for monitoring,
+ * see {@link #getFailureCount() getFailureCount}, and generation is retried after a delay. Meanwhile <code>take</code>
+ * generates passwords synchronously and reports the failure to its caller.
+ * <p>
+ * Instances of this class are thread-safe and meant to be shared.
+ * @see PasswordMaker#pool(int)
+ */
+public final class PasswordPool implements AutoCloseable {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final PasswordMaker passwordMaker;
+    private final MpmcRing<char[]> ring;
+    private final int lowWaterMark;
+    private final Thread refiller;
+
+    private volatile boolean closed = false;
+
+    private final LongAdder takeCount = new LongAdder();
+    private final LongAdder underflowCount = new LongAdder();
+    private final LongAdder refillCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private volatile RuntimeException lastFailure = null;
+
+    /**
+     * Create a <code>PasswordPool</code> refilled by a daemon platform thread, and start that thread.
+     * @param passwordMaker the <code>PasswordMaker</code> used to generate passwords
+     * @param capacity the minimum number of passwords kept in the pool; the actual capacity is rounded up to a power
+     *                 of two
+     * @throws IllegalArgumentException if <code>capacity &lt; 1</code> or <code>capacity &gt; 2<sup>30</sup></code>
+     */
+    public PasswordPool(PasswordMaker passwordMaker, int capacity) {
+        this(passwordMaker, capacity, runnable -> {
+            var thread = new Thread(runnable, "password-pool-refill-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a <code>PasswordPool</code> and start its refill thread.
+     * @param passwordMaker the <code>PasswordMaker</code> used to generate passwords
+     * @param capacity the minimum number of passwords kept in the pool; the actual capacity is rounded up to a power
+     *                 of two
+     * @param threadFactory the factory creating the refill thread
+     * @throws IllegalArgumentException if <code>capacity &lt; 1</code> or <code>capacity &gt; 2<sup>30</sup></code>
+     * @throws NullPointerException if <code>passwordMaker</code> or <code>threadFactory</code> is <code>null</code>
+     */
+    public PasswordPool(PasswordMaker passwordMaker, int capacity, ThreadFactory threadFactory) {
+        if (passwordMaker == null)
+            throw new NullPointerException(PASSWORD_MAKER_NULL);
+        if (capacity < 1 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException(POOL_CAPACITY_OUT_OF_RANGE + capacity);
+        if (threadFactory == null)
+            throw new NullPointerException(THREAD_FACTORY_NULL);
+
+        this.passwordMaker = passwordMaker;
+        ring = new MpmcRing<>(capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        lowWaterMark = ring.capacity() / 2;
+
+        refiller = threadFactory.newThread(this::refill);
+        refiller.start();
+    }
+
+    private void refill() {
+        long backoffNanos = 0;
+        while (!closed) {
+            try {
+                while (!closed && ring.size() < ring.capacity()) {
+                    char[] password = passwordMaker.createChars(passwordMaker.getRandomUIntGenerator());
+                    backoffNanos = 0;
+                    if (!ring.offer(password)) {
+                        Arrays.fill(password, '\0');
+                        break;
+                    }
+                    refillCount.increment();
+                }
+            } catch (RuntimeException e) {
+                // A failing generator must not stop the thread: the failure is recorded and generation is retried
+                // later, waiting twice as long after each consecutive failure.
+                failureCount.increment();
+                lastFailure = e;
+                backoffNanos = Math.min(Math.max(MIN_BACKOFF_NANOS, 2 * backoffNanos), MAX_BACKOFF_NANOS);
+                pause(backoffNanos);
+                continue;
+            }
+            // woken up by take() when the pool runs low; the timeout only covers a wake-up racing with the check above
+            if (!closed)
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    // wait until the delay has elapsed or the pool is closed, ignoring the wake-ups from take()
+    private void pause(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining;
+        while (!closed && (remaining = deadline - System.nanoTime()) > 0)
+            LockSupport.parkNanos(this, remaining);
+    }
+
+    /**
+     * Returns a password from the pool, or a freshly generated one if the pool is empty.
+     * @return a new password
+     */
+    public String take() {
+        char[] password = takeChars();
+        var result = new String(password);
+        Arrays.fill(password, '\0');
+        return result;
+    }
+
+    /**
+     * Returns a password from the pool, or a freshly generated one if the pool is empty, as an array of
+     * <code>char</code>s. The caller owns the array and should wipe it once the password has been used.
+     * @return a new password
+     */
+    public char[] takeChars() {
+        takeCount.increment();
+        char[] password = ring.poll();
+        if (password == null) {
+            underflowCount.increment();
+            LockSupport.unpark(refiller);
+            return passwordMaker.createChars(passwordMaker.getRandomUIntGenerator());
+        }
+
+        if (ring.size() <= lowWaterMark)
+            LockSupport.unpark(refiller);
+        return password;
+    }
+
+    /**
+     * Stop the refill thread, wait for it to finish the password it may be generating, and wipe the passwords left in
+     * the pool. Further calls to {@link #take() take} generate passwords synchronously.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(refiller);
+        try {
+            refiller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wipe();
+    }
+
+    private void wipe() {
+        char[] password;
+        while ((password = ring.poll()) != null)
+            Arrays.fill(password, '\0');
+    }
+
+    /**
+     * Returns the <code>PasswordMaker</code> used to generate passwords.
+     * @return the <code>PasswordMaker</code>
+     */
+    public PasswordMaker getPasswordMaker() {
+        return passwordMaker;
+    }
+
+    /**
+     * Returns the maximum number of passwords kept in the pool.
+     * @return the pool capacity
+     */
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * Returns the number of passwords currently in the pool. The value is only an estimate while passwords are being
+     * added or taken.
+     * @return the number of pooled passwords
+     */
+    public int size() {
+        return ring.size();
+    }
+
+    /**
+     * Returns how many passwords have been requested from the pool.
+     * @return the number of calls to <code>take</code> and <code>takeChars</code>
+     */
+    public long getTakeCount() {
+        return takeCount.sum();
+    }
+
+    /**
+     * Returns how many passwords were generated synchronously because the pool was empty.
+     * @return the number of pool underflows
+     */
+    public long getUnderflowCount() {
+        return underflowCount.sum();
+    }
+
+    /**
+     * Returns how many passwords have been generated by the refill thread.
+     * @return the number of passwords added to the pool
+     */
+    public long getRefillCount() {
+        return refillCount.sum();
+    }
+
+    /**
+     * Returns how many times the refill thread failed to generate a password, for example because the
+     * <code>RandomUIntGenerator</code> threw an exception. After a failure, the refill thread waits before trying
+     * again, from 10 milliseconds up to 1 second after consecutive failures; meanwhile, the pool runs empty and
+     * passwords are generated synchronously.
+     * @return the number of refill failures
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * Returns the exception thrown by the last refill failure.
+     * @return the last refill failure, or <code>null</code> if there has been none
+     */
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+}
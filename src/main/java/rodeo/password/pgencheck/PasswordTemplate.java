@@ -0,0 +1,110 @@
+package rodeo.password.pgencheck;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_SYMBOL_UNKNOWN_GROUP;
+
+/**
+ * A password template compiled into one table of allowed code points per position.
+ * <p>
+ * Positions using the same symbol share the same table, so compiling a template costs one table per symbol plus one
+ * per distinct literal, whatever the template length.
+ */
+final class PasswordTemplate {
+
+    private final String template;
+    private final int[][] positions;
+
+    private final int[] forcedCounts;    // positions that can only produce characters of the group
+    private final int[] possibleCounts;  // positions that can produce characters of the group
+
+    PasswordTemplate(String template, Map<Integer, int[]> symbols, List<String> charGroups) {
+        this.template = template;
+
+        var tables = new HashMap<Integer, int[]>();
+        var groupSets = new HashMap<Integer, boolean[]>();
+        for (var symbol: symbols.entrySet()) {
+            var groups = new boolean[charGroups.size()];
+            if (symbol.getValue().length == 0)
+                Arrays.fill(groups, true);
+            for (int groupIndex: symbol.getValue()) {
+                if (groupIndex < 0 || groupIndex >= charGroups.size())
+                    throw new IllegalStateException(TEMPLATE_SYMBOL_UNKNOWN_GROUP
+                            + new StringBuilder().appendCodePoint(symbol.getKey()) + " -> " + groupIndex);
+                groups[groupIndex] = true;
+            }
+
+            var chars = new StringBuilder();
+            for (int groupIndex = 0; groupIndex < groups.length; ++groupIndex)
+                if (groups[groupIndex])
+                    chars.append(charGroups.get(groupIndex));
+
+            tables.put(symbol.getKey(), chars.codePoints().toArray());
+            groupSets.put(symbol.getKey(), groups);
+        }
+
+        forcedCounts = new int[charGroups.size()];
+        possibleCounts = new int[charGroups.size()];
+
+        var templatePositions = new ArrayList<int[]>();
+        template.codePoints().forEach(codePoint -> {
+            var table = tables.get(codePoint);
+            if (table != null) {
+                var groups = groupSets.get(codePoint);
+                int groupCount = 0;
+                int lastGroup = -1;
+                for (int groupIndex = 0; groupIndex < groups.length; ++groupIndex)
+                    if (groups[groupIndex]) {
+                        ++possibleCounts[groupIndex];
+                        ++groupCount;
+                        lastGroup = groupIndex;
+                    }
+                if (groupCount == 1)
+                    ++forcedCounts[lastGroup];
+            } else {
+                // literals are copied as is, but still count towards the groups they belong to
+                table = tables.computeIfAbsent(-1 - codePoint, key -> new int[] { codePoint });
+                for (int groupIndex = 0; groupIndex < charGroups.size(); ++groupIndex)
+                    if (charGroups.get(groupIndex).indexOf(codePoint) != -1) {
+                        ++forcedCounts[groupIndex];
+                        ++possibleCounts[groupIndex];
+                    }
+            }
+            templatePositions.add(table);
+        });
+
+        positions = templatePositions.toArray(new int[0][]);
+    }
+
+    String getTemplate() {
+        return template;
+    }
+
+    int length() {
+        return positions.length;
+    }
+
+    int[] position(int index) {
+        return positions[index];
+    }
+
+    int forcedCount(int groupIndex) {
+        return forcedCounts[groupIndex];
+    }
+
+    int possibleCount(int groupIndex) {
+        return possibleCounts[groupIndex];
+    }
+
+    double entropyBits() {
+        double bits = 0;
+        for (int[] position: positions)
+            bits += Math.log(position.length);
+        return bits / Math.log(2);
+    }
+
+}
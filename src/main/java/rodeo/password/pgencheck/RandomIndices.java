@@ -0,0 +1,118 @@
+package rodeo.password.pgencheck;
+
+import java.math.BigInteger;
+
+/**
+ * Draw several bounded random indices from each 64-bit word produced by a <code>RandomUIntGenerator</code>.
+ * <p>
+ * The object keeps a value uniformly distributed between 0 and <code>range</code> (not included). An index below
+ * <code>bound</code> is the remainder of that value divided by <code>bound</code>, and the quotient, still uniform,
+ * is kept for the next draws. When the value falls in the last, incomplete, block of size <code>bound</code>, the
+ * index is rejected but the leftover randomness is kept. Fresh bits are only pulled, 32 at a time, when the range
+ * becomes too small. All indices are therefore exactly uniform, and a single 64-bit word yields about ten indices
+ * for a 62-character alphabet.
+ * <p>
+ * This class is not thread-safe: a new instance is created for each password.
+ * @see RandomUIntGenerator#fillLongs(long[], int)
+ */
+final class RandomIndices {
+
+    private static final long REFILL_THRESHOLD = 1L << 31;
+
+    private final RandomUIntGenerator generator;
+
+    private long value = 0;
+    private long range = 1;
+
+    private final long[] words;
+    private int wordPosition = 0;
+
+    private long word;
+    private boolean halfWordAvailable = false;
+
+    RandomIndices(RandomUIntGenerator generator) {
+        this(generator, 0);
+    }
+
+    /**
+     * Create a <code>RandomIndices</code> object fetching its first random words in a single call to the generator.
+     * @param generator the source of random words
+     * @param prefetchedWords the number of words to fetch at once; further words are fetched one by one
+     */
+    RandomIndices(RandomUIntGenerator generator, int prefetchedWords) {
+        this.generator = generator;
+        words = new long[prefetchedWords];
+        if (prefetchedWords > 0)
+            generator.fillLongs(words, prefetchedWords);
+    }
+
+    /**
+     * Returns a random index between 0 and <code>bound</code> (not included).
+     * @param bound the upper-bound (not included), between 1 and <code>Integer.MAX_VALUE</code>
+     * @return a uniformly distributed index
+     */
+    int next(int bound) {
+        if (bound == 1)
+            return 0;
+
+        while (true) {
+            while (range < REFILL_THRESHOLD) {
+                value = (value << 32) | next32();
+                range <<= 32;
+            }
+
+            long quotient = range / bound;
+            long limit = quotient * bound;
+            if (value < limit) {
+                long nextValue = value / bound;
+                int index = (int) (value - nextValue * bound);
+                value = nextValue;
+                range = quotient;
+                return index;
+            }
+
+            // value is in the incomplete last block: keep what is left of it as a smaller uniform value
+            value -= limit;
+            range -= limit;
+        }
+    }
+
+    /**
+     * Returns a random integer between 0 and <code>bound</code> (not included). Values of the bit length of
+     * <code>bound</code> are drawn from fresh 32-bit chunks until one falls below <code>bound</code>.
+     * @param bound the upper-bound (not included), at least 1
+     * @return a uniformly distributed integer
+     */
+    BigInteger next(BigInteger bound) {
+        if (bound.bitLength() < Integer.SIZE)
+            return BigInteger.valueOf(next(bound.intValue()));
+
+        int bits = bound.bitLength();
+        int chunks = (bits + 31) / 32;
+        while (true) {
+            var magnitude = new byte[4 * chunks];
+            for (int i = 0; i < chunks; ++i) {
+                long chunk = next32();
+                magnitude[4 * i] = (byte) (chunk >>> 24);
+                magnitude[4 * i + 1] = (byte) (chunk >>> 16);
+                magnitude[4 * i + 2] = (byte) (chunk >>> 8);
+                magnitude[4 * i + 3] = (byte) chunk;
+            }
+            var candidate = new BigInteger(1, magnitude).shiftRight(32 * chunks - bits);
+            if (candidate.compareTo(bound) < 0)
+                return candidate;
+        }
+    }
+
+    private long next32() {
+        if (halfWordAvailable) {
+            halfWordAvailable = false;
+            return word & 0xFFFFFFFFL;
+        }
+
+        word = wordPosition < words.length ? words[wordPosition++] : generator.nextLong();
+        halfWordAvailable = true;
+        return word >>> 32;
+    }
+
+}
@@ -1,9 +1,15 @@
 package rodeo.password.pgencheck;
 
+import java.util.Objects;
 import java.util.Random;
 
 /**
  * Configuration information for generating random numbers for password creation
+ * <p>
+ * Only {@link #getNextUInt(int) getNextUInt} must be implemented. All the other functions have default
+ * implementations built on top of it. Implementations backed by an expensive random number generator should
+ * override {@link #nextLong() nextLong} and {@link #fillLongs(long[], int) fillLongs}, which are the functions used
+ * by <code>PasswordMaker</code>, so that a whole password can be served by a single call.
  */
 public interface RandomUIntGenerator {
 
@@ -16,11 +22,60 @@ public interface RandomUIntGenerator {
     int getNextUInt(int max);
 
     /**
-     * Returns a <code>java.util.Random</code> object used to reorder the characters composing a password.
-     * @return a <code>java.util.Random</code> object
-     * @see PasswordMaker.Factory#setRandomUIntGenerator(RandomUIntGenerator)
+     * Generate a random <code>long</code>, all 2<sup>64</sup> values being equally likely.
+     * <p>
+     * <code>PasswordMaker</code> extracts several character indices from each value returned. The default
+     * implementation combines three calls to {@link #getNextUInt(int) getNextUInt} with power-of-two bounds.
+     * @return a random <code>long</code>
      * @see PasswordMaker#create()
      */
-    Random random();
+    default long nextLong() {
+        return (long) getNextUInt(1 << 22) << 42 | (long) getNextUInt(1 << 21) << 21 | getNextUInt(1 << 21);
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random <code>long</code>s.
+     * <p>
+     * <code>PasswordMaker</code> calls this function once per password with enough values to generate the whole
+     * password in most cases. The default implementation calls {@link #nextLong() nextLong} <code>count</code> times.
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     * @see PasswordMaker#create()
+     */
+    default void fillLongs(long[] out, int count) {
+        Objects.checkFromIndexSize(0, count, out.length);
+        for (int i = 0; i < count; ++i)
+            out[i] = nextLong();
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random integers between 0 and <code>max</code>
+     * (not included).
+     * <p>
+     * The default implementation calls {@link #getNextUInt(int) getNextUInt} <code>count</code> times.
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @param max the upper-bound (not included) of generated integers
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     */
+    default void fillUInts(int[] out, int count, int max) {
+        Objects.checkFromIndexSize(0, count, out.length);
+        for (int i = 0; i < count; ++i)
+            out[i] = getNextUInt(max);
+    }
+
+    /**
+     * Returns a <code>java.util.Random</code> object drawing its values from this generator.
+     * <p>
+     * This function is not used by <code>PasswordMaker</code> anymore, which reorders password characters itself
+     * with values obtained from {@link #fillLongs(long[], int) fillLongs} and {@link #nextLong() nextLong}. It is
+     * kept for code relying on it. The default implementation returns a new view over {@link #nextLong() nextLong}
+     * on each call.
+     * @return a <code>java.util.Random</code> object
+     */
+    default Random random() {
+        return new IntSupplierRandom(() -> (int) (nextLong() >>> 32));
+    }
 
 }
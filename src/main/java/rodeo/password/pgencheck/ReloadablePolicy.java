@@ -0,0 +1,264 @@
+package rodeo.password.pgencheck;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_FILE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.THREAD_FACTORY_NULL;
+
+/**
+ * A <code>PasswordPolicy</code> read from a <code>.properties</code> file and reloaded whenever the file changes.
+ * <p>
+ * The file is read with {@link PasswordPolicy#fromProperties(java.util.Properties) PasswordPolicy.fromProperties}
+ * and watched by a background thread through a <code>WatchService</code>. When the file changes, the new policy is
+ * read and fully built on that thread, then published with a single atomic reference swap: callers of
+ * {@link #getPolicy() getPolicy} never block and never see a partially built policy. A check or a password
+ * generation that started with the previous policy simply finishes with it. Code using both the checker and the maker
+ * of a policy should call <code>getPolicy</code> once and use the returned object, rather than calling
+ * {@link #getChecker() getChecker} and {@link #getMaker() getMaker} separately, which may straddle a reload.
+ * <p>
+ * If the new file cannot be read or describes an invalid policy, the current policy is kept, the failure counter is
+ * incremented and the exception is made available through {@link #getLastFailure() getLastFailure}. The initial
+ * policy, however, must be valid: the constructor throws if it is not.
+ * <p>
+ * Editors often write a file in several steps; changes are therefore only applied once the file has been quiet for
+ * a short while. On platforms without native file change notification, the <code>WatchService</code> polls the
+ * directory and changes may take several seconds to be noticed.
+ * <p>
+ * Call {@link #close() close} to stop watching the file; the last policy loaded remains available.
+ * <p>
+ * Instances of this class are thread-safe and meant to be shared.
+ * @see PasswordPolicy#fromProperties(java.util.Properties)
+ */
+public final class ReloadablePolicy implements AutoCloseable {
+
+    private static final long SETTLE_MILLIS = 50;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final Path file;
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    private final AtomicReference<PasswordPolicy> policy = new AtomicReference<>();
+
+    // only written while holding the lock of this object, in reload()
+    private volatile long reloadCount = 0;
+    private volatile long failureCount = 0;
+    private volatile long lastReloadNanos = 0;
+    private volatile long maxReloadNanos = 0;
+    private volatile Exception lastFailure = null;
+
+    /**
+     * Load the policy from <code>file</code> and start watching it with a daemon platform thread.
+     * @param file the policy <code>.properties</code> file, read as UTF-8
+     * @throws NullPointerException if <code>file</code> is <code>null</code>
+     * @throws IOException if the file cannot be read or watched
+     * @throws IllegalArgumentException if the file describes an invalid policy, as per
+     * {@link PasswordPolicy#fromProperties(java.util.Properties) PasswordPolicy.fromProperties}
+     * @throws IllegalStateException if the file describes an invalid policy, as per
+     * {@link PasswordPolicy#fromProperties(java.util.Properties) PasswordPolicy.fromProperties}
+     */
+    public ReloadablePolicy(Path file) throws IOException {
+        this(file, runnable -> {
+            var thread = new Thread(runnable, "password-policy-watcher-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the policy from <code>file</code> and start watching it.
+     * @param file the policy <code>.properties</code> file, read as UTF-8
+     * @param threadFactory the factory creating the thread watching the file
+     * @throws NullPointerException if <code>file</code> or <code>threadFactory</code> is <code>null</code>
+     * @throws IOException if the file cannot be read or watched
+     * @throws IllegalArgumentException if the file describes an invalid policy, as per
+     * {@link PasswordPolicy#fromProperties(java.util.Properties) PasswordPolicy.fromProperties}
+     * @throws IllegalStateException if the file describes an invalid policy, as per
+     * {@link PasswordPolicy#fromProperties(java.util.Properties) PasswordPolicy.fromProperties}
+     */
+    public ReloadablePolicy(Path file, ThreadFactory threadFactory) throws IOException {
+        if (file == null)
+            throw new NullPointerException(POLICY_FILE_NULL);
+        if (threadFactory == null)
+            throw new NullPointerException(THREAD_FACTORY_NULL);
+
+        this.file = file.toAbsolutePath();
+
+        // watch before the initial load, so that a change made in between is not missed
+        watchService = this.file.getFileSystem().newWatchService();
+        try {
+            this.file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            policy.set(load(this.file));
+            watcher = threadFactory.newThread(this::watch);
+            watcher.start();
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    private static PasswordPolicy load(Path file) throws IOException {
+        var properties = new Properties();
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return PasswordPolicy.fromProperties(properties);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = pollEvents(key);
+                // let the writer finish before reading the file
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null)
+                    changed |= pollEvents(key);
+                if (changed)
+                    reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // closed
+        }
+    }
+
+    private boolean pollEvents(WatchKey key) {
+        boolean changed = false;
+        for (var event: key.pollEvents())
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context());
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Read the policy file and, if it describes a valid policy, publish the new policy. This function is called by
+     * the watching thread whenever the file changes, but can also be called directly, for instance after
+     * {@link #close() close}.
+     * @return <code>true</code> if the new policy was published, <code>false</code> if the current policy was kept
+     * because the file could not be read or describes an invalid policy
+     */
+    public synchronized boolean reload() {
+        long start = System.nanoTime();
+        PasswordPolicy newPolicy;
+        try {
+            newPolicy = load(file);
+        } catch (IOException | RuntimeException e) {
+            lastFailure = e;
+            ++failureCount;
+            return false;
+        }
+
+        policy.set(newPolicy);
+        long nanos = System.nanoTime() - start;
+        lastReloadNanos = nanos;
+        maxReloadNanos = Math.max(maxReloadNanos, nanos);
+        ++reloadCount;
+        return true;
+    }
+
+    /**
+     * Stop watching the policy file and wait for the watching thread to finish any reload in progress. The current
+     * policy remains available.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+        try {
+            watcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the policy file.
+     * @return the absolute path of the policy file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the current policy.
+     * @return the policy most recently loaded
+     */
+    public PasswordPolicy getPolicy() {
+        return policy.get();
+    }
+
+    /**
+     * Returns the <code>PasswordChecker</code> of the current policy.
+     * @return the current checker
+     */
+    public PasswordChecker getChecker() {
+        return policy.get().getChecker();
+    }
+
+    /**
+     * Returns the <code>PasswordMaker</code> of the current policy.
+     * @return the current maker
+     */
+    public PasswordMaker getMaker() {
+        return policy.get().getMaker();
+    }
+
+    /**
+     * Returns how many times the policy has been reloaded, not counting the initial load.
+     * @return the number of successful reloads
+     */
+    public long getReloadCount() {
+        return reloadCount;
+    }
+
+    /**
+     * Returns how many reloads failed because the file could not be read or described an invalid policy.
+     * @return the number of failed reloads
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Returns the exception thrown by the last failed reload.
+     * @return the last reload failure, or <code>null</code> if no reload ever failed
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Returns how long the last successful reload took, from reading the file to publishing the new policy.
+     * @return the duration of the last reload, or <code>Duration.ZERO</code> if the policy was never reloaded
+     */
+    public Duration getLastReloadLatency() {
+        return Duration.ofNanos(lastReloadNanos);
+    }
+
+    /**
+     * Returns how long the slowest successful reload took, from reading the file to publishing the new policy.
+     * @return the duration of the slowest reload, or <code>Duration.ZERO</code> if the policy was never reloaded
+     */
+    public Duration getMaxReloadLatency() {
+        return Duration.ofNanos(maxReloadNanos);
+    }
+
+}
@@ -0,0 +1,53 @@
+package rodeo.password.pgencheck;
+
+/**
+ * Records a run of identical characters longer than allowed in password validation.
+ * <p>
+ * If a password contains several such runs, the first of the longest ones is reported.
+ */
+public class RepeatedCharactersError extends PasswordCheckError {
+
+    private final int codePoint;
+    private final int length;
+    private final int maxLength;
+
+    RepeatedCharactersError(int codePoint, int length, int maxLength) {
+        super(PasswordCheckStatus.REPEATED_CHARACTERS);
+        this.codePoint = codePoint;
+        this.length = length;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the repeated character as a code point.
+     * @return the repeated character code point
+     */
+    public int getRepeatedCodePoint() {
+        return codePoint;
+    }
+
+    /**
+     * Returns the repeated character as a <code>String</code>.
+     * @return the repeated character
+     */
+    public String getRepeatedCharacter() {
+        return Character.toString(codePoint);
+    }
+
+    /**
+     * Returns the number of times the character is repeated.
+     * @return the length of the run of identical characters
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the maximum number of identical consecutive characters allowed.
+     * @return the maximum length of runs of identical characters
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+}
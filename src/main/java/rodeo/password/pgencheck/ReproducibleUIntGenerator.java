@@ -0,0 +1,111 @@
+package rodeo.password.pgencheck;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A seedable implementation of <code>RandomUIntGenerator</code> producing reproducible sequences of passwords.
+ * <p>
+ * <b>This generator is not cryptographically strong and must never be used to create real passwords.</b> It is
+ * meant for test fixtures, load tests and other situations where the same passwords must be produced again on demand
+ * instead of being stored.
+ * <p>
+ * A run is identified by a seed. The generator for password number <code>k</code> of a run is obtained with
+ * {@link #forPassword(long, long) forPassword(seed, k)} and does not depend on any other password of the run, so
+ * a fixture can be generated in parallel, in any order, and any password of it regenerated individually:
+ * <pre>
+ * String password = maker.create(ReproducibleUIntGenerator.forPassword(seed, k));
+ * </pre>
+ * Generators can also be split, like <code>java.util.SplittableRandom</code>, to hand independent deterministic
+ * streams to parallel workers.
+ * <p>
+ * Values are derived with <code>java.util.SplittableRandom</code>. For a given seed and index, the same passwords
+ * are generated on every run with the same version of this library and the same <code>PasswordMaker</code>
+ * configuration.
+ * <p>
+ * Instances of this class are <b>not</b> thread-safe: give each thread its own instance, obtained through
+ * {@link #forPassword(long, long) forPassword} or {@link #split() split}.
+ * @see PasswordMaker#create(RandomUIntGenerator)
+ */
+public final class ReproducibleUIntGenerator implements RandomUIntGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final SplittableRandom random;
+
+    /**
+     * Create a <code>ReproducibleUIntGenerator</code> producing the sequence of values associated to a seed.
+     * @param seed the seed of the sequence
+     */
+    public ReproducibleUIntGenerator(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private ReproducibleUIntGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Create a generator dedicated to password number <code>index</code> of the run identified by
+     * <code>seed</code>. The result only depends on <code>seed</code> and <code>index</code>.
+     * @param seed the seed of the run
+     * @param index the number of the password in the run
+     * @return a new generator for that password
+     */
+    public static ReproducibleUIntGenerator forPassword(long seed, long index) {
+        return new ReproducibleUIntGenerator(new SplittableRandom(mix64(mix64(seed) + index * GOLDEN_GAMMA)));
+    }
+
+    // MurmurHash3 finalizer with Stafford's variant 13 constants, as used by SplittableRandom
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Create a new generator, independent from this one, and advance this generator's state. The sequence of
+     * generators returned by successive calls is itself reproducible.
+     * @return a new <code>ReproducibleUIntGenerator</code>
+     */
+    public ReproducibleUIntGenerator split() {
+        return new ReproducibleUIntGenerator(random.split());
+    }
+
+    /**
+     * Generate a random integer between 0 and <code>max</code> (not included).
+     * @param max the upper-bound (not included) of generated integers
+     * @return a random integer between 0 and <code>max</code> (not included)
+     * @throws IllegalArgumentException if <code> max &lt; 2</code>
+     */
+    @Override
+    public int getNextUInt(int max) {
+        if (max < 2)
+            throw new IllegalArgumentException("max must be >= 2");
+
+        return random.nextInt(max);
+    }
+
+    /**
+     * Generate a random <code>long</code>.
+     * @return a random <code>long</code>
+     */
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random <code>long</code>s.
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     */
+    @Override
+    public void fillLongs(long[] out, int count) {
+        Objects.checkFromIndexSize(0, count, out.length);
+        for (int i = 0; i < count; ++i)
+            out[i] = random.nextLong();
+    }
+
+}
@@ -0,0 +1,163 @@
+package rodeo.password.pgencheck;
+
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.Random;
+
+import static rodeo.password.pgencheck.ErrorMessages.BUFFER_SIZE_TOO_SMALL;
+import static rodeo.password.pgencheck.ErrorMessages.RANDOM_SOURCE_NULL;
+
+/**
+ * An implementation of <code>RandomUIntGenerator</code> backed by a cryptographically strong random number generator.
+ * <p>
+ * Random bytes are pulled from a <code>java.security.SecureRandom</code> in large blocks and stored in a buffer
+ * private to each thread. Bounded integers are then derived from that buffer without any further call to the
+ * <code>SecureRandom</code>, and therefore without synchronization. With the default buffer size, a 16-character
+ * password costs a single <code>SecureRandom.nextBytes</code> call every dozen passwords or so instead of one
+ * synchronized call per character.
+ * <p>
+ * Bounded integers are computed with Lemire's multiply-shift method plus rejection, so they are free of modulo bias.
+ * <p>
+ * Any <code>SecureRandom</code> can be used as the entropy source, for example
+ * <code>SecureRandom.getInstance("DRBG")</code>. The source must be safe to use from several threads, which is the
+ * case of all <code>SecureRandom</code> implementations shipped with the JDK.
+ * <p>
+ * Instances of this class are thread-safe and meant to be shared.
+ * @see RandomUIntGenerator
+ * @see PasswordMaker.Factory#setRandomUIntGenerator(RandomUIntGenerator)
+ */
+public final class SecureUIntGenerator implements RandomUIntGenerator {
+
+    /**
+     * Default size, in bytes, of the per-thread entropy buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private final SecureRandom source;
+    private final int bufferSize;
+    private final ThreadLocal<EntropyBuffer> buffers;
+    private final ThreadLocal<Random> randoms;
+
+    /**
+     * Create a <code>SecureUIntGenerator</code> using a new default <code>SecureRandom</code> as entropy source and
+     * a buffer of {@link #DEFAULT_BUFFER_SIZE DEFAULT_BUFFER_SIZE} bytes.
+     */
+    public SecureUIntGenerator() {
+        this(new SecureRandom());
+    }
+
+    /**
+     * Create a <code>SecureUIntGenerator</code> using the specified entropy source and a buffer of
+     * {@link #DEFAULT_BUFFER_SIZE DEFAULT_BUFFER_SIZE} bytes.
+     * @param source the <code>SecureRandom</code> random bytes are pulled from
+     */
+    public SecureUIntGenerator(SecureRandom source) {
+        this(source, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a <code>SecureUIntGenerator</code> using the specified entropy source and buffer size.
+     * @param source the <code>SecureRandom</code> random bytes are pulled from
+     * @param bufferSize the number of bytes pulled from <code>source</code> at once, for each thread
+     * @throws NullPointerException if <code>source</code> is <code>null</code>
+     * @throws IllegalArgumentException if <code>bufferSize</code> is smaller than 8 or not a multiple of 4
+     */
+    public SecureUIntGenerator(SecureRandom source, int bufferSize) {
+        if (source == null)
+            throw new NullPointerException(RANDOM_SOURCE_NULL);
+        if (bufferSize < 8 || bufferSize % 4 != 0)
+            throw new IllegalArgumentException(BUFFER_SIZE_TOO_SMALL + bufferSize);
+
+        this.source = source;
+        this.bufferSize = bufferSize;
+        buffers = ThreadLocal.withInitial(() -> new EntropyBuffer(this.source, this.bufferSize));
+        randoms = ThreadLocal.withInitial(() -> new IntSupplierRandom(buffers.get()));
+    }
+
+    /**
+     * Generate a random integer between 0 and <code>max</code> (not included).
+     * @param max the upper-bound (not included) of generated integers
+     * @return a random integer between 0 and <code>max</code> (not included)
+     * @throws IllegalArgumentException if <code> max &lt; 2</code>
+     */
+    @Override
+    public int getNextUInt(int max) {
+        if (max < 2)
+            throw new IllegalArgumentException("max must be >= 2");
+
+        return BoundedUInts.nextUInt(buffers.get(), max);
+    }
+
+    /**
+     * Generate a random <code>long</code> from the calling thread's entropy buffer.
+     * @return a random <code>long</code>
+     */
+    @Override
+    public long nextLong() {
+        var buffer = buffers.get();
+        return (long) buffer.getAsInt() << 32 | (buffer.getAsInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random <code>long</code>s from the calling thread's
+     * entropy buffer.
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     */
+    @Override
+    public void fillLongs(long[] out, int count) {
+        Objects.checkFromIndexSize(0, count, out.length);
+        var buffer = buffers.get();
+        for (int i = 0; i < count; ++i)
+            out[i] = (long) buffer.getAsInt() << 32 | (buffer.getAsInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random integers between 0 and <code>max</code>
+     * (not included), drawn from the calling thread's entropy buffer.
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @param max the upper-bound (not included) of generated integers
+     * @throws IllegalArgumentException if <code> max &lt; 2</code>
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     */
+    @Override
+    public void fillUInts(int[] out, int count, int max) {
+        if (max < 2)
+            throw new IllegalArgumentException("max must be >= 2");
+        Objects.checkFromIndexSize(0, count, out.length);
+
+        var buffer = buffers.get();
+        for (int i = 0; i < count; ++i)
+            out[i] = BoundedUInts.nextUInt(buffer, max);
+    }
+
+    /**
+     * Returns a <code>java.util.Random</code> object drawing from the calling thread's entropy buffer.
+     * <p>
+     * The returned object must not be shared with other threads.
+     * @return a <code>java.util.Random</code> object
+     */
+    @Override
+    public Random random() {
+        return randoms.get();
+    }
+
+    /**
+     * Returns the entropy source of this generator.
+     * @return the <code>SecureRandom</code> random bytes are pulled from
+     */
+    public SecureRandom getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the number of bytes pulled at once from the entropy source.
+     * @return the per-thread buffer size, in bytes
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+}
@@ -0,0 +1,254 @@
+package rodeo.password.pgencheck;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Precompiled rules on runs of identical characters and on character sequences.
+ * <p>
+ * Two consecutive characters are <i>linked</i> when the second one follows the first one in a sequence: consecutive
+ * Unicode code points, ascending (<code>ab</code>) or descending (<code>ba</code>), or adjacent characters of a
+ * sequence added to the factory, such as a keyboard row, read forward (<code>qw</code>) or backward
+ * (<code>wq</code>). Each of these is a distinct link; a sequence is a run of characters all linked by the same link,
+ * so <code>abc</code> is an ascending sequence of length 3, but <code>aba</code> is not a sequence.
+ * <p>
+ * The links between all pairs of characters belonging to added sequences are precomputed in a sorted table, so
+ * following a password requires one binary search per character.
+ */
+final class SequenceRules {
+
+    static final SequenceRules NONE = new SequenceRules(0, 0, Collections.emptyList());
+
+    // links 0 and 1 are ascending and descending code points; added sequence s uses links 2 + 2s and 3 + 2s
+    static final int MAX_CHARACTER_SEQUENCES = 31;
+
+    private static final long ASCENDING = 1;
+    private static final long DESCENDING = 2;
+
+    private final int maxRepeatedCharacters;
+    private final int maxSequenceLength;
+    private final List<String> characterSequences;
+    private final int linkCount;
+
+    // (previous << 32 | current) keys, sorted, and the links between the two characters
+    private final long[] pairs;
+    private final long[] pairLinks;
+
+    SequenceRules(int maxRepeatedCharacters, int maxSequenceLength, List<String> characterSequences) {
+        this.maxRepeatedCharacters = maxRepeatedCharacters;
+        this.maxSequenceLength = maxSequenceLength;
+        this.characterSequences = Collections.unmodifiableList(characterSequences);
+        linkCount = 2 + 2 * characterSequences.size();
+
+        int pairCount = 0;
+        for (String sequence: characterSequences)
+            pairCount += 2 * (sequence.codePointCount(0, sequence.length()) - 1);
+
+        var keys = new long[pairCount];
+        var links = new long[pairCount];
+        int size = 0;
+        for (int s = 0; s < characterSequences.size(); ++s) {
+            int[] codePoints = characterSequences.get(s).codePoints().toArray();
+            for (int i = 1; i < codePoints.length; ++i) {
+                keys[size] = key(codePoints[i - 1], codePoints[i]);
+                links[size++] = 1L << (2 + 2 * s);
+                keys[size] = key(codePoints[i], codePoints[i - 1]);
+                links[size++] = 1L << (3 + 2 * s);
+            }
+        }
+
+        // sort by key and merge the links of identical pairs
+        var order = new Integer[size];
+        for (int i = 0; i < size; ++i)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        var sortedKeys = new long[size];
+        var sortedLinks = new long[size];
+        int distinct = 0;
+        for (int i: order) {
+            if (distinct > 0 && sortedKeys[distinct - 1] == keys[i])
+                sortedLinks[distinct - 1] |= links[i];
+            else {
+                sortedKeys[distinct] = keys[i];
+                sortedLinks[distinct++] = links[i];
+            }
+        }
+        pairs = Arrays.copyOf(sortedKeys, distinct);
+        pairLinks = Arrays.copyOf(sortedLinks, distinct);
+    }
+
+    private static long key(int previous, int current) {
+        return (long) previous << 32 | (current & 0xFFFFFFFFL);
+    }
+
+    boolean isEmpty() {
+        return maxRepeatedCharacters == 0 && maxSequenceLength == 0;
+    }
+
+    int getMaxRepeatedCharacters() {
+        return maxRepeatedCharacters;
+    }
+
+    int getMaxSequenceLength() {
+        return maxSequenceLength;
+    }
+
+    List<String> getCharacterSequences() {
+        return characterSequences;
+    }
+
+    /**
+     * Returns the maximum number of characters that can be forbidden after any prefix: the previous character if its
+     * run is as long as allowed, plus one successor per sequence (including code point order) the prefix ends with.
+     */
+    int maxForbiddenCharacters() {
+        return (maxRepeatedCharacters > 0 ? 1 : 0) + (maxSequenceLength > 0 ? 1 + characterSequences.size() : 0);
+    }
+
+    long links(int previous, int current) {
+        long links = 0;
+        if (current == previous + 1)
+            links = ASCENDING;
+        else if (current == previous - 1)
+            links = DESCENDING;
+
+        if (pairs.length > 0) {
+            int index = Arrays.binarySearch(pairs, key(previous, current));
+            if (index >= 0)
+                links |= pairLinks[index];
+        }
+
+        return links;
+    }
+
+    // the character following 'previous' through 'link', or -1 if there is none
+    private int successor(int previous, int link) {
+        if (link == 0)
+            return previous + 1;
+        if (link == 1)
+            return previous - 1;
+
+        long bit = 1L << link;
+        int index = Arrays.binarySearch(pairs, key(previous, 0));
+        for (int i = index >= 0 ? index : -index - 1; i < pairs.length && (int) (pairs[i] >>> 32) == previous; ++i)
+            if ((pairLinks[i] & bit) != 0)
+                return (int) pairs[i];
+        return -1;
+    }
+
+    Run newRun() {
+        return new Run();
+    }
+
+    /**
+     * Follows a password one character at a time and keeps track of the current run and sequence lengths, as well as
+     * the longest ones seen so far.
+     */
+    final class Run {
+
+        private boolean started = false;
+        private int previous;
+        private int position = 0;
+        private int repeatLength = 0;
+        private int longestRepeat = 0;
+        private int longestRepeatEnd = 0;
+        private int longestSequence = 0;
+        private int longestSequenceEnd = 0;
+
+        private long activeLinks = 0;
+        private final int[] linkLengths = new int[linkCount];
+        private int sequenceLength = 0;
+
+        void push(int codePoint) {
+            if (!started) {
+                started = true;
+                repeatLength = 1;
+                sequenceLength = 1;
+            } else {
+                repeatLength = codePoint == previous ? repeatLength + 1 : 1;
+
+                long links = maxSequenceLength > 0 ? links(previous, codePoint) : 0;
+                sequenceLength = 1;
+                for (long remaining = links; remaining != 0; remaining &= remaining - 1) {
+                    int link = Long.numberOfTrailingZeros(remaining);
+                    linkLengths[link] = (activeLinks & (1L << link)) != 0 ? linkLengths[link] + 1 : 2;
+                    sequenceLength = Math.max(sequenceLength, linkLengths[link]);
+                }
+                activeLinks = links;
+            }
+            previous = codePoint;
+            ++position;
+
+            if (repeatLength > longestRepeat) {
+                longestRepeat = repeatLength;
+                longestRepeatEnd = position;
+            }
+            if (sequenceLength > longestSequence) {
+                longestSequence = sequenceLength;
+                longestSequenceEnd = position;
+            }
+        }
+
+        int repeatLength() {
+            return repeatLength;
+        }
+
+        int sequenceLength() {
+            return sequenceLength;
+        }
+
+        boolean tooManyRepeatedCharacters() {
+            return maxRepeatedCharacters > 0 && longestRepeat > maxRepeatedCharacters;
+        }
+
+        boolean sequenceTooLong() {
+            return maxSequenceLength > 0 && longestSequence > maxSequenceLength;
+        }
+
+        // lengths in code points; end positions are code point indices just past the first longest run
+        int longestRepeat() {
+            return longestRepeat;
+        }
+
+        int longestRepeatEnd() {
+            return longestRepeatEnd;
+        }
+
+        int longestSequence() {
+            return longestSequence;
+        }
+
+        int longestSequenceEnd() {
+            return longestSequenceEnd;
+        }
+
+        /**
+         * Write the characters that cannot follow the current prefix into <code>forbidden</code>, which must hold at
+         * least {@link #maxForbiddenCharacters()} values, and return how many were written.
+         */
+        int forbiddenSuccessors(int[] forbidden) {
+            if (!started)
+                return 0;
+
+            int count = 0;
+            if (maxRepeatedCharacters > 0 && repeatLength >= maxRepeatedCharacters)
+                forbidden[count++] = previous;
+
+            if (maxSequenceLength > 0)
+                for (long remaining = activeLinks; remaining != 0; remaining &= remaining - 1) {
+                    int link = Long.numberOfTrailingZeros(remaining);
+                    if (linkLengths[link] >= maxSequenceLength) {
+                        int successor = successor(previous, link);
+                        if (successor >= 0)
+                            forbidden[count++] = successor;
+                    }
+                }
+
+            return count;
+        }
+
+    }
+
+}
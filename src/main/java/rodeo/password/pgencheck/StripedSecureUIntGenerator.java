@@ -0,0 +1,366 @@
+package rodeo.password.pgencheck;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static rodeo.password.pgencheck.ErrorMessages.RANDOM_SOURCE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.RESEED_INTERVAL_NOT_POSITIVE;
+import static rodeo.password.pgencheck.ErrorMessages.STRIPE_COUNT_NOT_POSITIVE;
+
+/**
+ * An implementation of <code>RandomUIntGenerator</code> spreading concurrent requests over a pool of independently
+ * seeded cryptographically strong random number generators.
+ * <p>
+ * A single <code>SecureRandom</code> shared by all threads serializes password generation on its internal lock. This
+ * class keeps several <i>stripes</i>, each with its own <code>SecureRandom</code> instance (DRBG by default), its own
+ * lock and a small entropy buffer. Each thread is attached to a stripe; when that stripe is found busy the thread
+ * moves to another one, the same way <code>java.util.concurrent.atomic.LongAdder</code> spreads contended updates.
+ * Threads therefore quickly settle on distinct stripes and stop competing for the same lock.
+ * <p>
+ * Optionally, the stripes can be reseeded periodically by a background daemon thread. Reseeding one stripe never
+ * blocks the others. Call {@link #close() close} to stop the background thread when the generator is not needed
+ * anymore.
+ * <p>
+ * Bounded integers are computed with Lemire's multiply-shift method plus rejection, so they are free of modulo bias.
+ * <p>
+ * Instances of this class are thread-safe and meant to be shared.
+ * @see RandomUIntGenerator
+ * @see SecureUIntGenerator
+ * @see PasswordMaker.Factory#setRandomUIntGenerator(RandomUIntGenerator)
+ */
+public final class StripedSecureUIntGenerator implements RandomUIntGenerator, AutoCloseable {
+
+    private static final int STRIPE_BUFFER_SIZE = 256;
+    private static final int RESEED_SEED_SIZE = 32;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final ThreadLocal<int[]> stripeHints;
+    private final Random random;
+
+    private final LongAdder drawCount = new LongAdder();
+    private final LongAdder contentionCount = new LongAdder();
+    private final LongAdder reseedCount = new LongAdder();
+    private final LongAdder reseedFailureCount = new LongAdder();
+
+    private final ScheduledExecutorService reseeder;
+
+    /**
+     * Create a <code>StripedSecureUIntGenerator</code> with one stripe per available processor (rounded up to a power
+     * of two), backed by DRBG instances, without periodic reseeding.
+     */
+    public StripedSecureUIntGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a <code>StripedSecureUIntGenerator</code> backed by DRBG instances, without periodic reseeding.
+     * @param stripeCount the minimum number of stripes; the actual count is rounded up to a power of two
+     * @throws IllegalArgumentException if <code>stripeCount &lt; 1</code>
+     */
+    public StripedSecureUIntGenerator(int stripeCount) {
+        this(stripeCount, null);
+    }
+
+    /**
+     * Create a <code>StripedSecureUIntGenerator</code> backed by DRBG instances.
+     * @param stripeCount the minimum number of stripes; the actual count is rounded up to a power of two
+     * @param reseedInterval the interval between two reseeding rounds of all stripes, or <code>null</code> to disable
+     *                       periodic reseeding
+     * @throws IllegalArgumentException if <code>stripeCount &lt; 1</code> or if <code>reseedInterval</code> is zero
+     * or negative
+     */
+    public StripedSecureUIntGenerator(int stripeCount, Duration reseedInterval) {
+        this(stripeCount, reseedInterval, StripedSecureUIntGenerator::newDrbg);
+    }
+
+    /**
+     * Create a <code>StripedSecureUIntGenerator</code> whose stripes are created by the specified supplier.
+     * <p>
+     * The supplier is called once per stripe and must return a distinct, independently seeded instance each time.
+     * @param stripeCount the minimum number of stripes; the actual count is rounded up to a power of two
+     * @param reseedInterval the interval between two reseeding rounds of all stripes, or <code>null</code> to disable
+     *                       periodic reseeding
+     * @param sources supplier of the <code>SecureRandom</code> instances used by the stripes
+     * @throws IllegalArgumentException if <code>stripeCount &lt; 1</code> or if <code>reseedInterval</code> is zero
+     * or negative
+     * @throws NullPointerException if <code>sources</code> is <code>null</code> or returns <code>null</code>
+     */
+    public StripedSecureUIntGenerator(int stripeCount, Duration reseedInterval, Supplier<SecureRandom> sources) {
+        if (stripeCount < 1)
+            throw new IllegalArgumentException(STRIPE_COUNT_NOT_POSITIVE + stripeCount);
+        if (reseedInterval != null && (reseedInterval.isZero() || reseedInterval.isNegative()))
+            throw new IllegalArgumentException(RESEED_INTERVAL_NOT_POSITIVE + reseedInterval);
+        if (sources == null)
+            throw new NullPointerException(RANDOM_SOURCE_NULL);
+
+        int count = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; ++i) {
+            var source = sources.get();
+            if (source == null)
+                throw new NullPointerException(RANDOM_SOURCE_NULL);
+            stripes[i] = new Stripe(source);
+        }
+        mask = count - 1;
+
+        stripeHints = ThreadLocal.withInitial(() -> new int[] { initialHint() });
+        random = new IntSupplierRandom(this::nextInt);
+
+        if (reseedInterval == null)
+            reseeder = null;
+        else {
+            reseeder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "password-rodeo-reseeder-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            long nanos = reseedInterval.toNanos();
+            reseeder.scheduleWithFixedDelay(this::reseed, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static SecureRandom newDrbg() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    private static int initialHint() {
+        // Fibonacci hashing of the thread id, so consecutive ids land on different stripes; must not be 0 for xorshift
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) | 1;
+    }
+
+    /**
+     * Generate a random integer between 0 and <code>max</code> (not included).
+     * @param max the upper-bound (not included) of generated integers
+     * @return a random integer between 0 and <code>max</code> (not included)
+     * @throws IllegalArgumentException if <code> max &lt; 2</code>
+     */
+    @Override
+    public int getNextUInt(int max) {
+        if (max < 2)
+            throw new IllegalArgumentException("max must be >= 2");
+
+        var stripe = acquireStripe();
+        try {
+            return BoundedUInts.nextUInt(stripe.buffer, max);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Generate a random <code>long</code> from one of the stripes.
+     * @return a random <code>long</code>
+     */
+    @Override
+    public long nextLong() {
+        var stripe = acquireStripe();
+        try {
+            return (long) stripe.buffer.getAsInt() << 32 | (stripe.buffer.getAsInt() & 0xFFFFFFFFL);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random <code>long</code>s, all drawn from the same
+     * stripe.
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     */
+    @Override
+    public void fillLongs(long[] out, int count) {
+        Objects.checkFromIndexSize(0, count, out.length);
+        var stripe = acquireStripe();
+        try {
+            for (int i = 0; i < count; ++i)
+                out[i] = (long) stripe.buffer.getAsInt() << 32 | (stripe.buffer.getAsInt() & 0xFFFFFFFFL);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Fill the first <code>count</code> elements of an array with random integers between 0 and <code>max</code>
+     * (not included), all drawn from the same stripe.
+     * @param out the array to fill
+     * @param count the number of values to generate
+     * @param max the upper-bound (not included) of generated integers
+     * @throws IllegalArgumentException if <code> max &lt; 2</code>
+     * @throws IndexOutOfBoundsException if <code>count &lt; 0</code> or <code>count &gt; out.length</code>
+     */
+    @Override
+    public void fillUInts(int[] out, int count, int max) {
+        if (max < 2)
+            throw new IllegalArgumentException("max must be >= 2");
+        Objects.checkFromIndexSize(0, count, out.length);
+
+        var stripe = acquireStripe();
+        try {
+            for (int i = 0; i < count; ++i)
+                out[i] = BoundedUInts.nextUInt(stripe.buffer, max);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private int nextInt() {
+        var stripe = acquireStripe();
+        try {
+            return stripe.buffer.getAsInt();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe acquireStripe() {
+        drawCount.increment();
+        int[] hint = stripeHints.get();
+        int h = hint[0];
+
+        for (int attempt = 0; attempt <= mask; ++attempt) {
+            var stripe = stripes[h & mask];
+            if (stripe.lock.tryLock()) {
+                hint[0] = h;
+                return stripe;
+            }
+
+            // stripe is busy: record contention and move to another stripe (xorshift step, as in LongAdder)
+            contentionCount.increment();
+            h ^= h << 13;
+            h ^= h >>> 17;
+            h ^= h << 5;
+        }
+
+        hint[0] = h;
+        var stripe = stripes[h & mask];
+        stripe.lock.lock();
+        return stripe;
+    }
+
+    /**
+     * Returns a <code>java.util.Random</code> object drawing from the stripes of this generator.
+     * <p>
+     * The returned object is thread-safe.
+     * @return a <code>java.util.Random</code> object
+     */
+    @Override
+    public Random random() {
+        return random;
+    }
+
+    /**
+     * Reseed all stripes, one at a time. This method is called periodically by the background thread when a reseed
+     * interval has been specified, but it can also be called directly.
+     */
+    public void reseed() {
+        for (var stripe: stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.reseed();
+                reseedCount.increment();
+            } catch (RuntimeException e) {
+                reseedFailureCount.increment();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stop the background reseeding thread, if any. The generator remains usable after this call.
+     */
+    @Override
+    public void close() {
+        if (reseeder != null)
+            reseeder.shutdownNow();
+    }
+
+    /**
+     * Returns the number of stripes, i.e. of independent <code>SecureRandom</code> instances.
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns how many requests have been served by a stripe since this generator was created. A bulk request, such
+     * as {@link #fillLongs(long[], int) fillLongs}, counts as one.
+     * @return the number of draws
+     */
+    public long getDrawCount() {
+        return drawCount.sum();
+    }
+
+    /**
+     * Returns how many times a thread found its stripe locked by another thread and had to move to another stripe.
+     * A contention count that keeps growing relative to the draw count means more stripes would help.
+     * @return the number of contended stripe acquisitions
+     */
+    public long getContentionCount() {
+        return contentionCount.sum();
+    }
+
+    /**
+     * Returns how many stripe reseeding operations have completed successfully.
+     * @return the number of stripes reseeded
+     */
+    public long getReseedCount() {
+        return reseedCount.sum();
+    }
+
+    /**
+     * Returns how many stripe reseeding operations have failed. A failed reseed leaves the stripe usable with its
+     * previous state.
+     * @return the number of failed reseeding operations
+     */
+    public long getReseedFailureCount() {
+        return reseedFailureCount.sum();
+    }
+
+    private static final class Stripe {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final EntropyBuffer buffer;
+
+        Stripe(SecureRandom source) {
+            buffer = new EntropyBuffer(source, STRIPE_BUFFER_SIZE);
+        }
+
+        void reseed() {
+            var source = buffer.source();
+            try {
+                source.reseed();
+            } catch (UnsupportedOperationException e) {
+                // implementation without reseed support: supplement its seed with fresh system entropy instead
+                source.setSeed(SeedSource.SEEDS.generateSeed(RESEED_SEED_SIZE));
+            }
+            buffer.discard();
+        }
+
+    }
+
+    private static final class SeedSource {
+        static final SecureRandom SEEDS = new SecureRandom();
+    }
+
+}
@@ -0,0 +1,37 @@
+package rodeo.password.pgencheck;
+
+/**
+ * Records a password too similar to the previous password of the user in password validation.
+ * <p>
+ * Similarity is measured by the edit distance between the two passwords, regardless of case: the minimum number of
+ * characters to insert, delete or replace to go from one password to the other.
+ * @see PasswordContext.Factory#setPreviousPassword(String)
+ */
+public class TooSimilarError extends PasswordCheckError {
+
+    private final int distance;
+    private final int minDistance;
+
+    TooSimilarError(int distance, int minDistance) {
+        super(PasswordCheckStatus.TOO_SIMILAR);
+        this.distance = distance;
+        this.minDistance = minDistance;
+    }
+
+    /**
+     * Returns the edit distance between the password and the previous password.
+     * @return the edit distance
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the minimum edit distance required between the password and the previous password.
+     * @return the minimum edit distance
+     */
+    public int getMinDistance() {
+        return minDistance;
+    }
+
+}
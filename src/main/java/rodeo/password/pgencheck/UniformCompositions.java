@@ -0,0 +1,136 @@
+package rodeo.password.pgencheck;
+
+import java.math.BigInteger;
+
+/**
+ * Counting tables to draw how many characters of each group a password contains, so that passwords are exactly
+ * uniformly distributed over all the passwords satisfying the minimum and maximum counts of the groups.
+ * <p>
+ * With groups of n<sub>g</sub> distinct characters, there are
+ * <code>length! / (c<sub>0</sub>! ... c<sub>G-1</sub>!) * n<sub>0</sub><sup>c<sub>0</sub></sup> ...
+ * n<sub>G-1</sub><sup>c<sub>G-1</sub></sup></code> passwords with c<sub>g</sub> characters of group g. Let W(g, r)
+ * count the ways to fill r positions with groups g to G - 1, positions and characters included:
+ * <pre>
+ * W(G, 0) = 1, W(G, r) = 0 for r &gt; 0
+ * W(g, r) = sum over c in [min<sub>g</sub>, max<sub>g</sub>] of C(r, c) * n<sub>g</sub><sup>c</sup> * W(g + 1, r - c)
+ * </pre>
+ * W(0, length) is the number of valid passwords. The tables hold W and, for each reachable (g, r), the cumulative
+ * sums of the terms over c. A composition is drawn from a single integer uniform below W(0, length): at each group,
+ * the term the integer falls in gives the count, and what is left of the integer within that term, reduced modulo
+ * W(g + 1, r - c), is still uniform and is used for the next group. Once the counts are known, drawing the characters
+ * of each group uniformly and shuffling them yields every valid password with the same probability.
+ * <p>
+ * Instances of this class are immutable.
+ */
+final class UniformCompositions {
+
+    private final int length;
+    private final int[] minCounts;
+    private final BigInteger[][] ways;  // ways[g][r] = W(g, r)
+    private final int[] firstRows;
+    private final BigInteger[][][] cumulative;  // [g][r - firstRows[g]][c - minCounts[g]], null if unreachable
+
+    /**
+     * @param length the password length
+     * @param groupSizes the number of distinct characters of each group
+     * @param minCounts the minimum counts of the groups
+     * @param maxCounts the maximum counts of the groups, <code>0</code> meaning unlimited
+     */
+    UniformCompositions(int length, int[] groupSizes, int[] minCounts, int[] maxCounts) {
+        int groupCount = groupSizes.length;
+        this.length = length;
+        this.minCounts = minCounts.clone();
+        var maxima = new int[groupCount];
+        for (int g = 0; g < groupCount; ++g)
+            maxima[g] = maxCounts[g] == 0 ? length : Math.min(maxCounts[g], length);
+
+        var binomials = new BigInteger[length + 1][];
+        for (int r = 0; r <= length; ++r) {
+            binomials[r] = new BigInteger[r + 1];
+            binomials[r][0] = BigInteger.ONE;
+            binomials[r][r] = BigInteger.ONE;
+            for (int c = 1; c < r; ++c)
+                binomials[r][c] = binomials[r - 1][c - 1].add(binomials[r - 1][c]);
+        }
+
+        ways = new BigInteger[groupCount + 1][length + 1];
+        for (int r = 0; r <= length; ++r)
+            ways[groupCount][r] = r == 0 ? BigInteger.ONE : BigInteger.ZERO;
+
+        // only the rows reachable from W(0, length) get cumulative sums
+        firstRows = new int[groupCount];
+        var lastRows = new int[groupCount];
+        int minUsed = 0;
+        int maxUsed = 0;
+        for (int g = 0; g < groupCount; ++g) {
+            firstRows[g] = Math.max(0, length - maxUsed);
+            lastRows[g] = length - minUsed;
+            minUsed += this.minCounts[g];
+            maxUsed = Math.min(length, maxUsed + maxima[g]);
+        }
+
+        cumulative = new BigInteger[groupCount][][];
+        for (int g = groupCount - 1; g >= 0; --g) {
+            var powers = new BigInteger[length + 1];
+            powers[0] = BigInteger.ONE;
+            for (int c = 1; c <= length; ++c)
+                powers[c] = powers[c - 1].multiply(BigInteger.valueOf(groupSizes[g]));
+
+            cumulative[g] = new BigInteger[Math.max(0, lastRows[g] - firstRows[g] + 1)][];
+            for (int r = 0; r <= length; ++r) {
+                boolean reachable = r >= firstRows[g] && r <= lastRows[g];
+                var sums = reachable && r >= this.minCounts[g]
+                        ? new BigInteger[Math.min(maxima[g], r) - this.minCounts[g] + 1]
+                        : null;
+                var sum = BigInteger.ZERO;
+                for (int c = this.minCounts[g]; c <= Math.min(maxima[g], r); ++c) {
+                    if (ways[g + 1][r - c].signum() > 0)
+                        sum = sum.add(binomials[r][c].multiply(powers[c]).multiply(ways[g + 1][r - c]));
+                    if (sums != null)
+                        sums[c - this.minCounts[g]] = sum;
+                }
+                ways[g][r] = sum;
+                if (reachable)
+                    cumulative[g][r - firstRows[g]] = sum.signum() > 0 ? sums : null;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of valid passwords.
+     */
+    BigInteger count() {
+        return ways[0][length];
+    }
+
+    /**
+     * Returns the number of characters of each group in a password drawn uniformly among the valid passwords.
+     */
+    int[] sample(RandomIndices indices) {
+        var counts = new int[minCounts.length];
+        var value = indices.next(count());
+        int remaining = length;
+        for (int g = 0; g < counts.length; ++g) {
+            var sums = cumulative[g][remaining - firstRows[g]];
+
+            // first term whose cumulative sum exceeds value
+            int low = 0;
+            int high = sums.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sums[middle].compareTo(value) > 0)
+                    high = middle;
+                else
+                    low = middle + 1;
+            }
+
+            if (low > 0)
+                value = value.subtract(sums[low - 1]);
+            counts[g] = minCounts[g] + low;
+            remaining -= counts[g];
+            value = value.remainder(ways[g + 1][remaining]);
+        }
+        return counts;
+    }
+
+}
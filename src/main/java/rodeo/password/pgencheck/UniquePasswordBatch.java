@@ -0,0 +1,152 @@
+package rodeo.password.pgencheck;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import static rodeo.password.pgencheck.ErrorMessages.UNIQUE_BATCH_EXHAUSTED;
+import static rodeo.password.pgencheck.ErrorMessages.UNIQUE_BATCH_FULL;
+
+/**
+ * Generate a batch of passwords that are guaranteed to be distinct from each other.
+ * <p>
+ * A <code>UniquePasswordBatch</code> is obtained by calling
+ * {@link PasswordMaker#uniqueBatch(int) PasswordMaker.uniqueBatch(int)}. Each call to {@link #next() next} returns a
+ * password that was never returned before by the same batch. Duplicates are detected and regenerated as passwords are
+ * produced, so no post-processing is required.
+ * <p>
+ * Passwords already emitted are not kept in memory. The batch only records a 64-bit fingerprint per password in a
+ * preallocated open-addressing table, which uses between 10.7 and 21.3 bytes per password, whatever the password
+ * length. The memory budget is fixed when the batch is created and never grows.
+ * <p>
+ * When the policy of the <code>PasswordMaker</code> is small enough for every password to be encoded on 63 bits
+ * (i.e. when <code>alphabetSize<sup>length</sup> &lt; 2<sup>63</sup></code>, for example 12 characters out of 36,
+ * or, with a template, when the product of the alphabet sizes of all positions is below 2<sup>63</sup>),
+ * the fingerprint is the exact encoding of the password and duplicate detection is exact. Otherwise the fingerprint
+ * is a 64-bit hash; two different passwords sharing a hash are then treated as duplicates and the second one is
+ * regenerated, so uniqueness is always guaranteed. The chance of such a regeneration is negligible (about one in
+ * 2<sup>64</sup> / <code>size</code> per password).
+ * <p>
+ * This class is not thread-safe. Use one batch per thread or synchronize calls to {@link #next() next} externally.
+ */
+public final class UniquePasswordBatch {
+
+    private static final int MAX_CONSECUTIVE_DUPLICATES = 1_000_000;
+
+    private final PasswordMaker passwordMaker;
+    private final FingerprintSet fingerprints;
+
+    private final int[][] alphabets;  // sorted distinct code points per position, only used for exact fingerprints
+    private final boolean exact;      // false when passwords cannot be encoded exactly on 63 bits
+
+    private long duplicateCount = 0;
+
+    UniquePasswordBatch(PasswordMaker passwordMaker, int capacity) {
+        this.passwordMaker = passwordMaker;
+        fingerprints = new FingerprintSet(capacity);
+
+        var sorted = new IdentityHashMap<int[], int[]>();
+        alphabets = passwordMaker.positionAlphabets();
+        for (int i = 0; i < alphabets.length; ++i)
+            alphabets[i] = sorted.computeIfAbsent(alphabets[i],
+                    alphabet -> Arrays.stream(alphabet).distinct().sorted().toArray());
+        exact = exactEncodingFits(alphabets);
+    }
+
+    private static boolean exactEncodingFits(int[][] alphabets) {
+        long combinations = 1;
+        try {
+            for (int[] alphabet: alphabets)
+                combinations = Math.multiplyExact(combinations, (long) alphabet.length);
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Generate a password that has not been generated before by this batch.
+     * @return a new unique password
+     * @throws IllegalStateException if the batch already contains as many passwords as its capacity
+     * @throws IllegalStateException if no new password could be found after a large number of attempts, which
+     * happens when the password policy allows fewer distinct passwords than requested
+     */
+    public String next() {
+        if (fingerprints.size() >= fingerprints.capacity())
+            throw new IllegalStateException(UNIQUE_BATCH_FULL + fingerprints.capacity());
+
+        for (int attempt = 0; attempt < MAX_CONSECUTIVE_DUPLICATES; ++attempt) {
+            String password = passwordMaker.create();
+            if (fingerprints.add(fingerprint(password)))
+                return password;
+            ++duplicateCount;
+        }
+
+        throw new IllegalStateException(UNIQUE_BATCH_EXHAUSTED + fingerprints.size());
+    }
+
+    long fingerprint(String password) {
+        if (exact) {
+            long value = 0;
+            int position = 0;
+            for (int i = 0; i < password.length(); ++position) {
+                int codePoint = password.codePointAt(i);
+                int[] alphabet = alphabets[position];
+                value = value * alphabet.length + Arrays.binarySearch(alphabet, codePoint);
+                i += Character.charCount(codePoint);
+            }
+            return value;
+        }
+
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < password.length(); ) {
+            int codePoint = password.codePointAt(i);
+            hash = Long.rotateLeft(hash ^ (codePoint * 0xC2B2AE3D27D4EB4FL), 31) * 0x9E3779B97F4A7C15L;
+            i += Character.charCount(codePoint);
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Returns how many passwords have been generated by this batch.
+     * @return the number of unique passwords generated so far
+     */
+    public int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * Returns the maximum number of passwords this batch can generate.
+     * @return the batch capacity
+     */
+    public int getCapacity() {
+        return fingerprints.capacity();
+    }
+
+    /**
+     * Returns how many generated passwords were discarded and regenerated because they had already been produced.
+     * @return the number of duplicates encountered so far
+     */
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Returns <code>true</code> if duplicate detection is exact for this batch, i.e. if every password the
+     * <code>PasswordMaker</code> can generate fits in a 63-bit encoding.
+     * @return <code>true</code> if fingerprints are exact encodings of the passwords, <code>false</code> if they
+     * are hashes
+     */
+    public boolean hasExactFingerprints() {
+        return exact;
+    }
+
+}
@@ -0,0 +1,272 @@
+package rodeo.password.pgencheck;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+import static rodeo.password.pgencheck.ErrorMessages.BAD_WORD_IN_LIST;
+import static rodeo.password.pgencheck.ErrorMessages.NOT_ENOUGH_WORDS;
+import static rodeo.password.pgencheck.ErrorMessages.WORD_LIST_NOT_UTF8;
+
+/**
+ * An immutable list of words used to generate passphrases.
+ * <p>
+ * All words are stored in a single UTF-8 encoded <code>byte[]</code> with an <code>int[]</code> index of word
+ * boundaries: no <code>String</code> is created per word, so even large lists use little more memory than their file.
+ * <p>
+ * Word list files are UTF-8 text files with one word per line. Empty lines and lines starting with <code>#</code> are
+ * ignored. If a line contains several tokens separated by spaces or tabs, only the last one is kept, so diceware
+ * style lists such as <code>11111&#9;abacus</code> can be used as is. Words should be distinct: duplicates reduce the
+ * strength of generated passphrases.
+ * <p>
+ * Instances of this class are thread-safe.
+ * @see PassphraseMaker
+ */
+public final class WordList {
+
+    private final byte[] bytes;
+    private final int[] offsets;
+
+    private final int minWordLength;
+    private final int maxWordLength;
+
+    private WordList(byte[] bytes, int[] offsets) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int i = 0; i < size(); ++i) {
+            int length = wordLength(i);
+            min = Math.min(min, length);
+            max = Math.max(max, length);
+        }
+        minWordLength = min;
+        maxWordLength = max;
+    }
+
+    /**
+     * Load a word list from a file.
+     * @param path the word list file
+     * @return a new <code>WordList</code>
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not valid UTF-8 or contains fewer than 2 words
+     */
+    public static WordList load(Path path) throws IOException {
+        return parse(Files.readAllBytes(path));
+    }
+
+    /**
+     * Read a word list from a stream. The stream is read to its end but not closed.
+     * @param in the stream to read from
+     * @return a new <code>WordList</code>
+     * @throws IOException if the stream cannot be read
+     * @throws IllegalArgumentException if the content is not valid UTF-8 or contains fewer than 2 words
+     */
+    public static WordList read(InputStream in) throws IOException {
+        return parse(in.readAllBytes());
+    }
+
+    /**
+     * Create a word list from a collection of words.
+     * @param words the words
+     * @return a new <code>WordList</code>
+     * @throws IllegalArgumentException if a word is empty or contains white space, or if there are fewer than 2
+     * words
+     */
+    public static WordList of(Collection<String> words) {
+        var out = new ByteArrayOutputStream();
+        for (String word: words) {
+            if (word.isEmpty() || word.startsWith("#") || word.codePoints().anyMatch(Character::isWhitespace))
+                throw new IllegalArgumentException(BAD_WORD_IN_LIST + "'" + word + "'");
+            out.writeBytes(word.getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        }
+        return parse(out.toByteArray());
+    }
+
+    /**
+     * Create a word list from an array of words.
+     * @param words the words
+     * @return a new <code>WordList</code>
+     * @throws IllegalArgumentException if a word is empty or contains white space, or if there are fewer than 2
+     * words
+     */
+    public static WordList of(String... words) {
+        return of(Arrays.asList(words));
+    }
+
+    private static WordList parse(byte[] data) {
+        try {
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(data));
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException(WORD_LIST_NOT_UTF8, e);
+        }
+
+        // Words are compacted at the beginning of the array. Line separators and blanks are ASCII, and ASCII bytes
+        // never appear inside multibyte UTF-8 sequences, so the bytes can be scanned directly.
+        int[] offsets = new int[1024];
+        int count = 0;
+        int write = 0;
+        int lineStart = 0;
+        while (lineStart < data.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < data.length && data[lineEnd] != '\n')
+                ++lineEnd;
+
+            int end = lineEnd;
+            while (end > lineStart && isBlank(data[end - 1]))
+                --end;
+            int start = end;
+            while (start > lineStart && !isBlank(data[start - 1]))
+                --start;
+
+            int firstNonBlank = lineStart;
+            while (firstNonBlank < end && isBlank(data[firstNonBlank]))
+                ++firstNonBlank;
+
+            if (start < end && data[firstNonBlank] != '#') {
+                if (count + 1 >= offsets.length)
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                offsets[count++] = write;
+                System.arraycopy(data, start, data, write, end - start);
+                write += end - start;
+            }
+
+            lineStart = lineEnd + 1;
+        }
+        offsets[count] = write;
+
+        if (count < 2)
+            throw new IllegalArgumentException(NOT_ENOUGH_WORDS + count);
+
+        return new WordList(Arrays.copyOf(data, write), Arrays.copyOf(offsets, count + 1));
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+    }
+
+    /**
+     * Returns the number of words in the list.
+     * @return the number of words
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the n<sup>th</sup> word of the list. The first index is <code>0</code> (zero).
+     * @param index of the word to retrieve
+     * @return the word at <code>index</code>
+     * @throws IndexOutOfBoundsException if the <code>index</code> is invalid
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException(
+                    "Index must be between 0 and " + (size() - 1) + ". Value received: " + index);
+
+        return new String(bytes, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the length of the shortest word, as returned by <code>String.length()</code>.
+     * @return the length of the shortest word
+     */
+    public int getMinWordLength() {
+        return minWordLength;
+    }
+
+    /**
+     * Returns the length of the longest word, as returned by <code>String.length()</code>.
+     * @return the length of the longest word
+     */
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    // length in UTF-16 code units
+    int wordLength(int index) {
+        int length = 0;
+        for (int i = offsets[index]; i < offsets[index + 1]; i += sequenceLength(bytes[i]))
+            length += sequenceLength(bytes[i]) == 4 ? 2 : 1;
+        return length;
+    }
+
+    int firstCodePoint(int index) {
+        return decode(offsets[index]);
+    }
+
+    /**
+     * Append a word to a <code>StringBuilder</code> without creating an intermediate <code>String</code>.
+     */
+    void appendWord(StringBuilder builder, int index, boolean capitalize) {
+        int i = offsets[index];
+        int end = offsets[index + 1];
+        if (capitalize) {
+            builder.appendCodePoint(Character.toUpperCase(decode(i)));
+            i += sequenceLength(bytes[i]);
+        }
+        while (i < end) {
+            byte b = bytes[i];
+            if (b >= 0) {
+                builder.append((char) b);
+                ++i;
+            } else {
+                builder.appendCodePoint(decode(i));
+                i += sequenceLength(b);
+            }
+        }
+    }
+
+    /**
+     * Call <code>action</code> on each code point of each word.
+     */
+    void forEachCodePoint(IntConsumer action) {
+        for (int i = 0; i < bytes.length; i += sequenceLength(bytes[i]))
+            action.accept(decode(i));
+    }
+
+    int byteLength(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    private static int sequenceLength(byte first) {
+        int b = first & 0xFF;
+        if (b < 0x80)
+            return 1;
+        if (b < 0xE0)
+            return 2;
+        if (b < 0xF0)
+            return 3;
+        return 4;
+    }
+
+    private int decode(int i) {
+        int b = bytes[i] & 0xFF;
+        switch (sequenceLength(bytes[i])) {
+            case 1:
+                return b;
+            case 2:
+                return (b & 0x1F) << 6 | (bytes[i + 1] & 0x3F);
+            case 3:
+                return (b & 0x0F) << 12 | (bytes[i + 1] & 0x3F) << 6 | (bytes[i + 2] & 0x3F);
+            default:
+                return (b & 0x07) << 18 | (bytes[i + 1] & 0x3F) << 12 | (bytes[i + 2] & 0x3F) << 6
+                        | (bytes[i + 3] & 0x3F);
+        }
+    }
+
+}
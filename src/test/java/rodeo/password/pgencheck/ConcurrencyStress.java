@@ -0,0 +1,180 @@
+package rodeo.password.pgencheck;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+/**
+ * Stress harness sharing one <code>PasswordChecker</code> or <code>PasswordMaker</code> between many threads.
+ * <p>
+ * {@link #hammer(int, long, Operation) hammer} releases all threads at once and reports every failure; it is used by
+ * {@link TestConcurrency TestConcurrency} to look for races. Run as a program, this class measures how throughput
+ * scales from 1 to N threads. It is not run by the test suite; run it with:
+ * <pre>
+ * java -cp ... rodeo.password.pgencheck.ConcurrencyStress [maxThreads [seconds]]
+ * </pre>
+ * where <code>maxThreads</code> defaults to twice the number of processors and <code>seconds</code>, the duration of
+ * each measurement, to 2.
+ */
+final class ConcurrencyStress {
+
+    /**
+     * The work done by each thread at each iteration. Throwing anything fails the run.
+     */
+    @FunctionalInterface
+    interface Operation {
+        void run(int thread, long iteration) throws Exception;
+    }
+
+    static final PasswordPolicy POLICY = PasswordPolicy.factory()
+            .setMinMaxLength(12, 24)
+            .setLength(16)
+            .addCharGroup(LOWER_CASE, 1)
+            .addCharGroup(UPPER_CASE, 1)
+            .addCharGroup(DIGITS, 1)
+            .addCharGroup(SYMBOLS, 1, 3)
+            .setMaxRepeatedCharacters(2)
+            .setMaxSequenceLength(3)
+            .create();
+
+    private ConcurrencyStress() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Run <code>operation</code> <code>iterations</code> times on each of <code>threads</code> threads, all started
+     * together, and return the elapsed time in nanoseconds.
+     * @throws AssertionError if any operation failed; the first failure is the cause and the others are suppressed
+     */
+    static long hammer(int threads, long iterations, Operation operation) throws InterruptedException {
+        return run(threads, thread -> {
+            for (long iteration = 0; iteration < iterations; ++iteration)
+                operation.run(thread, iteration);
+            return iterations;
+        }).nanos;
+    }
+
+    /**
+     * Run <code>operation</code> on each of <code>threads</code> threads, all started together, for
+     * <code>millis</code> milliseconds, and return the number of operations per second.
+     * @throws AssertionError if any operation failed
+     */
+    static double throughput(int threads, long millis, Operation operation) throws InterruptedException {
+        var run = run(threads, thread -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            long iteration = 0;
+            while (System.nanoTime() < deadline)
+                for (int i = 0; i < 64; ++i)
+                    operation.run(thread, iteration++);
+            return iteration;
+        });
+        return run.operations * 1e9 / run.nanos;
+    }
+
+    private interface Worker {
+        long run(int thread) throws Exception;
+    }
+
+    private static final class Run {
+        final long nanos;
+        final long operations;
+
+        Run(long nanos, long operations) {
+            this.nanos = nanos;
+            this.operations = operations;
+        }
+    }
+
+    private static Run run(int threads, Worker worker) throws InterruptedException {
+        var ready = new CountDownLatch(threads);
+        var start = new CountDownLatch(1);
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+        var operations = new LongAdder();
+
+        var workers = new ArrayList<Thread>();
+        for (int thread = 0; thread < threads; ++thread) {
+            int index = thread;
+            workers.add(new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    operations.add(worker.run(index));
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }, "stress-" + thread));
+        }
+        workers.forEach(Thread::start);
+
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (var thread: workers)
+            thread.join();
+        long nanos = System.nanoTime() - begin;
+
+        if (!failures.isEmpty()) {
+            var error = new AssertionError(failures.size() + " of " + threads + " threads failed", failures.peek());
+            failures.stream().skip(1).forEach(error::addSuppressed);
+            throw error;
+        }
+        return new Run(nanos, operations.sum());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 2 * Runtime.getRuntime().availableProcessors();
+        long millis = TimeUnit.SECONDS.toMillis(args.length > 1 ? Integer.parseInt(args[1]) : 2);
+
+        String[] passwords = new String[1024];
+        for (int i = 0; i < passwords.length; ++i)
+            passwords[i] = POLICY.getMaker().create();
+        var checker = POLICY.getChecker();
+
+        var secure = new SecureUIntGenerator();
+        try (var striped = new StripedSecureUIntGenerator()) {
+            var sharedRandom = new Random();
+            RandomUIntGenerator custom = sharedRandom::nextInt;
+
+            var scenarios = new LinkedHashMap<String, Operation>();
+            // results are tested so that the calls cannot be optimized away
+            scenarios.put("check", (thread, i) -> {
+                if (checker.check(passwords[(int) (i & 1023)]) != PasswordCheckStatus.OK)
+                    throw new AssertionError(passwords[(int) (i & 1023)]);
+            });
+            scenarios.put("fullCheck", (thread, i) -> {
+                if (!checker.fullCheck(passwords[(int) (i & 1023)]).isEmpty())
+                    throw new AssertionError(passwords[(int) (i & 1023)]);
+            });
+            scenarios.put("create (default)", (thread, i) -> POLICY.getMaker().create());
+            scenarios.put("create (secure)", (thread, i) -> POLICY.getMaker().create(secure));
+            scenarios.put("create (striped)", (thread, i) -> POLICY.getMaker().create(striped));
+            scenarios.put("create (shared Random)", (thread, i) -> POLICY.getMaker().create(custom));
+
+            for (Map.Entry<String, Operation> scenario: scenarios.entrySet()) {
+                // warm-up
+                throughput(1, millis / 2, scenario.getValue());
+                System.out.println(scenario.getKey());
+                double single = 0;
+                for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                    double rate = throughput(threads, millis, scenario.getValue());
+                    if (threads == 1)
+                        single = rate;
+                    System.out.printf(Locale.ROOT, "  %3d threads: %,12.0f ops/s  speedup %5.2f%n",
+                            threads, rate, rate / single);
+                }
+            }
+        }
+    }
+
+}
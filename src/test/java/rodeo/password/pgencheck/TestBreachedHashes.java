@@ -0,0 +1,313 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASHES_NOT_SORTED;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASHES_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASH_ALGORITHM_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASH_FILE_INVALID;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASH_LINE_INVALID;
+import static rodeo.password.pgencheck.ErrorMessages.BREACHED_HASH_PREFIX_BITS_OUT_OF_RANGE;
+
+public class TestBreachedHashes {
+
+    private static final int PASSWORD_COUNT = 4000;
+
+    @TempDir
+    Path directory;
+
+    private static String hex(byte[] bytes) {
+        var hex = new StringBuilder();
+        for (byte b: bytes)
+            hex.append(String.format("%02X", b & 0xFF));
+        return hex.toString();
+    }
+
+    private static byte[] bytes(String hex) {
+        var bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; ++i)
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        return bytes;
+    }
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+
+    // even passwords are breached, odd ones are not
+    private static String password(int i) {
+        return "Password#" + i;
+    }
+
+    // sorted HASH:COUNT lines, as in the Have I Been Pwned downloads
+    private static String breachedLines(BreachedHashes.Algorithm algorithm) {
+        var lines = new ArrayList<String>();
+        for (int i = 0; i < PASSWORD_COUNT; i += 2)
+            lines.add(hex(algorithm.hash(password(i))) + ":" + (i + 1));
+        lines.sort(null);
+        return String.join("\r\n", lines) + "\r\n";
+    }
+
+    private Path write(String name, String lines, BreachedHashes.Algorithm algorithm, int prefixBits)
+            throws IOException
+    {
+        var file = directory.resolve(name);
+        BreachedHashes.write(reader(lines), file, algorithm, prefixBits);
+        return file;
+    }
+
+    @Test
+    public void md4TestVectors() {
+        // RFC 1320, appendix A.5
+        assertEquals("31D6CFE0D16AE931B73C59D7E0C089C0", hex(Md4.digest(new byte[0])));
+        assertEquals("BDE52CB31DE33E46245E05FBDBD6FB24", hex(Md4.digest("a".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals("A448017AAF21D8525FC10AE87AA6729D", hex(Md4.digest("abc".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals("D9130A8164549FE818874806E1C7014B",
+                hex(Md4.digest("message digest".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals("D79E1C308AA5BBCDEEA8ED63DF412DA9",
+                hex(Md4.digest("abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals("043F8582F241DB351CE627E153E7F0E4", hex(Md4.digest(
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals("E33B4DDC9C38F2199C3E7B164FCC0536", hex(Md4.digest("1234567890".repeat(8)
+                .getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    @Test
+    public void passwordHashes() {
+        assertEquals("5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8", hex(BreachedHashes.Algorithm.SHA1.hash("password")));
+        assertEquals("8846F7EAEE8FB117AD06BDD830B7586C", hex(BreachedHashes.Algorithm.NTLM.hash("password")));
+        assertArrayEquals(BreachedHashes.Algorithm.SHA1.hash("pässwörd𝄞"),
+                BreachedHashes.Algorithm.SHA1.hash(new StringBuilder("pässwörd𝄞")));
+    }
+
+    private static void assertBreachedPasswords(BreachedHashes hashes) {
+        assertEquals(PASSWORD_COUNT / 2, hashes.size());
+        for (int i = 0; i < PASSWORD_COUNT; ++i)
+            assertEquals(i % 2 == 0, hashes.contains(password(i)), password(i));
+    }
+
+    @Test
+    public void lookups() throws IOException {
+        for (var algorithm: BreachedHashes.Algorithm.values()) {
+            var lines = breachedLines(algorithm);
+            for (int prefixBits: new int[] { 1, 8, BreachedHashes.DEFAULT_PREFIX_BITS }) {
+                var file = write(algorithm + "-" + prefixBits, lines, algorithm, prefixBits);
+                var hashes = BreachedHashes.open(file);
+                assertEquals(algorithm, hashes.getAlgorithm());
+                assertEquals(prefixBits, hashes.getPrefixBits());
+                assertBreachedPasswords(hashes);
+
+                // hashes spread over many small mappings
+                for (int hashesPerChunk: new int[] { 1, 7, 64 })
+                    assertBreachedPasswords(
+                            BreachedHashes.open(file, hashesPerChunk * algorithm.getHashLength() + 3));
+            }
+        }
+    }
+
+    @Test
+    public void firstAndLastBuckets() throws IOException {
+        var breached = List.of(
+                "00000000000000000000000000000000",
+                "00000000000000000000000000000002",
+                "7FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF",
+                "80000000000000000000000000000000",
+                "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFE");
+        var absent = List.of(
+                "00000000000000000000000000000001",
+                "00000000000000000000000000000003",
+                "7FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFE",
+                "80000000000000000000000000000001",
+                "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF",
+                "12345678901234567890123456789012");
+        for (int prefixBits: new int[] { 1, 2, 16 }) {
+            var hashes = BreachedHashes.open(write("edges-" + prefixBits, String.join("\n", breached),
+                    BreachedHashes.Algorithm.NTLM, prefixBits));
+            for (String hash: breached)
+                assertTrue(hashes.containsHash(bytes(hash)), hash);
+            for (String hash: absent)
+                assertFalse(hashes.containsHash(bytes(hash)), hash);
+        }
+    }
+
+    @Test
+    public void emptyBlocklist() throws IOException {
+        var hashes = BreachedHashes.open(write("empty", "", BreachedHashes.Algorithm.SHA1, 4));
+        assertEquals(0, hashes.size());
+        assertFalse(hashes.contains("password"));
+        assertFalse(hashes.contains(""));
+    }
+
+    @Test
+    public void textFormat() throws IOException {
+        var lines = String.join("\n",
+                "",
+                "5baa61e4c9b93f3f0682250b6cf8331b7ee68fd8:10437277",
+                "5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:1",
+                "  7C4A8D09CA3762AF61E59520943DC26494F8941B  ",
+                "",
+                "B1B3773A05C0ED0176787A4F1574FF0075F7521E");
+        var file = directory.resolve("text");
+        assertEquals(3, BreachedHashes.write(reader(lines), file, BreachedHashes.Algorithm.SHA1));
+        var hashes = BreachedHashes.open(file);
+        assertEquals(BreachedHashes.DEFAULT_PREFIX_BITS, hashes.getPrefixBits());
+        assertTrue(hashes.contains("password"));
+        assertTrue(hashes.contains("123456"));
+        assertTrue(hashes.contains("qwerty"));
+        assertFalse(hashes.contains("Password"));
+    }
+
+    @Test
+    public void badText() {
+        var file = directory.resolve("bad");
+        var iae = assertThrows(IllegalArgumentException.class, () -> BreachedHashes.write(
+                reader("7C4A8D09CA3762AF61E59520943DC26494F8941B\n5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8"),
+                file, BreachedHashes.Algorithm.SHA1));
+        assertEquals(BREACHED_HASHES_NOT_SORTED + 2, iae.getMessage());
+
+        for (String line: new String[] {
+                "8846F7EAEE8FB117AD06BDD830B7586",
+                "8846F7EAEE8FB117AD06BDD830B7586C0",
+                "8846F7EAEE8FB117AD06BDD830B7586G",
+                "8846F7EAEE8FB117 AD06BDD830B7586C",
+                ":12" })
+        {
+            iae = assertThrows(IllegalArgumentException.class,
+                    () -> BreachedHashes.write(reader("\n" + line), file, BreachedHashes.Algorithm.NTLM));
+            assertEquals(BREACHED_HASH_LINE_INVALID + 2, iae.getMessage(), line);
+        }
+
+        for (int prefixBits: new int[] { 0, BreachedHashes.MAX_PREFIX_BITS + 1 }) {
+            iae = assertThrows(IllegalArgumentException.class,
+                    () -> BreachedHashes.write(reader(""), file, BreachedHashes.Algorithm.NTLM, prefixBits));
+            assertEquals(BREACHED_HASH_PREFIX_BITS_OUT_OF_RANGE + prefixBits, iae.getMessage());
+        }
+
+        var npe = assertThrows(NullPointerException.class, () -> BreachedHashes.write(reader(""), file, null));
+        assertEquals(BREACHED_HASH_ALGORITHM_NULL, npe.getMessage());
+    }
+
+    @Test
+    public void badFiles() throws IOException {
+        assertThrows(NoSuchFileException.class, () -> BreachedHashes.open(directory.resolve("missing")));
+
+        var valid = Files.readAllBytes(
+                write("valid", breachedLines(BreachedHashes.Algorithm.NTLM), BreachedHashes.Algorithm.NTLM, 4));
+        var random = new byte[valid.length];
+        new Random(7).nextBytes(random);
+        var badMagic = valid.clone();
+        badMagic[0] = 'X';
+        var badIndex = valid.clone();
+        badIndex[16 + 8 * 3] = 0x7F;  // fourth bucket starting beyond the last hash
+
+        var invalidFiles = List.of(
+                new byte[0],
+                Arrays.copyOf(valid, 15),
+                Arrays.copyOf(valid, valid.length - 1),
+                Arrays.copyOf(valid, valid.length + 16),
+                random,
+                badMagic,
+                badIndex);
+        for (int i = 0; i < invalidFiles.size(); ++i) {
+            var file = directory.resolve("invalid-" + i);
+            Files.write(file, invalidFiles.get(i));
+            var iae = assertThrows(IllegalArgumentException.class, () -> BreachedHashes.open(file), "file " + i);
+            assertEquals(BREACHED_HASH_FILE_INVALID + file, iae.getMessage());
+        }
+    }
+
+    @Test
+    public void checker() throws IOException {
+        var hashes = BreachedHashes.open(
+                write("checker", breachedLines(BreachedHashes.Algorithm.SHA1), BreachedHashes.Algorithm.SHA1, 12));
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(10, 20)
+                .addCharGroup(CharacterGroups.LOWER_CASE + CharacterGroups.UPPER_CASE)
+                .addCharGroup(CharacterGroups.DIGITS, 1)
+                .addCharGroup("#")
+                .setBreachedHashes(hashes)
+                .create();
+        assertSame(hashes, checker.getBreachedHashes());
+        assertNull(PasswordChecker.factory().addCharGroup("abc").create().getBreachedHashes());
+
+        for (int i = 0; i < PASSWORD_COUNT; ++i) {
+            String password = password(i);
+            var expected = i % 2 == 0 ? PasswordCheckStatus.BREACHED_PASSWORD : PasswordCheckStatus.OK;
+            assertEquals(expected, checker.check(password), password);
+            assertEquals(i % 2 != 0, checker.quickCheck(password), password);
+            var errors = checker.fullCheck(password);
+            assertEquals(i % 2 == 0 ? List.of(PasswordCheckStatus.BREACHED_PASSWORD) : List.of(),
+                    errors.stream().map(PasswordCheckError::getErrorType).collect(Collectors.toList()),
+                    password);
+        }
+
+        // other criteria come first
+        var shortChecker = PasswordChecker.factory()
+                .setMinMaxLength(12, 20)
+                .addCharGroup(CharacterGroups.LOWER_CASE + CharacterGroups.UPPER_CASE)
+                .addCharGroup(CharacterGroups.DIGITS, 1)
+                .addCharGroup("#")
+                .setBreachedHashes(hashes)
+                .create();
+        assertEquals(PasswordCheckStatus.TOO_SHORT, shortChecker.check(password(0)));
+        assertEquals(2, shortChecker.fullCheck(password(0)).size());
+
+        // including the context criteria
+        var contextChecker = PasswordChecker.factory()
+                .setMinMaxLength(10, 20)
+                .addCharGroup(CharacterGroups.LOWER_CASE + CharacterGroups.UPPER_CASE)
+                .addCharGroup(CharacterGroups.DIGITS, 1)
+                .addCharGroup("#")
+                .setMinEditDistance(3)
+                .setBreachedHashes(hashes)
+                .create();
+        var userName = PasswordContext.factory().setUserName("swordfish").create();
+        var previousPassword = PasswordContext.factory().setPreviousPassword(password(1)).create();
+        var unrelated = PasswordContext.of("jsmith");
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, contextChecker.check(password(0), userName));
+        assertEquals(PasswordCheckStatus.TOO_SIMILAR, contextChecker.check(password(0), previousPassword));
+        assertEquals(PasswordCheckStatus.BREACHED_PASSWORD, contextChecker.check(password(0), unrelated));
+        assertFalse(contextChecker.quickCheck(password(0), unrelated));
+        assertTrue(contextChecker.quickCheck(password(1), unrelated));
+        assertEquals(
+                List.of(PasswordCheckStatus.FORBIDDEN_SUBSTRING, PasswordCheckStatus.BREACHED_PASSWORD),
+                contextChecker.fullCheck(password(0), userName).stream()
+                        .map(PasswordCheckError::getErrorType).collect(Collectors.toList()));
+
+        var npe = assertThrows(NullPointerException.class, () -> PasswordChecker.factory().setBreachedHashes(null));
+        assertEquals(BREACHED_HASHES_NULL, npe.getMessage());
+    }
+
+    @Test
+    public void sharedBetweenThreads() throws IOException, InterruptedException {
+        var hashes = BreachedHashes.open(
+                write("shared", breachedLines(BreachedHashes.Algorithm.SHA1), BreachedHashes.Algorithm.SHA1, 8), 4096);
+        ConcurrencyStress.hammer(8, 2 * PASSWORD_COUNT, (thread, iteration) -> {
+            int i = (int) ((iteration + thread * 997L) % PASSWORD_COUNT);
+            assertEquals(i % 2 == 0, hashes.contains(password(i)), password(i));
+        });
+    }
+
+}
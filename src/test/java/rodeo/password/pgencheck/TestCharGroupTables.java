@@ -0,0 +1,74 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestCharGroupTables {
+
+    @Test
+    public void packedTables() {
+        var tables = new CharGroupTables(List.of("abc", "12", "x𝄞"), List.of(1, 0, 2), List.of(0, 2, 3));
+
+        assertEquals(3, tables.groupCount());
+        assertEquals(7, tables.sampleSize());
+        assertEquals(3, tables.maxGroupSize());
+        assertEquals(2, tables.groupSize(2));
+        assertEquals('1', tables.groupCodePoint(1, 0));
+        assertEquals("𝄞".codePointAt(0), tables.groupCodePoint(2, 1));
+        assertEquals('x', tables.sampleCodePoint(5));
+        assertEquals(2, tables.sampleGroup(5));
+        assertEquals(1, tables.groupMinCount(0));
+        assertEquals(3, tables.groupMaxCount(2));
+        assertArrayEquals(new int[] { 2, 1, 1 }, tables.groupCounts("ab2𝄞?"));
+    }
+
+    @Test
+    public void sharedCodePoints() {
+        // 'a' belongs to groups 0 and 2, 'b' appears twice in group 2, and group 1 is empty
+        var tables = new CharGroupTables(List.of("ab", "", "cbab"), List.of(0, 0, 0), List.of(0, 0, 0));
+
+        for (int index = 0; index < 2; ++index)
+            assertEquals(0, tables.sampleGroup(index));
+        for (int index = 2; index < 6; ++index)
+            assertEquals(2, tables.sampleGroup(index));
+        assertArrayEquals(new int[] { 2, 0, 2 }, tables.groupCounts("ab"));
+        assertArrayEquals(new int[] { 0, 0, 1 }, tables.groupCounts("c"));
+
+        var positions = new int[4];
+        assertEquals(2, tables.positionsInGroup('b', 2, positions, 0));
+        assertArrayEquals(new int[] { 1, 3, 0, 0 }, positions);
+        assertEquals(3, tables.positionsInGroup('a', 0, positions, 2));
+        assertArrayEquals(new int[] { 1, 3, 0, 0 }, positions);
+        assertEquals(0, tables.positionsInGroup('c', 0, positions, 0));
+        assertEquals(0, tables.positionsInGroup('z', 2, positions, 0));
+    }
+
+    @Test
+    public void tablesDoNotDependOnFactoryLists() {
+        var groups = new ArrayList<>(List.of("abc", "123"));
+        var mins = new ArrayList<>(List.of(1, 1));
+        var maxs = new ArrayList<>(List.of(0, 0));
+        var tables = new CharGroupTables(groups, mins, maxs);
+
+        groups.set(0, "xyz");
+        mins.set(0, 5);
+        assertEquals("abc", tables.charGroups().get(0));
+        assertEquals(1, tables.groupMinCount(0));
+    }
+
+    @Test
+    public void publicListsAreUnmodifiable() {
+        var checker = PasswordChecker.factory().addCharGroup("abc", 1, 2).addCharGroup("123").create();
+        assertThrows(UnsupportedOperationException.class, () -> checker.getCharacterGroups().set(0, "x"));
+        assertEquals(1, checker.getMinCharactersInGroup(0));
+        assertEquals(2, checker.getMaxCharactersInGroup(0));
+        assertEquals(0, checker.getMaxCharactersInGroup(1));
+    }
+
+}
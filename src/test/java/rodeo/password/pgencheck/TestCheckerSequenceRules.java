@@ -0,0 +1,129 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+public class TestCheckerSequenceRules {
+
+    private static final PasswordChecker CHECKER = PasswordChecker.factory()
+            .setMinMaxLength(8, 32)
+            .addCharGroup(LOWER_CASE)
+            .addCharGroup(UPPER_CASE, 1)
+            .addCharGroup(DIGITS, 1)
+            .addCharGroup(SYMBOLS)
+            .setMaxRepeatedCharacters(3)
+            .setMaxSequenceLength(3)
+            .addCharacterSequence("qwertyuiop")
+            .addCharacterSequence("asdfghjkl")
+            .create();
+
+    @Test
+    public void checkRepeatedCharacters() {
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("aaaxbbb1A!"));
+        assertEquals(PasswordCheckStatus.REPEATED_CHARACTERS, CHECKER.check("aaaaaa1A!"));
+        assertEquals(PasswordCheckStatus.REPEATED_CHARACTERS, CHECKER.check("Ax1!!!!z"));
+        assertFalse(CHECKER.quickCheck("aaaaaa1A!"));
+
+        var errors = CHECKER.fullCheck("xyaaaaz1A!bbbbb");
+        assertEquals(1, errors.size());
+        var error = (RepeatedCharactersError) errors.get(0);
+        assertEquals(PasswordCheckStatus.REPEATED_CHARACTERS, error.getErrorType());
+        assertEquals("b", error.getRepeatedCharacter());
+        assertEquals('b', error.getRepeatedCodePoint());
+        assertEquals(5, error.getLength());
+        assertEquals(3, error.getMaxLength());
+    }
+
+    @Test
+    public void checkSequences() {
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("abcx123Z"));
+        assertEquals(PasswordCheckStatus.CHARACTER_SEQUENCE, CHECKER.check("abcd1234X"));
+        assertEquals(PasswordCheckStatus.CHARACTER_SEQUENCE, CHECKER.check("Zx9876x!"));
+        assertEquals(PasswordCheckStatus.CHARACTER_SEQUENCE, CHECKER.check("Qwertx1z"));
+        assertEquals(PasswordCheckStatus.CHARACTER_SEQUENCE, CHECKER.check("Z1lkjhgx"));
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("Z1lkjxqwe"));
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("ZababAbab1"));
+        assertTrue(CHECKER.quickCheck("abcx123Z"));
+        assertFalse(CHECKER.quickCheck("Z1lkjhgx"));
+
+        var errors = CHECKER.fullCheck("x1Aqwert");
+        assertEquals(1, errors.size());
+        var error = (CharacterSequenceError) errors.get(0);
+        assertEquals(PasswordCheckStatus.CHARACTER_SEQUENCE, error.getErrorType());
+        assertEquals("qwert", error.getSequence());
+        assertEquals(5, error.getLength());
+        assertEquals(3, error.getMaxLength());
+    }
+
+    @Test
+    public void statusOrder() {
+        // character counts are reported before runs and sequences
+        assertEquals(PasswordCheckStatus.NOT_ENOUGH_OF_CHARACTER_GROUP, CHECKER.check("aaaaaaa1"));
+        assertEquals(PasswordCheckStatus.ILLEGAL_CHARACTER, CHECKER.check("aaaaaaa1Aé"));
+        assertEquals(PasswordCheckStatus.REPEATED_CHARACTERS, CHECKER.check("aaaa1234A"));
+
+        var errors = CHECKER.fullCheck("aaaa1234é");
+        assertEquals(List.of(
+                PasswordCheckStatus.ILLEGAL_CHARACTER,
+                PasswordCheckStatus.NOT_ENOUGH_OF_CHARACTER_GROUP,
+                PasswordCheckStatus.REPEATED_CHARACTERS,
+                PasswordCheckStatus.CHARACTER_SEQUENCE),
+                errors.stream().map(PasswordCheckError::getErrorType).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void supplementaryCharacters() {
+        String clef = "𝄞";  // U+1D11E, and U+1D11F, U+1D120 after it
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(1, 16)
+                .addCharGroup(clef + "𝄟𝄠x")
+                .setMaxSequenceLength(2)
+                .create();
+
+        assertEquals(PasswordCheckStatus.OK, checker.check("x" + clef + "𝄟x"));
+        var errors = checker.fullCheck("x" + clef + "𝄟𝄠");
+        assertEquals(1, errors.size());
+        assertEquals(clef + "𝄟𝄠", ((CharacterSequenceError) errors.get(0)).getSequence());
+    }
+
+    @Test
+    public void noRulesByDefault() {
+        var checker = PasswordChecker.factory().setMinMaxLength(4, 16).addCharGroup(LOWER_CASE).create();
+        assertEquals(0, checker.getMaxRepeatedCharacters());
+        assertEquals(0, checker.getMaxSequenceLength());
+        assertEquals(PasswordCheckStatus.OK, checker.check("aaaaabcdef"));
+    }
+
+    @Test
+    public void policyMakerPassesPolicyChecker() {
+        var policy = PasswordPolicy.factory()
+                .setMinMaxLength(12, 24)
+                .setLength(20)
+                .addCharGroup(LOWER_CASE, 2)
+                .addCharGroup(UPPER_CASE, 2)
+                .addCharGroup(DIGITS, 2)
+                .setMaxRepeatedCharacters(1)
+                .setMaxSequenceLength(2)
+                .addCharacterSequence("qwertyuiop")
+                .create();
+
+        assertEquals(1, policy.getChecker().getMaxRepeatedCharacters());
+        assertEquals(List.of("qwertyuiop"), policy.getMaker().getCharacterSequences());
+        for (int i = 0; i < 100_000; i++) {
+            String password = policy.getMaker().create();
+            assertEquals(PasswordCheckStatus.OK, policy.getChecker().check(password), password);
+        }
+    }
+
+}
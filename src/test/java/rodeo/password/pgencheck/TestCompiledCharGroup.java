@@ -0,0 +1,153 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UNAMBIGUOUS_DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.UNAMBIGUOUS_LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UNAMBIGUOUS_SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UNAMBIGUOUS_UPPER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.CHAR_GROUP_EMPTY;
+import static rodeo.password.pgencheck.ErrorMessages.CHAR_GROUP_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.DUPLICATE_CHARS_FOUND_IN_OTHER_GROUP;
+
+public class TestCompiledCharGroup {
+
+    @Test
+    public void builtInGroupsAreShared() {
+        for (String group: new String[] { LOWER_CASE, UPPER_CASE, DIGITS, SYMBOLS, UNAMBIGUOUS_LOWER_CASE }) {
+            assertSame(CompiledCharGroup.of(group), CompiledCharGroup.of(group));
+            assertSame(CompiledCharGroup.of(group), CompiledCharGroup.of(new String(group.toCharArray())));
+        }
+        assertNotSame(CompiledCharGroup.of("abc"), CompiledCharGroup.of("abc"));
+
+        var checker = PasswordChecker.factory().addCharGroup(LOWER_CASE).create();
+        var maker = PasswordMaker.factory().addCharGroup(LOWER_CASE).create();
+        assertSame(checker.getAllChars(), maker.getAllChars());
+
+        assertSame(CompiledCharGroup.LOWER_CASE, CompiledCharGroup.of(LOWER_CASE));
+        assertSame(CompiledCharGroup.UPPER_CASE, CompiledCharGroup.of(UPPER_CASE));
+        assertSame(CompiledCharGroup.DIGITS, CompiledCharGroup.of(DIGITS));
+        assertSame(CompiledCharGroup.SYMBOLS, CompiledCharGroup.of(SYMBOLS));
+        assertSame(CompiledCharGroup.UNAMBIGUOUS_LOWER_CASE, CompiledCharGroup.of(UNAMBIGUOUS_LOWER_CASE));
+        assertSame(CompiledCharGroup.UNAMBIGUOUS_UPPER_CASE, CompiledCharGroup.of(UNAMBIGUOUS_UPPER_CASE));
+        assertSame(CompiledCharGroup.UNAMBIGUOUS_DIGITS, CompiledCharGroup.of(UNAMBIGUOUS_DIGITS));
+        assertSame(CompiledCharGroup.UNAMBIGUOUS_SYMBOLS, CompiledCharGroup.of(UNAMBIGUOUS_SYMBOLS));
+    }
+
+    @Test
+    public void factoriesReferenceCompiledGroups() {
+        var custom = CompiledCharGroup.of("!?#");
+        var checker = PasswordChecker.factory()
+                .addCharGroup(CompiledCharGroup.LOWER_CASE, 1)
+                .addCharGroup(DIGITS, 1, 4)
+                .addCharGroup(custom)
+                .create();
+        var maker = PasswordMaker.factory()
+                .addCharGroup(CompiledCharGroup.LOWER_CASE, 1)
+                .addCharGroup(CompiledCharGroup.DIGITS, 1, 4)
+                .addCharGroup(custom)
+                .create();
+        var policy = PasswordPolicy.factory()
+                .addCharGroup(CompiledCharGroup.LOWER_CASE, 1)
+                .addCharGroup(CompiledCharGroup.DIGITS, 1, 4)
+                .addCharGroup(custom)
+                .create();
+
+        for (var data: new PasswordData[] { checker, maker, policy.getChecker(), policy.getMaker() }) {
+            assertSame(CompiledCharGroup.LOWER_CASE, data.tables().group(0));
+            assertSame(CompiledCharGroup.DIGITS, data.tables().group(1));
+            assertSame(custom, data.tables().group(2));
+            assertEquals(List.of(LOWER_CASE, DIGITS, "!?#"), data.getCharacterGroups());
+            assertEquals(LOWER_CASE + DIGITS + "!?#", data.getAllChars());
+        }
+
+        for (int i = 0; i < 1000; ++i) {
+            String password = maker.create();
+            assertEquals(PasswordCheckStatus.OK, checker.check(password), password);
+            assertEquals(PasswordCheckStatus.OK, policy.getChecker().check(password), password);
+        }
+        assertEquals(PasswordCheckStatus.TOO_MANY_OF_CHARACTER_GROUP, checker.check("abcdefghijkl12345"));
+
+        var npe = assertThrows(NullPointerException.class,
+                () -> PasswordChecker.factory().addCharGroup((CompiledCharGroup) null));
+        assertEquals(CHAR_GROUP_NULL, npe.getMessage());
+        npe = assertThrows(NullPointerException.class, () -> CompiledCharGroup.of(null));
+        assertEquals(CHAR_GROUP_NULL, npe.getMessage());
+        var iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordMaker.factory().addCharGroup(CompiledCharGroup.of("")));
+        assertEquals(CHAR_GROUP_EMPTY, iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> PasswordPolicy.factory()
+                .addCharGroup(CompiledCharGroup.LOWER_CASE)
+                .addCharGroup(CompiledCharGroup.of("a1")));
+        assertEquals(DUPLICATE_CHARS_FOUND_IN_OTHER_GROUP + "a", iae.getMessage());
+    }
+
+    @Test
+    public void arrays() {
+        var group = CompiledCharGroup.of("cab😀a");
+        assertEquals("cab😀a", group.getChars());
+        assertEquals(5, group.size());
+        assertArrayEquals(new int[] { 'c', 'a', 'b', 0x1F600, 'a' }, group.codePoints());
+        assertArrayEquals(new int[] { 'a', 'b', 'c', 0x1F600 }, group.sortedCodePoints());
+        assertFalse(group.isAsciiOnly());
+        assertTrue(CompiledCharGroup.of(SYMBOLS).isAsciiOnly());
+    }
+
+    @Test
+    public void contains() {
+        var group = CompiledCharGroup.of("A0~ é");
+        for (int codePoint: new int[] { 'A', '0', '~', ' ', 0xE9 })
+            assertTrue(group.contains(codePoint));
+        for (int codePoint: new int[] { 'B', '1', '}', 0, 0x7F, 0xE8 })
+            assertFalse(group.contains(codePoint));
+    }
+
+    @Test
+    public void duplicates() {
+        assertEquals("", CompiledCharGroup.of(LOWER_CASE).duplicates());
+        assertEquals("ab", CompiledCharGroup.of("abcbab").duplicates());
+        assertEquals("😀", CompiledCharGroup.of("x😀y😀").duplicates());
+    }
+
+    @Test
+    public void commonCharacters() {
+        assertEquals("", CompiledCharGroup.of(LOWER_CASE).commonCharacters(CompiledCharGroup.of(DIGITS)));
+        assertEquals("ca", CompiledCharGroup.of("Xc1a").commonCharacters(CompiledCharGroup.of(LOWER_CASE)));
+        assertEquals("é", CompiledCharGroup.of("é!").commonCharacters(CompiledCharGroup.of("eé")));
+    }
+
+    @Test
+    public void tablesMatchUncompiledGroups() {
+        var groups = List.of("zyx", DIGITS, "xé😀");
+        var tables = new CharGroupTables(groups, List.of(1, 0, 0), List.of(0, 0, 0));
+        assertEquals("zyx" + DIGITS + "xé😀", tables.allChars());
+        int[] expected = tables.allChars().codePoints().toArray();
+        assertEquals(expected.length, tables.sampleSize());
+        for (int i = 0; i < expected.length; ++i)
+            assertEquals(expected[i], tables.sampleCodePoint(i));
+        assertArrayEquals(new int[] { 2, 10, 3 }, tables.groupCounts("xx0123456789é"));
+        assertFalse(tables.contains('a'));
+        assertTrue(tables.contains(0x1F600));
+
+        var single = new CharGroupTables(List.of(LOWER_CASE), List.of(0), List.of(0));
+        assertSame(LOWER_CASE, single.allChars());
+        assertEquals(26, single.groupSize(0));
+        assertEquals('q', single.groupCodePoint(0, 16));
+    }
+
+}
@@ -0,0 +1,188 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.ConcurrencyStress.POLICY;
+import static rodeo.password.pgencheck.ConcurrencyStress.hammer;
+
+/**
+ * Races, lost updates and visibility problems with checkers and makers shared between threads. See
+ * {@link ConcurrencyStress ConcurrencyStress} to measure scalability.
+ */
+public class TestConcurrency {
+
+    private static final int THREADS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+    private static final int PASSWORDS_PER_THREAD = 10_000;
+
+    private static final PasswordChecker CHECKER = PasswordChecker.factory()
+            .setMinMaxLength(8, 20)
+            .addCharGroup(CharacterGroups.LOWER_CASE, 1)
+            .addCharGroup(CharacterGroups.UPPER_CASE, 1, 4)
+            .addCharGroup(CharacterGroups.DIGITS, 1)
+            .setMaxRepeatedCharacters(2)
+            .setMaxSequenceLength(4)
+            .addForbiddenSubstring("rodeo")
+            .create();
+
+    private static String[] samplePasswords() {
+        var random = new Random(42);
+        var characters = "abcdefABCDEF0123456789!é𝄞";
+        int characterCount = characters.codePointCount(0, characters.length());
+        var passwords = new String[2048];
+        for (int i = 0; i < passwords.length; ++i) {
+            var password = new StringBuilder(i % 7 == 0 ? "xrodeo1" : "");
+            int length = 4 + random.nextInt(20);
+            while (password.length() < length) {
+                int offset = characters.offsetByCodePoints(0, random.nextInt(characterCount));
+                password.appendCodePoint(characters.codePointAt(offset));
+            }
+            passwords[i] = password.toString();
+        }
+        return passwords;
+    }
+
+    private static List<PasswordCheckStatus> errorTypes(String password) {
+        return CHECKER.fullCheck(password).stream().map(PasswordCheckError::getErrorType).collect(Collectors.toList());
+    }
+
+    @Test
+    public void sharedCheckerAgreesWithSingleThread() throws InterruptedException {
+        var passwords = samplePasswords();
+        var statuses = new PasswordCheckStatus[passwords.length];
+        var errors = new ArrayList<List<PasswordCheckStatus>>();
+        for (int i = 0; i < passwords.length; ++i) {
+            statuses[i] = CHECKER.check(passwords[i]);
+            errors.add(errorTypes(passwords[i]));
+        }
+        assertTrue(List.of(statuses).contains(PasswordCheckStatus.OK));
+        assertTrue(List.of(statuses).contains(PasswordCheckStatus.FORBIDDEN_SUBSTRING));
+
+        // each thread walks the passwords from a different offset, so that threads check different passwords
+        hammer(THREADS, 4 * passwords.length, (thread, iteration) -> {
+            int i = (int) ((iteration + thread * 311L) % passwords.length);
+            assertEquals(statuses[i], CHECKER.check(passwords[i]), passwords[i]);
+            if (iteration % 4 == 0)
+                assertEquals(errors.get(i), errorTypes(passwords[i]), passwords[i]);
+        });
+    }
+
+    // Generated passwords must all pass the policy check, and never repeat: with 16 characters drawn from 94, a repeat
+    // means two threads were handed the same random values.
+    private static void sharedMaker(RandomUIntGenerator generator) throws InterruptedException {
+        var maker = POLICY.getMaker();
+        var checker = POLICY.getChecker();
+        var passwords = ConcurrentHashMap.<String>newKeySet();
+
+        hammer(THREADS, PASSWORDS_PER_THREAD, (thread, iteration) -> {
+            String password = generator == null ? maker.create() : maker.create(generator);
+            assertEquals(PasswordCheckStatus.OK, checker.check(password), password);
+            assertTrue(passwords.add(password), password);
+        });
+        assertEquals(THREADS * PASSWORDS_PER_THREAD, passwords.size());
+    }
+
+    @Test
+    public void sharedMakerWithDefaultGenerator() throws InterruptedException {
+        sharedMaker(null);
+    }
+
+    @Test
+    public void sharedMakerWithSecureGenerator() throws InterruptedException {
+        sharedMaker(new SecureUIntGenerator());
+    }
+
+    @Test
+    public void sharedMakerWithStripedGenerator() throws InterruptedException {
+        try (var generator = new StripedSecureUIntGenerator()) {
+            sharedMaker(generator);
+        }
+    }
+
+    @Test
+    public void sharedMakerWithCustomGenerator() throws InterruptedException {
+        // only getNextUInt implemented, over a java.util.Random shared by all threads
+        var random = new Random();
+        sharedMaker(random::nextInt);
+    }
+
+    @Test
+    public void reproducibleGeneratorsAreIndependentOfThreads() throws InterruptedException {
+        var maker = POLICY.getMaker();
+        int count = THREADS * 1000;
+        var expected = new String[count];
+        for (int i = 0; i < count; ++i)
+            expected[i] = maker.create(ReproducibleUIntGenerator.forPassword(1234, i));
+
+        var actual = new String[count];
+        hammer(THREADS, count / THREADS, (thread, iteration) -> {
+            int i = (int) (iteration * THREADS + thread);
+            actual[i] = maker.create(ReproducibleUIntGenerator.forPassword(1234, i));
+        });
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void characterFrequenciesUnderContention() throws InterruptedException {
+        // a single group without constraints: every character of every password is uniform over the group
+        var maker = PasswordMaker.factory().setLength(16).addCharGroup("0123456789abcdef").create();
+        var counts = new AtomicLongArray(16);
+
+        hammer(THREADS, PASSWORDS_PER_THREAD, (thread, iteration) -> {
+            for (char c: maker.create().toCharArray())
+                counts.incrementAndGet(Character.digit(c, 16));
+        });
+
+        long total = 0;
+        for (int i = 0; i < 16; ++i)
+            total += counts.get(i);
+        assertEquals(16L * THREADS * PASSWORDS_PER_THREAD, total);
+        double expected = total / 16.0;
+        for (int i = 0; i < 16; ++i)
+            assertEquals(expected, counts.get(i), expected * 0.02, "character " + Integer.toHexString(i));
+    }
+
+    private static final class Holder {
+        PasswordPolicy policy;  // deliberately not volatile
+    }
+
+    @Test
+    public void unsafelyPublishedPoliciesAreComplete() throws InterruptedException {
+        // Immutable objects must be fully visible to threads that obtain them through a data race: final fields are
+        // frozen at the end of the constructor.
+        var holder = new Holder();
+        hammer(2, 20_000, (thread, iteration) -> {
+            if (thread == 0) {
+                int length = 12 + (int) (iteration % 8);
+                holder.policy = PasswordPolicy.factory()
+                        .setMinMaxLength(length, length)
+                        .setLength(length)
+                        .addCharGroup(CharacterGroups.LOWER_CASE, 1)
+                        .addCharGroup(CharacterGroups.DIGITS, 1)
+                        .create();
+            } else {
+                var policy = holder.policy;
+                if (policy != null) {
+                    var checker = policy.getChecker();
+                    int length = checker.getMinLength();
+                    assertTrue(length >= 12 && length < 20, "length " + length);
+                    assertEquals(2, checker.getCharacterGroups().size());
+                    String password = policy.getMaker().create();
+                    assertEquals(length, password.length());
+                    assertEquals(PasswordCheckStatus.OK, checker.check(password), password);
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,163 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.MIN_EDIT_DISTANCE_NEG;
+import static rodeo.password.pgencheck.ErrorMessages.PREVIOUS_PASSWORD_NULL;
+
+public class TestEditDistance {
+
+    private static final int ITERATIONS = 20_000;
+
+    private static final PasswordChecker CHECKER = PasswordChecker.factory()
+            .setMinMaxLength(8, 256)
+            .addCharGroup(LOWER_CASE)
+            .addCharGroup(UPPER_CASE)
+            .addCharGroup(DIGITS)
+            .addCharGroup(SYMBOLS)
+            .create();
+
+    private static int levenshtein(int[] a, int[] b) {
+        var previous = new int[b.length + 1];
+        var current = new int[b.length + 1];
+        for (int j = 0; j <= b.length; j++)
+            previous[j] = j;
+        for (int i = 1; i <= a.length; i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length; j++)
+                current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1,
+                        previous[j - 1] + (a[i - 1] == b[j - 1] ? 0 : 1));
+            var swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length];
+    }
+
+    private static int[] randomCodePoints(Random random, int length) {
+        var codePoints = new int[length];
+        for (int i = 0; i < length; i++)
+            codePoints[i] = 'a' + random.nextInt(4);
+        return codePoints;
+    }
+
+    private static int[] mutate(Random random, int[] codePoints, int edits) {
+        var result = new StringBuilder(new String(codePoints, 0, codePoints.length));
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(result.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0:
+                    result.insert(position, (char) ('a' + random.nextInt(5)));
+                    break;
+                case 1:
+                    if (position < result.length())
+                        result.deleteCharAt(position);
+                    break;
+                default:
+                    if (position < result.length())
+                        result.setCharAt(position, (char) ('a' + random.nextInt(5)));
+            }
+        }
+        return result.codePoints().toArray();
+    }
+
+    @Test
+    public void sameResultsAsDynamicProgramming() {
+        var random = new Random(2025);
+        for (int i = 0; i < ITERATIONS; i++) {
+            // lengths around 1, 2 and 3 words
+            int length = random.nextInt(4) == 0 ? random.nextInt(8) : 1 + random.nextInt(200);
+            int[] a = randomCodePoints(random, length);
+            int[] b = random.nextBoolean() ? mutate(random, a, random.nextInt(12)) : randomCodePoints(random, length);
+            int max = random.nextInt(20);
+
+            int expected = levenshtein(a, b);
+            assertEquals(Math.min(expected, max + 1), EditDistance.bounded(a, b, max));
+            assertEquals(Math.min(expected, max + 1), EditDistance.bounded(b, a, max));
+        }
+    }
+
+    @Test
+    public void exactDistance() {
+        int[] kitten = "kitten".codePoints().toArray();
+        int[] sitting = "sitting".codePoints().toArray();
+        assertEquals(3, EditDistance.bounded(kitten, sitting, 10));
+        assertEquals(3, EditDistance.bounded(kitten, sitting, 3));
+        assertEquals(3, EditDistance.bounded(kitten, sitting, 2));
+        assertEquals(0, EditDistance.bounded(kitten, kitten, 0));
+        assertEquals(6, EditDistance.bounded(new int[0], kitten, 6));
+        assertEquals(1, EditDistance.bounded(new int[0], kitten, 0));
+    }
+
+    @Test
+    public void previousPassword() {
+        var context = PasswordContext.factory().setPreviousPassword("Winter2025!").create();
+        assertTrue(context.hasPreviousPassword());
+        assertFalse(PasswordContext.of("jsmith").hasPreviousPassword());
+        assertEquals(3, CHECKER.getMinEditDistance());
+
+        assertEquals(PasswordCheckStatus.TOO_SIMILAR, CHECKER.check("Winter2026!", context));
+        assertEquals(PasswordCheckStatus.TOO_SIMILAR, CHECKER.check("winter2025!", context));
+        assertEquals(PasswordCheckStatus.TOO_SIMILAR, CHECKER.check("Winter2025!!", context));
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("Summer2026?", context));
+        assertFalse(CHECKER.quickCheck("Winter2026!", context));
+        assertTrue(CHECKER.quickCheck("Summer2026?", context));
+
+        var errors = CHECKER.fullCheck("Winter2026!", context);
+        assertEquals(1, errors.size());
+        var error = (TooSimilarError) errors.get(0);
+        assertEquals(PasswordCheckStatus.TOO_SIMILAR, error.getErrorType());
+        assertEquals(1, error.getDistance());
+        assertEquals(3, error.getMinDistance());
+    }
+
+    @Test
+    public void longPassphrases() {
+        String previous = "correct-horse-battery-staple-".repeat(6);
+        var context = PasswordContext.factory().setPreviousPassword(previous).create();
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(8, 256)
+                .addCharGroup(LOWER_CASE)
+                .addCharGroup("-")
+                .setMinEditDistance(10)
+                .create();
+
+        assertEquals(PasswordCheckStatus.TOO_SIMILAR, checker.check(previous + "x", context));
+        assertEquals(PasswordCheckStatus.OK, checker.check("purple-monkey-dishwasher-".repeat(7), context));
+    }
+
+    @Test
+    public void disabled() {
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(8, 64)
+                .addCharGroup(LOWER_CASE)
+                .addCharGroup(DIGITS)
+                .setMinEditDistance(0)
+                .create();
+        var context = PasswordContext.factory().setPreviousPassword("winter2025").create();
+        assertEquals(PasswordCheckStatus.OK, checker.check("winter2025", context));
+    }
+
+    @Test
+    public void badParameters() {
+        var iae = assertThrows(IllegalArgumentException.class, () -> PasswordChecker.factory().setMinEditDistance(-1));
+        assertEquals(MIN_EDIT_DISTANCE_NEG + -1, iae.getMessage());
+
+        var npe = assertThrows(NullPointerException.class,
+                () -> PasswordContext.factory().setPreviousPassword(null));
+        assertEquals(PREVIOUS_PASSWORD_NULL, npe.getMessage());
+    }
+
+}
@@ -0,0 +1,147 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.FORBIDDEN_SUBSTRING_EMPTY;
+import static rodeo.password.pgencheck.ErrorMessages.FORBIDDEN_SUBSTRING_NULL;
+
+public class TestForbiddenSubstrings {
+
+    private static PasswordChecker.Factory factory() {
+        return PasswordChecker.factory()
+                .setMinMaxLength(4, 32)
+                .addCharGroup(LOWER_CASE)
+                .addCharGroup(UPPER_CASE)
+                .addCharGroup(DIGITS)
+                .addCharGroup(SYMBOLS);
+    }
+
+    @Test
+    public void check() {
+        var checker = factory()
+                .addForbiddenSubstring("rodeo")
+                .addForbiddenSubstrings(List.of("Summer2026", "he", "she", "his", "hers"))
+                .create();
+
+        assertEquals(PasswordCheckStatus.OK, checker.check("Xy7!Zq"));
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, checker.check("myrodeo!"));
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, checker.check("!Summer2026"));
+        assertEquals(PasswordCheckStatus.OK, checker.check("!summer2026"));
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, checker.check("ushers"));
+        assertTrue(checker.quickCheck("Xy7!Zq"));
+        assertFalse(checker.quickCheck("ushers"));
+        assertFalse(checker.areForbiddenSubstringsCaseInsensitive());
+        assertEquals(List.of("rodeo", "Summer2026", "he", "she", "his", "hers"), checker.getForbiddenSubstrings());
+    }
+
+    @Test
+    public void fullCheckReportsEveryOccurrence() {
+        var checker = factory().addForbiddenSubstrings(List.of("he", "she", "his", "hers")).create();
+
+        var errors = checker.fullCheck("ushers");
+        assertEquals(3, errors.size());
+        var she = (ForbiddenSubstringError) errors.get(0);
+        var he = (ForbiddenSubstringError) errors.get(1);
+        var hers = (ForbiddenSubstringError) errors.get(2);
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, she.getErrorType());
+        assertEquals("she", she.getForbiddenSubstring());
+        assertEquals(1, she.getIndex());
+        assertEquals("he", he.getForbiddenSubstring());
+        assertEquals(2, he.getIndex());
+        assertEquals("hers", hers.getForbiddenSubstring());
+        assertEquals("hers", hers.getFoundSubstring());
+        assertEquals(2, hers.getIndex());
+    }
+
+    @Test
+    public void caseInsensitive() {
+        var checker = factory()
+                .addForbiddenSubstring("Summer2026")
+                .setForbiddenSubstringsCaseInsensitive(true)
+                .create();
+
+        assertTrue(checker.areForbiddenSubstringsCaseInsensitive());
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, checker.check("!sUMMER2026"));
+        var error = (ForbiddenSubstringError) checker.fullCheck("xx!sUMMER2026").get(0);
+        assertEquals("Summer2026", error.getForbiddenSubstring());
+        assertEquals("sUMMER2026", error.getFoundSubstring());
+        assertEquals(3, error.getIndex());
+    }
+
+    @Test
+    public void supplementaryCharacters() {
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(1, 16)
+                .addCharGroup("ab𝄞𝄟")
+                .addForbiddenSubstring("𝄞b")
+                .create();
+
+        assertEquals(PasswordCheckStatus.OK, checker.check("a𝄞a𝄟b"));
+        var error = (ForbiddenSubstringError) checker.fullCheck("a𝄟𝄞b").get(0);
+        assertEquals("𝄞b", error.getFoundSubstring());
+        assertEquals(3, error.getIndex());
+    }
+
+    @Test
+    public void sameResultsAsContains() {
+        var random = new Random(2026);
+        var distinct = new LinkedHashSet<String>();
+        for (int i = 0; i < 2_000; i++)
+            distinct.add(randomString(random, 2 + random.nextInt(5)));
+        var substrings = new ArrayList<>(distinct);
+        var automaton = new ForbiddenSubstrings(substrings, false);
+
+        for (int i = 0; i < 20_000; i++) {
+            String password = randomString(random, 4 + random.nextInt(12));
+
+            int expected = 0;
+            for (String substring: substrings)
+                for (int index = password.indexOf(substring); index >= 0; index = password.indexOf(substring, index + 1))
+                    ++expected;
+
+            int[] found = { 0 };
+            automaton.findAll(password, (substringIndex, end) -> {
+                String substring = substrings.get(substringIndex);
+                assertTrue(password.startsWith(substring, end - substring.length()));
+                ++found[0];
+            });
+
+            assertEquals(expected, found[0], password);
+            assertEquals(expected > 0, automaton.matches(password), password);
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        var chars = new StringBuilder();
+        for (int i = 0; i < length; i++)
+            chars.append((char) ('a' + random.nextInt(6)));
+        return chars.toString();
+    }
+
+    @Test
+    public void badParameters() {
+        var npe = assertThrows(NullPointerException.class, () -> factory().addForbiddenSubstring(null));
+        assertEquals(FORBIDDEN_SUBSTRING_NULL, npe.getMessage());
+        npe = assertThrows(NullPointerException.class, () -> factory().addForbiddenSubstrings(null));
+        assertEquals(FORBIDDEN_SUBSTRING_NULL, npe.getMessage());
+
+        var iae = assertThrows(IllegalArgumentException.class, () -> factory().addForbiddenSubstring(""));
+        assertEquals(FORBIDDEN_SUBSTRING_EMPTY, iae.getMessage());
+    }
+
+}
@@ -0,0 +1,185 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.ErrorMessages.AT_LEAST_ONE_WORD;
+import static rodeo.password.pgencheck.ErrorMessages.BAD_WORD_IN_LIST;
+import static rodeo.password.pgencheck.ErrorMessages.NEGATIVE_DIGIT_COUNT;
+import static rodeo.password.pgencheck.ErrorMessages.NOT_ENOUGH_WORDS;
+import static rodeo.password.pgencheck.ErrorMessages.NO_WORD_LIST_PROVIDED;
+import static rodeo.password.pgencheck.ErrorMessages.SEPARATOR_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.WORD_LIST_NOT_UTF8;
+
+public class TestPassphraseMaker {
+
+    private static final int ITERATIONS = 10_000;
+
+    private static final String DICEWARE_LIST =
+            "# sample list\n"
+            + "11111\tabacus\n"
+            + "11112\tabdomen\r\n"
+            + "\n"
+            + "11113 abide\n"
+            + "  # indented comment\n"
+            + "11114\tcafé\n"
+            + "11115\tstraße\n"
+            + "11116\t😀smile\n"
+            + "zebra";
+
+    private static final List<String> DICEWARE_WORDS =
+            List.of("abacus", "abdomen", "abide", "café", "straße", "😀smile", "zebra");
+
+    private static WordList readList(String content) throws IOException {
+        return WordList.read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void wordListParsing() throws IOException {
+        var wordList = readList(DICEWARE_LIST);
+        assertEquals(DICEWARE_WORDS.size(), wordList.size());
+        for (int i = 0; i < wordList.size(); i++)
+            assertEquals(DICEWARE_WORDS.get(i), wordList.get(i));
+        assertEquals(4, wordList.getMinWordLength());
+        assertEquals(7, wordList.getMaxWordLength());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> wordList.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> wordList.get(wordList.size()));
+
+        var fromWords = WordList.of(DICEWARE_WORDS);
+        for (int i = 0; i < wordList.size(); i++)
+            assertEquals(wordList.get(i), fromWords.get(i));
+    }
+
+    @Test
+    public void badWordLists() {
+        var exception = assertThrows(IllegalArgumentException.class, () -> readList("# comment\nword\n"));
+        assertEquals(NOT_ENOUGH_WORDS + 1, exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> WordList.read(new ByteArrayInputStream(new byte[] { 'a', '\n', (byte) 0xC3, '\n' })));
+        assertEquals(WORD_LIST_NOT_UTF8, exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () -> WordList.of("one", "two words"));
+        assertEquals(BAD_WORD_IN_LIST + "'two words'", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> WordList.of("one", ""));
+        assertThrows(IllegalArgumentException.class, () -> WordList.of("one", "#two"));
+    }
+
+    @Test
+    public void defaultPassphrases() throws IOException {
+        var wordList = readList(DICEWARE_LIST);
+        var maker = PassphraseMaker.factory().setWordList(wordList).create();
+        var checker = maker.checkerFactory().create();
+        var allWords = new HashSet<>(DICEWARE_WORDS);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            String passphrase = maker.create();
+            String[] words = passphrase.split("-");
+            assertEquals(6, words.length);
+            for (String word: words)
+                assertTrue(allWords.contains(word), word);
+            assertEquals(PasswordCheckStatus.OK, checker.check(passphrase), passphrase);
+        }
+    }
+
+    @Test
+    public void digitsAndCapitals() throws IOException {
+        var wordList = readList(DICEWARE_LIST);
+        var maker = PassphraseMaker.factory()
+                .setWordList(wordList)
+                .setWordCount(4)
+                .setSeparator(" ")
+                .capitalize(true)
+                .setDigitCount(3)
+                .create();
+        var checker = maker.checkerFactory().create();
+        var allWords = new HashSet<>(DICEWARE_WORDS);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            String passphrase = maker.create();
+            String[] words = passphrase.split(" ");
+            assertEquals(4, words.length);
+            int withDigits = 0;
+            for (String word: words) {
+                assertTrue(Character.isUpperCase(word.codePointAt(0)) || !Character.isLetter(word.codePointAt(0)));
+                String stripped = word.replaceAll("[0-9]{3}$", "");
+                if (!stripped.equals(word))
+                    ++withDigits;
+                int first = stripped.codePointAt(0);
+                String original = new StringBuilder().appendCodePoint(Character.toLowerCase(first))
+                        .append(stripped.substring(Character.charCount(first))).toString();
+                assertTrue(allWords.contains(original), original);
+            }
+            assertEquals(1, withDigits, passphrase);
+            assertEquals(PasswordCheckStatus.OK, checker.check(passphrase), passphrase);
+        }
+
+        assertFalse(checker.quickCheck("Abacus Abide Zebra Cafe!23"));
+        assertFalse(checker.quickCheck("Abacus Abide Zebra Café"));
+    }
+
+    @Test
+    public void separatorsWithDigits() throws IOException {
+        var wordList = readList(DICEWARE_LIST);
+        for (String separator: new String[] { "0", "-1-", "42", "" }) {
+            for (int digitCount = 0; digitCount <= 2; ++digitCount) {
+                var maker = PassphraseMaker.factory()
+                        .setWordList(wordList)
+                        .setWordCount(4)
+                        .setSeparator(separator)
+                        .setDigitCount(digitCount)
+                        .create();
+                var checker = maker.checkerFactory().create();
+                for (int i = 0; i < 1000; i++) {
+                    String passphrase = maker.create();
+                    assertEquals(PasswordCheckStatus.OK, checker.check(passphrase), passphrase);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void reproduciblePassphrases() throws IOException {
+        var maker = PassphraseMaker.factory().setWordList(readList(DICEWARE_LIST)).setDigitCount(2).create();
+        for (int i = 0; i < 100; i++)
+            assertEquals(
+                    maker.create(ReproducibleUIntGenerator.forPassword(42, i)),
+                    maker.create(ReproducibleUIntGenerator.forPassword(42, i)));
+    }
+
+    @Test
+    public void entropy() {
+        var wordList = WordList.of("a", "b", "c", "d", "e", "f", "g", "h");
+        var maker = PassphraseMaker.factory().setWordList(wordList).setWordCount(4).create();
+        assertEquals(12.0, maker.getEntropy(), 1e-9);
+    }
+
+    @Test
+    public void badParameters() {
+        var exception = assertThrows(IllegalStateException.class, () -> PassphraseMaker.factory().create());
+        assertEquals(NO_WORD_LIST_PROVIDED, exception.getMessage());
+
+        var iae = assertThrows(IllegalArgumentException.class, () -> PassphraseMaker.factory().setWordCount(0));
+        assertEquals(AT_LEAST_ONE_WORD + 0, iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> PassphraseMaker.factory().setDigitCount(-1));
+        assertEquals(NEGATIVE_DIGIT_COUNT + -1, iae.getMessage());
+
+        var npe = assertThrows(NullPointerException.class, () -> PassphraseMaker.factory().setSeparator(null));
+        assertEquals(SEPARATOR_NULL, npe.getMessage());
+
+        var maker = PassphraseMaker.factory().setWordList(WordList.of("one", "two")).create();
+        assertThrows(NullPointerException.class, () -> maker.create(null));
+    }
+
+}
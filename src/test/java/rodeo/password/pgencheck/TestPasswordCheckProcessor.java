@@ -0,0 +1,352 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.BATCH_SIZE_NOT_POSITIVE;
+import static rodeo.password.pgencheck.ErrorMessages.EXECUTOR_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.NON_POSITIVE_REQUEST;
+import static rodeo.password.pgencheck.ErrorMessages.PARALLELISM_NOT_POSITIVE;
+import static rodeo.password.pgencheck.ErrorMessages.PASSWORD_CHECKER_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.PROCESSOR_ALREADY_SUBSCRIBED;
+
+public class TestPasswordCheckProcessor {
+
+    private static final PasswordChecker CHECKER = PasswordChecker.factory()
+            .setMinMaxLength(8, 16)
+            .addCharGroup(LOWER_CASE, 1)
+            .addCharGroup(UPPER_CASE, 1)
+            .addCharGroup(DIGITS, 1)
+            .create();
+
+    private static String password(int i) {
+        switch (i % 4) {
+            case 0: return "Passw0rd" + i;
+            case 1: return "short" + i % 10;
+            case 2: return "password" + i;
+            default: return "Passw0rd" + i + "!";
+        }
+    }
+
+    private static PasswordCheckStatus expected(int i) {
+        switch (i % 4) {
+            case 0: return i < 100_000_000 ? PasswordCheckStatus.OK : PasswordCheckStatus.TOO_LONG;
+            case 1: return PasswordCheckStatus.TOO_SHORT;
+            case 2: return PasswordCheckStatus.NOT_ENOUGH_OF_CHARACTER_GROUP;
+            default: return PasswordCheckStatus.ILLEGAL_CHARACTER;
+        }
+    }
+
+    /**
+     * Emits items synchronously on request and records the largest number of items requested but not yet emitted.
+     */
+    private static final class RangePublisher<T> implements Flow.Publisher<T> {
+
+        private final int count;
+        private final IntFunction<T> items;
+        private final RuntimeException error;
+        long maxOutstanding = 0;
+        volatile boolean cancelled = false;
+
+        RangePublisher(int count, IntFunction<T> items, RuntimeException error) {
+            this.count = count;
+            this.items = items;
+            this.error = error;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int next = 0;
+                private long requested = 0;
+                private boolean emitting = false;
+
+                @Override
+                public synchronized void request(long n) {
+                    requested += n;
+                    maxOutstanding = Math.max(maxOutstanding, requested);
+                    if (emitting)
+                        return;
+                    emitting = true;
+                    while (requested > 0 && next < count && !cancelled) {
+                        --requested;
+                        subscriber.onNext(items.apply(next++));
+                    }
+                    if (next == count && !cancelled) {
+                        next = count + 1;
+                        if (error == null)
+                            subscriber.onComplete();
+                        else
+                            subscriber.onError(error);
+                    }
+                    emitting = false;
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+
+    }
+
+    /**
+     * Requests <code>chunk</code> items at a time, until <code>limit</code> items have been requested.
+     */
+    private static class Collector<T> implements Flow.Subscriber<PasswordCheckProcessor.Result<T>> {
+
+        private final long chunk;
+        private final long limit;
+        final List<PasswordCheckProcessor.Result<T>> results = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Throwable error = null;
+        volatile boolean completed = false;
+        private Flow.Subscription subscription;
+        private long requested = 0;
+
+        Collector(long chunk, long limit) {
+            this.chunk = chunk;
+            this.limit = limit;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            requestMore();
+        }
+
+        private void requestMore() {
+            long n = Math.min(chunk, limit - requested);
+            if (n > 0) {
+                requested += n;
+                subscription.request(n);
+            }
+        }
+
+        @Override
+        public void onNext(PasswordCheckProcessor.Result<T> item) {
+            synchronized (results) {
+                results.add(item);
+            }
+            if (results.size() == requested)
+                requestMore();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        }
+
+    }
+
+    @Test
+    public void resultsInOrder() throws InterruptedException {
+        int count = 200_000;
+        var processor = PasswordCheckProcessor.ofStrings(CHECKER, 4, 32, ForkJoinPool.commonPool());
+        var publisher = new RangePublisher<>(count, TestPasswordCheckProcessor::password, null);
+        var collector = new Collector<String>(1000, Long.MAX_VALUE);
+        processor.subscribe(collector);
+        publisher.subscribe(processor);
+        collector.await();
+
+        assertTrue(collector.completed);
+        assertNull(collector.error);
+        assertEquals(count, collector.results.size());
+        for (int i = 0; i < count; ++i) {
+            assertEquals(password(i), collector.results.get(i).getPassword());
+            assertEquals(expected(i), collector.results.get(i).getStatus(), password(i));
+        }
+        assertTrue(publisher.maxOutstanding <= 2 * 4 * 32, "outstanding: " + publisher.maxOutstanding);
+    }
+
+    @Test
+    public void submissionPublisher() throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(3);
+        var processor = CHECKER.processor(2);
+        var collector = new Collector<String>(7, Long.MAX_VALUE);
+        processor.subscribe(collector);
+        try (var publisher = new SubmissionPublisher<String>(executor, 16)) {
+            publisher.subscribe(processor);
+            for (int i = 0; i < 10_000; ++i)
+                publisher.submit(password(i));
+        }
+        collector.await();
+        executor.shutdown();
+
+        assertTrue(collector.completed);
+        assertEquals(10_000, collector.results.size());
+        for (int i = 0; i < 10_000; ++i)
+            assertEquals(expected(i), collector.results.get(i).getStatus());
+    }
+
+    @Test
+    public void charArrays() throws InterruptedException {
+        var passwords = new char[100][];
+        for (int i = 0; i < passwords.length; ++i)
+            passwords[i] = password(i).toCharArray();
+
+        var processor = PasswordCheckProcessor.ofCharArrays(CHECKER, 3, 8, ForkJoinPool.commonPool());
+        var collector = new Collector<char[]>(10, Long.MAX_VALUE);
+        processor.subscribe(collector);
+        new RangePublisher<>(passwords.length, i -> passwords[i], null).subscribe(processor);
+        collector.await();
+
+        assertEquals(passwords.length, collector.results.size());
+        for (int i = 0; i < passwords.length; ++i) {
+            assertSame(passwords[i], collector.results.get(i).getPassword());
+            assertEquals(expected(i), collector.results.get(i).getStatus());
+        }
+    }
+
+    @Test
+    public void downstreamDemandIsRespected() throws InterruptedException {
+        var processor = PasswordCheckProcessor.ofStrings(CHECKER, 2, 4, ForkJoinPool.commonPool());
+        var publisher = new RangePublisher<>(1_000_000, TestPasswordCheckProcessor::password, null);
+        var collector = new Collector<String>(5, 5);
+        processor.subscribe(collector);
+        publisher.subscribe(processor);
+
+        Thread.sleep(200);
+        assertEquals(5, collector.results.size());
+        assertFalse(collector.completed);
+        assertTrue(publisher.maxOutstanding <= 2 * 2 * 4, "outstanding: " + publisher.maxOutstanding);
+    }
+
+    @Test
+    public void upstreamErrorAfterItems() throws InterruptedException {
+        var failure = new IllegalStateException("upstream failure");
+        var processor = PasswordCheckProcessor.ofStrings(CHECKER, 2, 16, ForkJoinPool.commonPool());
+        var collector = new Collector<String>(3, Long.MAX_VALUE);
+        processor.subscribe(collector);
+        new RangePublisher<>(100, TestPasswordCheckProcessor::password, failure).subscribe(processor);
+        collector.await();
+
+        assertEquals(100, collector.results.size());
+        assertSame(failure, collector.error);
+        assertFalse(collector.completed);
+    }
+
+    @Test
+    public void cancellation() throws InterruptedException {
+        var processor = PasswordCheckProcessor.ofStrings(CHECKER, 2, 16, ForkJoinPool.commonPool());
+        var publisher = new RangePublisher<>(1_000_000, TestPasswordCheckProcessor::password, null);
+        var received = new CountDownLatch(10);
+        processor.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+            private int count = 0;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(PasswordCheckProcessor.Result<String> item) {
+                assertTrue(++count <= 10);
+                received.countDown();
+                if (count == 10)
+                    subscription.cancel();
+            }
+
+            @Override
+            public void onError(Throwable throwable) { }
+
+            @Override
+            public void onComplete() { }
+        });
+        publisher.subscribe(processor);
+
+        assertTrue(received.await(30, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertTrue(publisher.cancelled);
+    }
+
+    @Test
+    public void protocolErrors() throws InterruptedException {
+        var processor = CHECKER.processor(1);
+        var first = new Collector<String>(1, 1);
+        processor.subscribe(first);
+
+        var second = new Collector<String>(1, 1);
+        processor.subscribe(second);
+        second.await();
+        assertInstanceOf(IllegalStateException.class, second.error);
+        assertEquals(PROCESSOR_ALREADY_SUBSCRIBED, second.error.getMessage());
+
+        var invalidRequest = CHECKER.processor(1);
+        var collector = new Collector<String>(0, 1) {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(0);
+            }
+        };
+        invalidRequest.subscribe(collector);
+        new RangePublisher<>(10, TestPasswordCheckProcessor::password, null).subscribe(invalidRequest);
+        collector.await();
+        assertInstanceOf(IllegalArgumentException.class, collector.error);
+        assertEquals(NON_POSITIVE_REQUEST + 0, collector.error.getMessage());
+
+        var rejecting = PasswordCheckProcessor.ofStrings(CHECKER, 1, 1, command -> {
+            throw new RejectedExecutionException("rejected");
+        });
+        var rejected = new Collector<String>(10, Long.MAX_VALUE);
+        rejecting.subscribe(rejected);
+        new RangePublisher<>(10, TestPasswordCheckProcessor::password, null).subscribe(rejecting);
+        rejected.await();
+        assertInstanceOf(RejectedExecutionException.class, rejected.error);
+
+        assertThrows(NullPointerException.class, () -> processor.onNext(null));
+        assertThrows(NullPointerException.class, () -> processor.subscribe(null));
+    }
+
+    @Test
+    public void badParameters() {
+        var npe = assertThrows(NullPointerException.class,
+                () -> PasswordCheckProcessor.ofStrings(null, 1, 1, ForkJoinPool.commonPool()));
+        assertEquals(PASSWORD_CHECKER_NULL, npe.getMessage());
+        npe = assertThrows(NullPointerException.class, () -> PasswordCheckProcessor.ofCharArrays(CHECKER, 1, 1, null));
+        assertEquals(EXECUTOR_NULL, npe.getMessage());
+
+        var iae = assertThrows(IllegalArgumentException.class, () -> CHECKER.processor(0));
+        assertEquals(PARALLELISM_NOT_POSITIVE + 0, iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordCheckProcessor.ofStrings(CHECKER, 1, 0, ForkJoinPool.commonPool()));
+        assertEquals(BATCH_SIZE_NOT_POSITIVE + 0, iae.getMessage());
+    }
+
+}
@@ -0,0 +1,126 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.CONTEXT_ATTRIBUTE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.CONTEXT_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.CONTEXT_TOKEN_LENGTH_TOO_SMALL;
+
+public class TestPasswordContext {
+
+    private static final PasswordChecker CHECKER = PasswordChecker.factory()
+            .setMinMaxLength(8, 32)
+            .addCharGroup(LOWER_CASE)
+            .addCharGroup(UPPER_CASE)
+            .addCharGroup(DIGITS)
+            .addCharGroup(SYMBOLS)
+            .create();
+
+    private static final PasswordContext CONTEXT = PasswordContext.factory()
+            .setUserName("jsmith")
+            .setEmail("john.smith@example.com")
+            .setDisplayName("John Smith")
+            .create();
+
+    @Test
+    public void tokens() {
+        assertEquals(List.of("jsmith", "john.smith@example.com", "John Smith"), CONTEXT.getAttributes());
+        assertEquals(7, CONTEXT.tokens().length);
+        assertEquals("example", new String(CONTEXT.tokens()[3], 0, 7));
+        assertEquals("john", new String(CONTEXT.tokens()[5], 0, 4));
+    }
+
+    @Test
+    public void check() {
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("Tr0ub4dor&3x", CONTEXT));
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, CHECKER.check("Smit#2024!", CONTEXT));
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, CHECKER.check("xxEXAMPLEyy", CONTEXT));
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, CHECKER.check("123jOhN456", CONTEXT));
+        // fewer than 4 characters from a token
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("Joh!Smi!Exa!", CONTEXT));
+        // a token does not extend across attribute separators
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("hn.smXXXXXX", CONTEXT));
+        // other errors come first
+        assertEquals(PasswordCheckStatus.TOO_SHORT, CHECKER.check("smith", CONTEXT));
+
+        assertTrue(CHECKER.quickCheck("Tr0ub4dor&3x", CONTEXT));
+        assertFalse(CHECKER.quickCheck("Smit#2024!", CONTEXT));
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("Smit#2024!"));
+    }
+
+    @Test
+    public void fullCheck() {
+        var errors = CHECKER.fullCheck("xJohnSmith!exam", CONTEXT);
+        assertEquals(2, errors.size());
+
+        var first = (ForbiddenSubstringError) errors.get(0);
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, first.getErrorType());
+        assertEquals("JohnSmith", first.getFoundSubstring());
+        assertEquals(1, first.getIndex());
+        assertEquals("john", first.getForbiddenSubstring());
+
+        var second = (ForbiddenSubstringError) errors.get(1);
+        assertEquals("exam", second.getFoundSubstring());
+        assertEquals("example", second.getForbiddenSubstring());
+        assertEquals(11, second.getIndex());
+
+        assertTrue(CHECKER.fullCheck("Tr0ub4dor&3x", CONTEXT).isEmpty());
+    }
+
+    @Test
+    public void tokenLength() {
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(4, 32)
+                .addCharGroup(LOWER_CASE)
+                .addCharGroup(DIGITS)
+                .setContextTokenLength(6)
+                .create();
+
+        assertEquals(6, checker.getContextTokenLength());
+        assertEquals(4, CHECKER.getContextTokenLength());
+        assertEquals(PasswordCheckStatus.OK, checker.check("smith2024", CONTEXT));
+        assertEquals(PasswordCheckStatus.FORBIDDEN_SUBSTRING, checker.check("jsmith2024", CONTEXT));
+        assertEquals(PasswordCheckStatus.OK, checker.check("johnjohn", CONTEXT));
+    }
+
+    @Test
+    public void supplementaryCharacters() {
+        var checker = PasswordChecker.factory().setMinMaxLength(1, 32).addCharGroup("ab𝐀𝐁x").create();
+        var context = PasswordContext.of("a𝐀b𝐁");
+        assertEquals(PasswordCheckStatus.OK, checker.check("a𝐀bx𝐁", context));
+        var error = (ForbiddenSubstringError) checker.fullCheck("xa𝐀b𝐁", context).get(0);
+        assertEquals("a𝐀b𝐁", error.getFoundSubstring());
+        assertEquals(1, error.getIndex());
+    }
+
+    @Test
+    public void emptyContext() {
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("Tr0ub4dor&3x", PasswordContext.of()));
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check("Tr0ub4dor&3x", PasswordContext.of("ab", "c.d")));
+    }
+
+    @Test
+    public void badParameters() {
+        var npe = assertThrows(NullPointerException.class, () -> CHECKER.check("Tr0ub4dor&3x", null));
+        assertEquals(CONTEXT_NULL, npe.getMessage());
+        npe = assertThrows(NullPointerException.class, () -> PasswordContext.factory().setEmail(null));
+        assertEquals(CONTEXT_ATTRIBUTE_NULL, npe.getMessage());
+
+        var iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordChecker.factory().setContextTokenLength(1));
+        assertEquals(CONTEXT_TOKEN_LENGTH_TOO_SMALL + 1, iae.getMessage());
+    }
+
+}
@@ -0,0 +1,233 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UNAMBIGUOUS_DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.DUPLICATE_CHARS_FOUND_IN_OTHER_GROUP;
+import static rodeo.password.pgencheck.ErrorMessages.NO_POLICY_CHAR_SET_PROVIDED;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_LENGTH_OUT_OF_BOUNDS;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_LENGTH_TOO_LONG_IN_CHARS;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_PROPERTIES_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_PROPERTY_INVALID;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_PROPERTY_UNKNOWN;
+import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_CHAR_BY_TYPE_FOR_LENGTH;
+import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH1;
+import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH2;
+
+public class TestPasswordPolicy {
+
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    public void generatedPasswordsPassTheCheck() {
+        var policy = PasswordPolicy.factory()
+                .setMinMaxLength(12, 24)
+                .setLength(20)
+                .addCharGroup(LOWER_CASE, 2)
+                .addCharGroup(UPPER_CASE, 2, 6)
+                .addCharGroup(DIGITS, 1, 3)
+                .addCharGroup(SYMBOLS, 1, 2)
+                .create();
+
+        var checker = policy.getChecker();
+        var maker = policy.getMaker();
+        assertEquals(12, checker.getMinLength());
+        assertEquals(24, checker.getMaxLength());
+        assertEquals(20, maker.getLength());
+        assertEquals(checker.getCharacterGroups(), maker.getCharacterGroups());
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            String password = maker.create();
+            assertEquals(PasswordCheckStatus.OK, checker.check(password), password);
+        }
+    }
+
+    @Test
+    public void supplementaryCharacters() throws IOException {
+        var exception = assertThrows(IllegalStateException.class, () -> PasswordPolicy.factory()
+                .setMinMaxLength(8, 16)
+                .setLength(16)
+                .addCharGroup("𝄞𝄢𝄪", 0)
+                .addCharGroup("abcdef", 1)
+                .create());
+        assertEquals(POLICY_LENGTH_TOO_LONG_IN_CHARS + "31 > 16", exception.getMessage());
+        exception = assertThrows(IllegalStateException.class,
+                () -> PasswordPolicy.fromProperties(properties("minLength = 8\nmaxLength = 16\nlength = 16\n"
+                        + "group.1 = 𝄞𝄢𝄪\ngroup.2 = abcdef\ngroup.2.min = 1\n")));
+        assertEquals(POLICY_LENGTH_TOO_LONG_IN_CHARS + "31 > 16", exception.getMessage());
+
+        // every generated password fits the checker, whether supplementary characters are bounded by the maximum
+        // count of their group or by the length
+        var policies = List.of(
+                PasswordPolicy.factory()
+                        .setMinMaxLength(8, 31)
+                        .setLength(16)
+                        .addCharGroup("𝄞𝄢𝄪", 0)
+                        .addCharGroup("abcdef", 1)
+                        .create(),
+                PasswordPolicy.factory()
+                        .setMinMaxLength(8, 18)
+                        .setLength(16)
+                        .addCharGroup("x𝄞y𝄢", 0, 2)
+                        .addCharGroup("abcdef", 1)
+                        .create());
+        for (var policy: policies)
+            for (int i = 0; i < 1000; ++i) {
+                String password = policy.getMaker().create();
+                assertEquals(PasswordCheckStatus.OK, policy.getChecker().check(password), password);
+            }
+    }
+
+    @Test
+    public void tablesAreShared() {
+        var policy = PasswordPolicy.factory().addCharGroup(LOWER_CASE).addCharGroup(DIGITS, 1).create();
+        assertSame(policy.getChecker().tables(), policy.getMaker().tables());
+        assertSame(policy.getChecker().getAllChars(), policy.getMaker().getAllChars());
+    }
+
+    @Test
+    public void sameResultsAsSeparateObjects() {
+        var policy = PasswordPolicy.factory()
+                .setMinMaxLength(4, 8)
+                .setLength(8)
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(DIGITS, 1, 2)
+                .create();
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(4, 8)
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(DIGITS, 1, 2)
+                .create();
+
+        for (String password: new String[] { "abc1", "abc", "abcdefgh1", "abcd123", "ABCD12", "abcd12" })
+            assertEquals(checker.fullCheck(password).size(), policy.getChecker().fullCheck(password).size());
+
+        var generator = ReproducibleUIntGenerator.forPassword(3, 0);
+        var maker = PasswordMaker.factory()
+                .setLength(8)
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(DIGITS, 1, 2)
+                .create();
+        assertEquals(maker.create(ReproducibleUIntGenerator.forPassword(3, 0)), policy.getMaker().create(generator));
+    }
+
+    private static Properties properties(String text) throws IOException {
+        var properties = new Properties();
+        properties.load(new StringReader(text));
+        return properties;
+    }
+
+    @Test
+    public void fromProperties() throws IOException {
+        var policy = PasswordPolicy.fromProperties(properties(String.join("\n",
+                "minLength = 10",
+                "maxLength = 30",
+                "length = 20",
+                "group.1 = LOWER_CASE",
+                "group.1.min = 2",
+                "group.2 = UNAMBIGUOUS_DIGITS",
+                "group.2.min = 1",
+                "group.2.max = 3",
+                "group.3 = ?!+*",
+                "maxRepeatedCharacters = 2",
+                "maxSequenceLength = 3",
+                "sequence.1 = qwertyuiop")));
+
+        var checker = policy.getChecker();
+        assertEquals(10, checker.getMinLength());
+        assertEquals(30, checker.getMaxLength());
+        assertEquals(List.of(LOWER_CASE, UNAMBIGUOUS_DIGITS, "?!+*"), checker.getCharacterGroups());
+        assertEquals(2, checker.getMinCharactersInGroup(0));
+        assertEquals(1, checker.getMinCharactersInGroup(1));
+        assertEquals(3, checker.getMaxCharactersInGroup(1));
+        assertEquals(0, checker.getMaxCharactersInGroup(2));
+        assertEquals(2, checker.getMaxRepeatedCharacters());
+        assertEquals(3, checker.getMaxSequenceLength());
+        assertEquals(List.of("qwertyuiop"), checker.getCharacterSequences());
+        assertEquals(20, policy.getMaker().getLength());
+
+        policy = PasswordPolicy.fromProperties(properties("group.1 = abc"));
+        assertEquals(16, policy.getChecker().getMinLength());
+        assertEquals(64, policy.getChecker().getMaxLength());
+        assertEquals(16, policy.getMaker().getLength());
+        assertFalse(policy.getMaker().isUniform());
+
+        policy = PasswordPolicy.fromProperties(properties("group.1 = abc\nuniform = true"));
+        assertTrue(policy.getMaker().isUniform());
+    }
+
+    @Test
+    public void badProperties() {
+        var npe = assertThrows(NullPointerException.class, () -> PasswordPolicy.fromProperties(null));
+        assertEquals(POLICY_PROPERTIES_NULL, npe.getMessage());
+
+        var iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.fromProperties(properties("group.1 = abc\nlength = ten")));
+        assertEquals(POLICY_PROPERTY_INVALID + "length=ten", iae.getMessage());
+
+        iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.fromProperties(properties("group.1 = abc\nuniform = yes")));
+        assertEquals(POLICY_PROPERTY_INVALID + "uniform=yes", iae.getMessage());
+
+        iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.fromProperties(properties("group.1 = abc\ngroup.3 = def")));
+        assertEquals(POLICY_PROPERTY_UNKNOWN + "group.3", iae.getMessage());
+
+        iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.fromProperties(properties("group.1 = abc\nlenght = 12")));
+        assertEquals(POLICY_PROPERTY_UNKNOWN + "lenght", iae.getMessage());
+
+        var ise = assertThrows(IllegalStateException.class,
+                () -> PasswordPolicy.fromProperties(properties("length = 12")));
+        assertEquals(NO_POLICY_CHAR_SET_PROVIDED, ise.getMessage());
+    }
+
+    @Test
+    public void badParameters() {
+        var exception = assertThrows(IllegalStateException.class, () -> PasswordPolicy.factory().create());
+        assertEquals(NO_POLICY_CHAR_SET_PROVIDED, exception.getMessage());
+
+        exception = assertThrows(IllegalStateException.class, () -> PasswordPolicy.factory()
+                .setMinMaxLength(8, 12)
+                .setLength(16)
+                .addCharGroup(LOWER_CASE)
+                .create());
+        assertEquals(POLICY_LENGTH_OUT_OF_BOUNDS + "16 not in [8, 12]", exception.getMessage());
+
+        exception = assertThrows(IllegalStateException.class, () -> PasswordPolicy.factory()
+                .setMinMaxLength(4, 8)
+                .setLength(4)
+                .addCharGroup(LOWER_CASE, 3)
+                .addCharGroup(DIGITS, 2)
+                .create());
+        assertEquals(TOO_MANY_CHAR_BY_TYPE_FOR_LENGTH, exception.getMessage());
+
+        exception = assertThrows(IllegalStateException.class, () -> PasswordPolicy.factory()
+                .addCharGroup(LOWER_CASE, 0, 5)
+                .addCharGroup(DIGITS, 0, 5)
+                .create());
+        assertEquals(TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH1 + 16
+                + TOO_MANY_RESTRICTIONS_ON_CHAR_BY_TYPE_FOR_LENGTH2, exception.getMessage());
+
+        var iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.factory().addCharGroup("abc").addCharGroup("c12"));
+        assertEquals(DUPLICATE_CHARS_FOUND_IN_OTHER_GROUP + "c", iae.getMessage());
+    }
+
+}
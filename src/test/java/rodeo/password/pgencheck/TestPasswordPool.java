@@ -0,0 +1,210 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.PASSWORD_MAKER_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.POOL_CAPACITY_OUT_OF_RANGE;
+import static rodeo.password.pgencheck.ErrorMessages.THREAD_FACTORY_NULL;
+
+public class TestPasswordPool {
+
+    private static final int THREADS = 8;
+    private static final int PASSWORDS_PER_THREAD = 20_000;
+
+    private static final PasswordMaker MAKER = PasswordMaker.factory()
+            .addCharGroup(LOWER_CASE, 1)
+            .addCharGroup(UPPER_CASE, 1)
+            .addCharGroup(DIGITS, 1)
+            .create();
+
+    private static final PasswordChecker CHECKER = PasswordChecker.factory()
+            .addCharGroup(LOWER_CASE, 1)
+            .addCharGroup(UPPER_CASE, 1)
+            .addCharGroup(DIGITS, 1)
+            .create();
+
+    private static void waitUntilFull(PasswordPool pool) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.size() < pool.getCapacity() && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        assertEquals(pool.getCapacity(), pool.size());
+    }
+
+    @Test
+    public void capacity() {
+        try (var pool = MAKER.pool(1)) {
+            assertEquals(1, pool.getCapacity());
+        }
+        try (var pool = MAKER.pool(100)) {
+            assertEquals(128, pool.getCapacity());
+        }
+    }
+
+    @Test
+    public void takeFromFullPool() throws InterruptedException {
+        try (var pool = MAKER.pool(256)) {
+            waitUntilFull(pool);
+
+            var passwords = new HashSet<String>();
+            for (int i = 0; i < 256; i++) {
+                String password = pool.take();
+                assertEquals(PasswordCheckStatus.OK, CHECKER.check(password), password);
+                passwords.add(password);
+            }
+
+            assertEquals(256, passwords.size());
+            assertEquals(256, pool.getTakeCount());
+            assertEquals(0, pool.getUnderflowCount());
+            assertTrue(pool.getRefillCount() >= 256);
+        }
+    }
+
+    @Test
+    public void poolIsToppedUp() throws InterruptedException {
+        try (var pool = MAKER.pool(64)) {
+            waitUntilFull(pool);
+            for (int i = 0; i < 64; i++)
+                pool.take();
+            waitUntilFull(pool);
+            assertTrue(pool.getRefillCount() >= 128);
+        }
+    }
+
+    @Test
+    public void synchronousFallback() {
+        // the refill thread never runs: every password is generated on the spot
+        try (var pool = new PasswordPool(MAKER, 16, runnable -> new Thread(() -> { }))) {
+            for (int i = 0; i < 100; i++)
+                assertEquals(PasswordCheckStatus.OK, CHECKER.check(pool.take()));
+
+            char[] chars = pool.takeChars();
+            assertEquals(PasswordCheckStatus.OK, CHECKER.check(new String(chars)));
+
+            assertEquals(101, pool.getTakeCount());
+            assertEquals(101, pool.getUnderflowCount());
+            assertEquals(0, pool.getRefillCount());
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    public void failingGenerator() throws InterruptedException {
+        var failing = new AtomicBoolean(true);
+        var failure = new IllegalStateException("entropy source unavailable");
+        var random = new Random();
+        var maker = PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(UPPER_CASE, 1)
+                .addCharGroup(DIGITS, 1)
+                .setRandomUIntGenerator(max -> {
+                    if (failing.get())
+                        throw failure;
+                    return random.nextInt(max);
+                })
+                .create();
+
+        try (var pool = maker.pool(16)) {
+            waitFor(() -> pool.getFailureCount() >= 3);
+            assertSame(failure, pool.getLastFailure());
+            assertEquals(0, pool.getRefillCount());
+            assertSame(failure, assertThrows(IllegalStateException.class, pool::take));
+
+            // the refill thread survived and fills the pool once the generator works again
+            failing.set(false);
+            waitUntilFull(pool);
+            long failures = pool.getFailureCount();
+            assertEquals(PasswordCheckStatus.OK, CHECKER.check(pool.take()));
+            assertTrue(pool.getRefillCount() >= 16);
+            assertEquals(failures, pool.getFailureCount());
+        }
+    }
+
+    @Test
+    public void closedPool() throws InterruptedException {
+        var pool = MAKER.pool(32);
+        waitUntilFull(pool);
+        pool.close();
+        assertEquals(0, pool.size());
+        assertEquals(PasswordCheckStatus.OK, CHECKER.check(pool.take()));
+    }
+
+    @Test
+    public void concurrentTakers() throws Exception {
+        try (var pool = MAKER.pool(1024)) {
+            var passwords = ConcurrentHashMap.<String>newKeySet();
+            var executor = Executors.newFixedThreadPool(THREADS);
+            var tasks = new ArrayList<Callable<Integer>>();
+            for (int i = 0; i < THREADS; i++)
+                tasks.add(() -> {
+                    int valid = 0;
+                    for (int j = 0; j < PASSWORDS_PER_THREAD; j++) {
+                        String password = pool.take();
+                        if (CHECKER.check(password) == PasswordCheckStatus.OK && passwords.add(password))
+                            ++valid;
+                    }
+                    return valid;
+                });
+
+            for (var result: executor.invokeAll(tasks))
+                assertEquals(PASSWORDS_PER_THREAD, result.get());
+            executor.shutdown();
+
+            assertEquals(THREADS * PASSWORDS_PER_THREAD, pool.getTakeCount());
+            assertTrue(pool.getUnderflowCount() + pool.getRefillCount() >= pool.getTakeCount());
+        }
+    }
+
+    @Test
+    public void ring() {
+        var ring = new MpmcRing<Integer>(4);
+        for (int i = 0; i < 4; i++)
+            assertTrue(ring.offer(i));
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+        for (int i = 0; i < 4; i++)
+            assertEquals(i, ring.poll());
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    public void badParameters() {
+        var npe = assertThrows(NullPointerException.class, () -> new PasswordPool(null, 16));
+        assertEquals(PASSWORD_MAKER_NULL, npe.getMessage());
+        npe = assertThrows(NullPointerException.class, () -> new PasswordPool(MAKER, 16, null));
+        assertEquals(THREAD_FACTORY_NULL, npe.getMessage());
+
+        var iae = assertThrows(IllegalArgumentException.class, () -> MAKER.pool(0));
+        assertEquals(POOL_CAPACITY_OUT_OF_RANGE + 0, iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> MAKER.pool((1 << 30) + 1));
+        assertEquals(POOL_CAPACITY_OUT_OF_RANGE + ((1 << 30) + 1), iae.getMessage());
+    }
+
+}
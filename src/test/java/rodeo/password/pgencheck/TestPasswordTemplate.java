@@ -0,0 +1,158 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_EMPTY;
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_SYMBOL_UNKNOWN_GROUP;
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_TOO_FEW_FOR_GROUP;
+import static rodeo.password.pgencheck.ErrorMessages.TEMPLATE_TOO_MANY_FOR_GROUP;
+
+public class TestPasswordTemplate {
+
+    private static final int ITERATIONS = 100_000;
+
+    private static PasswordMaker.Factory basicFactory() {
+        return PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE)
+                .addCharGroup(UPPER_CASE)
+                .addCharGroup(DIGITS)
+                .addTemplateSymbol('l', 0)
+                .addTemplateSymbol('U', 1)
+                .addTemplateSymbol('D', 2)
+                .addTemplateSymbol('L', 0, 1)
+                .addTemplateSymbol('*');
+    }
+
+    @Test
+    public void voucherShape() {
+        var maker = basicFactory().setTemplate("llll-DDDD-UUUU").create();
+        assertEquals(14, maker.getLength());
+        assertEquals("llll-DDDD-UUUU", maker.getTemplate());
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            String password = maker.create();
+            assertTrue(password.matches("[a-z]{4}-[0-9]{4}-[A-Z]{4}"), password);
+        }
+    }
+
+    @Test
+    public void startsWithLetter() {
+        var maker = basicFactory().setLength(99).setTemplate("L*******").create();
+        assertEquals(8, maker.getLength());
+
+        var firstChars = new HashSet<Character>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            String password = maker.create();
+            assertTrue(password.matches("[a-zA-Z][a-zA-Z0-9]{7}"), password);
+            firstChars.add(password.charAt(0));
+        }
+        assertEquals(52, firstChars.size());
+    }
+
+    @Test
+    public void groupCountsAreGuaranteed() {
+        var maker = PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE, 2)
+                .addCharGroup(DIGITS, 1, 3)
+                .addTemplateSymbol('l', 0)
+                .addTemplateSymbol('d', 1)
+                .addTemplateSymbol('?')
+                .setTemplate("ll?d?")
+                .create();
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(5, 5)
+                .addCharGroup(LOWER_CASE, 2)
+                .addCharGroup(DIGITS, 1, 3)
+                .create();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            String password = maker.create();
+            assertEquals(PasswordCheckStatus.OK, checker.check(password), password);
+        }
+    }
+
+    @Test
+    public void literalsAndUnicode() {
+        var maker = PasswordMaker.factory()
+                .addCharGroup("𝓐𝓑𝓒")
+                .addCharGroup(DIGITS)
+                .addTemplateSymbol("𝓧".codePointAt(0), 0)
+                .addTemplateSymbol('#', 1)
+                .setTemplate("ID:##/𝓧")
+                .create();
+        assertEquals(7, maker.getLength());
+
+        for (int i = 0; i < 1000; i++) {
+            String password = maker.create();
+            assertTrue(password.matches("ID:[0-9]{2}/[𝓐𝓑𝓒]"), password);
+        }
+    }
+
+    @Test
+    public void uniqueBatchWithTemplate() {
+        var maker = basicFactory().setTemplate("x-DDD").create();
+        var batch = maker.uniqueBatch(1000);
+        assertTrue(batch.hasExactFingerprints());
+
+        var passwords = new HashSet<String>();
+        for (int i = 0; i < 1000; i++)
+            assertTrue(passwords.add(batch.next()));
+        assertThrows(IllegalStateException.class, batch::next);
+    }
+
+    @Test
+    public void reproducible() {
+        var maker = basicFactory().setTemplate("L*****DD").create();
+        for (int i = 0; i < 100; i++)
+            assertEquals(
+                    maker.create(ReproducibleUIntGenerator.forPassword(7, i)),
+                    maker.create(ReproducibleUIntGenerator.forPassword(7, i)));
+    }
+
+    @Test
+    public void noTemplate() {
+        assertNull(PasswordMaker.factory().addCharGroup(DIGITS).create().getTemplate());
+    }
+
+    @Test
+    public void badTemplates() {
+        var npe = assertThrows(NullPointerException.class, () -> basicFactory().setTemplate(null));
+        assertEquals(TEMPLATE_NULL, npe.getMessage());
+        var iae = assertThrows(IllegalArgumentException.class, () -> basicFactory().setTemplate(""));
+        assertEquals(TEMPLATE_EMPTY, iae.getMessage());
+
+        var ise = assertThrows(IllegalStateException.class,
+                () -> basicFactory().addTemplateSymbol('X', 3).setTemplate("X").create());
+        assertEquals(TEMPLATE_SYMBOL_UNKNOWN_GROUP + "X -> 3", ise.getMessage());
+
+        ise = assertThrows(IllegalStateException.class, () -> PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE, 2)
+                .addCharGroup(DIGITS)
+                .addTemplateSymbol('l', 0)
+                .addTemplateSymbol('?')
+                .setTemplate("l???")
+                .create());
+        assertEquals(TEMPLATE_TOO_FEW_FOR_GROUP + 0, ise.getMessage());
+
+        ise = assertThrows(IllegalStateException.class, () -> PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE)
+                .addCharGroup(DIGITS, 0, 1)
+                .addTemplateSymbol('?')
+                .setTemplate("??")
+                .create());
+        assertEquals(TEMPLATE_TOO_MANY_FOR_GROUP + 1, ise.getMessage());
+    }
+
+}
@@ -0,0 +1,136 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+public class TestRandomIndices {
+
+    private static final int DRAWS_PER_VALUE = 100_000;
+
+    @Test
+    public void indicesAreBounded() {
+        var indices = new RandomIndices(new CountingUIntGenerator(42));
+        for (int bound: new int[] { 1, 2, 3, 10, 62, 1000, 65_537, Integer.MAX_VALUE })
+            for (int i = 0; i < 10_000; i++) {
+                int index = indices.next(bound);
+                assertTrue(index >= 0 && index < bound);
+            }
+    }
+
+    @Test
+    public void indicesAreUniform() {
+        // 3 and 62 do not divide 2^32: a biased extraction would show up here
+        for (int bound: new int[] { 3, 10, 62 }) {
+            var indices = new RandomIndices(new CountingUIntGenerator(bound));
+            int[] counts = new int[bound];
+            for (int i = 0; i < DRAWS_PER_VALUE * bound; i++)
+                counts[indices.next(bound)]++;
+
+            double chiSquare = 0;
+            for (int count: counts)
+                chiSquare += (count - DRAWS_PER_VALUE) * (double) (count - DRAWS_PER_VALUE) / DRAWS_PER_VALUE;
+            // far beyond the 99.99th percentile of a chi-square distribution with bound - 1 degrees of freedom
+            assertTrue(chiSquare < 20 + 2 * bound, "chi-square too high for bound " + bound + ": " + chiSquare);
+        }
+    }
+
+    @Test
+    public void bigIntegersAreUniform() {
+        // just above a power of two, so that almost half of the candidates are rejected
+        var bound = BigInteger.ONE.shiftLeft(70).add(BigInteger.ONE);
+        var quarter = bound.shiftRight(2);
+        var indices = new RandomIndices(new CountingUIntGenerator(70));
+        int[] counts = new int[5];
+        for (int i = 0; i < 4 * DRAWS_PER_VALUE; i++) {
+            var value = indices.next(bound);
+            assertTrue(value.signum() >= 0 && value.compareTo(bound) < 0);
+            counts[value.divide(quarter).intValue()]++;
+        }
+
+        assertTrue(counts[4] <= 1);
+        double chiSquare = 0;
+        for (int i = 0; i < 4; i++)
+            chiSquare += (counts[i] - DRAWS_PER_VALUE) * (double) (counts[i] - DRAWS_PER_VALUE) / DRAWS_PER_VALUE;
+        assertTrue(chiSquare < 30, "chi-square too high: " + chiSquare);
+
+        for (int i = 0; i < 1000; i++)
+            assertTrue(indices.next(BigInteger.valueOf(3)).intValue() < 3);
+        assertEquals(BigInteger.ZERO, indices.next(BigInteger.ONE));
+    }
+
+    @Test
+    public void fewerGeneratorCalls() {
+        var generator = new CountingUIntGenerator(7);
+        PasswordMaker maker = PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(UPPER_CASE, 1)
+                .addCharGroup(DIGITS, 1)
+                .setRandomUIntGenerator(generator)
+                .create();
+
+        for (int i = 0; i < 1000; i++)
+            maker.create();
+
+        // one draw per character would need 16 calls per password, plus 15 for the shuffle
+        assertEquals(1000, generator.fillCount);
+        assertTrue(generator.longCount < 1000 * 16 / 4, "too many calls: " + generator.longCount);
+        assertEquals(0, generator.uIntCount);
+    }
+
+    @Test
+    public void singleCharacterGroup() {
+        PasswordMaker maker = PasswordMaker.factory()
+                .setLength(4)
+                .addCharGroup("x", 1)
+                .addCharGroup(DIGITS)
+                .create();
+        for (int i = 0; i < 1000; i++)
+            assertTrue(maker.create().contains("x"));
+    }
+
+    private static class CountingUIntGenerator implements RandomUIntGenerator {
+        private final SplittableRandom random;
+        int fillCount = 0;
+        int longCount = 0;
+        int uIntCount = 0;
+
+        CountingUIntGenerator(long seed) {
+            random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public int getNextUInt(int max) {
+            ++uIntCount;
+            return random.nextInt(max);
+        }
+
+        @Override
+        public long nextLong() {
+            ++longCount;
+            return random.nextLong();
+        }
+
+        @Override
+        public void fillLongs(long[] out, int count) {
+            ++fillCount;
+            for (int i = 0; i < count; i++)
+                out[i] = random.nextLong();
+        }
+
+        @Override
+        public Random random() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+public class TestRandomUIntGenerator {
+
+    private static final RandomUIntGenerator[] GENERATORS = {
+            DefaultUIntGenerator.GENERATOR,
+            new SecureUIntGenerator(),
+            new StripedSecureUIntGenerator(2),
+            new MinimalUIntGenerator(17)
+    };
+
+    @Test
+    public void fillUInts() {
+        for (var generator: GENERATORS) {
+            var values = new int[100];
+            generator.fillUInts(values, 50, 7);
+            for (int i = 0; i < 50; i++)
+                assertTrue(values[i] >= 0 && values[i] < 7);
+            for (int i = 50; i < 100; i++)
+                assertEquals(0, values[i]);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> generator.fillUInts(values, 101, 7));
+            assertThrows(IndexOutOfBoundsException.class, () -> generator.fillUInts(values, -1, 7));
+        }
+    }
+
+    @Test
+    public void fillLongs() {
+        for (var generator: GENERATORS) {
+            var values = new long[100];
+            generator.fillLongs(values, 64);
+            long or = 0;
+            for (int i = 0; i < 64; i++)
+                or |= values[i];
+            assertEquals(-1L, or);  // every bit is set at least once, with overwhelming probability
+            for (int i = 64; i < 100; i++)
+                assertEquals(0, values[i]);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> generator.fillLongs(values, 101));
+        }
+    }
+
+    @Test
+    public void defaultNextLongUsesAllBits() {
+        var generator = new MinimalUIntGenerator(3);
+        long or = 0;
+        long and = -1;
+        for (int i = 0; i < 1000; i++) {
+            long value = generator.nextLong();
+            or |= value;
+            and &= value;
+        }
+        assertEquals(-1L, or);
+        assertEquals(0L, and);
+    }
+
+    @Test
+    public void defaultRandomView() {
+        var generator = new MinimalUIntGenerator(5);
+        var random = generator.random();
+        assertNotEquals(random.nextLong(), random.nextLong());
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(10);
+            assertTrue(value >= 0 && value < 10);
+        }
+    }
+
+    @Test
+    public void makerWithMinimalGenerator() {
+        PasswordMaker maker = PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(UPPER_CASE, 1)
+                .addCharGroup(DIGITS, 1, 3)
+                .addCharGroup(SYMBOLS, 1, 2)
+                .setRandomUIntGenerator(new MinimalUIntGenerator(11))
+                .create();
+        PasswordChecker checker = PasswordChecker.factory()
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(UPPER_CASE, 1)
+                .addCharGroup(DIGITS, 1, 3)
+                .addCharGroup(SYMBOLS, 1, 2)
+                .create();
+        for (int i = 0; i < 100_000; i++)
+            assertEquals(PasswordCheckStatus.OK, checker.check(maker.create()));
+    }
+
+    // only implements the mandatory function
+    private static class MinimalUIntGenerator implements RandomUIntGenerator {
+        private final SplittableRandom random;
+
+        MinimalUIntGenerator(long seed) {
+            random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public int getNextUInt(int max) {
+            return random.nextInt(max);
+        }
+    }
+
+}
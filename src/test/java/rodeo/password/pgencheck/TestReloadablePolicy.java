@@ -0,0 +1,189 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_FILE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.POLICY_PROPERTY_UNKNOWN;
+import static rodeo.password.pgencheck.ErrorMessages.THREAD_FACTORY_NULL;
+
+public class TestReloadablePolicy {
+
+    private static final String POLICY_12 = "minLength=12\nlength=12\ngroup.1=LOWER_CASE\ngroup.2=DIGITS\ngroup.2.min=1\n";
+    private static final String POLICY_20 = "minLength=20\nlength=20\ngroup.1=LOWER_CASE\ngroup.2=DIGITS\ngroup.2.min=2\n";
+
+    @TempDir
+    Path directory;
+
+    private static void write(Path file, String content) throws IOException {
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    public void initialLoad() throws IOException {
+        var file = directory.resolve("policy.properties");
+        write(file, POLICY_12);
+        try (var policy = new ReloadablePolicy(file)) {
+            assertEquals(file.toAbsolutePath(), policy.getFile());
+            assertEquals(12, policy.getChecker().getMinLength());
+            assertEquals(12, policy.getMaker().getLength());
+            assertSame(policy.getPolicy().getChecker(), policy.getChecker());
+            assertEquals(0, policy.getReloadCount());
+            assertEquals(0, policy.getFailureCount());
+            assertNull(policy.getLastFailure());
+            assertEquals(Duration.ZERO, policy.getLastReloadLatency());
+        }
+    }
+
+    @Test
+    public void reloadOnChange() throws IOException, InterruptedException {
+        var file = directory.resolve("policy.properties");
+        write(file, POLICY_12);
+        write(directory.resolve("other.properties"), "ignored");
+        try (var policy = new ReloadablePolicy(file)) {
+            var initial = policy.getPolicy();
+
+            write(file, POLICY_20);
+            waitFor(() -> policy.getReloadCount() == 1);
+            assertNotSame(initial, policy.getPolicy());
+            assertEquals(20, policy.getChecker().getMinLength());
+            assertEquals(20, policy.getMaker().getLength());
+            assertTrue(policy.getLastReloadLatency().compareTo(Duration.ZERO) > 0);
+            assertTrue(policy.getMaxReloadLatency().compareTo(policy.getLastReloadLatency()) >= 0);
+
+            // atomic replacement, as done by most editors and deployment tools
+            var temporary = directory.resolve("policy.tmp");
+            write(temporary, POLICY_12);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            waitFor(() -> policy.getReloadCount() == 2);
+            assertEquals(12, policy.getChecker().getMinLength());
+
+            // changes to other files in the directory are ignored
+            write(directory.resolve("other.properties"), "still ignored");
+            Thread.sleep(200);
+            assertEquals(2, policy.getReloadCount());
+            assertEquals(0, policy.getFailureCount());
+        }
+    }
+
+    @Test
+    public void invalidPolicyIsNotPublished() throws IOException, InterruptedException {
+        var file = directory.resolve("policy.properties");
+        write(file, POLICY_12);
+        try (var policy = new ReloadablePolicy(file)) {
+            var initial = policy.getPolicy();
+
+            write(file, POLICY_12 + "unknown=1\n");
+            waitFor(() -> policy.getFailureCount() == 1);
+            assertSame(initial, policy.getPolicy());
+            assertEquals(0, policy.getReloadCount());
+            assertInstanceOf(IllegalArgumentException.class, policy.getLastFailure());
+            assertEquals(POLICY_PROPERTY_UNKNOWN + "unknown", policy.getLastFailure().getMessage());
+
+            write(file, POLICY_20);
+            waitFor(() -> policy.getReloadCount() == 1);
+            assertEquals(20, policy.getChecker().getMinLength());
+        }
+    }
+
+    @Test
+    public void manualReload() throws IOException {
+        var file = directory.resolve("policy.properties");
+        write(file, POLICY_12);
+        var policy = new ReloadablePolicy(file);
+        policy.close();
+
+        write(file, POLICY_20);
+        assertTrue(policy.reload());
+        assertEquals(20, policy.getChecker().getMinLength());
+
+        Files.delete(file);
+        assertFalse(policy.reload());
+        assertInstanceOf(NoSuchFileException.class, policy.getLastFailure());
+        assertEquals(20, policy.getChecker().getMinLength());
+        assertEquals(1, policy.getReloadCount());
+        assertEquals(1, policy.getFailureCount());
+    }
+
+    @Test
+    public void readersDuringReloads() throws Exception {
+        var file = directory.resolve("policy.properties");
+        write(file, POLICY_12);
+        try (var policy = new ReloadablePolicy(file)) {
+            var done = new AtomicBoolean(false);
+            var executor = Executors.newFixedThreadPool(4);
+            var readers = new ArrayList<Callable<Long>>();
+            for (int i = 0; i < 4; ++i)
+                readers.add(() -> {
+                    long count = 0;
+                    while (!done.get()) {
+                        // maker and checker of the same policy always agree
+                        var current = policy.getPolicy();
+                        String password = current.getMaker().create();
+                        assertEquals(PasswordCheckStatus.OK, current.getChecker().check(password), password);
+                        ++count;
+                    }
+                    return count;
+                });
+            var results = new ArrayList<Future<Long>>();
+            for (var reader: readers)
+                results.add(executor.submit(reader));
+
+            for (int i = 0; i < 20; ++i)
+                assertTrue(policy.reload());
+            write(file, POLICY_20);
+            waitFor(() -> policy.getChecker().getMinLength() == 20);
+
+            done.set(true);
+            for (var result: results)
+                assertTrue(result.get() > 0);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void badParameters() throws IOException {
+        var file = directory.resolve("policy.properties");
+
+        var npe = assertThrows(NullPointerException.class, () -> new ReloadablePolicy(null));
+        assertEquals(POLICY_FILE_NULL, npe.getMessage());
+        npe = assertThrows(NullPointerException.class, () -> new ReloadablePolicy(file, null));
+        assertEquals(THREAD_FACTORY_NULL, npe.getMessage());
+
+        assertThrows(NoSuchFileException.class, () -> new ReloadablePolicy(file));
+        write(file, "group.1=LOWER_CASE\nlength=abc\n");
+        assertThrows(IllegalArgumentException.class, () -> new ReloadablePolicy(file));
+    }
+
+}
@@ -0,0 +1,97 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+public class TestReproducibleUIntGenerator {
+
+    private static final int PASSWORD_COUNT = 100_000;
+    private static final long SEED = 20_261_019L;
+
+    private static final PasswordMaker MAKER = PasswordMaker
+            .factory()
+            .setLength(20)
+            .addCharGroup(LOWER_CASE, 1)
+            .addCharGroup(UPPER_CASE, 1)
+            .addCharGroup(DIGITS, 1, 4)
+            .addCharGroup(SYMBOLS, 1, 2)
+            .create();
+
+    private static final PasswordChecker CHECKER = PasswordChecker
+            .factory()
+            .addCharGroup(LOWER_CASE, 1)
+            .addCharGroup(UPPER_CASE, 1)
+            .addCharGroup(DIGITS, 1, 4)
+            .addCharGroup(SYMBOLS, 1, 2)
+            .create();
+
+    @Test
+    public void sequentialAndParallelRunsMatch() {
+        var sequential = new ArrayList<String>();
+        for (long k = 0; k < PASSWORD_COUNT; k++)
+            sequential.add(MAKER.create(ReproducibleUIntGenerator.forPassword(SEED, k)));
+
+        List<String> parallel = LongStream.range(0, PASSWORD_COUNT)
+                .parallel()
+                .mapToObj(k -> MAKER.create(ReproducibleUIntGenerator.forPassword(SEED, k)))
+                .collect(Collectors.toList());
+
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.get(12_345), MAKER.create(ReproducibleUIntGenerator.forPassword(SEED, 12_345)));
+
+        for (String password: sequential)
+            assertEquals(PasswordCheckStatus.OK, CHECKER.check(password));
+        assertEquals(PASSWORD_COUNT, new HashSet<>(sequential).size());
+    }
+
+    @Test
+    public void seedsAndIndicesDiffer() {
+        assertNotEquals(
+                MAKER.create(ReproducibleUIntGenerator.forPassword(SEED, 0)),
+                MAKER.create(ReproducibleUIntGenerator.forPassword(SEED + 1, 0)));
+        assertNotEquals(
+                MAKER.create(ReproducibleUIntGenerator.forPassword(SEED, 0)),
+                MAKER.create(ReproducibleUIntGenerator.forPassword(SEED, 1)));
+    }
+
+    @Test
+    public void splitIsReproducible() {
+        var first = new ReproducibleUIntGenerator(SEED);
+        var second = new ReproducibleUIntGenerator(SEED);
+        for (int i = 0; i < 100; i++) {
+            var firstChild = first.split();
+            var secondChild = second.split();
+            assertEquals(MAKER.create(firstChild), MAKER.create(secondChild));
+            assertEquals(firstChild.nextLong(), secondChild.nextLong());
+        }
+        assertEquals(MAKER.create(first), MAKER.create(second));
+    }
+
+    @Test
+    public void boundsAndErrors() {
+        var generator = new ReproducibleUIntGenerator(SEED);
+        for (int i = 0; i < 10_000; i++) {
+            int value = generator.getNextUInt(7);
+            assertTrue(value >= 0 && value < 7);
+        }
+        var exception = assertThrows(IllegalArgumentException.class, () -> generator.getNextUInt(1));
+        assertEquals("max must be >= 2", exception.getMessage());
+        assertThrows(NullPointerException.class, () -> MAKER.create(null));
+    }
+
+}
@@ -0,0 +1,92 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.BUFFER_SIZE_TOO_SMALL;
+
+public class TestSecureUIntGenerator {
+
+    private static final int ITERATIONS = 100_000;
+
+    private static final SecureUIntGenerator GENERATOR = new SecureUIntGenerator();
+
+    @Test
+    public void testConfig() {
+        var source = new SecureRandom();
+        var generator = new SecureUIntGenerator(source, 64);
+        assertEquals(source, generator.getSource());
+        assertEquals(64, generator.getBufferSize());
+        assertEquals(SecureUIntGenerator.DEFAULT_BUFFER_SIZE, GENERATOR.getBufferSize());
+    }
+
+    @Test
+    public void badParameters() {
+        var exception = assertThrows(IllegalArgumentException.class, () -> GENERATOR.getNextUInt(1));
+        assertEquals("max must be >= 2", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> new SecureUIntGenerator(new SecureRandom(), 4));
+        assertEquals(BUFFER_SIZE_TOO_SMALL + 4, exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> new SecureUIntGenerator(new SecureRandom(), 30));
+        assertEquals(BUFFER_SIZE_TOO_SMALL + 30, exception.getMessage());
+        assertThrows(NullPointerException.class, () -> new SecureUIntGenerator(null));
+    }
+
+    @Test
+    public void valuesAreBoundedAndUniform() {
+        // small buffer to exercise refills
+        var generator = new SecureUIntGenerator(new SecureRandom(), 8);
+        int[] counts = new int[62];
+        for (int i = 0; i < ITERATIONS * 62; i++) {
+            int value = generator.getNextUInt(62);
+            assertTrue(value >= 0 && value < 62);
+            counts[value]++;
+        }
+
+        // chi-square with 61 degrees of freedom; 120 is far beyond the 99.99th percentile
+        double chiSquare = 0;
+        for (int count: counts)
+            chiSquare += (count - ITERATIONS) * (double) (count - ITERATIONS) / ITERATIONS;
+        assertTrue(chiSquare < 120, "chi-square too high: " + chiSquare);
+    }
+
+    @Test
+    public void largeBounds() {
+        int max = Integer.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            int value = GENERATOR.getNextUInt(max);
+            assertTrue(value >= 0 && value < max);
+        }
+    }
+
+    @Test
+    public void generatedPasswordsAreValid() {
+        PasswordMaker maker = PasswordMaker.factory()
+                .setLength(24)
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(UPPER_CASE, 1)
+                .addCharGroup(DIGITS, 1, 5)
+                .addCharGroup(SYMBOLS, 1, 3)
+                .setRandomUIntGenerator(GENERATOR)
+                .create();
+        PasswordChecker checker = PasswordChecker.factory()
+                .setMinMaxLength(24, 24)
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(UPPER_CASE, 1)
+                .addCharGroup(DIGITS, 1, 5)
+                .addCharGroup(SYMBOLS, 1, 3)
+                .create();
+        for (int i = 0; i < ITERATIONS; i++)
+            assertEquals(PasswordCheckStatus.OK, checker.check(maker.create()));
+    }
+
+}
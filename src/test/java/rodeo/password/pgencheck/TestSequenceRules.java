@@ -0,0 +1,207 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.CHAR_SEQUENCE_NULL;
+import static rodeo.password.pgencheck.ErrorMessages.CHAR_SEQUENCE_TOO_SHORT;
+import static rodeo.password.pgencheck.ErrorMessages.DUPLICATE_CHARS_FOUND_IN_SEQUENCE;
+import static rodeo.password.pgencheck.ErrorMessages.MAX_REPEATED_CHARS_NEG;
+import static rodeo.password.pgencheck.ErrorMessages.MAX_SEQUENCE_LENGTH_INVALID;
+import static rodeo.password.pgencheck.ErrorMessages.SEQUENCE_RULES_TOO_STRICT_FOR_GROUP;
+import static rodeo.password.pgencheck.ErrorMessages.SEQUENCE_RULES_WITH_TEMPLATE;
+import static rodeo.password.pgencheck.ErrorMessages.TOO_MANY_CHAR_SEQUENCES;
+
+public class TestSequenceRules {
+
+    private static final int ITERATIONS = 100_000;
+
+    private static final String QWERTY = "qwertyuiop";
+
+    private static SequenceRules.Run follow(SequenceRules rules, String text) {
+        var run = rules.newRun();
+        text.codePoints().forEach(run::push);
+        return run;
+    }
+
+    private static void assertMaxLengths(SequenceRules rules, String password, int maxRepeat, int maxSequence) {
+        var run = rules.newRun();
+        for (int codePoint: password.codePoints().toArray()) {
+            run.push(codePoint);
+            assertTrue(run.repeatLength() <= maxRepeat, password);
+            assertTrue(run.sequenceLength() <= maxSequence, password);
+        }
+    }
+
+    @Test
+    public void runLengths() {
+        var rules = new SequenceRules(3, 3, List.of(QWERTY));
+
+        var run = follow(rules, "xaaa");
+        assertEquals(3, run.repeatLength());
+        assertEquals(1, run.sequenceLength());
+
+        assertEquals(3, follow(rules, "xabc").sequenceLength());
+        assertEquals(4, follow(rules, "4321").sequenceLength());
+        assertEquals(3, follow(rules, "qwe").sequenceLength());
+        assertEquals(3, follow(rules, "ewq").sequenceLength());
+        assertEquals(2, follow(rules, "abab").sequenceLength());
+        assertEquals(1, follow(rules, "abcqwz").sequenceLength());
+
+        // 'tu' is ascending but 'ty' follows the keyboard: 'rtyu' is a keyboard sequence of length 4
+        assertEquals(4, follow(rules, "rtyu").sequenceLength());
+    }
+
+    @Test
+    public void forbiddenSuccessors() {
+        var rules = new SequenceRules(2, 3, List.of(QWERTY));
+        var forbidden = new int[rules.maxForbiddenCharacters()];
+        assertEquals(3, forbidden.length);
+
+        assertEquals(0, rules.newRun().forbiddenSuccessors(forbidden));
+        assertEquals(0, follow(rules, "a").forbiddenSuccessors(forbidden));
+
+        assertEquals(1, follow(rules, "aa").forbiddenSuccessors(forbidden));
+        assertEquals('a', forbidden[0]);
+
+        assertEquals(1, follow(rules, "abc").forbiddenSuccessors(forbidden));
+        assertEquals('d', forbidden[0]);
+
+        assertEquals(1, follow(rules, "qwe").forbiddenSuccessors(forbidden));
+        assertEquals('r', forbidden[0]);
+
+        assertEquals(0, follow(rules, "op").forbiddenSuccessors(forbidden));
+        assertEquals(0, follow(rules, "iop").forbiddenSuccessors(forbidden));
+    }
+
+    @Test
+    public void generatedPasswordsRespectRules() {
+        var maker = PasswordMaker.factory()
+                .setLength(32)
+                .addCharGroup(LOWER_CASE, 4)
+                .addCharGroup(UPPER_CASE, 2, 6)
+                .addCharGroup(DIGITS, 2, 4)
+                .setMaxRepeatedCharacters(1)
+                .setMaxSequenceLength(2)
+                .addCharacterSequence(QWERTY)
+                .addCharacterSequence("asdfghjkl")
+                .addCharacterSequence("1234567890")
+                .create();
+
+        assertEquals(1, maker.getMaxRepeatedCharacters());
+        assertEquals(2, maker.getMaxSequenceLength());
+        assertEquals(List.of(QWERTY, "asdfghjkl", "1234567890"), maker.getCharacterSequences());
+
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(32, 32)
+                .addCharGroup(LOWER_CASE, 4)
+                .addCharGroup(UPPER_CASE, 2, 6)
+                .addCharGroup(DIGITS, 2, 4)
+                .create();
+        var rules = maker.tables().sequenceRules();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            String password = maker.create();
+            assertEquals(PasswordCheckStatus.OK, checker.check(password), password);
+            assertMaxLengths(rules, password, 1, 2);
+        }
+    }
+
+    @Test
+    public void smallGroupsRespectRules() {
+        // only 'a', 'b' and 'c': after "ab", both 'b' (repeat) and 'c' (sequence) are forbidden
+        var maker = PasswordMaker.factory()
+                .setLength(64)
+                .addCharGroup("abc")
+                .setMaxRepeatedCharacters(1)
+                .setMaxSequenceLength(2)
+                .create();
+        var rules = maker.tables().sequenceRules();
+
+        for (int i = 0; i < ITERATIONS / 10; i++)
+            assertMaxLengths(rules, maker.create(), 1, 2);
+    }
+
+    @Test
+    public void distributionStaysUniform() {
+        // 'a' can never be repeated, so each character following an 'a' is 'b' or 'c' with equal probability
+        var maker = PasswordMaker.factory()
+                .setLength(2)
+                .addCharGroup("abcd")
+                .setMaxRepeatedCharacters(1)
+                .create();
+
+        var counts = new HashMap<String, Integer>();
+        for (int i = 0; i < ITERATIONS; i++)
+            counts.merge(maker.create(), 1, Integer::sum);
+
+        assertEquals(12, counts.size());
+        double expected = ITERATIONS / 12.0;
+        for (int count: counts.values())
+            assertTrue(Math.abs(count - expected) < expected * 0.1, counts.toString());
+    }
+
+    @Test
+    public void reproducibleWithSeed() {
+        var maker = PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(DIGITS, 1)
+                .setMaxRepeatedCharacters(2)
+                .setMaxSequenceLength(3)
+                .create();
+
+        assertEquals(maker.create(ReproducibleUIntGenerator.forPassword(42, 7)),
+                maker.create(ReproducibleUIntGenerator.forPassword(42, 7)));
+    }
+
+    @Test
+    public void badParameters() {
+        var iae = assertThrows(IllegalArgumentException.class,
+                () -> PasswordMaker.factory().setMaxRepeatedCharacters(-1));
+        assertEquals(MAX_REPEATED_CHARS_NEG + -1, iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> PasswordMaker.factory().setMaxSequenceLength(1));
+        assertEquals(MAX_SEQUENCE_LENGTH_INVALID + 1, iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> PasswordMaker.factory().setMaxSequenceLength(-2));
+        assertEquals(MAX_SEQUENCE_LENGTH_INVALID + -2, iae.getMessage());
+
+        var npe = assertThrows(NullPointerException.class, () -> PasswordMaker.factory().addCharacterSequence(null));
+        assertEquals(CHAR_SEQUENCE_NULL, npe.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> PasswordMaker.factory().addCharacterSequence("q"));
+        assertEquals(CHAR_SEQUENCE_TOO_SHORT + "q", iae.getMessage());
+        iae = assertThrows(IllegalArgumentException.class, () -> PasswordMaker.factory().addCharacterSequence("qwq"));
+        assertTrue(iae.getMessage().startsWith(DUPLICATE_CHARS_FOUND_IN_SEQUENCE));
+
+        var factory = PasswordMaker.factory();
+        for (int i = 0; i < SequenceRules.MAX_CHARACTER_SEQUENCES; i++)
+            factory.addCharacterSequence("xy");
+        iae = assertThrows(IllegalArgumentException.class, () -> factory.addCharacterSequence("xy"));
+        assertEquals(TOO_MANY_CHAR_SEQUENCES + SequenceRules.MAX_CHARACTER_SEQUENCES, iae.getMessage());
+
+        var ise = assertThrows(IllegalStateException.class, () -> PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE)
+                .addCharGroup("01")
+                .setMaxRepeatedCharacters(1)
+                .setMaxSequenceLength(2)
+                .create());
+        assertEquals(SEQUENCE_RULES_TOO_STRICT_FOR_GROUP + 1, ise.getMessage());
+
+        ise = assertThrows(IllegalStateException.class, () -> PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE)
+                .setTemplate("0000")
+                .addTemplateSymbol('0', 0)
+                .setMaxRepeatedCharacters(2)
+                .create());
+        assertEquals(SEQUENCE_RULES_WITH_TEMPLATE, ise.getMessage());
+    }
+
+}
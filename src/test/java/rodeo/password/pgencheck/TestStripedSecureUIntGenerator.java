@@ -0,0 +1,126 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.RESEED_INTERVAL_NOT_POSITIVE;
+import static rodeo.password.pgencheck.ErrorMessages.STRIPE_COUNT_NOT_POSITIVE;
+
+public class TestStripedSecureUIntGenerator {
+
+    private static final int THREADS = 8;
+    private static final int PASSWORDS_PER_THREAD = 20_000;
+
+    @Test
+    public void testConfig() {
+        try (var generator = new StripedSecureUIntGenerator(1)) {
+            assertEquals(1, generator.getStripeCount());
+        }
+        try (var generator = new StripedSecureUIntGenerator(5)) {
+            assertEquals(8, generator.getStripeCount());
+        }
+        try (var generator = new StripedSecureUIntGenerator(8)) {
+            assertEquals(8, generator.getStripeCount());
+        }
+    }
+
+    @Test
+    public void badParameters() {
+        var exception = assertThrows(IllegalArgumentException.class, () -> new StripedSecureUIntGenerator(0));
+        assertEquals(STRIPE_COUNT_NOT_POSITIVE + 0, exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> new StripedSecureUIntGenerator(2, Duration.ZERO));
+        assertEquals(RESEED_INTERVAL_NOT_POSITIVE + Duration.ZERO, exception.getMessage());
+        assertThrows(NullPointerException.class, () -> new StripedSecureUIntGenerator(2, null, () -> null));
+        try (var generator = new StripedSecureUIntGenerator(2)) {
+            exception = assertThrows(IllegalArgumentException.class, () -> generator.getNextUInt(1));
+            assertEquals("max must be >= 2", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void concurrentGeneration() throws Exception {
+        PasswordChecker checker = PasswordChecker.factory()
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(UPPER_CASE, 1)
+                .addCharGroup(DIGITS, 1)
+                .create();
+
+        try (var generator = new StripedSecureUIntGenerator(THREADS)) {
+            PasswordMaker maker = PasswordMaker.factory()
+                    .addCharGroup(LOWER_CASE, 1)
+                    .addCharGroup(UPPER_CASE, 1)
+                    .addCharGroup(DIGITS, 1)
+                    .setRandomUIntGenerator(generator)
+                    .create();
+
+            var executor = Executors.newFixedThreadPool(THREADS);
+            var tasks = new ArrayList<Callable<Integer>>();
+            for (int i = 0; i < THREADS; i++)
+                tasks.add(() -> {
+                    int valid = 0;
+                    for (int j = 0; j < PASSWORDS_PER_THREAD; j++)
+                        if (checker.check(maker.create()) == PasswordCheckStatus.OK)
+                            ++valid;
+                    return valid;
+                });
+
+            for (var result: executor.invokeAll(tasks))
+                assertEquals(PASSWORDS_PER_THREAD, result.get());
+            executor.shutdown();
+
+            assertTrue(generator.getDrawCount() >= (long) THREADS * PASSWORDS_PER_THREAD);
+            assertTrue(generator.getContentionCount() >= 0);
+        }
+    }
+
+    @Test
+    public void explicitReseed() throws NoSuchAlgorithmException {
+        // SHA1PRNG does not support SecureRandom.reseed(): its seed is supplemented instead
+        var sha1 = SecureRandom.getInstance("SHA1PRNG");
+        try (var generator = new StripedSecureUIntGenerator(2, null, () -> sha1)) {
+            generator.getNextUInt(10);
+            generator.reseed();
+            assertEquals(2, generator.getReseedCount());
+            assertEquals(0, generator.getReseedFailureCount());
+            int value = generator.getNextUInt(10);
+            assertTrue(value >= 0 && value < 10);
+        }
+
+        try (var generator = new StripedSecureUIntGenerator(4)) {
+            generator.reseed();
+            assertEquals(4, generator.getReseedCount());
+        }
+    }
+
+    @Test
+    public void backgroundReseed() throws InterruptedException {
+        try (var generator = new StripedSecureUIntGenerator(2, Duration.ofMillis(5))) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (generator.getReseedCount() == 0 && System.nanoTime() < deadline)
+                Thread.sleep(5);
+            assertTrue(generator.getReseedCount() > 0);
+
+            for (int i = 0; i < 10_000; i++) {
+                int value = generator.getNextUInt(62);
+                assertTrue(value >= 0 && value < 62);
+            }
+        }
+    }
+
+}
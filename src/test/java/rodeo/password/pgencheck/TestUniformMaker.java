@@ -0,0 +1,248 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.SYMBOLS;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.UNIFORM_SEQUENCE_RULES_TOO_STRICT;
+import static rodeo.password.pgencheck.ErrorMessages.UNIFORM_WITH_SHARED_CHARACTERS;
+
+public class TestUniformMaker {
+
+    private static final int DRAWS_PER_PASSWORD = 400;
+
+    // every password of the given length over the alphabet that the checker accepts
+    private static List<String> validPasswords(String alphabet, int length, PasswordChecker checker) {
+        var passwords = new ArrayList<String>();
+        var indices = new int[length];
+        var password = new char[length];
+        while (true) {
+            for (int i = 0; i < length; i++)
+                password[i] = alphabet.charAt(indices[i]);
+            if (checker.check(new String(password)) == PasswordCheckStatus.OK)
+                passwords.add(new String(password));
+
+            int position = length - 1;
+            while (position >= 0 && ++indices[position] == alphabet.length())
+                indices[position--] = 0;
+            if (position < 0)
+                return passwords;
+        }
+    }
+
+    private static double chiSquare(PasswordMaker maker, List<String> validPasswords) {
+        var counts = new HashMap<String, Integer>();
+        for (String password: validPasswords)
+            counts.put(password, 0);
+
+        int draws = DRAWS_PER_PASSWORD * validPasswords.size();
+        for (int i = 0; i < draws; i++) {
+            String password = maker.create();
+            assertTrue(counts.containsKey(password), password);
+            counts.merge(password, 1, Integer::sum);
+        }
+
+        double chiSquare = 0;
+        for (int count: counts.values())
+            chiSquare += (count - DRAWS_PER_PASSWORD) * (double) (count - DRAWS_PER_PASSWORD) / DRAWS_PER_PASSWORD;
+        return chiSquare;
+    }
+
+    // far beyond the 99.99th percentile of a chi-square distribution with that many degrees of freedom
+    private static double chiSquareLimit(int degreesOfFreedom) {
+        return degreesOfFreedom + 6 * Math.sqrt(2.0 * degreesOfFreedom);
+    }
+
+    @Test
+    public void countsMatchEnumeration() {
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(4, 4)
+                .addCharGroup("ab", 1)
+                .addCharGroup("012", 0, 1)
+                .addCharGroup("X")
+                .create();
+        var compositions = new UniformCompositions(4, new int[] { 2, 3, 1 }, new int[] { 1, 0, 0 },
+                new int[] { 0, 1, 0 });
+        assertEquals(BigInteger.valueOf(validPasswords("ab012X", 4, checker).size()), compositions.count());
+
+        checker = PasswordChecker.factory()
+                .setMinMaxLength(5, 5)
+                .addCharGroup("abc", 2, 3)
+                .addCharGroup("01", 1)
+                .create();
+        compositions = new UniformCompositions(5, new int[] { 3, 2 }, new int[] { 2, 1 }, new int[] { 3, 0 });
+        assertEquals(BigInteger.valueOf(validPasswords("abc01", 5, checker).size()), compositions.count());
+    }
+
+    @Test
+    public void passwordsAreUniform() {
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(3, 3)
+                .addCharGroup("ab", 1)
+                .addCharGroup("0123")
+                .create();
+        var valid = validPasswords("ab0123", 3, checker);
+        assertEquals(6 * 6 * 6 - 4 * 4 * 4, valid.size());
+
+        var uniform = PasswordMaker.factory()
+                .setLength(3)
+                .addCharGroup("ab", 1)
+                .addCharGroup("0123")
+                .setUniform(true)
+                .setRandomUIntGenerator(new ReproducibleUIntGenerator(1))
+                .create();
+        double chiSquare = chiSquare(uniform, valid);
+        assertTrue(chiSquare < chiSquareLimit(valid.size() - 1), "chi-square too high: " + chiSquare);
+
+        // by default, passwords with more letters than required are favored
+        var skewed = PasswordMaker.factory()
+                .setLength(3)
+                .addCharGroup("ab", 1)
+                .addCharGroup("0123")
+                .setRandomUIntGenerator(new ReproducibleUIntGenerator(1))
+                .create();
+        chiSquare = chiSquare(skewed, valid);
+        assertTrue(chiSquare > chiSquareLimit(valid.size() - 1), "chi-square too low: " + chiSquare);
+    }
+
+    @Test
+    public void passwordsAreUniformWithSequenceRules() {
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(3, 3)
+                .addCharGroup("abcd", 1)
+                .addCharGroup("1234", 0, 2)
+                .setMaxRepeatedCharacters(1)
+                .setMaxSequenceLength(2)
+                .create();
+        var valid = validPasswords("abcd1234", 3, checker);
+        assertTrue(valid.size() < 8 * 8 * 8 - 4 * 4 * 4);
+
+        var maker = PasswordMaker.factory()
+                .setLength(3)
+                .addCharGroup("abcd", 1)
+                .addCharGroup("1234", 0, 2)
+                .setMaxRepeatedCharacters(1)
+                .setMaxSequenceLength(2)
+                .setUniform(true)
+                .setRandomUIntGenerator(new ReproducibleUIntGenerator(2))
+                .create();
+        double chiSquare = chiSquare(maker, valid);
+        assertTrue(chiSquare < chiSquareLimit(valid.size() - 1), "chi-square too high: " + chiSquare);
+    }
+
+    @Test
+    public void rulesRejectingMostPasswords() {
+        // only abab... and baba... are valid: redrawing whole passwords would never end
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            var e = assertThrows(IllegalStateException.class, () -> PasswordMaker.factory()
+                    .addCharGroup("ab")
+                    .setLength(64)
+                    .setMaxRepeatedCharacters(1)
+                    .setUniform(true)
+                    .create());
+            assertEquals(UNIFORM_SEQUENCE_RULES_TOO_STRICT, e.getMessage());
+
+            e = assertThrows(IllegalStateException.class, () -> PasswordPolicy.factory()
+                    .setMinMaxLength(40, 40)
+                    .setLength(40)
+                    .addCharGroup(DIGITS)
+                    .setMaxRepeatedCharacters(1)
+                    .setMaxSequenceLength(2)
+                    .setUniform(true)
+                    .create());
+            assertEquals(UNIFORM_SEQUENCE_RULES_TOO_STRICT, e.getMessage());
+        });
+
+        // the same rules are fine by default
+        String password = PasswordMaker.factory()
+                .addCharGroup("ab")
+                .setLength(64)
+                .setMaxRepeatedCharacters(1)
+                .create()
+                .create();
+        assertTrue(password.equals("ab".repeat(32)) || password.equals("ba".repeat(32)), password);
+    }
+
+    @Test
+    public void longPasswords() {
+        var maker = PasswordMaker.factory()
+                .setLength(128)
+                .addCharGroup(LOWER_CASE, 10)
+                .addCharGroup(UPPER_CASE, 10, 40)
+                .addCharGroup(DIGITS, 5, 20)
+                .addCharGroup(SYMBOLS, 1, 5)
+                .setMaxRepeatedCharacters(3)
+                .setUniform(true)
+                .create();
+        var checker = PasswordChecker.factory()
+                .setMinMaxLength(128, 128)
+                .addCharGroup(LOWER_CASE, 10)
+                .addCharGroup(UPPER_CASE, 10, 40)
+                .addCharGroup(DIGITS, 5, 20)
+                .addCharGroup(SYMBOLS, 1, 5)
+                .setMaxRepeatedCharacters(3)
+                .create();
+
+        for (int i = 0; i < 1000; i++) {
+            String password = maker.create();
+            assertEquals(PasswordCheckStatus.OK, checker.check(password), password);
+        }
+    }
+
+    @Test
+    public void reproducible() {
+        var maker = PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE, 1)
+                .addCharGroup(UPPER_CASE, 1)
+                .addCharGroup(DIGITS, 2, 4)
+                .setUniform(true)
+                .create();
+        for (int i = 0; i < 100; i++)
+            assertEquals(maker.create(ReproducibleUIntGenerator.forPassword(99, i)),
+                    maker.create(ReproducibleUIntGenerator.forPassword(99, i)));
+    }
+
+    @Test
+    public void uniformFlag() {
+        assertFalse(PasswordMaker.factory().addCharGroup(LOWER_CASE).create().isUniform());
+        assertTrue(PasswordMaker.factory().addCharGroup(LOWER_CASE).setUniform(true).create().isUniform());
+        assertTrue(PasswordMaker.factory()
+                .addCharGroup(LOWER_CASE)
+                .addTemplateSymbol('l', 0)
+                .setTemplate("llll")
+                .create()
+                .isUniform());
+        assertTrue(PasswordPolicy.factory().addCharGroup(LOWER_CASE).setUniform(true).create().getMaker().isUniform());
+    }
+
+    @Test
+    public void sharedCharacters() {
+        Map<String, String> groups = Map.of("abc", "cde", "aab", "xyz");
+        groups.forEach((first, second) -> {
+            var factory = PasswordMaker.factory()
+                    .disallowDuplicateCharacters(false)
+                    .addCharGroup(first)
+                    .addCharGroup(second)
+                    .setUniform(true);
+            var e = assertThrows(IllegalStateException.class, factory::create);
+            assertEquals(UNIFORM_WITH_SHARED_CHARACTERS, e.getMessage());
+        });
+    }
+
+}
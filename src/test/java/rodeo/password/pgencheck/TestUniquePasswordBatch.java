@@ -0,0 +1,88 @@
+package rodeo.password.pgencheck;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static rodeo.password.pgencheck.CharacterGroups.DIGITS;
+import static rodeo.password.pgencheck.CharacterGroups.LOWER_CASE;
+import static rodeo.password.pgencheck.CharacterGroups.UPPER_CASE;
+
+import static rodeo.password.pgencheck.ErrorMessages.AT_LEAST_ONE_PASSWORD;
+import static rodeo.password.pgencheck.ErrorMessages.UNIQUE_BATCH_EXHAUSTED;
+import static rodeo.password.pgencheck.ErrorMessages.UNIQUE_BATCH_FULL;
+
+public class TestUniquePasswordBatch {
+
+    private static final PasswordMaker THREE_DIGITS_MAKER = PasswordMaker
+            .factory()
+            .setLength(3)
+            .addCharGroup(DIGITS)
+            .create();
+
+    private static final PasswordMaker BASIC_MAKER = PasswordMaker
+            .factory()
+            .addCharGroup(LOWER_CASE, 1)
+            .addCharGroup(UPPER_CASE, 1)
+            .addCharGroup(DIGITS, 1)
+            .create();
+
+    @Test
+    public void exhaustSmallPolicy() {
+        var batch = THREE_DIGITS_MAKER.uniqueBatch(1000);
+        assertTrue(batch.hasExactFingerprints());
+        assertEquals(1000, batch.getCapacity());
+
+        var passwords = new HashSet<String>();
+        for (int i = 0; i < 1000; i++)
+            assertTrue(passwords.add(batch.next()));
+
+        assertEquals(1000, batch.size());
+        assertTrue(batch.getDuplicateCount() > 0);
+
+        var exception = assertThrows(IllegalStateException.class, batch::next);
+        assertEquals(UNIQUE_BATCH_FULL + 1000, exception.getMessage());
+    }
+
+    @Test
+    public void policyTooSmallForCapacity() {
+        var batch = THREE_DIGITS_MAKER.uniqueBatch(1001);
+        for (int i = 0; i < 1000; i++)
+            batch.next();
+
+        var exception = assertThrows(IllegalStateException.class, batch::next);
+        assertEquals(UNIQUE_BATCH_EXHAUSTED + 1000, exception.getMessage());
+    }
+
+    @Test
+    public void hashedFingerprints() {
+        var batch = BASIC_MAKER.uniqueBatch(100_000);
+        assertFalse(batch.hasExactFingerprints());
+
+        var passwords = new HashSet<String>();
+        for (int i = 0; i < 100_000; i++)
+            assertTrue(passwords.add(batch.next()));
+
+        assertEquals(100_000, batch.size());
+    }
+
+    @Test
+    public void exactFingerprintsAreInjective() {
+        var batch = THREE_DIGITS_MAKER.uniqueBatch(10);
+        assertEquals(0, batch.fingerprint("000"));
+        assertEquals(7, batch.fingerprint("007"));
+        assertEquals(999, batch.fingerprint("999"));
+    }
+
+    @Test
+    public void badCapacity() {
+        var exception = assertThrows(IllegalArgumentException.class, () -> BASIC_MAKER.uniqueBatch(0));
+        assertEquals(AT_LEAST_ONE_PASSWORD + 0, exception.getMessage());
+    }
+
+}